@@ -0,0 +1,63 @@
+#!/bin/bash
+#
+# Compara tiempo hasta la primera respuesta y memoria residente (RSS) de la aplicación en la JVM,
+# en la JVM con AOT + AppCDS (mvn -Parranque-rapido package) y como imagen nativa (mvn -Pnative native:compile).
+#
+#  scripts/comparar-arranque.sh [puerto]
+#
+# Cada variante se arranca, se espera a que /rest/familias responda, se hace una petición a cada
+# endpoint del smoke test y se anota el RSS después de atenderlas.
+#
+
+PUERTO=${1:-8080}
+URL=http://localhost:$PUERTO
+JAR=target/polloschicharron-0.0.1-SNAPSHOT.jar
+JAR_CDS=target/cds/polloschicharron-0.0.1-SNAPSHOT.jar
+NATIVO=target/polloschicharron
+ARGS="--server.port=$PUERTO --polloschicharron.journal.directorio=${TMPDIR:-/tmp}/polloschicharron/journal-comparativa"
+
+medir() {
+
+	local nombre=$1
+	shift
+	
+	local inicio=$(date +%s%N)
+	"$@" $ARGS > target/comparar-arranque-$nombre.log 2>&1 &
+	local pid=$!
+	
+	until curl -s -o /dev/null $URL/rest/familias; do
+		if ! kill -0 $pid 2>/dev/null; then
+			echo "$nombre: no arranca (ver target/comparar-arranque-$nombre.log)"
+			return
+		fi
+		sleep 0.01
+	done
+	
+	local arranque=$(( ($(date +%s%N) - inicio) / 1000000 ))
+	
+	local errores=0
+	for recurso in /rest/productos/100 /rest/productos/dtos/productoDTO3 /rest/pedidos/dtos/pedidoDTO1 /rest/pedidos/1000; do
+		[ "$(curl -s -o /dev/null -w '%{http_code}' $URL$recurso)" = "200" ] || errores=$((errores + 1))
+	done
+	
+	local rss=$(awk '/VmRSS/ {print int($2 / 1024)}' /proc/$pid/status)
+	
+	kill $pid
+	wait $pid 2>/dev/null
+	
+	printf "%-14s primera respuesta: %6d ms   RSS: %5d MB   errores smoke: %d\n" $nombre $arranque $rss $errores
+}
+
+if [ -f $JAR ]; then
+	medir jvm java -jar $JAR
+fi
+
+if [ -f $JAR_CDS ]; then
+	medir jvm-aot-cds java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=arranque-rapido -jar $JAR_CDS
+fi
+
+if [ -x $NATIVO ]; then
+	medir nativo $NATIVO --spring.profiles.active=arranque-rapido,nativo
+else
+	echo "nativo: no existe $NATIVO (mvn -Pnative native:compile, necesita GraalVM)"
+fi
@@ -0,0 +1,186 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.business.events.EstadoPedidoCambiadoEvent;
+import com.sinensia.polloschicharron.business.events.LineasPedidoCambiadasEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCerradoEvent;
+import com.sinensia.polloschicharron.business.model.ConsultaVentas;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.dtos.VentaAgregadaDTO;
+import com.sinensia.polloschicharron.integration.repositories.VentasPLRepository;
+
+/**
+ * Almacén en memoria, por columnas, de las líneas de los pedidos servidos para los informes de ventas.
+ * 
+ * Se carga entero la primera vez que se consulta (pedidos archivados incluidos) y después se le
+ * añaden las líneas de cada pedido que pasa a SERVIDO cuando se confirma la transacción. Un pedido
+ * ya cargado no se vuelve a añadir.
+ * 
+ * Las columnas sólo admiten añadir: si un pedido ya cargado deja de estar servido (p.ej. se cancela)
+ * o cambian sus líneas, el almacén se descarta y se vuelve a cargar en la siguiente consulta.
+ * 
+ * Al modificarse el catálogo (o restaurarse una copia de seguridad) se descarta y se vuelve a cargar
+ * en la siguiente consulta, de modo que los nombres de familias y productos y los datos restaurados
+ * quedan al día.
+ * 
+ */
+@Component
+public class AlmacenVentas {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AlmacenVentas.class);
+	
+	private final VentasPLRepository ventasPLRepository;
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	
+	private ColumnasVentas columnas;
+	
+	public AlmacenVentas(VentasPLRepository ventasPLRepository) {
+		this.ventasPLRepository = ventasPLRepository;
+	}
+	
+	public List<VentaAgregadaDTO> agregar(ConsultaVentas consulta) {
+		return leer(x -> x.agregar(consulta));
+	}
+	
+	/**
+	 * Número de líneas cargadas (0 si aún no se ha cargado)
+	 * 
+	 */
+	public int size() {
+		
+		lock.readLock().lock();
+		
+		try {
+			return columnas == null ? 0 : columnas.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPedidoCerrado(PedidoCerradoEvent event) {
+		
+		lock.writeLock().lock();
+		
+		try {
+			
+			// Sin cargar todavía: la carga inicial ya leerá el pedido
+			
+			if(columnas == null || columnas.contienePedido(event.getIdPedido())) {
+				return;
+			}
+			
+			ventasPLRepository.forEachLineaVenta(event.getIdPedido(), columnas::anadir);
+			
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEstadoPedidoCambiado(EstadoPedidoCambiadoEvent event) {
+		
+		if(event.getAnterior() == EstadoPedido.SERVIDO && event.getNuevo() != EstadoPedido.SERVIDO) {
+			descartarSiContiene(event.getIdPedido());
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onLineasPedidoCambiadas(LineasPedidoCambiadasEvent event) {
+		descartarSiContiene(event.getIdPedido());
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCatalogoModificado(CatalogoModificadoEvent event) {
+		
+		lock.writeLock().lock();
+		
+		try {
+			columnas = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void descartarSiContiene(Long idPedido) {
+		
+		lock.writeLock().lock();
+		
+		try {
+			if(columnas != null && columnas.contienePedido(idPedido)) {
+				columnas = null;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Las consultas se hacen con el bloqueo de lectura (en paralelo entre ellas). Sólo la primera,
+	 * si aún no hay columnas, toma el de escritura para cargarlas.
+	 * 
+	 */
+	private <T> T leer(Function<ColumnasVentas, T> lectura) {
+		
+		lock.readLock().lock();
+		
+		try {
+			if(columnas != null) {
+				return lectura.apply(columnas);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		
+		ColumnasVentas cargadas = cargar();
+		
+		lock.readLock().lock();
+		
+		try {
+			return lectura.apply(cargadas);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	private ColumnasVentas cargar() {
+		
+		lock.writeLock().lock();
+		
+		try {
+			
+			if(columnas == null) {
+				
+				long inicio = System.currentTimeMillis();
+				
+				ColumnasVentas nuevas = new ColumnasVentas();
+				ventasPLRepository.forEachLineaVenta(nuevas::anadir);
+				columnas = nuevas;
+				
+				LOGGER.info("Cargadas {} líneas de venta en {} ms", nuevas.size(), System.currentTimeMillis() - inicio);
+			}
+			
+			return columnas;
+			
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+}
@@ -0,0 +1,335 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCreadoEvent;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.integration.model.ClientePedidoPL;
+import com.sinensia.polloschicharron.integration.model.ResumenClientesPL;
+import com.sinensia.polloschicharron.integration.repositories.ClientesDistintosPLRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Clientes distintos por establecimiento y día con un HyperLogLog por cada par (NIF, día).
+ * 
+ * Los estimadores se guardan serializados en CLIENTES_DISTINTOS. Al arrancar la aplicación se leen
+ * de ahí o, si la tabla está vacía, se construyen recorriendo una sola vez los pedidos (archivados
+ * incluidos). Después se les añade el cliente de cada pedido creado y los modificados se guardan
+ * con polloschicharron.clientes-distintos.cron y al parar la aplicación.
+ * 
+ * Los pedidos creados antes de terminar la carga se suman a lo leído (mientras tanto no se guarda
+ * nada). Como añadir dos veces un cliente no cambia el estimador, no importa que uno de esos pedidos
+ * se cuente también al recorrer los pedidos.
+ * 
+ * Al restaurar una copia de seguridad se descartan los estimadores en memoria, con sus cambios sin
+ * guardar, y se vuelven a leer de la base de datos restaurada.
+ * 
+ * Después de corregir datos de pedidos los estimadores de un periodo se pueden recalcular por tramos
+ * (ver recalculo). Los clientes de los pedidos creados mientras tanto se vuelven a añadir al aplicarlo.
+ * 
+ */
+@Component
+public class ClientesDistintos {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ClientesDistintos.class);
+	
+	/**
+	 * 4096 registros: error estándar del 1,6% y como mucho 4098 bytes por estimador serializado
+	 * 
+	 */
+	static final int PRECISION = 12;
+	
+	private final ClientesDistintosPLRepository clientesDistintosPLRepository;
+	
+	private final ConcurrentMap<Ventana, HyperLogLog> estimadores = new ConcurrentHashMap<>();
+	private final Set<Ventana> pendientes = ConcurrentHashMap.newKeySet();
+	
+	private volatile boolean cargado;
+	private volatile RecalculoClientes recalculoEnCurso;
+	
+	public ClientesDistintos(ClientesDistintosPLRepository clientesDistintosPLRepository) {
+		this.clientesDistintosPLRepository = clientesDistintosPLRepository;
+	}
+	
+	/**
+	 * Clientes distintos con pedidos en [desde, hasta) en el establecimiento (o en todos si nifEstablecimiento es null)
+	 * 
+	 */
+	public long estimar(String nifEstablecimiento, LocalDate desde, LocalDate hasta) {
+		
+		cargar();
+		
+		HyperLogLog union = new HyperLogLog(PRECISION);
+		
+		estimadores.forEach((ventana, estimador) -> {
+			if((nifEstablecimiento == null || ventana.nifEstablecimiento().equals(nifEstablecimiento)) 
+					&& !ventana.dia().isBefore(desde) && ventana.dia().isBefore(hasta)) {
+				union.merge(estimador);
+			}
+		});
+		
+		return union.estimar();
+	}
+	
+	public double getErrorEstandar() {
+		return new HyperLogLog(PRECISION).getErrorEstandar();
+	}
+	
+	/**
+	 * Recálculo de los estimadores de los días en [desde, hasta) (null: sin límite) a partir de los pedidos.
+	 * Al aplicarlo reemplaza los de esos días, en memoria y en CLIENTES_DISTINTOS.
+	 * 
+	 * Si ya hay otro recálculo en curso lanza IllegalStateException
+	 * 
+	 */
+	public synchronized Recalculo<?> recalculo(LocalDate desde, LocalDate hasta) {
+		
+		if(recalculoEnCurso != null) {
+			throw new IllegalStateException("Ya se están recalculando los clientes distintos.");
+		}
+		
+		recalculoEnCurso = new RecalculoClientes(desde, hasta);
+		
+		return recalculoEnCurso;
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		
+		// Si falla se vuelve a intentar en la primera consulta
+		
+		try {
+			cargar();
+		} catch(RuntimeException e) {
+			LOGGER.warn("No se han podido cargar los clientes distintos al arrancar", e);
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPedidoCreado(PedidoCreadoEvent event) {
+		
+		Pedido pedido = event.getPedido();
+		
+		if(pedido.getCliente() == null || pedido.getCliente().getId() == null || pedido.getEstablecimiento() == null || pedido.getFechaHora() == null) {
+			return;
+		}
+		
+		LocalDate dia = pedido.getFechaHora().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+		
+		// Antes de añadirlo: si el recálculo reemplaza el estimador después, lo encuentra en la cola
+		
+		RecalculoClientes recalculo = recalculoEnCurso;
+		
+		if(recalculo != null && recalculo.incluye(dia)) {
+			recalculo.anadidos.add(new ClientePedidoPL(pedido.getEstablecimiento().getNIF(), dia, pedido.getCliente().getId()));
+		}
+		
+		anadir(pedido.getEstablecimiento().getNIF(), dia, pedido.getCliente().getId());
+	}
+	
+	/**
+	 * Un recálculo en curso se descarta: sus tramos se han calculado con los pedidos de antes
+	 * 
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		
+		estimadores.clear();
+		pendientes.clear();
+		
+		cargado = false;
+		recalculoEnCurso = null;
+		
+		cargar();
+	}
+	
+	@Scheduled(cron = "${polloschicharron.clientes-distintos.cron:0 * * * * *}")
+	@PreDestroy
+	public synchronized void guardar() {
+		
+		// Sin cargar, los estimadores en memoria solo tienen los clientes de los pedidos nuevos
+		
+		if(!cargado || pendientes.isEmpty()) {
+			return;
+		}
+		
+		List<ResumenClientesPL> resumenes = new ArrayList<>();
+		
+		for(Ventana ventana: List.copyOf(pendientes)) {
+			
+			// Se quita antes de serializar: un cliente añadido mientras tanto la vuelve a marcar
+			
+			pendientes.remove(ventana);
+			
+			HyperLogLog estimador = estimadores.get(ventana);
+			
+			// Un recálculo aplicado mientras tanto puede haberlo quitado
+			
+			if(estimador != null) {
+				resumenes.add(new ResumenClientesPL(ventana.nifEstablecimiento(), ventana.dia(), estimador.toBytes()));
+			}
+		}
+		
+		clientesDistintosPLRepository.saveAll(resumenes);
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private synchronized void cargar() {
+		
+		if(cargado) {
+			return;
+		}
+		
+		if(clientesDistintosPLRepository.count() > 0) {
+			clientesDistintosPLRepository.forEach(x -> estimadores.merge(new Ventana(x.nifEstablecimiento(), x.dia()), HyperLogLog.fromBytes(x.registros()), (actual, leido) -> {
+				actual.merge(leido);
+				return actual;
+			}));
+			cargado = true;
+		} else {
+			long inicio = System.currentTimeMillis();
+			clientesDistintosPLRepository.forEachClientePedido(x -> anadir(x.nifEstablecimiento(), x.dia(), x.idCliente()));
+			cargado = true;
+			guardar();
+			LOGGER.info("Construidos {} estimadores de clientes distintos en {} ms", estimadores.size(), System.currentTimeMillis() - inicio);
+		}
+	}
+	
+	private void anadir(String nifEstablecimiento, LocalDate dia, long idCliente) {
+		
+		Ventana ventana = new Ventana(nifEstablecimiento, dia);
+		
+		estimadores.computeIfAbsent(ventana, x -> new HyperLogLog(PRECISION)).add(idCliente);
+		pendientes.add(ventana);
+	}
+	
+	private record Ventana(String nifEstablecimiento, LocalDate dia) {
+		
+	}
+	
+	private class RecalculoClientes implements Recalculo<Map<Ventana, HyperLogLog>> {
+		
+		private final LocalDate desde;
+		private final LocalDate hasta;
+		
+		private final Queue<ClientePedidoPL> anadidos = new ConcurrentLinkedQueue<>();
+		
+		private RecalculoClientes(LocalDate desde, LocalDate hasta) {
+			this.desde = desde;
+			this.hasta = hasta;
+		}
+		
+		@Override
+		public Map<Ventana, HyperLogLog> calcular(long desdeCodigo, long hastaCodigo, BooleanSupplier cancelado) {
+			
+			Map<Ventana, HyperLogLog> parcial = new HashMap<>();
+			
+			clientesDistintosPLRepository.forEachClientePedido(desdeCodigo, hastaCodigo, desde, hasta, x -> {
+				
+				if(cancelado.getAsBoolean()) {
+					throw new CancellationException();
+				}
+				
+				parcial.computeIfAbsent(new Ventana(x.nifEstablecimiento(), x.dia()), v -> new HyperLogLog(PRECISION)).add(x.idCliente());
+			});
+			
+			return parcial;
+		}
+		
+		@Override
+		public Map<Ventana, HyperLogLog> combinar(Map<Ventana, HyperLogLog> resultado1, Map<Ventana, HyperLogLog> resultado2) {
+			
+			Map<Ventana, HyperLogLog> mayor = resultado1.size() >= resultado2.size() ? resultado1 : resultado2;
+			Map<Ventana, HyperLogLog> menor = mayor == resultado1 ? resultado2 : resultado1;
+			
+			menor.forEach((ventana, estimador) -> mayor.merge(ventana, estimador, (x, y) -> {
+				x.merge(y);
+				return x;
+			}));
+			
+			return mayor;
+		}
+		
+		@Override
+		public void aplicar(Map<Ventana, HyperLogLog> resultado) {
+			
+			synchronized(ClientesDistintos.this) {
+				
+				// Descartado mientras se calculaba (restauración de una copia)
+				
+				if(recalculoEnCurso != this) {
+					LOGGER.warn("Se descarta el recálculo de clientes distintos: ya no está en curso");
+					return;
+				}
+				
+				cargar();
+				
+				estimadores.keySet().removeIf(x -> incluye(x.dia()));
+				estimadores.putAll(resultado);
+				
+				recalculoEnCurso = null;
+				
+				ClientePedidoPL anadido;
+				
+				while((anadido = anadidos.poll()) != null) {
+					anadir(anadido.nifEstablecimiento(), anadido.dia(), anadido.idCliente());
+				}
+				
+				// Los días del periodo se guardan todos aquí (los que ya no tienen clientes se borran)
+				
+				pendientes.removeIf(x -> incluye(x.dia()));
+				
+				List<ResumenClientesPL> resumenes = new ArrayList<>();
+				
+				estimadores.forEach((ventana, estimador) -> {
+					if(incluye(ventana.dia())) {
+						resumenes.add(new ResumenClientesPL(ventana.nifEstablecimiento(), ventana.dia(), estimador.toBytes()));
+					}
+				});
+				
+				clientesDistintosPLRepository.reemplazar(desde, hasta, resumenes);
+			}
+		}
+		
+		@Override
+		public void descartar() {
+			synchronized(ClientesDistintos.this) {
+				if(recalculoEnCurso == this) {
+					recalculoEnCurso = null;
+				}
+			}
+		}
+		
+		private boolean incluye(LocalDate dia) {
+			return (desde == null || !dia.isBefore(desde)) && (hasta == null || dia.isBefore(hasta));
+		}
+	}
+	
+}
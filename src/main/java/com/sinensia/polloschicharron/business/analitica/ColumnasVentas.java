@@ -0,0 +1,283 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import com.sinensia.polloschicharron.business.model.ConsultaVentas;
+import com.sinensia.polloschicharron.business.model.dtos.VentaAgregadaDTO;
+import com.sinensia.polloschicharron.integration.model.LineaVentaPL;
+
+/**
+ * Líneas vendidas en columnas de tipos primitivos: una posición por línea en cada array.
+ * 
+ *  columna          tipo   contenido
+ *  ---------------  -----  ------------------------------------------------------
+ *  establecimiento  int    código del NIF en su diccionario
+ *  familia          int    código de la familia en su diccionario (null también tiene código)
+ *  producto         int    código del producto en su diccionario
+ *  minuto           int    minutos desde 1970-01-01T00:00 de la hora local del pedido
+ *  cantidad         int    unidades
+ *  importe          long   precio x cantidad en céntimos
+ *
+ * Los minutos son de la hora local tal cual (sin zona): hora del día y día salen con divisiones.
+ * 
+ * Las consultas trabajan por columnas: cada filtro recorre una sola columna y compacta el vector
+ * de selección (las posiciones que cumplen los filtros anteriores), y el agrupado reúne primero la
+ * clave de cada posición seleccionada y después acumula en arrays indexados por clave.
+ * 
+ * No es thread-safe: AlmacenVentas se ocupa del bloqueo.
+ * 
+ */
+class ColumnasVentas {
+
+	private static final int CAPACIDAD_INICIAL = 1024;
+	
+	private static final int MINUTOS_HORA = 60;
+	private static final int MINUTOS_DIA = 24 * MINUTOS_HORA;
+	
+	private static final Comparator<VentaAgregadaDTO> POR_IMPORTE = Comparator.comparingDouble(VentaAgregadaDTO::importe).reversed();
+	
+	private final Diccionario<String> establecimientos = new Diccionario<>();
+	private final Diccionario<Long> familias = new Diccionario<>();
+	private final Diccionario<Long> productos = new Diccionario<>();
+	
+	private final Set<Long> pedidos = new HashSet<>();
+	
+	private int[] establecimiento = new int[CAPACIDAD_INICIAL];
+	private int[] familia = new int[CAPACIDAD_INICIAL];
+	private int[] producto = new int[CAPACIDAD_INICIAL];
+	private int[] minuto = new int[CAPACIDAD_INICIAL];
+	private int[] cantidad = new int[CAPACIDAD_INICIAL];
+	private long[] importe = new long[CAPACIDAD_INICIAL];
+	
+	private int numero;
+	
+	void anadir(LineaVentaPL linea) {
+		
+		if(numero == importe.length) {
+			crecer();
+		}
+		
+		establecimiento[numero] = establecimientos.codificar(linea.nifEstablecimiento(), linea.nifEstablecimiento());
+		familia[numero] = familias.codificar(linea.idFamilia(), linea.familia() == null ? "Sin familia" : linea.familia());
+		producto[numero] = productos.codificar(linea.idProducto(), linea.producto());
+		minuto[numero] = (int) (linea.fechaHora().toEpochSecond(ZoneOffset.UTC) / 60);
+		cantidad[numero] = linea.cantidad();
+		importe[numero] = Math.round(linea.precio() * 100) * linea.cantidad();
+		
+		pedidos.add(linea.idPedido());
+		
+		numero++;
+	}
+	
+	boolean contienePedido(long idPedido) {
+		return pedidos.contains(idPedido);
+	}
+	
+	int size() {
+		return numero;
+	}
+	
+	List<VentaAgregadaDTO> agregar(ConsultaVentas consulta) {
+		
+		int[] seleccion = new int[numero];
+		int n = seleccionar(consulta, seleccion);
+		
+		if(n == 0) {
+			return List.of();
+		}
+		
+		int[] claves = new int[n];
+		
+		return switch(consulta.agrupar()) {
+			case FAMILIA -> ordenarPorImporte(agrupar(recoger(familia, seleccion, n, claves), familias.size(), seleccion, n, familias::getEtiqueta));
+			case PRODUCTO -> ordenarPorImporte(agrupar(recoger(producto, seleccion, n, claves), productos.size(), seleccion, n, productos::getEtiqueta));
+			case ESTABLECIMIENTO -> ordenarPorImporte(agrupar(recoger(establecimiento, seleccion, n, claves), establecimientos.size(), seleccion, n, establecimientos::getEtiqueta));
+			case HORA -> agrupar(horas(seleccion, n, claves), 24, seleccion, n, x -> String.format("%02d", x));
+			case DIA -> {
+				int primerDia = dias(seleccion, n, claves);
+				int ultimoDia = primerDia + max(claves, n);
+				yield agrupar(claves, ultimoDia - primerDia + 1, seleccion, n, x -> LocalDate.ofEpochDay(primerDia + x).toString());
+			}
+		};
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	/**
+	 * Deja en seleccion las posiciones que cumplen los filtros y devuelve cuántas son
+	 * 
+	 */
+	private int seleccionar(ConsultaVentas consulta, int[] seleccion) {
+		
+		int n = numero;
+		
+		for(int i = 0; i < n; i++) {
+			seleccion[i] = i;
+		}
+		
+		if(consulta.desde() != null || consulta.hasta() != null) {
+			int desde = consulta.desde() == null ? Integer.MIN_VALUE : toMinuto(consulta.desde());
+			int hasta = consulta.hasta() == null ? Integer.MAX_VALUE : toMinuto(consulta.hasta());
+			n = filtrarRango(minuto, desde, hasta, seleccion, n);
+		}
+		
+		if(consulta.nifEstablecimiento() != null) {
+			n = filtrarIgual(establecimiento, establecimientos.getCodigo(consulta.nifEstablecimiento()), seleccion, n);
+		}
+		
+		if(consulta.idFamilia() != null) {
+			n = filtrarIgual(familia, familias.getCodigo(consulta.idFamilia()), seleccion, n);
+		}
+		
+		return n;
+	}
+	
+	/**
+	 * Compacta la selección a las posiciones con valor en [desde, hasta). Sin saltos: la posición
+	 * se escribe siempre y sólo avanza el índice de salida si cumple.
+	 * 
+	 */
+	private static int filtrarRango(int[] columna, int desde, int hasta, int[] seleccion, int n) {
+		
+		int salida = 0;
+		
+		for(int j = 0; j < n; j++) {
+			int i = seleccion[j];
+			int valor = columna[i];
+			seleccion[salida] = i;
+			salida += (valor >= desde & valor < hasta) ? 1 : 0;
+		}
+		
+		return salida;
+	}
+	
+	private static int filtrarIgual(int[] columna, int codigo, int[] seleccion, int n) {
+		
+		if(codigo < 0) {
+			return 0;
+		}
+		
+		int salida = 0;
+		
+		for(int j = 0; j < n; j++) {
+			int i = seleccion[j];
+			seleccion[salida] = i;
+			salida += columna[i] == codigo ? 1 : 0;
+		}
+		
+		return salida;
+	}
+	
+	private static int[] recoger(int[] columna, int[] seleccion, int n, int[] claves) {
+		
+		for(int j = 0; j < n; j++) {
+			claves[j] = columna[seleccion[j]];
+		}
+		
+		return claves;
+	}
+	
+	private int[] horas(int[] seleccion, int n, int[] claves) {
+		
+		for(int j = 0; j < n; j++) {
+			claves[j] = Math.floorMod(minuto[seleccion[j]], MINUTOS_DIA) / MINUTOS_HORA;
+		}
+		
+		return claves;
+	}
+	
+	/**
+	 * Deja en claves el día de cada posición relativo al primero y devuelve el primer día (epoch day)
+	 * 
+	 */
+	private int dias(int[] seleccion, int n, int[] claves) {
+		
+		int primerDia = Integer.MAX_VALUE;
+		
+		for(int j = 0; j < n; j++) {
+			claves[j] = Math.floorDiv(minuto[seleccion[j]], MINUTOS_DIA);
+			primerDia = Math.min(primerDia, claves[j]);
+		}
+		
+		for(int j = 0; j < n; j++) {
+			claves[j] -= primerDia;
+		}
+		
+		return primerDia;
+	}
+	
+	private static int max(int[] valores, int n) {
+		
+		int max = 0;
+		
+		for(int j = 0; j < n; j++) {
+			max = Math.max(max, valores[j]);
+		}
+		
+		return max;
+	}
+	
+	/**
+	 * Acumula importe, unidades y líneas por clave (0 <= clave < tamano). Devuelve los grupos con
+	 * alguna línea en orden de clave.
+	 * 
+	 */
+	private List<VentaAgregadaDTO> agrupar(int[] claves, int tamano, int[] seleccion, int n, IntFunction<String> etiquetas) {
+		
+		long[] importes = new long[tamano];
+		long[] unidades = new long[tamano];
+		long[] lineas = new long[tamano];
+		
+		for(int j = 0; j < n; j++) {
+			int i = seleccion[j];
+			int clave = claves[j];
+			importes[clave] += importe[i];
+			unidades[clave] += cantidad[i];
+			lineas[clave]++;
+		}
+		
+		List<VentaAgregadaDTO> resultado = new ArrayList<>();
+		
+		for(int clave = 0; clave < tamano; clave++) {
+			if(lineas[clave] > 0) {
+				resultado.add(new VentaAgregadaDTO(etiquetas.apply(clave), importes[clave] / 100.0, unidades[clave], lineas[clave]));
+			}
+		}
+		
+		return resultado;
+	}
+	
+	private static List<VentaAgregadaDTO> ordenarPorImporte(List<VentaAgregadaDTO> grupos) {
+		grupos.sort(POR_IMPORTE);
+		return grupos;
+	}
+	
+	private static int toMinuto(LocalDate fecha) {
+		return (int) (fecha.atStartOfDay().toEpochSecond(ZoneOffset.UTC) / 60);
+	}
+	
+	private void crecer() {
+		
+		int capacidad = importe.length * 2;
+		
+		establecimiento = Arrays.copyOf(establecimiento, capacidad);
+		familia = Arrays.copyOf(familia, capacidad);
+		producto = Arrays.copyOf(producto, capacidad);
+		minuto = Arrays.copyOf(minuto, capacidad);
+		cantidad = Arrays.copyOf(cantidad, capacidad);
+		importe = Arrays.copyOf(importe, capacidad);
+	}
+	
+}
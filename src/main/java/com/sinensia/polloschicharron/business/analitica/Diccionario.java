@@ -0,0 +1,51 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificación por diccionario de una columna: cada valor distinto recibe un código consecutivo
+ * desde 0, de modo que los agregados por esa columna caben en arrays indexados por código.
+ * 
+ * La etiqueta (lo que se devuelve en el informe) es la última vista para cada valor.
+ * 
+ */
+class Diccionario<K> {
+
+	private final Map<K, Integer> codigos = new HashMap<>();
+	private final List<String> etiquetas = new ArrayList<>();
+	
+	int codificar(K valor, String etiqueta) {
+		
+		Integer codigo = codigos.get(valor);
+		
+		if(codigo == null) {
+			codigo = etiquetas.size();
+			codigos.put(valor, codigo);
+			etiquetas.add(etiqueta);
+		} else {
+			etiquetas.set(codigo, etiqueta);
+		}
+		
+		return codigo;
+	}
+	
+	/**
+	 * Código del valor o -1 si no aparece en la columna
+	 * 
+	 */
+	int getCodigo(K valor) {
+		return codigos.getOrDefault(valor, -1);
+	}
+	
+	String getEtiqueta(int codigo) {
+		return etiquetas.get(codigo);
+	}
+	
+	int size() {
+		return etiquetas.size();
+	}
+	
+}
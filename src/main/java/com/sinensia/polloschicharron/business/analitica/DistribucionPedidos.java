@@ -0,0 +1,20 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Histogramas del importe (en céntimos) y de las unidades de un conjunto de pedidos
+ * 
+ */
+public record DistribucionPedidos(Histogram importe, Histogram unidades) {
+
+	DistribucionPedidos(int digitosSignificativos) {
+		this(new Histogram(digitosSignificativos), new Histogram(digitosSignificativos));
+	}
+	
+	void add(DistribucionPedidos otra) {
+		importe.add(otra.importe());
+		unidades.add(otra.unidades());
+	}
+	
+}
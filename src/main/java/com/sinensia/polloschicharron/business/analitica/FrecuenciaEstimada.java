@@ -0,0 +1,11 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+/**
+ * Frecuencia de un elemento según un resumen aproximado.
+ * 
+ * cuenta es la estimación (cota superior) y cuenta - error la cota inferior de la frecuencia real.
+ * 
+ */
+public record FrecuenciaEstimada(long elemento, long cuenta, long error) {
+
+}
@@ -0,0 +1,299 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.EstadoPedidoCambiadoEvent;
+import com.sinensia.polloschicharron.business.events.LineasPedidoCambiadasEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCreadoEvent;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.integration.model.UnidadesVendidasPL;
+import com.sinensia.polloschicharron.integration.repositories.VentasPLRepository;
+
+/**
+ * Productos más vendidos (en unidades) por establecimiento y día, con un resumen Space-Saving por
+ * cada par (NIF, día) de los últimos 'dias' días. Los pedidos cancelados no cuentan.
+ * 
+ * La primera vez que se usa se cargan los resúmenes de la ventana desde la base de datos; desde que
+ * empieza la carga se les suman las líneas de cada pedido creado y se descuentan (o se vuelven a sumar)
+ * las de los pedidos que pasan a CANCELADO (o dejan de estarlo), cuando se confirma la transacción.
+ * Si se modifican las líneas de un pedido contado se descuentan las anteriores y se suman las nuevas.
+ * 
+ * Para que la carga y los eventos no se pisen se anota qué pedidos de la ventana están contados: un
+ * pedido sólo se suma una vez, lo sume la carga o su evento, y un pedido cancelado durante la carga
+ * queda anotado como cancelado para que la carga no lo sume si lo ha leído antes de la cancelación.
+ * 
+ * Al restaurar una copia de seguridad se descarta todo y se vuelve a cargar en la siguiente consulta.
+ * 
+ */
+@Component
+public class MasVendidos {
+
+	private final VentasPLRepository ventasPLRepository;
+	private final int capacidad;
+	private final int dias;
+	
+	private final ConcurrentMap<Ventana, SpaceSaving> resumenes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, Conteo> conteos = new ConcurrentHashMap<>();
+	
+	private volatile boolean cargando;
+	private volatile boolean cargado;
+	private volatile LocalDate primerDia;
+	
+	public MasVendidos(VentasPLRepository ventasPLRepository,
+					   @Value("${polloschicharron.mas-vendidos.capacidad:100}") int capacidad,
+					   @Value("${polloschicharron.mas-vendidos.dias:7}") int dias) {
+		
+		this.ventasPLRepository = ventasPLRepository;
+		this.capacidad = capacidad;
+		this.dias = dias;
+	}
+	
+	/**
+	 * Los k productos más vendidos del establecimiento en el día. Vacío si el día está fuera de la ventana.
+	 * 
+	 */
+	public List<FrecuenciaEstimada> getTop(String nifEstablecimiento, LocalDate dia, int k) {
+		
+		cargar();
+		
+		SpaceSaving resumen = resumenes.get(new Ventana(nifEstablecimiento, dia));
+		
+		return resumen == null ? List.of() : resumen.top(k);
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPedidoCreado(PedidoCreadoEvent event) {
+		
+		// Sin empezar la carga: ya leerá el pedido de la base de datos
+		
+		if(!cargando) {
+			return;
+		}
+		
+		Pedido pedido = event.getPedido();
+		
+		if(pedido.getId() == null || pedido.getEstado() == EstadoPedido.CANCELADO || pedido.getEstablecimiento() == null 
+				|| pedido.getFechaHora() == null || pedido.getLineas() == null) {
+			return;
+		}
+		
+		LocalDate dia = pedido.getFechaHora().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+		
+		purgar();
+		
+		if(dia.isBefore(primerDia) || conteos.putIfAbsent(pedido.getId(), new Conteo(dia, false)) != null) {
+			return;
+		}
+		
+		SpaceSaving resumen = getResumen(pedido.getEstablecimiento().getNIF(), dia);
+		
+		for(LineaPedido linea: pedido.getLineas()) {
+			if(linea.getProducto() != null && linea.getProducto().getId() != null) {
+				resumen.add(linea.getProducto().getId(), linea.getCantidad());
+			}
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEstadoPedidoCambiado(EstadoPedidoCambiadoEvent event) {
+		
+		boolean cancelado = event.getNuevo() == EstadoPedido.CANCELADO;
+		
+		if(!cargando || cancelado == (event.getAnterior() == EstadoPedido.CANCELADO)) {
+			return;
+		}
+		
+		List<UnidadesVendidasPL> unidades = ventasPLRepository.getUnidadesVendidas(event.getIdPedido());
+		
+		if(unidades.isEmpty()) {
+			return;
+		}
+		
+		LocalDate dia = unidades.get(0).dia();
+		
+		purgar();
+		
+		if(dia.isBefore(primerDia)) {
+			return;
+		}
+		
+		Conteo anterior = conteos.put(event.getIdPedido(), new Conteo(dia, cancelado));
+		boolean contado = anterior != null && !anterior.cancelado();
+		
+		if(cancelado == contado) {
+			
+			SpaceSaving resumen = getResumen(unidades.get(0).nifEstablecimiento(), dia);
+			
+			for(UnidadesVendidasPL x: unidades) {
+				if(cancelado) {
+					resumen.restar(x.idProducto(), x.unidades());
+				} else {
+					resumen.add(x.idProducto(), x.unidades());
+				}
+			}
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onLineasPedidoCambiadas(LineasPedidoCambiadasEvent event) {
+		
+		// Un pedido sin contar no tiene nada que corregir: si entra en la ventana lo suma la carga con sus líneas nuevas
+		
+		Conteo conteo = conteos.get(event.getIdPedido());
+		
+		if(!cargando || conteo == null || conteo.cancelado()) {
+			return;
+		}
+		
+		purgar();
+		
+		if(!conteo.dia().isBefore(primerDia) && event.getNifEstablecimientoAnterior() != null) {
+			SpaceSaving resumen = getResumen(event.getNifEstablecimientoAnterior(), conteo.dia());
+			event.getUnidadesAnteriores().forEach(resumen::restar);
+		}
+		
+		List<UnidadesVendidasPL> unidades = ventasPLRepository.getUnidadesVendidas(event.getIdPedido());
+		
+		// Sin líneas sigue contado (con nada) en su día
+		
+		if(unidades.isEmpty()) {
+			return;
+		}
+		
+		if(unidades.get(0).dia().isBefore(primerDia)) {
+			conteos.remove(event.getIdPedido());
+			return;
+		}
+		
+		UnidadesVendidasPL primera = unidades.get(0);
+		SpaceSaving resumen = getResumen(primera.nifEstablecimiento(), primera.dia());
+		
+		conteos.put(event.getIdPedido(), new Conteo(primera.dia(), false));
+		unidades.forEach(x -> resumen.add(x.idProducto(), x.unidades()));
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		
+		cargando = false;
+		cargado = false;
+		
+		resumenes.clear();
+		conteos.clear();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private synchronized void cargar() {
+		
+		if(cargado) {
+			purgar();
+			return;
+		}
+		
+		primerDia = LocalDate.now().minusDays(dias - 1);
+		
+		// A partir de aquí los eventos también suman: lo que confirmen ya no lo verá la consulta
+		
+		cargando = true;
+		
+		try {
+			
+			Carga carga = new Carga();
+			
+			ventasPLRepository.forEachUnidadesVendidas(primerDia, carga);
+			
+			carga.sumarPedido();
+			
+		} catch(RuntimeException e) {
+			cargando = false;
+			resumenes.clear();
+			conteos.clear();
+			throw e;
+		}
+		
+		cargado = true;
+	}
+	
+	/**
+	 * Al cambiar de día descarta los resúmenes que han salido de la ventana
+	 * 
+	 */
+	private void purgar() {
+		
+		LocalDate nuevoPrimerDia = LocalDate.now().minusDays(dias - 1);
+		
+		if(nuevoPrimerDia.isAfter(primerDia)) {
+			primerDia = nuevoPrimerDia;
+			resumenes.keySet().removeIf(x -> x.dia().isBefore(nuevoPrimerDia));
+			conteos.values().removeIf(x -> x.dia().isBefore(nuevoPrimerDia));
+		}
+	}
+	
+	private SpaceSaving getResumen(String nifEstablecimiento, LocalDate dia) {
+		return resumenes.computeIfAbsent(new Ventana(nifEstablecimiento, dia), x -> new SpaceSaving(capacidad));
+	}
+	
+	private record Ventana(String nifEstablecimiento, LocalDate dia) {
+		
+	}
+	
+	private record Conteo(LocalDate dia, boolean cancelado) {
+		
+	}
+	
+	/**
+	 * Agrupa las filas de la carga (ordenadas por pedido) y suma cada pedido que no esté ya anotado
+	 * 
+	 */
+	private class Carga implements Consumer<UnidadesVendidasPL> {
+		
+		private final List<UnidadesVendidasPL> pedido = new ArrayList<>();
+		
+		@Override
+		public void accept(UnidadesVendidasPL unidades) {
+			
+			if(!pedido.isEmpty() && pedido.get(0).idPedido() != unidades.idPedido()) {
+				sumarPedido();
+			}
+			
+			pedido.add(unidades);
+		}
+		
+		private void sumarPedido() {
+			
+			if(pedido.isEmpty()) {
+				return;
+			}
+			
+			UnidadesVendidasPL primera = pedido.get(0);
+			
+			if(conteos.putIfAbsent(primera.idPedido(), new Conteo(primera.dia(), false)) == null) {
+				
+				SpaceSaving resumen = getResumen(primera.nifEstablecimiento(), primera.dia());
+				
+				pedido.forEach(x -> resumen.add(x.idProducto(), x.unidades()));
+			}
+			
+			pedido.clear();
+		}
+	}
+	
+}
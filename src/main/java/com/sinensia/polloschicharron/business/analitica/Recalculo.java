@@ -0,0 +1,31 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Recálculo de un informe a partir de los pedidos, por tramos de códigos de pedido.
+ * 
+ * Cada tramo da un resultado parcial independiente; los parciales se combinan de dos en dos
+ * (en cualquier orden de tramos) y el resultado final se aplica una sola vez al terminar.
+ * 
+ */
+public interface Recalculo<R> {
+
+	/**
+	 * Resultado parcial de los pedidos con código en [desdeCodigo, hastaCodigo]. Se llama a la vez desde
+	 * varios hilos. Si cancelado pasa a ser cierto ha de lanzar CancellationException en cuanto pueda.
+	 * 
+	 */
+	R calcular(long desdeCodigo, long hastaCodigo, BooleanSupplier cancelado);
+	
+	R combinar(R resultado1, R resultado2);
+	
+	void aplicar(R resultado);
+	
+	/**
+	 * El recálculo no ha terminado (cancelado o fallido) y no se va a aplicar
+	 * 
+	 */
+	void descartar();
+	
+}
@@ -0,0 +1,182 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen Space-Saving (Metwally, Agrawal y El Abbadi) de los elementos más frecuentes de un flujo.
+ * 
+ * Mantiene como mucho 'capacidad' contadores. Un elemento sin contador, si no queda sitio, sustituye
+ * al de cuenta mínima y hereda esa cuenta como error. Con N el peso total añadido:
+ * 
+ *  - cuenta - error <= frecuencia real <= cuenta
+ *  - error <= N / capacidad
+ *  - todo elemento con frecuencia real > N / capacidad tiene contador
+ * 
+ * Los contadores forman un montículo de mínimos por cuenta, así que cada add es O(log capacidad).
+ * 
+ */
+class SpaceSaving {
+
+	private static final Comparator<FrecuenciaEstimada> POR_CUENTA = Comparator.comparingLong(FrecuenciaEstimada::cuenta).reversed();
+	
+	private final long[] elementos;
+	private final long[] cuentas;
+	private final long[] errores;
+	
+	private final Map<Long, Integer> posiciones = new HashMap<>();
+	
+	private int numero;
+	private long total;
+	
+	SpaceSaving(int capacidad) {
+		
+		if(capacidad <= 0) {
+			throw new IllegalArgumentException("La capacidad ha de ser positiva.");
+		}
+		
+		this.elementos = new long[capacidad];
+		this.cuentas = new long[capacidad];
+		this.errores = new long[capacidad];
+	}
+	
+	synchronized void add(long elemento, long peso) {
+		
+		total += peso;
+		
+		Integer posicion = posiciones.get(elemento);
+		
+		if(posicion != null) {
+			cuentas[posicion] += peso;
+			bajar(posicion);
+			return;
+		}
+		
+		if(numero < elementos.length) {
+			elementos[numero] = elemento;
+			cuentas[numero] = peso;
+			errores[numero] = 0;
+			posiciones.put(elemento, numero);
+			subir(numero++);
+			return;
+		}
+		
+		// Sustituye al mínimo (la raíz del montículo)
+		
+		posiciones.remove(elementos[0]);
+		
+		elementos[0] = elemento;
+		errores[0] = cuentas[0];
+		cuentas[0] += peso;
+		posiciones.put(elemento, 0);
+		
+		bajar(0);
+	}
+	
+	/**
+	 * Descuenta el peso de un elemento que ya se había añadido (por ejemplo, un pedido cancelado).
+	 * 
+	 * Las dos cotas de cuenta siguen valiendo, porque la frecuencia real baja lo mismo que la cuenta.
+	 * Un elemento sin contador no cambia: su frecuencia real ya era menor que la cuenta mínima. El total
+	 * sigue siendo el peso añadido, así que la cota del error se mantiene.
+	 * 
+	 */
+	synchronized void restar(long elemento, long peso) {
+		
+		Integer posicion = posiciones.get(elemento);
+		
+		if(posicion != null) {
+			cuentas[posicion] -= peso;
+			subir(posicion);
+		}
+	}
+	
+	/**
+	 * Los k elementos con más cuenta, de mayor a menor
+	 * 
+	 */
+	synchronized List<FrecuenciaEstimada> top(int k) {
+		
+		List<FrecuenciaEstimada> frecuencias = new ArrayList<>(numero);
+		
+		for(int i = 0; i < numero; i++) {
+			frecuencias.add(new FrecuenciaEstimada(elementos[i], cuentas[i], errores[i]));
+		}
+		
+		frecuencias.sort(POR_CUENTA);
+		
+		return frecuencias.size() > k ? List.copyOf(frecuencias.subList(0, k)) : frecuencias;
+	}
+	
+	synchronized long getTotal() {
+		return total;
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void subir(int i) {
+		
+		while(i > 0) {
+			
+			int padre = (i - 1) / 2;
+			
+			if(cuentas[padre] <= cuentas[i]) {
+				return;
+			}
+			
+			intercambiar(i, padre);
+			i = padre;
+		}
+	}
+	
+	private void bajar(int i) {
+		
+		while(true) {
+			
+			int menor = i;
+			int izquierdo = 2 * i + 1;
+			int derecho = izquierdo + 1;
+			
+			if(izquierdo < numero && cuentas[izquierdo] < cuentas[menor]) {
+				menor = izquierdo;
+			}
+			
+			if(derecho < numero && cuentas[derecho] < cuentas[menor]) {
+				menor = derecho;
+			}
+			
+			if(menor == i) {
+				return;
+			}
+			
+			intercambiar(i, menor);
+			i = menor;
+		}
+	}
+	
+	private void intercambiar(int i, int j) {
+		
+		long elemento = elementos[i];
+		long cuenta = cuentas[i];
+		long error = errores[i];
+		
+		elementos[i] = elementos[j];
+		cuentas[i] = cuentas[j];
+		errores[i] = errores[j];
+		
+		elementos[j] = elemento;
+		cuentas[j] = cuenta;
+		errores[j] = error;
+		
+		posiciones.put(elementos[i], i);
+		posiciones.put(elementos[j], j);
+	}
+	
+}
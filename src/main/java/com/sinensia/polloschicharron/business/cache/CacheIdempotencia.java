@@ -0,0 +1,126 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+
+/**
+ * Cache concurrente y acotada clave de idempotencia -> id del pedido creado.
+ * 
+ * Todas las entradas tienen la misma caducidad, por lo que el orden de inserción es también
+ * el orden de caducidad: basta una cola FIFO para expulsar primero las caducadas y, si se 
+ * supera la capacidad, las más antiguas.
+ * 
+ * Al restaurar una copia de seguridad se vacía: los pedidos a los que apuntan pueden no existir en ella.
+ * 
+ */
+@Component
+public class CacheIdempotencia {
+
+	private final int capacidad;
+	private final long caducidadMillis;
+	
+	private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+	private final Queue<Entrada> ordenInsercion = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger numeroEnCola = new AtomicInteger();		// ConcurrentLinkedQueue.size() es O(n)
+	
+	public CacheIdempotencia(@Value("${polloschicharron.idempotencia.capacidad:10000}") int capacidad, 
+							 @Value("${polloschicharron.idempotencia.caducidad:24h}") Duration caducidad) {
+		this.capacidad = capacidad;
+		this.caducidadMillis = caducidad.toMillis();
+	}
+	
+	/**
+	 * Devuelve null si la clave no está o ha caducado
+	 * 
+	 */
+	public Long get(String clave) {
+		
+		Entrada entrada = entradas.get(clave);
+		
+		if(entrada == null) {
+			return null;
+		}
+		
+		if(entrada.expira < System.currentTimeMillis()) {
+			entradas.remove(clave, entrada);
+			return null;
+		}
+		
+		return entrada.idPedido;
+	}
+	
+	public void put(String clave, Long idPedido) {
+		
+		Entrada entrada = new Entrada(clave, idPedido, System.currentTimeMillis() + caducidadMillis);
+		
+		entradas.put(clave, entrada);
+		ordenInsercion.add(entrada);
+		numeroEnCola.incrementAndGet();
+		
+		expulsar();
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		
+		Entrada entrada;
+		
+		while((entrada = ordenInsercion.poll()) != null) {
+			numeroEnCola.decrementAndGet();
+			entradas.remove(entrada.clave, entrada);
+		}
+	}
+	
+	public Duration getCaducidad() {
+		return Duration.ofMillis(caducidadMillis);
+	}
+	
+	public int size() {
+		return entradas.size();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void expulsar() {
+		
+		long ahora = System.currentTimeMillis();
+		
+		Entrada masAntigua;
+		
+		while((masAntigua = ordenInsercion.peek()) != null && (masAntigua.expira < ahora || numeroEnCola.get() > capacidad)) {
+			
+			if(ordenInsercion.remove(masAntigua)) {
+				numeroEnCola.decrementAndGet();
+				entradas.remove(masAntigua.clave, masAntigua);
+			}
+		}
+	}
+	
+	private static class Entrada {
+		
+		private final String clave;
+		private final Long idPedido;
+		private final long expira;
+		
+		private Entrada(String clave, Long idPedido, long expira) {
+			this.clave = clave;
+			this.idPedido = idPedido;
+			this.expira = expira;
+		}
+	}
+	
+}
@@ -0,0 +1,99 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import java.util.BitSet;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.PersonaModificadaEvent;
+import com.sinensia.polloschicharron.business.model.TipoPersona;
+import com.sinensia.polloschicharron.integration.repositories.ClientePLRepository;
+
+/**
+ * Ids de los clientes gold en un BitSet indexado por id, para decidir el descuento al crear un pedido
+ * sin consultar CLIENTES.
+ * 
+ * Se carga la primera vez que se consulta. Cada PersonaModificadaEvent de un cliente publica una copia
+ * con su bit actualizado (copy-on-write): las consultas leen el BitSet vigente sin bloquear. Al restaurar
+ * una copia de seguridad se descarta y se vuelve a cargar en la siguiente consulta.
+ * 
+ */
+@Component
+public class ClientesGold {
+
+	private final ClientePLRepository clientePLRepository;
+	
+	private volatile BitSet ids;
+	
+	public ClientesGold(ClientePLRepository clientePLRepository) {
+		this.clientePLRepository = clientePLRepository;
+	}
+	
+	public boolean isGold(Long idCliente) {
+		
+		if(idCliente == null || idCliente < 0 || idCliente > Integer.MAX_VALUE) {
+			return false;
+		}
+		
+		BitSet actual = ids;
+		
+		if(actual == null) {
+			actual = cargar();
+		}
+		
+		return actual.get(idCliente.intValue());
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPersonaModificada(PersonaModificadaEvent event) {
+		
+		if(event.getTipo() == TipoPersona.CLIENTE) {
+			actualizar(event.getId());
+		}
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		ids = null;
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private synchronized BitSet cargar() {
+		
+		if(ids == null) {
+			
+			BitSet cargados = new BitSet();
+			
+			for(Long id: clientePLRepository.findIdsGold()) {
+				if(id >= 0 && id <= Integer.MAX_VALUE) {
+					cargados.set(id.intValue());
+				}
+			}
+			
+			ids = cargados;
+		}
+		
+		return ids;
+	}
+	
+	private synchronized void actualizar(Long id) {
+		
+		// Sin cargar todavía: la carga ya leerá el cambio
+		
+		if(ids == null || id < 0 || id > Integer.MAX_VALUE) {
+			return;
+		}
+		
+		BitSet nuevos = (BitSet) ids.clone();
+		nuevos.set(id.intValue(), clientePLRepository.findGoldById(id).orElse(false));
+		
+		ids = nuevos;
+	}
+	
+}
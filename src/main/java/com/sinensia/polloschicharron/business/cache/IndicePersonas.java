@@ -0,0 +1,197 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.PersonaModificadaEvent;
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
+import com.sinensia.polloschicharron.business.model.TipoPersona;
+import com.sinensia.polloschicharron.integration.model.ContactoPersonaPL;
+import com.sinensia.polloschicharron.integration.repositories.ClientePLRepository;
+import com.sinensia.polloschicharron.integration.repositories.EmpleadoPLRepository;
+
+/**
+ * Índice en memoria de clientes y empleados por DNI, email y teléfono (fijo o móvil), con los
+ * valores normalizados: el DNI sin separadores y en mayúsculas, el email en minúsculas y el
+ * teléfono sólo con los dígitos y sin el prefijo 34.
+ * 
+ * Cada tipo de persona se carga entero la primera vez que se busca y después se mantiene persona
+ * a persona con PersonaModificadaEvent (después del commit). Las búsquedas no bloquean. Al restaurar
+ * una copia de seguridad se descartan los dos y se vuelven a cargar en la siguiente búsqueda.
+ * 
+ */
+@Component
+public class IndicePersonas {
+
+	private final Map<TipoPersona, Indice> indices = new EnumMap<>(TipoPersona.class);
+	
+	public IndicePersonas(ClientePLRepository clientePLRepository, EmpleadoPLRepository empleadoPLRepository) {
+		indices.put(TipoPersona.CLIENTE, new Indice(clientePLRepository::findContactos, clientePLRepository::findContacto));
+		indices.put(TipoPersona.EMPLEADO, new Indice(empleadoPLRepository::findContactos, empleadoPLRepository::findContacto));
+	}
+	
+	/**
+	 * Ids de las personas del tipo con ese dato, ordenados. Vacío si el valor normalizado queda vacío.
+	 * 
+	 */
+	public List<Long> buscar(TipoPersona tipo, CampoBusqueda campo, String valor) {
+		
+		String clave = normalizar(campo, valor);
+		
+		if(clave.isEmpty()) {
+			return List.of();
+		}
+		
+		Set<Long> ids = indices.get(tipo).getClaves(campo).get(clave);
+		
+		return ids == null ? List.of() : ids.stream().sorted().toList();
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPersonaModificada(PersonaModificadaEvent event) {
+		indices.get(event.getTipo()).reindexar(event.getId());
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		indices.values().forEach(Indice::descartar);
+	}
+	
+	public static String normalizar(CampoBusqueda campo, String valor) {
+		
+		if(valor == null) {
+			return "";
+		}
+		
+		return switch(campo) {
+			case DNI -> valor.replaceAll("[^0-9A-Za-z]", "").toUpperCase(Locale.ROOT);
+			case EMAIL -> valor.strip().toLowerCase(Locale.ROOT);
+			case TELEFONO -> {
+				String digitos = valor.replaceAll("\\D", "");
+				if(digitos.startsWith("0034")) {
+					digitos = digitos.substring(4);
+				} else if(digitos.length() == 11 && digitos.startsWith("34")) {
+					digitos = digitos.substring(2);
+				}
+				yield digitos;
+			}
+		};
+	}
+	
+	/**
+	 * Valores normalizados de cada campo -> ids, y las claves de cada id para poder quitarlas al reindexarlo
+	 * 
+	 */
+	private static class Indice {
+		
+		private final Supplier<List<ContactoPersonaPL>> cargarTodos;
+		private final Function<Long, Optional<ContactoPersonaPL>> cargarUno;
+		
+		private final Map<CampoBusqueda, ConcurrentMap<String, Set<Long>>> claves = new EnumMap<>(CampoBusqueda.class);
+		private final Map<Long, List<Clave>> clavesPorId = new ConcurrentHashMap<>();
+		
+		private volatile boolean cargado;
+		
+		private Indice(Supplier<List<ContactoPersonaPL>> cargarTodos, Function<Long, Optional<ContactoPersonaPL>> cargarUno) {
+			
+			this.cargarTodos = cargarTodos;
+			this.cargarUno = cargarUno;
+			
+			for(CampoBusqueda campo: CampoBusqueda.values()) {
+				claves.put(campo, new ConcurrentHashMap<>());
+			}
+		}
+		
+		private ConcurrentMap<String, Set<Long>> getClaves(CampoBusqueda campo) {
+			
+			if(!cargado) {
+				cargar();
+			}
+			
+			return claves.get(campo);
+		}
+		
+		private synchronized void cargar() {
+			
+			if(cargado) {
+				return;
+			}
+			
+			cargarTodos.get().forEach(this::indexar);
+			
+			cargado = true;
+		}
+		
+		private synchronized void reindexar(Long id) {
+			
+			// Sin cargar todavía: la carga ya leerá el cambio
+			
+			if(!cargado) {
+				return;
+			}
+			
+			List<Clave> anteriores = clavesPorId.remove(id);
+			
+			if(anteriores != null) {
+				for(Clave clave: anteriores) {
+					claves.get(clave.campo()).computeIfPresent(clave.valor(), (k, ids) -> {
+						ids.remove(id);
+						return ids.isEmpty() ? null : ids;
+					});
+				}
+			}
+			
+			cargarUno.apply(id).ifPresent(this::indexar);
+		}
+		
+		private synchronized void descartar() {
+			
+			// Primero cargado: las búsquedas que lo vean a false esperan a la nueva carga
+			
+			cargado = false;
+			
+			claves.values().forEach(Map::clear);
+			clavesPorId.clear();
+		}
+		
+		private void indexar(ContactoPersonaPL contacto) {
+			
+			List<Clave> nuevas = new ArrayList<>(4);
+			
+			anadir(nuevas, contacto.id(), CampoBusqueda.DNI, contacto.dni());
+			anadir(nuevas, contacto.id(), CampoBusqueda.EMAIL, contacto.email());
+			anadir(nuevas, contacto.id(), CampoBusqueda.TELEFONO, contacto.telefono());
+			anadir(nuevas, contacto.id(), CampoBusqueda.TELEFONO, contacto.movil());
+			
+			clavesPorId.put(contacto.id(), nuevas);
+		}
+		
+		private void anadir(List<Clave> nuevas, Long id, CampoBusqueda campo, String valor) {
+			
+			String clave = normalizar(campo, valor);
+			
+			if(!clave.isEmpty()) {
+				claves.get(campo).computeIfAbsent(clave, x -> ConcurrentHashMap.newKeySet()).add(id);
+				nuevas.add(new Clave(campo, clave));
+			}
+		}
+	}
+	
+	private record Clave(CampoBusqueda campo, String valor) {
+		
+	}
+	
+}
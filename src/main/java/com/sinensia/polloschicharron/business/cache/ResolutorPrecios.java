@@ -0,0 +1,176 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.cache.TablaPrecios.Entrada;
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.integration.model.LineaListaPreciosPL;
+import com.sinensia.polloschicharron.integration.model.ListaPreciosPL;
+import com.sinensia.polloschicharron.integration.repositories.ListaPreciosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+/**
+ * Sirve el precio vigente de cada producto a partir de tablas precalculadas en memoria.
+ * 
+ * Se mantiene la tabla activa y las tablas de las listas programadas ordenadas por fecha de vigencia.
+ * Cuando llega la fecha de vigencia de la siguiente lista, la primera consulta posterior la activa
+ * sustituyendo el estado con un compareAndSet: no hay UPDATE masivo sobre PRODUCTOS ni tarea programada.
+ * 
+ * Las tablas se reconstruyen desde base de datos cada vez que se modifica el catálogo. Un cambio de precio
+ * en catálogo posterior a la fecha de vigencia de una lista prevalece sobre el precio de la lista.
+ * 
+ */
+@Component
+public class ResolutorPrecios {
+
+	private final ProductoPLRepository productoPLRepository;
+	private final ListaPreciosPLRepository listaPreciosPLRepository;
+	
+	private final AtomicReference<Estado> estado = new AtomicReference<>();
+	
+	public ResolutorPrecios(ProductoPLRepository productoPLRepository, ListaPreciosPLRepository listaPreciosPLRepository) {
+		this.productoPLRepository = productoPLRepository;
+		this.listaPreciosPLRepository = listaPreciosPLRepository;
+	}
+	
+	public Optional<Double> getPrecio(Long idProducto) {
+		
+		double precio = getTablaVigente().getPrecio(idProducto);
+		
+		return Double.isNaN(precio) ? Optional.empty() : Optional.of(precio);
+	}
+	
+	public TablaPrecios getTablaVigente() {
+		
+		Estado actual = getEstado();
+		long ahora = System.currentTimeMillis();
+		
+		while(actual.hayProgramadaVigente(ahora)) {
+			
+			Estado siguiente = actual.activar(ahora);
+			
+			actual = estado.compareAndSet(actual, siguiente) ? siguiente : estado.get();
+		}
+		
+		return actual.activa;
+	}
+	
+	public synchronized void recargar() {
+		
+		Date ahora = new Date();
+		
+		Map<Long, Entrada> catalogo = new HashMap<>();
+		Map<Long, Long> cambiosPrecio = new HashMap<>();
+		
+		for(Object[] fila: productoPLRepository.findAtributosCatalogo()) {
+			
+			catalogo.put((Long) fila[0], new Entrada((Double) fila[1], (Long) fila[2], (Boolean) fila[3]));
+			
+			if(fila[4] != null) {
+				cambiosPrecio.put((Long) fila[0], ((Date) fila[4]).getTime());
+			}
+		}
+		
+		TablaPrecios activa = new TablaPrecios(null, 0L, catalogo);
+		TablaPrecios[] programadas = listaPreciosPLRepository.findVigenteYProgramadas(ahora).stream()
+				.map(x -> crearTabla(x, catalogo, cambiosPrecio))
+				.toArray(TablaPrecios[]::new);
+		
+		estado.set(new Estado(activa, programadas, 0).activar(ahora.getTime()));
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCatalogoModificado(CatalogoModificadoEvent event) {
+		recargar();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Estado getEstado() {
+		
+		Estado actual = estado.get();
+		
+		if(actual == null) {
+			synchronized(this) {
+				if(estado.get() == null) {
+					recargar();
+				}
+			}
+			actual = estado.get();
+		}
+		
+		return actual;
+	}
+	
+	/**
+	 * Los precios de la lista sólo sustituyen a los de productos que siguen en catálogo con precio
+	 * y cuyo precio de catálogo no ha cambiado después de la fecha de vigencia de la lista
+	 * 
+	 */
+	private TablaPrecios crearTabla(ListaPreciosPL listaPL, Map<Long, Entrada> catalogo, Map<Long, Long> cambiosPrecio) {
+		
+		Map<Long, Entrada> entradas = new HashMap<>(catalogo);
+		
+		long fechaVigencia = listaPL.getFechaVigencia().getTime();
+		List<LineaListaPreciosPL> lineas = listaPL.getLineas();
+		
+		for(LineaListaPreciosPL linea: lineas) {
+			
+			Long cambioPrecio = cambiosPrecio.get(linea.getIdProducto());
+			
+			if(cambioPrecio != null && cambioPrecio > fechaVigencia) {
+				continue;
+			}
+			
+			entradas.computeIfPresent(linea.getIdProducto(), (id, entrada) -> entrada.descatalogado() || entrada.precio() == null ? entrada : entrada.conPrecio(linea.getPrecio()));
+		}
+		
+		return new TablaPrecios(listaPL.getId(), fechaVigencia, entradas);
+	}
+	
+	/**
+	 * Tabla activa más las programadas pendientes (desde el índice siguiente, ordenadas por fecha de vigencia)
+	 * 
+	 */
+	private static class Estado {
+		
+		private final TablaPrecios activa;
+		private final TablaPrecios[] programadas;
+		private final int siguiente;
+		
+		private Estado(TablaPrecios activa, TablaPrecios[] programadas, int siguiente) {
+			this.activa = activa;
+			this.programadas = programadas;
+			this.siguiente = siguiente;
+		}
+		
+		private boolean hayProgramadaVigente(long ahora) {
+			return siguiente < programadas.length && programadas[siguiente].getFechaVigencia() <= ahora;
+		}
+		
+		private Estado activar(long ahora) {
+			
+			int indice = siguiente;
+			TablaPrecios nuevaActiva = activa;
+			
+			while(indice < programadas.length && programadas[indice].getFechaVigencia() <= ahora) {
+				nuevaActiva = programadas[indice++];
+			}
+			
+			return indice == siguiente ? this : new Estado(nuevaActiva, programadas, indice);
+		}
+	}
+	
+}
@@ -0,0 +1,199 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Tabla inmutable de precios y atributos de producto precalculados, indexada por id de producto.
+ * 
+ * Las entradas están fuera del heap, en un ByteBuffer directo de registros de ancho fijo que va del
+ * id mínimo al máximo, así que las consultas al crear pedidos no generan objetos ni pasan por JPA.
+ * Cada registro ocupa TAMANO_REGISTRO bytes:
+ * 
+ *  offset  tipo   campo
+ *  ------  -----  ------------------------------------------------------
+ *   0      long   id de la familia
+ *   8      int    precio en céntimos
+ *  12      byte   flags (bit 0: existe, bit 1: con precio, bit 2: descatalogado, bit 3: con familia)
+ *  13      -      relleno
+ * 
+ * Los huecos (ids que no existen) tienen los flags a 0. La memoria se libera cuando la tabla deja
+ * de estar referenciada.
+ * 
+ */
+public class TablaPrecios {
+	
+	public static final int TAMANO_REGISTRO = 16;
+	
+	public static final long SIN_FAMILIA = -1;
+	
+	private static final byte FLAG_EXISTE = 1;
+	private static final byte FLAG_PRECIO = 2;
+	private static final byte FLAG_DESCATALOGADO = 4;
+	private static final byte FLAG_FAMILIA = 8;
+	
+	private static final int MAXIMO_REGISTROS = Integer.MAX_VALUE / TAMANO_REGISTRO;
+	
+	private final Long idListaPrecios;
+	private final long fechaVigencia;
+	private final long idMinimo;
+	private final int numeroRegistros;
+	private final ByteBuffer registros;
+	private final int numeroProductos;
+	
+	/**
+	 * Atributos de un producto al construir la tabla. precio e idFamilia pueden ser null.
+	 * 
+	 */
+	public record Entrada(Double precio, Long idFamilia, boolean descatalogado) {
+		
+		public Entrada conPrecio(double nuevoPrecio) {
+			return new Entrada(nuevoPrecio, idFamilia, descatalogado);
+		}
+	}
+	
+	/**
+	 * idListaPrecios es null cuando la tabla contiene los precios de catálogo
+	 * 
+	 */
+	public TablaPrecios(Long idListaPrecios, long fechaVigencia, Map<Long, Entrada> entradas) {
+		
+		this.idListaPrecios = idListaPrecios;
+		this.fechaVigencia = fechaVigencia;
+		this.numeroProductos = entradas.size();
+		
+		if(entradas.isEmpty()) {
+			this.idMinimo = 0;
+			this.numeroRegistros = 0;
+			this.registros = ByteBuffer.allocateDirect(0);
+			return;
+		}
+		
+		long minimo = entradas.keySet().stream().mapToLong(Long::longValue).min().getAsLong();
+		long maximo = entradas.keySet().stream().mapToLong(Long::longValue).max().getAsLong();
+		
+		if(maximo - minimo >= MAXIMO_REGISTROS) {
+			throw new IllegalStateException("El rango de ids de producto [" + minimo + ", " + maximo + "] es demasiado grande.");
+		}
+		
+		this.idMinimo = minimo;
+		this.numeroRegistros = (int) (maximo - minimo + 1);
+		this.registros = ByteBuffer.allocateDirect(numeroRegistros * TAMANO_REGISTRO);
+		
+		// allocateDirect devuelve la memoria a cero: los huecos ya tienen los flags a 0
+		
+		entradas.forEach((id, entrada) -> escribir((int) (id - minimo) * TAMANO_REGISTRO, entrada));
+	}
+	
+	/**
+	 * Devuelve NaN si el producto no tiene precio en esta tabla o está descatalogado
+	 * 
+	 */
+	public double getPrecio(long idProducto) {
+		
+		int centimos = getPrecioCentimos(idProducto);
+		
+		return centimos < 0 ? Double.NaN : centimos / 100.0;
+	}
+	
+	/**
+	 * Devuelve -1 si el producto no tiene precio en esta tabla o está descatalogado
+	 * 
+	 */
+	public int getPrecioCentimos(long idProducto) {
+		
+		int offset = getOffset(idProducto);
+		
+		if(offset < 0) {
+			return -1;
+		}
+		
+		byte flags = registros.get(offset + 12);
+		
+		return (flags & FLAG_PRECIO) == 0 || (flags & FLAG_DESCATALOGADO) != 0 ? -1 : registros.getInt(offset + 8);
+	}
+	
+	/**
+	 * Devuelve SIN_FAMILIA si el producto no existe o no tiene familia
+	 * 
+	 */
+	public long getIdFamilia(long idProducto) {
+		
+		int offset = getOffset(idProducto);
+		
+		return offset < 0 || (registros.get(offset + 12) & FLAG_FAMILIA) == 0 ? SIN_FAMILIA : registros.getLong(offset);
+	}
+	
+	public boolean existe(long idProducto) {
+		return getOffset(idProducto) >= 0;
+	}
+	
+	public boolean isDescatalogado(long idProducto) {
+		
+		int offset = getOffset(idProducto);
+		
+		return offset >= 0 && (registros.get(offset + 12) & FLAG_DESCATALOGADO) != 0;
+	}
+	
+	public Long getIdListaPrecios() {
+		return idListaPrecios;
+	}
+	
+	public long getFechaVigencia() {
+		return fechaVigencia;
+	}
+	
+	public int size() {
+		return numeroProductos;
+	}
+	
+	@Override
+	public String toString() {
+		return "TablaPrecios [idListaPrecios=" + idListaPrecios + ", fechaVigencia=" + fechaVigencia + ", numeroProductos=" + numeroProductos + "]";
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	/**
+	 * Offset del registro del producto, -1 si no está en la tabla
+	 * 
+	 */
+	private int getOffset(long idProducto) {
+		
+		long indice = idProducto - idMinimo;
+		
+		if(indice < 0 || indice >= numeroRegistros) {
+			return -1;
+		}
+		
+		int offset = (int) indice * TAMANO_REGISTRO;
+		
+		return (registros.get(offset + 12) & FLAG_EXISTE) == 0 ? -1 : offset;
+	}
+	
+	private void escribir(int offset, Entrada entrada) {
+		
+		byte flags = FLAG_EXISTE;
+		
+		if(entrada.precio() != null) {
+			flags |= FLAG_PRECIO;
+			registros.putInt(offset + 8, (int) Math.round(entrada.precio() * 100));
+		}
+		
+		if(entrada.idFamilia() != null) {
+			flags |= FLAG_FAMILIA;
+			registros.putLong(offset, entrada.idFamilia());
+		}
+		
+		if(entrada.descatalogado()) {
+			flags |= FLAG_DESCATALOGADO;
+		}
+		
+		registros.put(offset + 12, flags);
+	}
+
+}
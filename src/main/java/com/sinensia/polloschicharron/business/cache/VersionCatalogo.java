@@ -0,0 +1,30 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+
+/**
+ * Número de versión del catálogo. Cambia (después del commit) cada vez que se publica
+ * un CatalogoModificadoEvent, por lo que sirve como parte de la clave de cualquier cache
+ * derivada del catálogo.
+ * 
+ */
+@Component
+public class VersionCatalogo {
+
+	private final AtomicLong version = new AtomicLong();
+	
+	public long get() {
+		return version.get();
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCatalogoModificado(CatalogoModificadoEvent event) {
+		version.incrementAndGet();
+	}
+	
+}
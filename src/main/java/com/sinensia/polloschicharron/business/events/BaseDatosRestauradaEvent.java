@@ -0,0 +1,27 @@
+package com.sinensia.polloschicharron.business.events;
+
+/**
+ * Se publica después de restaurar la base de datos desde una copia de seguridad.
+ * 
+ * Lo que se ha leído de la base de datos y se guarda en memoria deja de valer: se descarta y se
+ * vuelve a leer de la restaurada.
+ * 
+ */
+public class BaseDatosRestauradaEvent {
+
+	private final String copia;
+	
+	public BaseDatosRestauradaEvent(String copia) {
+		this.copia = copia;
+	}
+
+	public String getCopia() {
+		return copia;
+	}
+
+	@Override
+	public String toString() {
+		return "BaseDatosRestauradaEvent [copia=" + copia + "]";
+	}
+	
+}
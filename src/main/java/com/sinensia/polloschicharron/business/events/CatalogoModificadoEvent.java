@@ -0,0 +1,26 @@
+package com.sinensia.polloschicharron.business.events;
+
+/**
+ * Se publica cada vez que cambian productos o precios del catálogo.
+ * 
+ * Las caches que dependen del catálogo escuchan este evento para invalidarse.
+ * 
+ */
+public class CatalogoModificadoEvent {
+
+	private final String motivo;
+	
+	public CatalogoModificadoEvent(String motivo) {
+		this.motivo = motivo;
+	}
+
+	public String getMotivo() {
+		return motivo;
+	}
+
+	@Override
+	public String toString() {
+		return "CatalogoModificadoEvent [motivo=" + motivo + "]";
+	}
+	
+}
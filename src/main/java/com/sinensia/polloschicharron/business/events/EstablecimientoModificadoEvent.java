@@ -0,0 +1,24 @@
+package com.sinensia.polloschicharron.business.events;
+
+/**
+ * Se publica cada vez que se crea o modifica un establecimiento.
+ * 
+ */
+public class EstablecimientoModificadoEvent {
+
+	private final String nif;
+	
+	public EstablecimientoModificadoEvent(String nif) {
+		this.nif = nif;
+	}
+
+	public String getNif() {
+		return nif;
+	}
+
+	@Override
+	public String toString() {
+		return "EstablecimientoModificadoEvent [nif=" + nif + "]";
+	}
+	
+}
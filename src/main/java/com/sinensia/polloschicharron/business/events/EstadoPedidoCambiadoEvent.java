@@ -0,0 +1,41 @@
+package com.sinensia.polloschicharron.business.events;
+
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+
+/**
+ * Se publica cuando cambia el estado de un pedido existente.
+ * 
+ * Los resúmenes en memoria que excluyen los pedidos cancelados escuchan este evento para descontar
+ * (o volver a sumar) sus líneas.
+ * 
+ */
+public class EstadoPedidoCambiadoEvent {
+
+	private final Long idPedido;
+	private final EstadoPedido anterior;
+	private final EstadoPedido nuevo;
+	
+	public EstadoPedidoCambiadoEvent(Long idPedido, EstadoPedido anterior, EstadoPedido nuevo) {
+		this.idPedido = idPedido;
+		this.anterior = anterior;
+		this.nuevo = nuevo;
+	}
+
+	public Long getIdPedido() {
+		return idPedido;
+	}
+
+	public EstadoPedido getAnterior() {
+		return anterior;
+	}
+
+	public EstadoPedido getNuevo() {
+		return nuevo;
+	}
+
+	@Override
+	public String toString() {
+		return "EstadoPedidoCambiadoEvent [idPedido=" + idPedido + ", anterior=" + anterior + ", nuevo=" + nuevo + "]";
+	}
+	
+}
@@ -0,0 +1,42 @@
+package com.sinensia.polloschicharron.business.events;
+
+import java.util.Map;
+
+/**
+ * Se publica cuando se modifican las líneas de un pedido existente.
+ * 
+ * Lleva el establecimiento y las unidades por producto que tenía el pedido antes del cambio: las
+ * nuevas ya están en la base de datos cuando se confirma la transacción.
+ * 
+ */
+public class LineasPedidoCambiadasEvent {
+	
+	private final Long idPedido;
+	private final String nifEstablecimientoAnterior;
+	private final Map<Long, Long> unidadesAnteriores;
+	
+	public LineasPedidoCambiadasEvent(Long idPedido, String nifEstablecimientoAnterior, Map<Long, Long> unidadesAnteriores) {
+		this.idPedido = idPedido;
+		this.nifEstablecimientoAnterior = nifEstablecimientoAnterior;
+		this.unidadesAnteriores = unidadesAnteriores;
+	}
+	
+	public Long getIdPedido() {
+		return idPedido;
+	}
+	
+	public String getNifEstablecimientoAnterior() {
+		return nifEstablecimientoAnterior;
+	}
+	
+	public Map<Long, Long> getUnidadesAnteriores() {
+		return unidadesAnteriores;
+	}
+	
+	@Override
+	public String toString() {
+		return "LineasPedidoCambiadasEvent [idPedido=" + idPedido + ", nifEstablecimientoAnterior=" + nifEstablecimientoAnterior
+				+ ", unidadesAnteriores=" + unidadesAnteriores + "]";
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.sinensia.polloschicharron.business.events;
+
+/**
+ * Se publica cuando un pedido pasa a SERVIDO.
+ * 
+ * Los agregados de ventas en memoria escuchan este evento para incorporar sus líneas.
+ * 
+ */
+public class PedidoCerradoEvent {
+
+	private final Long idPedido;
+	
+	public PedidoCerradoEvent(Long idPedido) {
+		this.idPedido = idPedido;
+	}
+
+	public Long getIdPedido() {
+		return idPedido;
+	}
+
+	@Override
+	public String toString() {
+		return "PedidoCerradoEvent [idPedido=" + idPedido + "]";
+	}
+	
+}
@@ -0,0 +1,29 @@
+package com.sinensia.polloschicharron.business.events;
+
+import com.sinensia.polloschicharron.business.model.Pedido;
+
+/**
+ * Se publica al crear un pedido (ya con su id).
+ * 
+ * Los resúmenes en memoria que se alimentan de los pedidos nuevos (más vendidos, clientes distintos...)
+ * escuchan este evento.
+ * 
+ */
+public class PedidoCreadoEvent {
+
+	private final Pedido pedido;
+	
+	public PedidoCreadoEvent(Pedido pedido) {
+		this.pedido = pedido;
+	}
+
+	public Pedido getPedido() {
+		return pedido;
+	}
+
+	@Override
+	public String toString() {
+		return "PedidoCreadoEvent [idPedido=" + pedido.getId() + "]";
+	}
+	
+}
@@ -0,0 +1,32 @@
+package com.sinensia.polloschicharron.business.events;
+
+import com.sinensia.polloschicharron.business.model.TipoPersona;
+
+/**
+ * Se publica cada vez que se crea, modifica o borra un cliente o un empleado.
+ * 
+ */
+public class PersonaModificadaEvent {
+
+	private final TipoPersona tipo;
+	private final Long id;
+	
+	public PersonaModificadaEvent(TipoPersona tipo, Long id) {
+		this.tipo = tipo;
+		this.id = id;
+	}
+
+	public TipoPersona getTipo() {
+		return tipo;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String toString() {
+		return "PersonaModificadaEvent [tipo=" + tipo + ", id=" + id + "]";
+	}
+	
+}
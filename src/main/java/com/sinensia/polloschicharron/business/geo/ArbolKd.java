@@ -0,0 +1,165 @@
+package com.sinensia.polloschicharron.business.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Árbol k-d inmutable (k = 3) sobre los puntos de la esfera unidad de unas coordenadas.
+ * 
+ * El árbol está implícito en los arrays: el nodo de [desde, hasta) es la mediana (desde + hasta) / 2
+ * según el eje de su profundidad, y los subárboles son las dos mitades. Buscar los k más cercanos
+ * descarta las ramas que quedan más lejos que el k-ésimo encontrado hasta el momento.
+ * 
+ */
+class ArbolKd<T> {
+
+	private final List<T> elementos;
+	private final double[][] puntos;
+	
+	ArbolKd(List<T> elementos, List<Coordenadas> coordenadas) {
+		
+		int n = elementos.size();
+		
+		Integer[] orden = new Integer[n];
+		double[][] vectores = new double[n][];
+		
+		for(int i = 0; i < n; i++) {
+			orden[i] = i;
+			vectores[i] = coordenadas.get(i).toVector();
+		}
+		
+		construir(orden, vectores, 0, n, 0);
+		
+		this.elementos = new ArrayList<>(n);
+		this.puntos = new double[n][];
+		
+		for(int i = 0; i < n; i++) {
+			this.elementos.add(elementos.get(orden[i]));
+			this.puntos[i] = vectores[orden[i]];
+		}
+	}
+	
+	int size() {
+		return puntos.length;
+	}
+	
+	/**
+	 * Los k más cercanos, del más cercano al más lejano
+	 * 
+	 */
+	List<Cercano<T>> cercanos(Coordenadas coordenadas, int k) {
+		
+		if(k <= 0) {
+			return List.of();
+		}
+		
+		Busqueda busqueda = new Busqueda(coordenadas.toVector(), k);
+		busqueda.buscar(0, puntos.length, 0);
+		
+		List<Cercano<T>> resultado = new ArrayList<>(busqueda.numero);
+		
+		for(int i = 0; i < busqueda.numero; i++) {
+			resultado.add(new Cercano<>(elementos.get(busqueda.indices[i]), Coordenadas.toKilometros(Math.sqrt(busqueda.distancias2[i]))));
+		}
+		
+		return resultado;
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private static void construir(Integer[] orden, double[][] vectores, int desde, int hasta, int eje) {
+		
+		if(hasta - desde <= 1) {
+			return;
+		}
+		
+		Arrays.sort(orden, desde, hasta, Comparator.comparingDouble(x -> vectores[x][eje]));
+		
+		int mitad = (desde + hasta) >>> 1;
+		
+		construir(orden, vectores, desde, mitad, (eje + 1) % 3);
+		construir(orden, vectores, mitad + 1, hasta, (eje + 1) % 3);
+	}
+	
+	private double distancia2(int indice, double[] punto) {
+		
+		double[] otro = puntos[indice];
+		
+		double dx = otro[0] - punto[0];
+		double dy = otro[1] - punto[1];
+		double dz = otro[2] - punto[2];
+		
+		return dx * dx + dy * dy + dz * dz;
+	}
+	
+	/**
+	 * Los k mejores ordenados por distancia (k es pequeño: se insertan desplazando)
+	 * 
+	 */
+	private class Busqueda {
+		
+		private final double[] punto;
+		private final int[] indices;
+		private final double[] distancias2;
+		private int numero;
+		
+		private Busqueda(double[] punto, int k) {
+			this.punto = punto;
+			this.indices = new int[k];
+			this.distancias2 = new double[k];
+		}
+		
+		private void buscar(int desde, int hasta, int eje) {
+			
+			if(desde >= hasta) {
+				return;
+			}
+			
+			int mitad = (desde + hasta) >>> 1;
+			
+			anadir(mitad, distancia2(mitad, punto));
+			
+			double diferencia = punto[eje] - puntos[mitad][eje];
+			int siguienteEje = (eje + 1) % 3;
+			
+			// Primero la mitad en la que cae el punto; la otra sólo si puede tener alguno más cerca
+			
+			if(diferencia < 0) {
+				buscar(desde, mitad, siguienteEje);
+				if(numero < indices.length || diferencia * diferencia < distancias2[numero - 1]) {
+					buscar(mitad + 1, hasta, siguienteEje);
+				}
+			} else {
+				buscar(mitad + 1, hasta, siguienteEje);
+				if(numero < indices.length || diferencia * diferencia < distancias2[numero - 1]) {
+					buscar(desde, mitad, siguienteEje);
+				}
+			}
+		}
+		
+		private void anadir(int indice, double distancia2) {
+			
+			if(numero == indices.length && distancia2 >= distancias2[numero - 1]) {
+				return;
+			}
+			
+			int posicion = numero < indices.length ? numero++ : numero - 1;
+			
+			while(posicion > 0 && distancias2[posicion - 1] > distancia2) {
+				indices[posicion] = indices[posicion - 1];
+				distancias2[posicion] = distancias2[posicion - 1];
+				posicion--;
+			}
+			
+			indices[posicion] = indice;
+			distancias2[posicion] = distancia2;
+		}
+	}
+	
+}
@@ -0,0 +1,5 @@
+package com.sinensia.polloschicharron.business.geo;
+
+public record Cercano<T>(T elemento, double distanciaKm) {
+
+}
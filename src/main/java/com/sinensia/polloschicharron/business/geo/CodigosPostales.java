@@ -0,0 +1,77 @@
+package com.sinensia.polloschicharron.business.geo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Centroides de los códigos postales, leídos al arrancar del fichero de referencia
+ * polloschicharron.codigos-postales (codigo_postal;latitud;longitud, # para comentarios).
+ * 
+ */
+@Component
+public class CodigosPostales {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CodigosPostales.class);
+	
+	private final Map<String, Coordenadas> centroides = new HashMap<>();
+	
+	public CodigosPostales(@Value("${polloschicharron.codigos-postales:classpath:data/codigos-postales.csv}") Resource fichero) {
+		
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(fichero.getInputStream(), StandardCharsets.UTF_8))) {
+			
+			String linea;
+			
+			while((linea = reader.readLine()) != null) {
+				
+				if(linea.isBlank() || linea.startsWith("#") || linea.startsWith("codigo_postal")) {
+					continue;
+				}
+				
+				String[] campos = linea.split(";");
+				
+				centroides.put(normalizar(campos[0]), new Coordenadas(Double.parseDouble(campos[1]), Double.parseDouble(campos[2])));
+			}
+			
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se pueden leer los códigos postales de " + fichero, e);
+		}
+		
+		LOGGER.info("Cargados {} centroides de códigos postales", centroides.size());
+	}
+	
+	public Optional<Coordenadas> getCentroide(String codigoPostal) {
+		return codigoPostal == null ? Optional.empty() : Optional.ofNullable(centroides.get(normalizar(codigoPostal)));
+	}
+	
+	public int size() {
+		return centroides.size();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private String normalizar(String codigoPostal) {
+		
+		// Los que empiezan por 0 a veces llegan sin él (8034 en lugar de 08034)
+		
+		String codigo = codigoPostal.strip();
+		
+		return codigo.length() == 4 ? "0" + codigo : codigo;
+	}
+	
+}
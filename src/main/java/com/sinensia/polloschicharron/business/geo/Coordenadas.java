@@ -0,0 +1,43 @@
+package com.sinensia.polloschicharron.business.geo;
+
+/**
+ * Latitud y longitud en grados (WGS84)
+ * 
+ */
+public record Coordenadas(double latitud, double longitud) {
+
+	static final double RADIO_TIERRA_KM = 6371.0088;
+	
+	/**
+	 * Si la latitud o la longitud no son válidas lanza IllegalStateException
+	 * 
+	 */
+	public Coordenadas {
+		
+		if(!(latitud >= -90 && latitud <= 90) || !(longitud >= -180 && longitud <= 180)) {
+			throw new IllegalStateException("Coordenadas no válidas: " + latitud + ", " + longitud);
+		}
+	}
+	
+	/**
+	 * Punto de la esfera unidad (x, y, z): la distancia en línea recta entre dos puntos crece con
+	 * la distancia sobre la superficie, así que sirve para ordenar por cercanía.
+	 * 
+	 */
+	double[] toVector() {
+		
+		double lat = Math.toRadians(latitud);
+		double lon = Math.toRadians(longitud);
+		
+		return new double[] {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+	}
+	
+	/**
+	 * Distancia sobre la superficie a partir de la distancia en línea recta entre dos puntos de la esfera unidad
+	 * 
+	 */
+	static double toKilometros(double cuerda) {
+		return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, cuerda / 2));
+	}
+	
+}
@@ -0,0 +1,157 @@
+package com.sinensia.polloschicharron.business.geo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.EstablecimientoModificadoEvent;
+import com.sinensia.polloschicharron.integration.model.DireccionPL;
+import com.sinensia.polloschicharron.integration.model.EstablecimientoPL;
+import com.sinensia.polloschicharron.integration.repositories.EstablecimientoPLRepository;
+
+/**
+ * Índices en memoria de los establecimientos: un árbol k-d con la ubicación de cada uno (el centroide
+ * de su código postal) y los NIF por provincia y por población normalizadas (sin acentos, mayúsculas
+ * ni espacios de más).
+ * 
+ * Se construyen la primera vez que se usan y se descartan (después del commit) cada vez que se crea
+ * o modifica un establecimiento o se restaura una copia de seguridad. Cada modificación cambia la generación: unos índices construidos con
+ * una generación anterior, aunque la construcción termine después del evento, se vuelven a construir
+ * en la siguiente consulta. Los establecimientos con un código postal que no está en la tabla
+ * de referencia no aparecen en las búsquedas por cercanía.
+ * 
+ */
+@Component
+public class IndiceEstablecimientos {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndiceEstablecimientos.class);
+	
+	private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+	private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+	
+	private final EstablecimientoPLRepository establecimientoPLRepository;
+	private final CodigosPostales codigosPostales;
+	
+	private final AtomicLong generacion = new AtomicLong();
+	
+	private volatile Indices indices;
+	
+	public IndiceEstablecimientos(EstablecimientoPLRepository establecimientoPLRepository, CodigosPostales codigosPostales) {
+		this.establecimientoPLRepository = establecimientoPLRepository;
+		this.codigosPostales = codigosPostales;
+	}
+	
+	/**
+	 * NIF de los establecimientos más cercanos a las coordenadas, del más cercano al más lejano
+	 * 
+	 */
+	public List<Cercano<String>> getCercanos(Coordenadas coordenadas, int top) {
+		return getIndices().arbol.cercanos(coordenadas, top);
+	}
+	
+	public List<String> getByProvincia(String provincia) {
+		return getIndices().porProvincia.getOrDefault(normalizar(provincia), List.of());
+	}
+	
+	public List<String> getByPoblacion(String poblacion) {
+		return getIndices().porPoblacion.getOrDefault(normalizar(poblacion), List.of());
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEstablecimientoModificado(EstablecimientoModificadoEvent event) {
+		generacion.incrementAndGet();
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		generacion.incrementAndGet();
+	}
+	
+	static String normalizar(String texto) {
+		
+		if(texto == null) {
+			return "";
+		}
+		
+		String sinAcentos = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+		
+		return ESPACIOS.matcher(sinAcentos.strip()).replaceAll(" ").toLowerCase();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Indices getIndices() {
+		
+		Indices actuales = indices;
+		
+		if(caducados(actuales)) {
+			synchronized(this) {
+				if(caducados(actuales = indices)) {
+					actuales = construir();
+					indices = actuales;
+				}
+			}
+		}
+		
+		return actuales;
+	}
+	
+	private boolean caducados(Indices indices) {
+		return indices == null || indices.generacion != generacion.get();
+	}
+	
+	private Indices construir() {
+		
+		// Antes de leer: si se modifica un establecimiento durante la construcción, ya no coincidirá
+		
+		long generacionInicial = generacion.get();
+		
+		List<String> ubicados = new ArrayList<>();
+		List<Coordenadas> coordenadas = new ArrayList<>();
+		
+		Map<String, List<String>> porProvincia = new HashMap<>();
+		Map<String, List<String>> porPoblacion = new HashMap<>();
+		
+		for(EstablecimientoPL establecimientoPL: establecimientoPLRepository.findAll()) {
+			
+			String nif = establecimientoPL.getNIF();
+			DireccionPL direccion = establecimientoPL.getDireccion();
+			
+			if(direccion == null) {
+				continue;
+			}
+			
+			porProvincia.computeIfAbsent(normalizar(direccion.getProvincia()), x -> new ArrayList<>()).add(nif);
+			porPoblacion.computeIfAbsent(normalizar(direccion.getPoblacion()), x -> new ArrayList<>()).add(nif);
+			
+			codigosPostales.getCentroide(direccion.getCodigoPostal()).ifPresentOrElse(x -> {
+				ubicados.add(nif);
+				coordenadas.add(x);
+			}, () -> LOGGER.warn("El código postal {} del establecimiento {} no está en la tabla de referencia", direccion.getCodigoPostal(), nif));
+		}
+		
+		porProvincia.values().forEach(x -> x.sort(null));
+		porPoblacion.values().forEach(x -> x.sort(null));
+		
+		return new Indices(generacionInicial, new ArbolKd<>(ubicados, coordenadas), porProvincia, porPoblacion);
+	}
+	
+	private record Indices(long generacion, ArbolKd<String> arbol, Map<String, List<String>> porProvincia, Map<String, List<String>> porPoblacion) {
+		
+	}
+	
+}
@@ -0,0 +1,10 @@
+package com.sinensia.polloschicharron.business.model;
+
+/**
+ * Datos por los que se busca a un cliente o a un empleado (TELEFONO: el fijo o el móvil)
+ * 
+ */
+public enum CampoBusqueda {
+
+	DNI, EMAIL, TELEFONO;
+}
@@ -0,0 +1,11 @@
+package com.sinensia.polloschicharron.business.model;
+
+import java.time.LocalDate;
+
+/**
+ * Agregado de ventas por una dimensión con filtros opcionales (null = sin filtro). El intervalo de fechas es [desde, hasta).
+ * 
+ */
+public record ConsultaVentas(DimensionVentas agrupar, LocalDate desde, LocalDate hasta, String nifEstablecimiento, Long idFamilia) {
+
+}
@@ -0,0 +1,6 @@
+package com.sinensia.polloschicharron.business.model;
+
+public enum DimensionVentas {
+
+	FAMILIA, PRODUCTO, ESTABLECIMIENTO, HORA, DIA;
+}
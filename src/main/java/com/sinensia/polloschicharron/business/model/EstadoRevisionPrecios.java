@@ -0,0 +1,6 @@
+package com.sinensia.polloschicharron.business.model;
+
+public enum EstadoRevisionPrecios {
+
+	PENDIENTE, EN_EJECUCION, COMPLETADA, INTERRUMPIDA, FALLIDA;
+}
@@ -0,0 +1,104 @@
+package com.sinensia.polloschicharron.business.model;
+
+/**
+ * Evento inmutable del journal de pedidos.
+ *
+ * Según el tipo sólo tienen sentido algunos campos:
+ *
+ * PEDIDO_CREADO   -> estado, idEmpleado, idCliente (null si no hay cliente)
+ * LINEA_ANADIDA   -> idProducto, cantidad, precioCentimos
+ * ESTADO_CAMBIADO -> estado
+ * LINEAS_BORRADAS -> ninguno (quita todas las líneas; le siguen las LINEA_ANADIDA de las nuevas)
+ *
+ */
+public class EventoPedido {
+
+	private final long secuencia;
+	private final TipoEventoPedido tipo;
+	private final long idPedido;
+	private final long instante;		// epoch millis
+	private final EstadoPedido estado;
+	private final Long idEmpleado;
+	private final Long idCliente;
+	private final Long idProducto;
+	private final int cantidad;
+	private final long precioCentimos;
+
+	public EventoPedido(long secuencia, TipoEventoPedido tipo, long idPedido, long instante, EstadoPedido estado,
+				 Long idEmpleado, Long idCliente, Long idProducto, int cantidad, long precioCentimos) {
+		this.secuencia = secuencia;
+		this.tipo = tipo;
+		this.idPedido = idPedido;
+		this.instante = instante;
+		this.estado = estado;
+		this.idEmpleado = idEmpleado;
+		this.idCliente = idCliente;
+		this.idProducto = idProducto;
+		this.cantidad = cantidad;
+		this.precioCentimos = precioCentimos;
+	}
+
+	public static EventoPedido pedidoCreado(long idPedido, long instante, EstadoPedido estado, Long idEmpleado, Long idCliente) {
+		return new EventoPedido(0, TipoEventoPedido.PEDIDO_CREADO, idPedido, instante, estado, idEmpleado, idCliente, null, 0, 0);
+	}
+
+	public static EventoPedido lineaAnadida(long idPedido, long instante, Long idProducto, int cantidad, long precioCentimos) {
+		return new EventoPedido(0, TipoEventoPedido.LINEA_ANADIDA, idPedido, instante, null, null, null, idProducto, cantidad, precioCentimos);
+	}
+
+	public static EventoPedido estadoCambiado(long idPedido, long instante, EstadoPedido estado) {
+		return new EventoPedido(0, TipoEventoPedido.ESTADO_CAMBIADO, idPedido, instante, estado, null, null, null, 0, 0);
+	}
+
+	public static EventoPedido lineasBorradas(long idPedido, long instante) {
+		return new EventoPedido(0, TipoEventoPedido.LINEAS_BORRADAS, idPedido, instante, null, null, null, null, 0, 0);
+	}
+
+	public long getSecuencia() {
+		return secuencia;
+	}
+
+	public TipoEventoPedido getTipo() {
+		return tipo;
+	}
+
+	public long getIdPedido() {
+		return idPedido;
+	}
+
+	public long getInstante() {
+		return instante;
+	}
+
+	public EstadoPedido getEstado() {
+		return estado;
+	}
+
+	public Long getIdEmpleado() {
+		return idEmpleado;
+	}
+
+	public Long getIdCliente() {
+		return idCliente;
+	}
+
+	public Long getIdProducto() {
+		return idProducto;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+
+	public long getPrecioCentimos() {
+		return precioCentimos;
+	}
+
+	@Override
+	public String toString() {
+		return "EventoPedido [secuencia=" + secuencia + ", tipo=" + tipo + ", idPedido=" + idPedido + ", instante="
+				+ instante + ", estado=" + estado + ", idEmpleado=" + idEmpleado + ", idCliente=" + idCliente
+				+ ", idProducto=" + idProducto + ", cantidad=" + cantidad + ", precioCentimos=" + precioCentimos + "]";
+	}
+
+}
@@ -0,0 +1,13 @@
+package com.sinensia.polloschicharron.business.model;
+
+import java.util.Date;
+
+/**
+ * Criterios opcionales (null = sin filtro) para listar pedidos. El intervalo de fechas es [desde, hasta).
+ * 
+ */
+public record FiltroPedidos(EstadoPedido estado, String nifEstablecimiento, Date desde, Date hasta) {
+
+	public static final FiltroPedidos TODOS = new FiltroPedidos(null, null, null, null);
+	
+}
@@ -0,0 +1,33 @@
+package com.sinensia.polloschicharron.business.model;
+
+public class LineaListaPrecios {
+
+	private Long idProducto;
+	private double precio;
+	
+	public LineaListaPrecios() {
+
+	}
+
+	public Long getIdProducto() {
+		return idProducto;
+	}
+
+	public void setIdProducto(Long idProducto) {
+		this.idProducto = idProducto;
+	}
+
+	public double getPrecio() {
+		return precio;
+	}
+
+	public void setPrecio(double precio) {
+		this.precio = precio;
+	}
+
+	@Override
+	public String toString() {
+		return "LineaListaPrecios [idProducto=" + idProducto + ", precio=" + precio + "]";
+	}
+
+}
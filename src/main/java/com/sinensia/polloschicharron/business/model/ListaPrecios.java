@@ -0,0 +1,89 @@
+package com.sinensia.polloschicharron.business.model;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lista de precios programada. A partir de fechaVigencia sus precios sustituyen al precio
+ * de catálogo de los productos que incluye; el resto de productos mantiene su precio de catálogo.
+ * 
+ * Las listas no se acumulan: sólo está vigente la última lista cuya fechaVigencia ya ha llegado.
+ * 
+ */
+public class ListaPrecios {
+
+	private Long id;
+	private String nombre;
+	private Date fechaVigencia;
+	private Date fechaAlta;
+	private List<LineaListaPrecios> lineas;
+	
+	public ListaPrecios() {
+		
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public Date getFechaVigencia() {
+		return fechaVigencia;
+	}
+
+	public void setFechaVigencia(Date fechaVigencia) {
+		this.fechaVigencia = fechaVigencia;
+	}
+
+	public Date getFechaAlta() {
+		return fechaAlta;
+	}
+
+	public void setFechaAlta(Date fechaAlta) {
+		this.fechaAlta = fechaAlta;
+	}
+
+	public List<LineaListaPrecios> getLineas() {
+		return lineas;
+	}
+
+	public void setLineas(List<LineaListaPrecios> lineas) {
+		this.lineas = lineas;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ListaPrecios other = (ListaPrecios) obj;
+		return Objects.equals(id, other.id);
+	}
+
+	@Override
+	public String toString() {
+		return "ListaPrecios [id=" + id + ", nombre=" + nombre + ", fechaVigencia=" + fechaVigencia + ", fechaAlta="
+				+ fechaAlta + ", lineas=" + lineas + "]";
+	}
+	
+}
@@ -0,0 +1,6 @@
+package com.sinensia.polloschicharron.business.model;
+
+public enum PeriodoAgregado {
+
+	DIA, SEMANA, MES, TOTAL;
+}
@@ -0,0 +1,60 @@
+package com.sinensia.polloschicharron.business.model;
+
+import java.time.LocalDate;
+
+/**
+ * Petición de recálculo de un informe a partir de los pedidos (archivados incluidos).
+ * 
+ * desde (incluido) y hasta (excluido) limitan los días que se recalculan; si no se informan
+ * se recalcula todo. Los pedidos se reparten en tramos de tamanoTramo códigos consecutivos.
+ * 
+ */
+public class RecalculoInforme {
+
+	private InformeRecalculable informe;
+	private LocalDate desde;
+	private LocalDate hasta;
+	private Integer tamanoTramo;
+	
+	public RecalculoInforme() {
+		
+	}
+
+	public InformeRecalculable getInforme() {
+		return informe;
+	}
+
+	public void setInforme(InformeRecalculable informe) {
+		this.informe = informe;
+	}
+
+	public LocalDate getDesde() {
+		return desde;
+	}
+
+	public void setDesde(LocalDate desde) {
+		this.desde = desde;
+	}
+
+	public LocalDate getHasta() {
+		return hasta;
+	}
+
+	public void setHasta(LocalDate hasta) {
+		this.hasta = hasta;
+	}
+
+	public Integer getTamanoTramo() {
+		return tamanoTramo;
+	}
+
+	public void setTamanoTramo(Integer tamanoTramo) {
+		this.tamanoTramo = tamanoTramo;
+	}
+
+	@Override
+	public String toString() {
+		return "RecalculoInforme [informe=" + informe + ", desde=" + desde + ", hasta=" + hasta + ", tamanoTramo=" + tamanoTramo + "]";
+	}
+	
+}
@@ -0,0 +1,92 @@
+package com.sinensia.polloschicharron.business.model;
+
+import java.util.List;
+
+/**
+ * Petición de revisión de precios.
+ * 
+ * tipo PORCENTAJE: valor = 20.0 incrementa un 20% (valores negativos rebajan)
+ * tipo IMPORTE:    valor = 0.5 suma 0,50 € al precio
+ * 
+ * La selección de productos es la intersección de los criterios informados
+ * (idFamilia, ids, precioMinimo y precioMaximo). Si no se informa ninguno
+ * se revisa todo el catálogo.
+ * 
+ */
+public class RevisionPrecios {
+
+	private TipoRevisionPrecios tipo;
+	private double valor;
+	private Long idFamilia;
+	private List<Long> ids;
+	private Double precioMinimo;
+	private Double precioMaximo;
+	private Integer tamanoLote;
+	
+	public RevisionPrecios() {
+		
+	}
+
+	public TipoRevisionPrecios getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(TipoRevisionPrecios tipo) {
+		this.tipo = tipo;
+	}
+
+	public double getValor() {
+		return valor;
+	}
+
+	public void setValor(double valor) {
+		this.valor = valor;
+	}
+
+	public Long getIdFamilia() {
+		return idFamilia;
+	}
+
+	public void setIdFamilia(Long idFamilia) {
+		this.idFamilia = idFamilia;
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	public Double getPrecioMinimo() {
+		return precioMinimo;
+	}
+
+	public void setPrecioMinimo(Double precioMinimo) {
+		this.precioMinimo = precioMinimo;
+	}
+
+	public Double getPrecioMaximo() {
+		return precioMaximo;
+	}
+
+	public void setPrecioMaximo(Double precioMaximo) {
+		this.precioMaximo = precioMaximo;
+	}
+
+	public Integer getTamanoLote() {
+		return tamanoLote;
+	}
+
+	public void setTamanoLote(Integer tamanoLote) {
+		this.tamanoLote = tamanoLote;
+	}
+
+	@Override
+	public String toString() {
+		return "RevisionPrecios [tipo=" + tipo + ", valor=" + valor + ", idFamilia=" + idFamilia + ", ids=" + ids
+				+ ", precioMinimo=" + precioMinimo + ", precioMaximo=" + precioMaximo + ", tamanoLote=" + tamanoLote + "]";
+	}
+	
+}
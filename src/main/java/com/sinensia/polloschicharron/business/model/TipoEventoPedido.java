@@ -0,0 +1,31 @@
+package com.sinensia.polloschicharron.business.model;
+
+public enum TipoEventoPedido {
+
+	PEDIDO_CREADO(1), LINEA_ANADIDA(2), ESTADO_CAMBIADO(3), LINEAS_BORRADAS(4);
+
+	private final byte codigo;
+
+	private TipoEventoPedido(int codigo) {
+		this.codigo = (byte) codigo;
+	}
+
+	public byte getCodigo() {
+		return codigo;
+	}
+
+	/**
+	 * Devuelve null si el código no corresponde a ningún tipo (hueco libre del segmento)
+	 *
+	 */
+	public static TipoEventoPedido fromCodigo(byte codigo) {
+
+		for(TipoEventoPedido tipo: values()) {
+			if(tipo.codigo == codigo) {
+				return tipo;
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,5 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+public record CambioPrecioDTO(Long idProducto, String nombre, double precioAnterior, double precioNuevo) {
+
+}
@@ -0,0 +1,12 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Estimación de los clientes distintos en [desde, hasta). errorEstandar es relativo (0.016 = 1,6%): 
+ * el valor real está dentro de clientes ± 2 x errorEstandar x clientes en el 95% de los casos.
+ * 
+ */
+public record ClientesDistintosDTO(String periodo, LocalDate desde, LocalDate hasta, long clientes, double errorEstandar) {
+
+}
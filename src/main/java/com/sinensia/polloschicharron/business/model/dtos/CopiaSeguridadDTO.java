@@ -0,0 +1,11 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+import java.util.Date;
+
+/**
+ * tamano: bytes del fichero comprimido
+ * 
+ */
+public record CopiaSeguridadDTO(String nombre, Date fecha, long tamano) {
+
+}
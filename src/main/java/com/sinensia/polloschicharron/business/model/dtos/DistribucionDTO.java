@@ -0,0 +1,5 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+public record DistribucionDTO(double media, double p50, double p90, double p99, double maximo) {
+
+}
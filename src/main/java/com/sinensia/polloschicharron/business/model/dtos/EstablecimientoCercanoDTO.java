@@ -0,0 +1,14 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+/**
+ * distanciaKm: en línea recta hasta el centroide del código postal del establecimiento
+ * 
+ */
+public record EstablecimientoCercanoDTO(String nif, 
+										String nombre, 
+										String direccion, 
+										String poblacion, 
+										String codigoPostal, 
+										double distanciaKm) {
+
+}
@@ -0,0 +1,13 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+import java.util.List;
+
+/**
+ * Página de pedidos con navegación por clave (keyset). idAnterior es el cursor para pedir la página
+ * anterior (pedidos con id menor) e idSiguiente el de la siguiente (pedidos con id mayor). Son null
+ * si no hay más pedidos en esa dirección.
+ * 
+ */
+public record PaginaPedidosDTO1(List<PedidoDTO1> pedidos, Long idAnterior, Long idSiguiente) {
+
+}
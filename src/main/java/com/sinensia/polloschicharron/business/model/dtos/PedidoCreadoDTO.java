@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+/**
+ * total es la suma de precio * cantidad de las líneas con los precios que ha asignado el servidor
+ * 
+ */
+public record PedidoCreadoDTO(Long id, double total) {
+
+}
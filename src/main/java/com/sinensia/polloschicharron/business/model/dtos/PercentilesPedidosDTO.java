@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+/**
+ * periodo: hora ("2023-04-17T09:00") o intervalo ("2023-04-17T09:00/2023-04-18T09:00"). El importe va en euros.
+ * 
+ */
+public record PercentilesPedidosDTO(String periodo, long pedidos, DistribucionDTO importe, DistribucionDTO unidades) {
+
+}
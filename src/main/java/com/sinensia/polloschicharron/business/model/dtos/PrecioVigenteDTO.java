@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+/**
+ * idListaPrecios es null si el precio es el de catálogo
+ * 
+ */
+public record PrecioVigenteDTO(Long idProducto, double precio, Long idListaPrecios) {
+
+}
@@ -1,37 +1,5 @@
 package com.sinensia.polloschicharron.business.model.dtos;
 
-public class ProductoDTO1 {
-	
-	private String nombre;
-	private double precio;
-	private String familia;
-	
-	public ProductoDTO1() {
-		
-	}
+public record ProductoDTO1(String nombre, double precio, String familia) {
 
-	public String getNombre() {
-		return nombre;
-	}
-
-	public void setNombre(String nombre) {
-		this.nombre = nombre;
-	}
-
-	public double getPrecio() {
-		return precio;
-	}
-
-	public void setPrecio(double precio) {
-		this.precio = precio;
-	}
-
-	public String getFamilia() {
-		return familia;
-	}
-
-	public void setFamilia(String familia) {
-		this.familia = familia;
-	}
-	
 }
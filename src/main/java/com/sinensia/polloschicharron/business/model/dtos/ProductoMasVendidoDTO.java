@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+/**
+ * unidades es una estimación por exceso: las vendidas están entre unidades - error y unidades
+ * 
+ */
+public record ProductoMasVendidoDTO(Long idProducto, String nombre, long unidades, long error) {
+
+}
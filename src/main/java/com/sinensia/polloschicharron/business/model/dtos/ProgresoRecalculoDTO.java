@@ -0,0 +1,18 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+import java.util.Date;
+
+import com.sinensia.polloschicharron.business.model.EstadoRecalculo;
+import com.sinensia.polloschicharron.business.model.InformeRecalculable;
+
+public record ProgresoRecalculoDTO(Long id,
+								   InformeRecalculable informe,
+								   EstadoRecalculo estado,
+								   long tramosCompletados,
+								   long tramosTotales,
+								   int paralelismo,
+								   String error,
+								   Date inicio,
+								   Date fin) {
+
+}
@@ -0,0 +1,20 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+import java.util.Date;
+
+import com.sinensia.polloschicharron.business.model.EstadoRevisionPrecios;
+
+/**
+ * ultimoIdProcesado: punto de reanudación
+ * 
+ */
+public record ProgresoRevisionPreciosDTO(Long id, 
+										 EstadoRevisionPrecios estado, 
+										 long productosActualizados, 
+										 long lotesCompletados,
+										 Long ultimoIdProcesado, 
+										 String error, 
+										 Date inicio, 
+										 Date fin) {
+
+}
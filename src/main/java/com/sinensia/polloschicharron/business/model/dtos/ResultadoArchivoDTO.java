@@ -0,0 +1,12 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * limite: se archivan los pedidos cerrados anteriores a esta fecha
+ * 
+ */
+public record ResultadoArchivoDTO(Date limite, long pedidosArchivados, List<String> particiones) {
+
+}
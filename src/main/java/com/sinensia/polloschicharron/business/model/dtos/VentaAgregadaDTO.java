@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.business.model.dtos;
+
+/**
+ * grupo: valor de la dimensión (nombre de la familia o del producto, NIF, hora "09", día "2023-04-17")
+ * 
+ */
+public record VentaAgregadaDTO(String grupo, double importe, long unidades, long lineas) {
+
+}
@@ -0,0 +1,51 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.sinensia.polloschicharron.business.model.ConsultaVentas;
+import com.sinensia.polloschicharron.business.model.PeriodoAgregado;
+import com.sinensia.polloschicharron.business.model.dtos.ClientesDistintosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.PercentilesPedidosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoMasVendidoDTO;
+import com.sinensia.polloschicharron.business.model.dtos.VentaAgregadaDTO;
+
+public interface AnaliticaServices {
+
+	/**
+	 * Importe, unidades y líneas vendidas (pedidos SERVIDO) agrupadas por la dimensión de la consulta.
+	 * 
+	 * Por HORA y DIA los grupos van en orden cronológico; por el resto, de mayor a menor importe.
+	 * 
+	 * Si el intervalo de fechas no es válido lanza IllegalStateException
+	 * 
+	 */
+	List<VentaAgregadaDTO> getVentas(ConsultaVentas consulta);
+	
+	/**
+	 * Los 'top' productos con más unidades en los pedidos de un establecimiento en un día, de mayor a menor.
+	 * 
+	 * Es una estimación en streaming (sólo para los últimos días): cada producto indica su error máximo.
+	 * 
+	 */
+	List<ProductoMasVendidoDTO> getMasVendidos(String nifEstablecimiento, LocalDate dia, int top);
+	
+	/**
+	 * Clientes distintos (estimados con HyperLogLog) del establecimiento, o de todos si nifEstablecimiento
+	 * es null, en cada periodo de [desde, hasta). El primer y el último periodo se recortan al intervalo.
+	 * 
+	 * Si el intervalo no es válido lanza IllegalStateException
+	 * 
+	 */
+	List<ClientesDistintosDTO> getClientesDistintos(String nifEstablecimiento, LocalDate desde, LocalDate hasta, PeriodoAgregado periodo);
+	
+	/**
+	 * Media, p50, p90, p99 y máximo del importe y de las unidades de los pedidos creados en las últimas
+	 * 'horas' horas (incluida la actual) en el establecimiento, o en todos si nifEstablecimiento es null.
+	 * 
+	 * Con porHora devuelve una entrada por cada hora con pedidos; si no, una sola para todo el intervalo.
+	 * 
+	 */
+	List<PercentilesPedidosDTO> getPercentilesPedidos(String nifEstablecimiento, int horas, boolean porHora);
+	
+}
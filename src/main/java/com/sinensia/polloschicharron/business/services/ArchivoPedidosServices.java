@@ -0,0 +1,17 @@
+package com.sinensia.polloschicharron.business.services;
+
+import com.sinensia.polloschicharron.business.model.dtos.ResultadoArchivoDTO;
+
+public interface ArchivoPedidosServices {
+
+	/**
+	 * Mueve al archivo mensual los pedidos SERVIDO y CANCELADO de hace más de 'dias' días, por lotes
+	 * y cada lote en su propia transacción. Los pedidos archivados se siguen pudiendo leer con
+	 * PedidoServices.read(id).
+	 * 
+	 * Si ya hay un archivado en curso lanza IllegalStateException
+	 * 
+	 */
+	ResultadoArchivoDTO archivar(int dias);
+	
+}
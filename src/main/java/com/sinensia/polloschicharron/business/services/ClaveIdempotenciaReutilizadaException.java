@@ -0,0 +1,15 @@
+package com.sinensia.polloschicharron.business.services;
+
+/**
+ * La clave de idempotencia ya se usó para crear un pedido distinto del que se envía ahora.
+ * 
+ */
+public class ClaveIdempotenciaReutilizadaException extends IllegalStateException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ClaveIdempotenciaReutilizadaException(String claveIdempotencia) {
+		super("La clave de idempotencia " + claveIdempotencia + " ya se ha usado con un pedido distinto.");
+	}
+	
+}
@@ -0,0 +1,33 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
+import com.sinensia.polloschicharron.business.model.Cliente;
+
+public interface ClienteServices {
+
+	/**
+	 * Devuelve el id que se ha otorgado al cliente
+	 * 
+	 */
+	Long create(Cliente cliente);
+	
+	Optional<Cliente> read(Long id);
+	
+	void update(Cliente cliente);
+	
+	/**
+	 * Página de clientes ordenados por id a partir del id indicado (excluido, null desde el principio)
+	 * 
+	 */
+	List<Cliente> getPagina(Long despuesDe, int tamano);
+	
+	/**
+	 * Clientes con ese DNI, email o teléfono (fijo o móvil), sin tener en cuenta mayúsculas, separadores ni el prefijo 34
+	 * 
+	 */
+	List<Cliente> buscar(CampoBusqueda campo, String valor);
+	
+}
@@ -0,0 +1,31 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.util.List;
+
+import com.sinensia.polloschicharron.business.model.dtos.CopiaSeguridadDTO;
+
+public interface CopiaSeguridadServices {
+
+	/**
+	 * Vuelca la base de datos a un fichero nuevo sin bloquear las escrituras.
+	 * 
+	 * Si ya hay una copia o una restauración en curso lanza IllegalStateException
+	 * 
+	 */
+	CopiaSeguridadDTO crear();
+	
+	/**
+	 * Copias disponibles, de la más reciente a la más antigua
+	 * 
+	 */
+	List<CopiaSeguridadDTO> getAll();
+	
+	/**
+	 * Sustituye el contenido de la base de datos por el de la copia. Devuelve false si la copia no existe.
+	 * 
+	 * Si ya hay una copia o una restauración en curso lanza IllegalStateException
+	 * 
+	 */
+	boolean restaurar(String nombre);
+	
+}
@@ -1,8 +1,11 @@
 package com.sinensia.polloschicharron.business.services;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
 import com.sinensia.polloschicharron.business.model.Empleado;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO1;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO2;
@@ -13,6 +16,32 @@ public interface EmpleadoServices {
 	
 	List<Empleado> getAll();
 	
+	/**
+	 * Empleados con ese DNI, email o teléfono (fijo o móvil), sin tener en cuenta mayúsculas, separadores ni el prefijo 34
+	 * 
+	 */
+	List<Empleado> buscar(CampoBusqueda campo, String valor);
+	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	/**
+	 * Sólo los campos indicados, con la misma forma que el JSON del modelo completo.
+	 * 
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	List<Map<String, Object>> getAll(Set<String> campos);
+	
+	/**
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	Optional<Map<String, Object>> read(Long id, Set<String> campos);
+	
 	// ***********************************
 	//
 	// DTOs
@@ -1,9 +1,13 @@
 package com.sinensia.polloschicharron.business.services;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoCercanoDTO;
 import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoDTO1;
 
 public interface EstablecimientoServices {
@@ -25,8 +29,58 @@ public interface EstablecimientoServices {
 	
 	List<Establecimiento> getAll();
 	
+	/**
+	 * Sin distinguir mayúsculas ni acentos
+	 * 
+	 */
 	List<Establecimiento> getByProvincia(String provincia);
 	
+	/**
+	 * Sin distinguir mayúsculas ni acentos
+	 * 
+	 */
+	List<Establecimiento> getByPoblacion(String poblacion);
+	
+	// ***********************************
+	//
+	// Cercanía
+	//
+	// ***********************************
+	
+	/**
+	 * Los top establecimientos más cercanos al centroide del código postal.
+	 * 
+	 * Si el código postal no está en la tabla de referencia o top no es positivo lanza IllegalStateException
+	 * 
+	 */
+	List<EstablecimientoCercanoDTO> getCercanos(String codigoPostal, int top);
+	
+	/**
+	 * Si las coordenadas no son válidas o top no es positivo lanza IllegalStateException
+	 * 
+	 */
+	List<EstablecimientoCercanoDTO> getCercanos(double latitud, double longitud, int top);
+	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	/**
+	 * Sólo los campos indicados, con la misma forma que el JSON del modelo completo.
+	 * 
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	List<Map<String, Object>> getAll(Set<String> campos);
+	
+	/**
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	Optional<Map<String, Object>> read(String NIF, Set<String> campos);
+	
 	// ***********************************
 	//
 	// DTOs
@@ -35,4 +89,10 @@ public interface EstablecimientoServices {
 	
 	List<EstablecimientoDTO1> getEstablecimientosDTO1();
 	
+	/**
+	 * Recorre los establecimientos sin cargarlos todos en memoria. El consumidor se invoca dentro de la transacción.
+	 * 
+	 */
+	void forEachEstablecimientoDTO1(Consumer<EstablecimientoDTO1> consumidor);
+	
 }
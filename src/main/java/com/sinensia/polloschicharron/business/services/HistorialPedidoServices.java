@@ -0,0 +1,46 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.EventoPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+
+public interface HistorialPedidoServices {
+
+	/**
+	 * Registra la creación del pedido y una línea por cada LineaPedido.
+	 * 
+	 * El pedido ha de tener id.
+	 * 
+	 */
+	void registrarCreacion(Pedido pedido);
+	
+	void registrarCambioEstado(Long idPedido, EstadoPedido estado);
+	
+	/**
+	 * Registra que las líneas del pedido se han sustituido por las de pedido: se borran todas y se
+	 * añade una por cada LineaPedido.
+	 * 
+	 */
+	void registrarCambioLineas(Pedido pedido);
+	
+	List<EventoPedido> getEventos(Long idPedido);
+	
+	/**
+	 * Reconstruye el pedido aplicando sus eventos en orden, sin acceder a base de datos.
+	 * 
+	 * Empleado, cliente y productos se devuelven sólo con la id.
+	 * 
+	 */
+	Optional<Pedido> reconstruir(Long idPedido);
+	
+	/**
+	 * Recorre todos los eventos a partir de la secuencia indicada (incluida)
+	 * 
+	 */
+	void replay(long desdeSecuencia, Consumer<EventoPedido> consumidor);
+	
+}
@@ -0,0 +1,36 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.sinensia.polloschicharron.business.model.ListaPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.PrecioVigenteDTO;
+
+public interface ListaPreciosServices {
+
+	/**
+	 * Si la id no es null, la fecha de vigencia no es futura, no tiene líneas, algún precio es
+	 * negativo o algún producto no existe o está repetido lanza IllegalStateException
+	 * 
+	 */
+	Long create(ListaPrecios listaPrecios);
+	
+	Optional<ListaPrecios> read(Long id);
+	
+	/**
+	 * Sólo se pueden eliminar listas que todavía no han entrado en vigor.
+	 * 
+	 * Si la id no existe o la lista ya está vigente lanza IllegalStateException
+	 * 
+	 */
+	void delete(Long id);
+	
+	List<ListaPrecios> getAll();
+	
+	/**
+	 * Precio vigente en este instante. Vacío si el producto no existe o está descatalogado.
+	 * 
+	 */
+	Optional<PrecioVigenteDTO> getPrecioVigente(Long idProducto);
+	
+}
@@ -1,19 +1,50 @@
 package com.sinensia.polloschicharron.business.services;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import com.sinensia.polloschicharron.business.model.FiltroPedidos;
 import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.dtos.PaginaPedidosDTO1;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
 import com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1;
 
 public interface PedidoServices {
 
 	/**
-	 * Si la id no es null lanza IllegalStateException
+	 * Los precios de las líneas los asigna el servidor (los que trae el pedido se ignoran). Devuelve el id
+	 * y el total del pedido.
+	 * 
+	 * Si la id no es null, o alguna línea no tiene producto o su producto no existe, está descatalogado
+	 * o no tiene precio, lanza IllegalStateException
+	 * 
+	 */
+	PedidoCreadoDTO create(Pedido pedido);
+	
+	/**
+	 * Igual que create(pedido), pero si ya se creó un pedido con la misma clave de idempotencia
+	 * devuelve su id y total sin volver a insertarlo.
+	 * 
+	 * Si la id no es null lanza IllegalStateException. Si la clave se usó con un pedido distinto
+	 * (otro contenido, sin contar id ni precios) lanza ClaveIdempotenciaReutilizadaException
+	 * 
+	 */
+	PedidoCreadoDTO create(Pedido pedido, String claveIdempotencia);
+	
+	/**
+	 * Id y total del pedido creado con la clave, archivado o no. Si la clave se usó con un pedido distinto
+	 * lanza ClaveIdempotenciaReutilizadaException
 	 * 
 	 */
-	Long create(Pedido pedido);
+	Optional<PedidoCreadoDTO> getPedidoCreadoByClaveIdempotencia(String claveIdempotencia, Pedido pedido);
 	
+	/**
+	 * Si el pedido ya se ha archivado (ArchivoPedidosServices) se lee del archivo
+	 * 
+	 */
 	Optional<Pedido> read(Long id);
 	
 	/**
@@ -30,6 +61,26 @@ public interface PedidoServices {
 	
 	List<Pedido> getAll();
 	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	/**
+	 * Sólo los campos indicados, con la misma forma que el JSON del modelo completo.
+	 * 
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	List<Map<String, Object>> getAll(Set<String> campos);
+	
+	/**
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	Optional<Map<String, Object>> read(Long id, Set<String> campos);
+	
 	// ***********************************
 	//
 	// DTOs
@@ -38,4 +89,19 @@ public interface PedidoServices {
 		
 	List<PedidoDTO1> getPedidosDTO1();
 	
+	/**
+	 * Página de como mucho 'tamano' pedidos que cumplen el filtro, navegando por id (keyset).
+	 * 
+	 * Sin cursores devuelve la primera página; con idDesde los pedidos posteriores a ese id
+	 * y con idHasta los anteriores (idHasta tiene preferencia si llegan los dos).
+	 * 
+	 */
+	PaginaPedidosDTO1 getPaginaPedidosDTO1(FiltroPedidos filtro, Long idDesde, Long idHasta, int tamano);
+	
+	/**
+	 * Recorre los pedidos sin cargarlos todos en memoria. El consumidor se invoca dentro de la transacción.
+	 * 
+	 */
+	void forEachPedidoDTO1(Consumer<PedidoDTO1> consumidor);
+	
 }
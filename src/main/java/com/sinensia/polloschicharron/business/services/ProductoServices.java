@@ -4,6 +4,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.sinensia.polloschicharron.business.model.Familia;
 import com.sinensia.polloschicharron.business.model.Producto;
@@ -86,6 +88,26 @@ public interface ProductoServices {
 	
 	Map<Familia, Double> getEstadisticaPrecioMedioProductosPorFamilia();
 	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	/**
+	 * Sólo los campos indicados, con la misma forma que el JSON del modelo completo.
+	 * 
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	List<Map<String, Object>> getAll(Set<String> campos);
+	
+	/**
+	 * Si no se indica ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	Optional<Map<String, Object>> read(Long id, Set<String> campos);
+	
 	// ***********************************
 	//
 	// DTOs
@@ -94,12 +116,30 @@ public interface ProductoServices {
 	
 	List<ProductoDTO1> getProductosDTO1();
 	
+	/**
+	 * Recorre los productos sin cargarlos todos en memoria. El consumidor se invoca dentro de la transacción.
+	 * 
+	 */
+	void forEachProductoDTO1(Consumer<ProductoDTO1> consumidor);
+	
 	List<ProductoDTO2> getProductosDTO2();
 	
+	/**
+	 * Como forEachProductoDTO1, en formato ProductoDTO2
+	 * 
+	 */
+	void forEachProductoDTO2(Consumer<ProductoDTO2> consumidor);
+	
 	/**
 	 * Devuelve la lista de produtos en formato ProductoDTO3 con el descuento aplicado
 	 * 
 	 */
 	List<ProductoDTO3> getProductosDTO3(double descuento);
 	
+	/**
+	 * Como forEachProductoDTO1, en formato ProductoDTO3 con el descuento aplicado
+	 * 
+	 */
+	void forEachProductoDTO3(double descuento, Consumer<ProductoDTO3> consumidor);
+	
 }
@@ -0,0 +1,29 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.util.Optional;
+
+import com.sinensia.polloschicharron.business.model.RecalculoInforme;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRecalculoDTO;
+
+public interface RecalculoInformesServices {
+
+	/**
+	 * Lanza el recálculo en segundo plano y devuelve su id. Los tramos de pedidos se leen y agregan
+	 * en paralelo y el informe sólo se reemplaza cuando se han combinado todos.
+	 * 
+	 * Si la petición no es válida o ya se está recalculando ese informe lanza IllegalStateException
+	 * 
+	 */
+	Long iniciar(RecalculoInforme recalculo);
+	
+	Optional<ProgresoRecalculoDTO> getProgreso(Long id);
+	
+	/**
+	 * El recálculo se detiene sin modificar el informe.
+	 * 
+	 * Si el recálculo no existe lanza IllegalStateException
+	 * 
+	 */
+	void cancelar(Long id);
+	
+}
@@ -0,0 +1,47 @@
+package com.sinensia.polloschicharron.business.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.sinensia.polloschicharron.business.model.RevisionPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.CambioPrecioDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRevisionPreciosDTO;
+
+public interface RevisionPreciosServices {
+
+	/**
+	 * Calcula los cambios de precio de la revisión sin aplicarlos (dry-run)
+	 * 
+	 * Si la revisión no es válida lanza IllegalStateException
+	 * 
+	 */
+	List<CambioPrecioDTO> simular(RevisionPrecios revision);
+	
+	/**
+	 * Lanza la revisión en segundo plano y devuelve su id. Los productos se recorren
+	 * en orden de id, en lotes del tamaño indicado, y cada lote se aplica en su propia transacción.
+	 * 
+	 * Si la revisión no es válida lanza IllegalStateException
+	 * 
+	 */
+	Long iniciar(RevisionPrecios revision);
+	
+	Optional<ProgresoRevisionPreciosDTO> getProgreso(Long id);
+	
+	/**
+	 * Continúa una revisión interrumpida o fallida a partir del último lote confirmado.
+	 * 
+	 * Si la revisión no existe o no está interrumpida ni fallida lanza IllegalStateException
+	 * 
+	 */
+	void reanudar(Long id);
+	
+	/**
+	 * La revisión se detiene al terminar el lote en curso.
+	 * 
+	 * Si la revisión no existe lanza IllegalStateException
+	 * 
+	 */
+	void interrumpir(Long id);
+	
+}
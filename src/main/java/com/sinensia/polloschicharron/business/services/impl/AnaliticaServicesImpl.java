@@ -0,0 +1,168 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Service;
+
+import com.sinensia.polloschicharron.business.analitica.AlmacenVentas;
+import com.sinensia.polloschicharron.business.analitica.ClientesDistintos;
+import com.sinensia.polloschicharron.business.analitica.DistribucionPedidos;
+import com.sinensia.polloschicharron.business.analitica.FrecuenciaEstimada;
+import com.sinensia.polloschicharron.business.analitica.MasVendidos;
+import com.sinensia.polloschicharron.business.analitica.PercentilesPedidos;
+import com.sinensia.polloschicharron.business.model.ConsultaVentas;
+import com.sinensia.polloschicharron.business.model.PeriodoAgregado;
+import com.sinensia.polloschicharron.business.model.dtos.ClientesDistintosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.DistribucionDTO;
+import com.sinensia.polloschicharron.business.model.dtos.PercentilesPedidosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoMasVendidoDTO;
+import com.sinensia.polloschicharron.business.model.dtos.VentaAgregadaDTO;
+import com.sinensia.polloschicharron.business.services.AnaliticaServices;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+@Service
+public class AnaliticaServicesImpl implements AnaliticaServices {
+
+	private final AlmacenVentas almacenVentas;
+	private final MasVendidos masVendidos;
+	private final ClientesDistintos clientesDistintos;
+	private final PercentilesPedidos percentilesPedidos;
+	private final ProductoPLRepository productoPLRepository;
+	
+	public AnaliticaServicesImpl(AlmacenVentas almacenVentas, 
+								 MasVendidos masVendidos, 
+								 ClientesDistintos clientesDistintos, 
+								 PercentilesPedidos percentilesPedidos,
+								 ProductoPLRepository productoPLRepository) {
+		
+		this.almacenVentas = almacenVentas;
+		this.masVendidos = masVendidos;
+		this.clientesDistintos = clientesDistintos;
+		this.percentilesPedidos = percentilesPedidos;
+		this.productoPLRepository = productoPLRepository;
+	}
+	
+	@Override
+	public List<VentaAgregadaDTO> getVentas(ConsultaVentas consulta) {
+		
+		if(consulta.agrupar() == null) {
+			throw new IllegalStateException("Falta la dimensión por la que agrupar.");
+		}
+		
+		if(consulta.desde() != null && consulta.hasta() != null && !consulta.desde().isBefore(consulta.hasta())) {
+			throw new IllegalStateException("La fecha 'desde' ha de ser anterior a 'hasta'.");
+		}
+		
+		return almacenVentas.agregar(consulta);
+	}
+	
+	@Override
+	public List<ProductoMasVendidoDTO> getMasVendidos(String nifEstablecimiento, LocalDate dia, int top) {
+		
+		if(top <= 0) {
+			throw new IllegalStateException("El número de productos ha de ser positivo.");
+		}
+		
+		List<FrecuenciaEstimada> frecuencias = masVendidos.getTop(nifEstablecimiento, dia, top);
+		
+		Map<Long, String> nombres = new HashMap<>();
+		productoPLRepository.findAllById(frecuencias.stream().map(FrecuenciaEstimada::elemento).toList()).forEach(x -> nombres.put(x.getId(), x.getNombre()));
+		
+		return frecuencias.stream()
+				.map(x -> new ProductoMasVendidoDTO(x.elemento(), nombres.get(x.elemento()), x.cuenta(), x.error()))
+				.toList();
+	}
+	
+	@Override
+	public List<ClientesDistintosDTO> getClientesDistintos(String nifEstablecimiento, LocalDate desde, LocalDate hasta, PeriodoAgregado periodo) {
+		
+		if(!desde.isBefore(hasta)) {
+			throw new IllegalStateException("La fecha 'desde' ha de ser anterior a 'hasta'.");
+		}
+		
+		double errorEstandar = clientesDistintos.getErrorEstandar();
+		
+		List<ClientesDistintosDTO> resultado = new ArrayList<>();
+		
+		LocalDate inicio = desde;
+		
+		while(inicio.isBefore(hasta)) {
+			
+			LocalDate fin = switch(periodo) {
+				case DIA -> inicio.plusDays(1);
+				case SEMANA -> inicio.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+				case MES -> inicio.with(TemporalAdjusters.firstDayOfNextMonth());
+				case TOTAL -> hasta;
+			};
+			
+			fin = fin.isAfter(hasta) ? hasta : fin;
+			
+			String etiqueta = switch(periodo) {
+				case DIA -> inicio.toString();
+				case SEMANA -> String.format("%d-W%02d", inicio.get(IsoFields.WEEK_BASED_YEAR), inicio.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+				case MES -> YearMonth.from(inicio).toString();
+				case TOTAL -> inicio + "/" + fin;
+			};
+			
+			resultado.add(new ClientesDistintosDTO(etiqueta, inicio, fin, clientesDistintos.estimar(nifEstablecimiento, inicio, fin), errorEstandar));
+			
+			inicio = fin;
+		}
+		
+		return resultado;
+	}
+	
+	@Override
+	public List<PercentilesPedidosDTO> getPercentilesPedidos(String nifEstablecimiento, int horas, boolean porHora) {
+		
+		if(horas <= 0) {
+			throw new IllegalStateException("El número de horas ha de ser positivo.");
+		}
+		
+		LocalDateTime desde = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(horas - 1);
+		
+		if(porHora) {
+			return percentilesPedidos.getPorHora(nifEstablecimiento, desde).entrySet().stream()
+					.map(x -> crearPercentiles(x.getKey().toString(), x.getValue()))
+					.toList();
+		}
+		
+		return List.of(crearPercentiles(desde + "/" + desde.plusHours(horas), percentilesPedidos.getTotal(nifEstablecimiento, desde)));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private PercentilesPedidosDTO crearPercentiles(String periodo, DistribucionPedidos distribucion) {
+		return new PercentilesPedidosDTO(periodo, 
+										 distribucion.importe().getTotalCount(), 
+										 crearDistribucion(distribucion.importe(), 100.0), 
+										 crearDistribucion(distribucion.unidades(), 1.0));
+	}
+	
+	private DistribucionDTO crearDistribucion(Histogram histograma, double escala) {
+		
+		// HdrHistogram devuelve el extremo superior del intervalo equivalente; el inferior no se pasa de lo registrado
+		
+		return new DistribucionDTO(histograma.getMean() / escala,
+								   histograma.lowestEquivalentValue(histograma.getValueAtPercentile(50)) / escala,
+								   histograma.lowestEquivalentValue(histograma.getValueAtPercentile(90)) / escala,
+								   histograma.lowestEquivalentValue(histograma.getValueAtPercentile(99)) / escala,
+								   histograma.lowestEquivalentValue(histograma.getMaxValue()) / escala);
+	}
+	
+}
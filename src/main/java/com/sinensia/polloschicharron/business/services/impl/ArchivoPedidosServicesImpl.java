@@ -0,0 +1,112 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sinensia.polloschicharron.business.model.dtos.ResultadoArchivoDTO;
+import com.sinensia.polloschicharron.business.services.ArchivoPedidosServices;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+
+@Service
+public class ArchivoPedidosServicesImpl implements ArchivoPedidosServices {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArchivoPedidosServicesImpl.class);
+	
+	private final ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final int tamanoLote;
+	private final int diasPorDefecto;
+	
+	private final ReentrantLock enCurso = new ReentrantLock();
+	
+	public ArchivoPedidosServicesImpl(ArchivoPedidosPLRepository archivoPedidosPLRepository,
+									  PlatformTransactionManager transactionManager,
+									  @Value("${polloschicharron.archivo.tamano-lote:500}") int tamanoLote,
+									  @Value("${polloschicharron.archivo.dias:90}") int diasPorDefecto) {
+		
+		this.archivoPedidosPLRepository = archivoPedidosPLRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.tamanoLote = tamanoLote;
+		this.diasPorDefecto = diasPorDefecto;
+	}
+	
+	@Override
+	public ResultadoArchivoDTO archivar(int dias) {
+		
+		if(dias < 0) {
+			throw new IllegalStateException("El número de días ha de ser positivo.");
+		}
+		
+		if(!enCurso.tryLock()) {
+			throw new IllegalStateException("Ya hay un archivado de pedidos en curso.");
+		}
+		
+		try {
+			
+			ZoneId zona = ZoneId.systemDefault();
+			Date limite = Date.from(LocalDate.now().minusDays(dias).atStartOfDay(zona).toInstant());
+			
+			long archivados = 0;
+			List<String> particiones = new ArrayList<>();
+			
+			Optional<Date> masAntigua;
+			
+			// Mes a mes, empezando por el más antiguo que tenga pedidos archivables
+			
+			while((masAntigua = archivoPedidosPLRepository.findFechaMasAntigua(limite)).isPresent()) {
+				
+				YearMonth mes = YearMonth.from(masAntigua.get().toInstant().atZone(zona));
+				String particion = ArchivoPedidosPLRepository.getParticion(mes);
+				
+				Date desde = Date.from(mes.atDay(1).atStartOfDay(zona).toInstant());
+				Date hasta = Date.from(mes.plusMonths(1).atDay(1).atStartOfDay(zona).toInstant());
+				Date fin = hasta.before(limite) ? hasta : limite;
+				
+				archivoPedidosPLRepository.crearParticion(particion);
+				
+				int lote;
+				
+				do {
+					lote = transactionTemplate.execute(status -> archivoPedidosPLRepository.archivarLote(particion, desde, fin, tamanoLote));
+					archivados += lote;
+				} while(lote == tamanoLote);
+				
+				particiones.add(particion);
+			}
+			
+			if(archivados > 0) {
+				LOGGER.info("Archivados {} pedidos anteriores a {} en {}", archivados, limite, particiones);
+			}
+			
+			return new ResultadoArchivoDTO(limite, archivados, particiones);
+			
+		} finally {
+			enCurso.unlock();
+		}
+	}
+	
+	@Scheduled(cron = "${polloschicharron.archivo.cron:-}")
+	public void archivadoProgramado() {
+		
+		try {
+			archivar(diasPorDefecto);
+		} catch(IllegalStateException e) {
+			LOGGER.warn("Se omite el archivado programado: {}", e.getMessage());
+		}
+	}
+	
+}
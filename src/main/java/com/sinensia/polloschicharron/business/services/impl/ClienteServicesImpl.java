@@ -0,0 +1,136 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.dozer.DozerBeanMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.sinensia.polloschicharron.business.cache.IndicePersonas;
+import com.sinensia.polloschicharron.business.events.PersonaModificadaEvent;
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.TipoPersona;
+import com.sinensia.polloschicharron.business.services.ClienteServices;
+import com.sinensia.polloschicharron.integration.model.ClientePL;
+import com.sinensia.polloschicharron.integration.model.ClientePlanoPL;
+import com.sinensia.polloschicharron.integration.repositories.ClientePLRepository;
+
+import jakarta.transaction.Transactional;
+
+@Service
+public class ClienteServicesImpl implements ClienteServices {
+
+	private static final int TAMANO_PAGINA_MAXIMO = 500;
+	
+	private ClientePLRepository clientePLRepository;
+	private IndicePersonas indicePersonas;
+	private ApplicationEventPublisher applicationEventPublisher;
+	private DozerBeanMapper mapper;
+	
+	public ClienteServicesImpl(ClientePLRepository clienteRepository, 
+							   IndicePersonas indicePersonas, 
+							   ApplicationEventPublisher applicationEventPublisher,
+							   @Lazy DozerBeanMapper mapper) {
+		
+		this.clientePLRepository = clienteRepository;
+		this.indicePersonas = indicePersonas;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.mapper = mapper;
+	}
+	
+	@Override
+	@Transactional
+	public Long create(Cliente cliente) {
+		
+		if(cliente.getId() != null) {
+			throw new IllegalStateException("Para crear un cliente el id ha de ser null.");
+		}
+		
+		comprobarDniLibre(cliente);
+		
+		ClientePL createdClientePL = clientePLRepository.save(mapper.map(cliente, ClientePL.class));
+		
+		applicationEventPublisher.publishEvent(new PersonaModificadaEvent(TipoPersona.CLIENTE, createdClientePL.getId()));
+		
+		return createdClientePL.getId();
+	}
+	
+	@Override
+	public Optional<Cliente> read(Long id) {
+		
+		Optional<ClientePlanoPL> optionalPL = clientePLRepository.findPlanoById(id);
+		
+		return optionalPL.isEmpty() ? Optional.empty() : Optional.of(mapper.map(optionalPL.get(), Cliente.class));
+	}
+	
+	@Override
+	@Transactional
+	public void update(Cliente cliente) {
+		
+		Long id = cliente.getId();
+		
+		if(id == null || !clientePLRepository.existsById(id)) {
+			throw new IllegalStateException("El cliente con ID [" + id + "] no existe.");
+		}
+		
+		comprobarDniLibre(cliente);
+		
+		clientePLRepository.save(mapper.map(cliente, ClientePL.class));
+		
+		applicationEventPublisher.publishEvent(new PersonaModificadaEvent(TipoPersona.CLIENTE, id));
+	}
+	
+	@Override
+	public List<Cliente> getPagina(Long despuesDe, int tamano) {
+		
+		if(tamano <= 0 || tamano > TAMANO_PAGINA_MAXIMO) {
+			throw new IllegalStateException("El tamaño de página ha de estar entre 1 y " + TAMANO_PAGINA_MAXIMO + ".");
+		}
+		
+		return clientePLRepository.findPaginaPlanos(despuesDe == null ? Long.MIN_VALUE : despuesDe, Limit.of(tamano)).stream()
+				.map(x -> mapper.map(x, Cliente.class))
+				.toList();
+	}
+
+	@Override
+	public List<Cliente> buscar(CampoBusqueda campo, String valor) {
+		
+		List<Long> ids = indicePersonas.buscar(TipoPersona.CLIENTE, campo, valor);
+		
+		return ids.isEmpty() ? List.of() : clientePLRepository.findPlanosById(ids).stream()
+				.map(x -> mapper.map(x, Cliente.class))
+				.toList();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	/**
+	 * DNI es UNIQUE en PERSONAS (clientes y empleados): se comprueba antes para devolver un error claro
+	 * en lugar de la violación de la constraint
+	 * 
+	 */
+	private void comprobarDniLibre(Cliente cliente) {
+		
+		String dni = cliente.getDNI();
+		
+		if(dni == null || dni.isBlank()) {
+			return;
+		}
+		
+		boolean ocupado = indicePersonas.buscar(TipoPersona.CLIENTE, CampoBusqueda.DNI, dni).stream().anyMatch(x -> !x.equals(cliente.getId()))
+					   || !indicePersonas.buscar(TipoPersona.EMPLEADO, CampoBusqueda.DNI, dni).isEmpty();
+		
+		if(ocupado) {
+			throw new IllegalStateException("Ya existe una persona con DNI [" + dni + "].");
+		}
+	}
+	
+}
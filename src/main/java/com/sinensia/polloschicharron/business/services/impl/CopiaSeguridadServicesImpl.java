@@ -0,0 +1,235 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.business.model.dtos.CopiaSeguridadDTO;
+import com.sinensia.polloschicharron.business.services.CopiaSeguridadServices;
+import com.sinensia.polloschicharron.integration.copias.VolcadoH2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Service
+public class CopiaSeguridadServicesImpl implements CopiaSeguridadServices {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CopiaSeguridadServicesImpl.class);
+	
+	private static final String FORMATO_NOMBRE = "'copia-'yyyyMMdd-HHmmss'.sql.gz'";
+	private static final Pattern PATRON_NOMBRE = Pattern.compile("copia-\\d{8}-\\d{6}\\.sql\\.gz");
+	private static final String SUFIJO_PARCIAL = ".parcial";
+	
+	// No sigue PATRON_NOMBRE: no aparece en getAll ni cuenta para purgar
+	
+	private static final String COPIA_PREVIA = "previa-restauracion.sql.gz";
+	
+	private final VolcadoH2 volcadoH2;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final Path directorio;
+	private final long bytesPorSegundo;
+	private final int copiasConservadas;
+	
+	private final ReentrantLock enCurso = new ReentrantLock();
+	
+	private final Timer duracion;
+	private final DistributionSummary tamano;
+	private final Counter errores;
+	
+	public CopiaSeguridadServicesImpl(VolcadoH2 volcadoH2,
+									  ApplicationEventPublisher applicationEventPublisher,
+									  MeterRegistry meterRegistry,
+									  @Value("${polloschicharron.copias.directorio}") Path directorio,
+									  @Value("${polloschicharron.copias.limite-escritura:20MB}") DataSize limiteEscritura,
+									  @Value("${polloschicharron.copias.conservar:7}") int copiasConservadas) {
+		
+		this.volcadoH2 = volcadoH2;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.directorio = directorio;
+		this.bytesPorSegundo = limiteEscritura.toBytes();
+		this.copiasConservadas = copiasConservadas;
+		
+		this.duracion = Timer.builder("polloschicharron.copias.duracion")
+				.description("Tiempo en hacer una copia de seguridad")
+				.register(meterRegistry);
+		
+		this.tamano = DistributionSummary.builder("polloschicharron.copias.tamano")
+				.description("Tamaño comprimido de las copias de seguridad")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		
+		this.errores = Counter.builder("polloschicharron.copias.errores")
+				.description("Copias de seguridad fallidas")
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public CopiaSeguridadDTO crear() {
+		
+		if(!enCurso.tryLock()) {
+			throw new IllegalStateException("Ya hay una copia de seguridad o una restauración en curso.");
+		}
+		
+		try {
+			
+			String nombre = new SimpleDateFormat(FORMATO_NOMBRE).format(new Date());
+			
+			Path fichero = directorio.resolve(nombre);
+			Path parcial = directorio.resolve(nombre + SUFIJO_PARCIAL);
+			
+			long inicio = System.nanoTime();
+			long bytes;
+			
+			try {
+				
+				Files.createDirectories(directorio);
+				
+				try(OutputStream salida = Files.newOutputStream(parcial)) {
+					bytes = volcadoH2.exportar(salida, bytesPorSegundo);
+				}
+				
+				// Sólo aparece con su nombre definitivo (y en getAll) una copia completa
+				
+				Files.move(parcial, fichero, StandardCopyOption.ATOMIC_MOVE);
+				
+			} catch(IOException e) {
+				descartar(parcial);
+				throw new UncheckedIOException("No se puede escribir la copia " + nombre, e);
+			} catch(RuntimeException e) {
+				descartar(parcial);
+				throw e;
+			}
+			
+			long nanos = System.nanoTime() - inicio;
+			
+			duracion.record(nanos, TimeUnit.NANOSECONDS);
+			tamano.record(bytes);
+			
+			LOGGER.info("Copia de seguridad {}: {} bytes en {} ms", nombre, bytes, TimeUnit.NANOSECONDS.toMillis(nanos));
+			
+			purgar();
+			
+			return toDTO(fichero);
+			
+		} finally {
+			enCurso.unlock();
+		}
+	}
+	
+	@Override
+	public List<CopiaSeguridadDTO> getAll() {
+		
+		if(!Files.isDirectory(directorio)) {
+			return List.of();
+		}
+		
+		try(Stream<Path> ficheros = Files.list(directorio)) {
+			return ficheros
+					.filter(x -> PATRON_NOMBRE.matcher(x.getFileName().toString()).matches())
+					.map(this::toDTO)
+					.sorted(Comparator.comparing(CopiaSeguridadDTO::nombre).reversed())
+					.toList();
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se pueden listar las copias de " + directorio, e);
+		}
+	}
+	
+	@Override
+	public boolean restaurar(String nombre) {
+		
+		// El patrón impide salir del directorio de copias (../)
+		
+		if(!PATRON_NOMBRE.matcher(nombre).matches() || !Files.isRegularFile(directorio.resolve(nombre))) {
+			return false;
+		}
+		
+		if(!enCurso.tryLock()) {
+			throw new IllegalStateException("Ya hay una copia de seguridad o una restauración en curso.");
+		}
+		
+		try {
+			volcadoH2.importar(directorio.resolve(nombre), directorio.resolve(COPIA_PREVIA));
+		} finally {
+			enCurso.unlock();
+		}
+		
+		LOGGER.info("Base de datos restaurada desde la copia {}", nombre);
+		
+		applicationEventPublisher.publishEvent(new BaseDatosRestauradaEvent(nombre));
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Restauración de la copia " + nombre));
+		
+		return true;
+	}
+	
+	@Scheduled(cron = "${polloschicharron.copias.cron:-}")
+	public void copiaProgramada() {
+		
+		try {
+			crear();
+		} catch(IllegalStateException e) {
+			LOGGER.warn("Se omite la copia programada: {}", e.getMessage());
+		}
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void purgar() {
+		
+		List<CopiaSeguridadDTO> copias = getAll();
+		
+		for(int i = copiasConservadas; i < copias.size(); i++) {
+			borrar(directorio.resolve(copias.get(i).nombre()));
+		}
+	}
+	
+	private CopiaSeguridadDTO toDTO(Path fichero) {
+		
+		try {
+			return new CopiaSeguridadDTO(fichero.getFileName().toString(), new Date(Files.getLastModifiedTime(fichero).toMillis()), Files.size(fichero));
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se puede leer la copia " + fichero, e);
+		}
+	}
+	
+	private void descartar(Path parcial) {
+		errores.increment();
+		borrar(parcial);
+	}
+	
+	private void borrar(Path fichero) {
+		
+		try {
+			Files.deleteIfExists(fichero);
+		} catch(IOException e) {
+			LOGGER.warn("No se puede borrar {}: {}", fichero, e.getMessage());
+		}
+	}
+	
+}
@@ -1,33 +1,49 @@
 package com.sinensia.polloschicharron.business.services.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.dozer.DozerBeanMapper;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import com.sinensia.polloschicharron.business.cache.IndicePersonas;
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
 import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.TipoPersona;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO1;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO2;
 import com.sinensia.polloschicharron.business.services.EmpleadoServices;
-import com.sinensia.polloschicharron.integration.model.EmpleadoPL;
+import com.sinensia.polloschicharron.integration.model.EmpleadoPlanoPL;
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL;
 import com.sinensia.polloschicharron.integration.repositories.EmpleadoPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProyeccionPLRepository;
 
 @Service
 public class EmpleadoServicesImpl implements EmpleadoServices {
 
 	private EmpleadoPLRepository empleadoPLRepository;
+	private ProyeccionPLRepository proyeccionPLRepository;
+	private IndicePersonas indicePersonas;
 	private DozerBeanMapper mapper;
 	
-	public EmpleadoServicesImpl(EmpleadoPLRepository empleadoRepository, DozerBeanMapper mapper) {
+	public EmpleadoServicesImpl(EmpleadoPLRepository empleadoRepository, 
+								ProyeccionPLRepository proyeccionRepository, 
+								IndicePersonas indicePersonas, 
+								@Lazy DozerBeanMapper mapper) {
+		
 		this.empleadoPLRepository = empleadoRepository;
+		this.proyeccionPLRepository = proyeccionRepository;
+		this.indicePersonas = indicePersonas;
 		this.mapper = mapper;
 	}
 	
 	@Override
 	public Optional<Empleado> read(Long id) {
 		
-		Optional<EmpleadoPL> optionalPL = empleadoPLRepository.findById(id);
+		Optional<EmpleadoPlanoPL> optionalPL = empleadoPLRepository.findPlanoById(id);
 		
 		return optionalPL.isEmpty() ? Optional.empty() : Optional.of(mapper.map(optionalPL.get(), Empleado.class));
 	}
@@ -35,13 +51,39 @@ public class EmpleadoServicesImpl implements EmpleadoServices {
 	@Override
 	public List<Empleado> getAll() {
 		
-		List<EmpleadoPL> empleadosPL = empleadoPLRepository.findAll();
+		List<EmpleadoPlanoPL> empleadosPL = empleadoPLRepository.findPlanos();
 		
 		return empleadosPL.stream()
 				.map(x -> mapper.map(x, Empleado.class)).toList();
 		
 	}
 	
+	@Override
+	public List<Empleado> buscar(CampoBusqueda campo, String valor) {
+		
+		List<Long> ids = indicePersonas.buscar(TipoPersona.EMPLEADO, campo, valor);
+		
+		return ids.isEmpty() ? List.of() : empleadoPLRepository.findPlanosById(ids).stream()
+				.map(x -> mapper.map(x, Empleado.class))
+				.toList();
+	}
+	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	@Override
+	public List<Map<String, Object>> getAll(Set<String> campos) {
+		return proyeccionPLRepository.findAll(ProyeccionPL.EMPLEADOS, campos);
+	}
+
+	@Override
+	public Optional<Map<String, Object>> read(Long id, Set<String> campos) {
+		return proyeccionPLRepository.findById(ProyeccionPL.EMPLEADOS, id, campos);
+	}
+	
 	// ***********************************
 	//
 	// DTOs
@@ -1,16 +1,33 @@
 package com.sinensia.polloschicharron.business.services.impl;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.dozer.DozerBeanMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import com.sinensia.polloschicharron.business.events.EstablecimientoModificadoEvent;
+import com.sinensia.polloschicharron.business.geo.Cercano;
+import com.sinensia.polloschicharron.business.geo.CodigosPostales;
+import com.sinensia.polloschicharron.business.geo.Coordenadas;
+import com.sinensia.polloschicharron.business.geo.IndiceEstablecimientos;
 import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoCercanoDTO;
 import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoDTO1;
 import com.sinensia.polloschicharron.business.services.EstablecimientoServices;
 import com.sinensia.polloschicharron.integration.model.EstablecimientoPL;
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL;
 import com.sinensia.polloschicharron.integration.repositories.EstablecimientoPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProyeccionPLRepository;
 
 import jakarta.transaction.Transactional;
 
@@ -18,10 +35,24 @@ import jakarta.transaction.Transactional;
 public class EstablecimientoServicesImpl implements EstablecimientoServices {
 
 	private EstablecimientoPLRepository establecimientoPLRepository;
+	private ProyeccionPLRepository proyeccionPLRepository;
+	private IndiceEstablecimientos indiceEstablecimientos;
+	private CodigosPostales codigosPostales;
+	private ApplicationEventPublisher applicationEventPublisher;
 	private DozerBeanMapper mapper;
 	
-	public EstablecimientoServicesImpl(EstablecimientoPLRepository establecimientoRepository, DozerBeanMapper mapper) {
+	public EstablecimientoServicesImpl(EstablecimientoPLRepository establecimientoRepository, 
+									   ProyeccionPLRepository proyeccionRepository, 
+									   IndiceEstablecimientos indiceEstablecimientos,
+									   CodigosPostales codigosPostales,
+									   ApplicationEventPublisher applicationEventPublisher,
+									   @Lazy DozerBeanMapper mapper) {
+		
 		this.establecimientoPLRepository = establecimientoRepository;
+		this.proyeccionPLRepository = proyeccionRepository;
+		this.indiceEstablecimientos = indiceEstablecimientos;
+		this.codigosPostales = codigosPostales;
+		this.applicationEventPublisher = applicationEventPublisher;
 		this.mapper = mapper;
 	}
 	
@@ -41,6 +72,7 @@ public class EstablecimientoServicesImpl implements EstablecimientoServices {
 		
 		establecimientoPLRepository.save(establecimientoPL);
 		
+		applicationEventPublisher.publishEvent(new EstablecimientoModificadoEvent(NIF));
 	}
 
 	@Override
@@ -65,6 +97,7 @@ public class EstablecimientoServicesImpl implements EstablecimientoServices {
 		
 		establecimientoPLRepository.save(mapper.map(establecimiento, EstablecimientoPL.class));
 		
+		applicationEventPublisher.publishEvent(new EstablecimientoModificadoEvent(NIF));
 	}
 
 	@Override
@@ -76,9 +109,48 @@ public class EstablecimientoServicesImpl implements EstablecimientoServices {
 
 	@Override
 	public List<Establecimiento> getByProvincia(String provincia) {
-		return establecimientoPLRepository.findByDireccionProvinciaIgnoreCase(provincia).stream()
-				.map(x -> mapper.map(x, Establecimiento.class))
-				.toList();
+		return findAllById(indiceEstablecimientos.getByProvincia(provincia));
+	}
+	
+	@Override
+	public List<Establecimiento> getByPoblacion(String poblacion) {
+		return findAllById(indiceEstablecimientos.getByPoblacion(poblacion));
+	}
+	
+	// ***********************************
+	//
+	// Cercanía
+	//
+	// ***********************************
+	
+	@Override
+	public List<EstablecimientoCercanoDTO> getCercanos(String codigoPostal, int top) {
+		
+		Coordenadas centroide = codigosPostales.getCentroide(codigoPostal)
+				.orElseThrow(() -> new IllegalStateException("El código postal [" + codigoPostal + "] no está en la tabla de referencia."));
+		
+		return getCercanos(centroide, top);
+	}
+	
+	@Override
+	public List<EstablecimientoCercanoDTO> getCercanos(double latitud, double longitud, int top) {
+		return getCercanos(new Coordenadas(latitud, longitud), top);
+	}
+	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	@Override
+	public List<Map<String, Object>> getAll(Set<String> campos) {
+		return proyeccionPLRepository.findAll(ProyeccionPL.ESTABLECIMIENTOS, campos);
+	}
+
+	@Override
+	public Optional<Map<String, Object>> read(String NIF, Set<String> campos) {
+		return proyeccionPLRepository.findById(ProyeccionPL.ESTABLECIMIENTOS, NIF, campos);
 	}
 	
 	// ***********************************
@@ -92,4 +164,50 @@ public class EstablecimientoServicesImpl implements EstablecimientoServices {
 		return establecimientoPLRepository.findDTO1();
 	}
 	
+	@Override
+	@Transactional
+	public void forEachEstablecimientoDTO1(Consumer<EstablecimientoDTO1> consumidor) {
+		try(Stream<EstablecimientoDTO1> establecimientos = establecimientoPLRepository.streamDTO1()) {
+			establecimientos.forEach(consumidor);
+		}
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private List<Establecimiento> findAllById(List<String> nifs) {
+		return establecimientoPLRepository.findAllById(nifs).stream()
+				.sorted(Comparator.comparing(EstablecimientoPL::getNIF))
+				.map(x -> mapper.map(x, Establecimiento.class))
+				.toList();
+	}
+	
+	private List<EstablecimientoCercanoDTO> getCercanos(Coordenadas coordenadas, int top) {
+		
+		if(top <= 0) {
+			throw new IllegalStateException("El número de establecimientos ha de ser positivo.");
+		}
+		
+		List<Cercano<String>> cercanos = indiceEstablecimientos.getCercanos(coordenadas, top);
+		
+		Map<String, EstablecimientoPL> establecimientosPL = establecimientoPLRepository.findAllById(cercanos.stream().map(Cercano::elemento).toList()).stream()
+				.collect(Collectors.toMap(EstablecimientoPL::getNIF, Function.identity()));
+		
+		return cercanos.stream()
+				.filter(x -> establecimientosPL.containsKey(x.elemento()))
+				.map(x -> {
+					EstablecimientoPL establecimientoPL = establecimientosPL.get(x.elemento());
+					return new EstablecimientoCercanoDTO(establecimientoPL.getNIF(), 
+														 establecimientoPL.getNombre(), 
+														 establecimientoPL.getDireccion().getDireccion(), 
+														 establecimientoPL.getDireccion().getPoblacion(), 
+														 establecimientoPL.getDireccion().getCodigoPostal(), 
+														 Math.round(x.distanciaKm() * 100) / 100.0);
+				})
+				.toList();
+	}
+	
 }
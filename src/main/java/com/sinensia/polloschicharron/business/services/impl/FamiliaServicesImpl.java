@@ -4,8 +4,11 @@ import java.util.List;
 import java.util.Optional;
 
 import org.dozer.DozerBeanMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
 import com.sinensia.polloschicharron.business.model.Familia;
 import com.sinensia.polloschicharron.business.services.FamiliaServices;
 import com.sinensia.polloschicharron.integration.model.FamiliaPL;
@@ -17,10 +20,12 @@ import jakarta.transaction.Transactional;
 public class FamiliaServicesImpl implements FamiliaServices {
 
 	private FamiliaPLRepository familiaPLRepository;
+	private ApplicationEventPublisher applicationEventPublisher;
 	private DozerBeanMapper mapper;
 	
-	public FamiliaServicesImpl(FamiliaPLRepository familiaRepository, DozerBeanMapper mapper) {
+	public FamiliaServicesImpl(FamiliaPLRepository familiaRepository, ApplicationEventPublisher applicationEventPublisher, @Lazy DozerBeanMapper mapper) {
 		this.familiaPLRepository = familiaRepository;
+		this.applicationEventPublisher = applicationEventPublisher;
 		this.mapper = mapper;
 	}
 	
@@ -36,6 +41,8 @@ public class FamiliaServicesImpl implements FamiliaServices {
 		
 		FamiliaPL createdFamiliaPL = familiaPLRepository.save(familiaPL);
 		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Alta de la familia " + createdFamiliaPL.getId()));
+		
 		return createdFamiliaPL.getId();
 	}
 	
@@ -61,6 +68,7 @@ public class FamiliaServicesImpl implements FamiliaServices {
 		
 		familiaPLRepository.save(mapper.map(familia, FamiliaPL.class));
 		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Modificación de la familia " + id));
 	}
 
 	@Override
@@ -0,0 +1,170 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.EventoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
+import com.sinensia.polloschicharron.integration.journal.PedidoJournal;
+
+@Service
+public class HistorialPedidoServicesImpl implements HistorialPedidoServices {
+
+	private PedidoJournal pedidoJournal;
+	
+	public HistorialPedidoServicesImpl(PedidoJournal pedidoJournal) {
+		this.pedidoJournal = pedidoJournal;
+	}
+	
+	@Override
+	public void registrarCreacion(Pedido pedido) {
+		
+		long idPedido = pedido.getId();
+		long instante = pedido.getFechaHora() != null ? pedido.getFechaHora().getTime() : System.currentTimeMillis();
+		
+		Long idEmpleado = pedido.getEmpleado() != null ? pedido.getEmpleado().getId() : null;
+		Long idCliente = pedido.getCliente() != null ? pedido.getCliente().getId() : null;
+		
+		List<EventoPedido> eventos = new ArrayList<>();
+		
+		eventos.add(EventoPedido.pedidoCreado(idPedido, instante, pedido.getEstado(), idEmpleado, idCliente));
+		
+		anadirLineas(eventos, pedido, instante);
+		
+		Transacciones.alConfirmar(() -> eventos.forEach(pedidoJournal::append));
+	}
+
+	@Override
+	public void registrarCambioEstado(Long idPedido, EstadoPedido estado) {
+		EventoPedido evento = EventoPedido.estadoCambiado(idPedido, System.currentTimeMillis(), estado);
+		
+		Transacciones.alConfirmar(() -> pedidoJournal.append(evento));
+	}
+
+	@Override
+	public void registrarCambioLineas(Pedido pedido) {
+		
+		long instante = System.currentTimeMillis();
+		
+		List<EventoPedido> eventos = new ArrayList<>();
+		
+		eventos.add(EventoPedido.lineasBorradas(pedido.getId(), instante));
+		
+		anadirLineas(eventos, pedido, instante);
+		
+		Transacciones.alConfirmar(() -> eventos.forEach(pedidoJournal::append));
+	}
+
+	@Override
+	public List<EventoPedido> getEventos(Long idPedido) {
+		return pedidoJournal.getEventos(idPedido);
+	}
+
+	@Override
+	public Optional<Pedido> reconstruir(Long idPedido) {
+		
+		List<EventoPedido> eventos = pedidoJournal.getEventos(idPedido);
+		
+		if(eventos.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		Pedido pedido = new Pedido();
+		pedido.setId(idPedido);
+		pedido.setLineas(new ArrayList<>());
+		
+		eventos.forEach(evento -> aplicar(pedido, evento));
+		
+		return Optional.of(pedido);
+	}
+
+	@Override
+	public void replay(long desdeSecuencia, Consumer<EventoPedido> consumidor) {
+		pedidoJournal.replay(desdeSecuencia, consumidor);
+	}
+
+	/**
+	 * La secuencia de pedidos vuelve a la de la copia: los eventos anteriores serían de otros pedidos con las mismas ids
+	 * 
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBaseDatosRestaurada(BaseDatosRestauradaEvent event) {
+		pedidoJournal.reiniciar();
+	}
+
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void anadirLineas(List<EventoPedido> eventos, Pedido pedido, long instante) {
+		
+		if(pedido.getLineas() == null) {
+			return;
+		}
+		
+		for(LineaPedido linea: pedido.getLineas()) {
+			
+			Long idProducto = linea.getProducto() != null ? linea.getProducto().getId() : null;
+			long precioCentimos = linea.getPrecio() != null ? Math.round(linea.getPrecio() * 100) : 0;
+			
+			eventos.add(EventoPedido.lineaAnadida(pedido.getId(), instante, idProducto, linea.getCantidad(), precioCentimos));
+		}
+	}
+	
+	private void aplicar(Pedido pedido, EventoPedido evento) {
+		
+		switch(evento.getTipo()) {
+		
+			case PEDIDO_CREADO -> {
+				
+				pedido.setFechaHora(new Date(evento.getInstante()));
+				pedido.setEstado(evento.getEstado());
+				
+				if(evento.getIdEmpleado() != null) {
+					Empleado empleado = new Empleado();
+					empleado.setId(evento.getIdEmpleado());
+					pedido.setEmpleado(empleado);
+				}
+				
+				if(evento.getIdCliente() != null) {
+					Cliente cliente = new Cliente();
+					cliente.setId(evento.getIdCliente());
+					pedido.setCliente(cliente);
+				}
+			}
+			
+			case LINEA_ANADIDA -> {
+				
+				Producto producto = new Producto();
+				producto.setId(evento.getIdProducto());
+				
+				LineaPedido linea = new LineaPedido();
+				linea.setProducto(producto);
+				linea.setCantidad(evento.getCantidad());
+				linea.setPrecio(evento.getPrecioCentimos() / 100.0);
+				
+				pedido.getLineas().add(linea);
+			}
+			
+			case LINEAS_BORRADAS -> pedido.getLineas().clear();
+			
+			case ESTADO_CAMBIADO -> pedido.setEstado(evento.getEstado());
+		}
+	}
+	
+}
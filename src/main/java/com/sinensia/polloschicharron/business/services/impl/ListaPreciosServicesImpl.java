@@ -0,0 +1,132 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.dozer.DozerBeanMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import com.sinensia.polloschicharron.business.cache.ResolutorPrecios;
+import com.sinensia.polloschicharron.business.cache.TablaPrecios;
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.business.model.LineaListaPrecios;
+import com.sinensia.polloschicharron.business.model.ListaPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.PrecioVigenteDTO;
+import com.sinensia.polloschicharron.business.services.ListaPreciosServices;
+import com.sinensia.polloschicharron.integration.model.ListaPreciosPL;
+import com.sinensia.polloschicharron.integration.repositories.ListaPreciosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+import jakarta.transaction.Transactional;
+
+@Service
+public class ListaPreciosServicesImpl implements ListaPreciosServices {
+
+	private final ListaPreciosPLRepository listaPreciosPLRepository;
+	private final ProductoPLRepository productoPLRepository;
+	private final ResolutorPrecios resolutorPrecios;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private DozerBeanMapper mapper;
+	
+	public ListaPreciosServicesImpl(ListaPreciosPLRepository listaPreciosRepository,
+									ProductoPLRepository productoRepository,
+									ResolutorPrecios resolutorPrecios,
+									ApplicationEventPublisher applicationEventPublisher,
+									@Lazy DozerBeanMapper mapper) {
+		
+		this.listaPreciosPLRepository = listaPreciosRepository;
+		this.productoPLRepository = productoRepository;
+		this.resolutorPrecios = resolutorPrecios;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.mapper = mapper;
+	}
+	
+	@Override
+	@Transactional
+	public Long create(ListaPrecios listaPrecios) {
+		
+		if(listaPrecios.getId() != null) {
+			throw new IllegalStateException("Para crear una lista de precios el id ha de ser null.");
+		}
+		
+		if(listaPrecios.getFechaVigencia() == null || !listaPrecios.getFechaVigencia().after(new Date())) {
+			throw new IllegalStateException("La fecha de vigencia de la lista de precios ha de ser futura.");
+		}
+		
+		List<LineaListaPrecios> lineas = listaPrecios.getLineas();
+		
+		if(lineas == null || lineas.isEmpty()) {
+			throw new IllegalStateException("La lista de precios no tiene líneas.");
+		}
+		
+		if(lineas.stream().anyMatch(x -> x.getIdProducto() == null || x.getPrecio() < 0)) {
+			throw new IllegalStateException("Todas las líneas han de indicar producto y un precio no negativo.");
+		}
+		
+		List<Long> ids = lineas.stream().map(LineaListaPrecios::getIdProducto).distinct().toList();
+		
+		if(ids.size() != lineas.size()) {
+			throw new IllegalStateException("La lista de precios tiene productos repetidos.");
+		}
+		
+		if(productoPLRepository.findAllById(ids).size() != ids.size()) {
+			throw new IllegalStateException("La lista de precios incluye productos que no existen.");
+		}
+		
+		listaPrecios.setFechaAlta(new Date());
+		
+		ListaPreciosPL createdListaPreciosPL = listaPreciosPLRepository.save(mapper.map(listaPrecios, ListaPreciosPL.class));
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Alta de la lista de precios " + createdListaPreciosPL.getId()));
+		
+		return createdListaPreciosPL.getId();
+	}
+
+	@Override
+	public Optional<ListaPrecios> read(Long id) {
+		
+		Optional<ListaPreciosPL> optionalPL = listaPreciosPLRepository.findConLineasById(id);
+		
+		return optionalPL.isEmpty() ? Optional.empty() : Optional.of(mapper.map(optionalPL.get(), ListaPrecios.class));
+	}
+
+	@Override
+	@Transactional
+	public void delete(Long id) {
+		
+		Optional<ListaPreciosPL> optionalPL = listaPreciosPLRepository.findById(id);
+		
+		if(optionalPL.isEmpty()) {
+			throw new IllegalStateException("La lista de precios con ID [" + id + "] no existe.");
+		}
+		
+		if(!optionalPL.get().getFechaVigencia().after(new Date())) {
+			throw new IllegalStateException("La lista de precios con ID [" + id + "] ya está vigente y no se puede eliminar.");
+		}
+		
+		listaPreciosPLRepository.delete(optionalPL.get());
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Baja de la lista de precios " + id));
+	}
+
+	@Override
+	public List<ListaPrecios> getAll() {
+		
+		return listaPreciosPLRepository.findAllConLineas().stream()
+				.map(x -> mapper.map(x, ListaPrecios.class))
+				.toList();
+	}
+
+	@Override
+	public Optional<PrecioVigenteDTO> getPrecioVigente(Long idProducto) {
+		
+		TablaPrecios tabla = resolutorPrecios.getTablaVigente();
+		double precio = tabla.getPrecio(idProducto);
+		
+		return Double.isNaN(precio) ? Optional.empty() : Optional.of(new PrecioVigenteDTO(idProducto, precio, tabla.getIdListaPrecios()));
+	}
+
+}
@@ -1,16 +1,58 @@
 package com.sinensia.polloschicharron.business.services.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.dozer.DozerBeanMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.sinensia.polloschicharron.business.cache.CacheIdempotencia;
+import com.sinensia.polloschicharron.business.cache.ClientesGold;
+import com.sinensia.polloschicharron.business.cache.ResolutorPrecios;
+import com.sinensia.polloschicharron.business.cache.TablaPrecios;
+import com.sinensia.polloschicharron.business.events.EstadoPedidoCambiadoEvent;
+import com.sinensia.polloschicharron.business.events.LineasPedidoCambiadasEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCerradoEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCreadoEvent;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.FiltroPedidos;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
 import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.dtos.PaginaPedidosDTO1;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
 import com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1;
+import com.sinensia.polloschicharron.business.services.ClaveIdempotenciaReutilizadaException;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
 import com.sinensia.polloschicharron.business.services.PedidoServices;
+import com.sinensia.polloschicharron.integration.model.ClaveIdempotenciaPL;
+import com.sinensia.polloschicharron.integration.model.EstadoPedidoPL;
+import com.sinensia.polloschicharron.integration.model.LineaPedidoPL;
+import com.sinensia.polloschicharron.integration.model.PedidoLecturaPL;
 import com.sinensia.polloschicharron.integration.model.PedidoPL;
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ClaveIdempotenciaPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.PedidoLecturaPLRepository;
 import com.sinensia.polloschicharron.integration.repositories.PedidoPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProyeccionPLRepository;
 
 import jakarta.transaction.Transactional;
 
@@ -18,33 +60,170 @@ import jakarta.transaction.Transactional;
 public class PedidoServicesImpl implements PedidoServices{
 
 	private PedidoPLRepository pedidoPLRepository;
+	private PedidoLecturaPLRepository pedidoLecturaPLRepository;
+	private ProyeccionPLRepository proyeccionPLRepository;
+	private ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	private ClaveIdempotenciaPLRepository claveIdempotenciaPLRepository;
+	private CacheIdempotencia cacheIdempotencia;
+	private ClientesGold clientesGold;
+	private ResolutorPrecios resolutorPrecios;
+	private HistorialPedidoServices historialPedidoServices;
+	private ApplicationEventPublisher applicationEventPublisher;
 	private DozerBeanMapper mapper;
 	
-	public PedidoServicesImpl(PedidoPLRepository pedidoRepository, DozerBeanMapper mapper) {
+	private double descuentoGold;
+	
+	public PedidoServicesImpl(PedidoPLRepository pedidoRepository, 
+							  PedidoLecturaPLRepository pedidoLecturaRepository,
+							  ClaveIdempotenciaPLRepository claveIdempotenciaRepository,
+							  CacheIdempotencia cacheIdempotencia,
+							  ClientesGold clientesGold,
+							  ResolutorPrecios resolutorPrecios,
+							  HistorialPedidoServices historialPedidoServices, 
+							  ProyeccionPLRepository proyeccionRepository,
+							  ArchivoPedidosPLRepository archivoPedidosRepository,
+							  ApplicationEventPublisher applicationEventPublisher,
+							  @Lazy DozerBeanMapper mapper,
+							  @Value("${polloschicharron.descuento-gold:0}") double descuentoGold) {
+		
 		this.pedidoPLRepository = pedidoRepository;
+		this.pedidoLecturaPLRepository = pedidoLecturaRepository;
+		this.claveIdempotenciaPLRepository = claveIdempotenciaRepository;
+		this.cacheIdempotencia = cacheIdempotencia;
+		this.clientesGold = clientesGold;
+		this.resolutorPrecios = resolutorPrecios;
+		this.historialPedidoServices = historialPedidoServices;
+		this.proyeccionPLRepository = proyeccionRepository;
+		this.archivoPedidosPLRepository = archivoPedidosRepository;
+		this.applicationEventPublisher = applicationEventPublisher;
 		this.mapper = mapper;
+		this.descuentoGold = descuentoGold;
 	}
 	
 	@Override
 	@Transactional
-	public Long create(Pedido pedido) {
+	public PedidoCreadoDTO create(Pedido pedido) {
 		
 		if(pedido.getId() != null) {
 			throw new IllegalStateException("Para crear un pedido el id ha de ser null.");
 		}	
 		
+		long totalCentimos = tarificar(pedido);
+		
 		PedidoPL pedidoPL = mapper.map(pedido, PedidoPL.class);
 		PedidoPL createdPedidoPL = pedidoPLRepository.save(pedidoPL);
 		
-		return createdPedidoPL.getId();
+		pedido.setId(createdPedidoPL.getId());
+		historialPedidoServices.registrarCreacion(pedido);
+		
+		applicationEventPublisher.publishEvent(new PedidoCreadoEvent(pedido));
+		
+		if(pedido.getEstado() == EstadoPedido.SERVIDO) {
+			applicationEventPublisher.publishEvent(new PedidoCerradoEvent(pedido.getId()));
+		}
+		
+		return new PedidoCreadoDTO(createdPedidoPL.getId(), totalCentimos / 100.0);
+	}
+	
+	@Override
+	@Transactional
+	public PedidoCreadoDTO create(Pedido pedido, String claveIdempotencia) {
+		
+		// Antes de crearlo: create() le asigna id y precios
+		
+		String huella = huella(pedido);
+		
+		Optional<PedidoCreadoDTO> existente = getPedidoCreadoByClaveIdempotencia(claveIdempotencia, huella);
+		
+		if(existente.isPresent()) {
+			return existente.get();
+		}
+		
+		PedidoCreadoDTO creado = create(pedido);
+		Long id = creado.id();
+		
+		// La PK de CLAVES_IDEMPOTENCIA impide que dos peticiones concurrentes con la misma clave
+		// confirmen dos pedidos: la clave se inserta siempre (ClaveIdempotenciaPL.isNew), así que si
+		// la otra petición ya la ha confirmado el flush falla y se deshace también el insert del pedido.
+		
+		claveIdempotenciaPLRepository.saveAndFlush(new ClaveIdempotenciaPL(claveIdempotencia, id, new Date(), huella));
+		
+		Transacciones.alConfirmar(() -> cacheIdempotencia.put(claveCache(claveIdempotencia, huella), id));
+		
+		return creado;
+	}
+	
+	@Override
+	public Optional<PedidoCreadoDTO> getPedidoCreadoByClaveIdempotencia(String claveIdempotencia, Pedido pedido) {
+		return getPedidoCreadoByClaveIdempotencia(claveIdempotencia, huella(pedido));
+	}
+	
+	private Optional<PedidoCreadoDTO> getPedidoCreadoByClaveIdempotencia(String claveIdempotencia, String huella) {
+		
+		// Los precios ya están en las líneas guardadas: no se vuelve a tarificar
+		
+		return getIdPedidoByClaveIdempotencia(claveIdempotencia, huella)
+				.map(id -> new PedidoCreadoDTO(id, Math.round(getTotal(id) * 100) / 100.0));
+	}
+	
+	/**
+	 * La cache se indexa por clave y huella: con otro pedido no se encuentra y se comprueba en CLAVES_IDEMPOTENCIA
+	 * 
+	 */
+	private Optional<Long> getIdPedidoByClaveIdempotencia(String claveIdempotencia, String huella) {
+		
+		Long idCacheado = cacheIdempotencia.get(claveCache(claveIdempotencia, huella));
+		
+		if(idCacheado != null) {
+			return Optional.of(idCacheado);
+		}
+		
+		Optional<ClaveIdempotenciaPL> persistida = claveIdempotenciaPLRepository.findById(claveIdempotencia);
+		
+		if(persistida.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		// Las claves guardadas sin huella se aceptan con cualquier pedido
+		
+		if(persistida.get().getHuella() != null && !persistida.get().getHuella().equals(huella)) {
+			throw new ClaveIdempotenciaReutilizadaException(claveIdempotencia);
+		}
+		
+		Long id = persistida.get().getIdPedido();
+		
+		cacheIdempotencia.put(claveCache(claveIdempotencia, huella), id);
+		
+		return Optional.of(id);
+	}
+	
+	/**
+	 * Total de las líneas guardadas, en PEDIDOS o, si ya se ha archivado, en su partición
+	 * 
+	 */
+	private double getTotal(Long id) {
+		
+		if(pedidoPLRepository.existsById(id)) {
+			return pedidoPLRepository.findTotal(id);
+		}
+		
+		return archivoPedidosPLRepository.findById(id)
+				.map(x -> x.getLineas().stream().mapToDouble(l -> l.getPrecio() == null ? 0 : l.getPrecio() * l.getCantidad()).sum())
+				.orElse(0.0);
 	}
 
 	@Override
 	public Optional<Pedido> read(Long id) {
 		
-		Optional<PedidoPL> optionalPL = pedidoPLRepository.findById(id);
+		// Los pedidos cerrados antiguos ya no están en PEDIDOS: se buscan en el archivo
+		
+		Optional<PedidoLecturaPL> optionalPL = pedidoLecturaPLRepository.findById(id);
+		
+		if(optionalPL.isPresent()) {
+			return Optional.of(mapper.map(optionalPL.get(), Pedido.class));
+		}
 		
-		return optionalPL.isEmpty() ? Optional.empty() : Optional.of(mapper.map(optionalPL.get(), Pedido.class));
+		return archivoPedidosPLRepository.findById(id).map(x -> mapper.map(x, Pedido.class));
 	}
 
 	@Override
@@ -53,14 +232,47 @@ public class PedidoServicesImpl implements PedidoServices{
 
 		Long id = pedido.getId(); 
 		
-		boolean existe = pedidoPLRepository.existsById(id);
+		Optional<PedidoPL> optionalPL = pedidoPLRepository.findById(id);
 		
-		if(!existe) {
+		if(optionalPL.isEmpty()) {
 			throw new IllegalStateException("El pedido con ID [" + id + "] no existe.");
 		}
 		
+		PedidoPL guardado = optionalPL.get();
+		
+		EstadoPedidoPL estadoAnterior = guardado.getEstado();
+		String nifAnterior = guardado.getEstablecimiento() == null ? null : guardado.getEstablecimiento().getNIF();
+		Map<Long, Long> unidadesAnteriores = getUnidades(guardado);
+		
+		boolean cambioLineas = retarificar(pedido, guardado);
+		
 		pedidoPLRepository.save(mapper.map(pedido, PedidoPL.class));
 		
+		if(cambioLineas) {
+			historialPedidoServices.registrarCambioLineas(pedido);
+			applicationEventPublisher.publishEvent(new LineasPedidoCambiadasEvent(id, nifAnterior, unidadesAnteriores));
+		}
+		
+		boolean cambioEstado = pedido.getEstado() != null && (estadoAnterior == null || !pedido.getEstado().name().equals(estadoAnterior.name()));
+		
+		if(cambioEstado) {
+			historialPedidoServices.registrarCambioEstado(id, pedido.getEstado());
+			applicationEventPublisher.publishEvent(new EstadoPedidoCambiadoEvent(id, estadoAnterior == null ? null : EstadoPedido.valueOf(estadoAnterior.name()), pedido.getEstado()));
+		}
+		
+		if(cambioEstado && pedido.getEstado() == EstadoPedido.SERVIDO) {
+			applicationEventPublisher.publishEvent(new PedidoCerradoEvent(id));
+		}
+		
+	}
+	
+	@Scheduled(cron = "${polloschicharron.idempotencia.purga-cron:0 30 4 * * *}")
+	@Transactional
+	public void purgarClavesIdempotencia() {
+		
+		Date limite = new Date(System.currentTimeMillis() - cacheIdempotencia.getCaducidad().toMillis());
+		
+		claveIdempotenciaPLRepository.deleteAnteriores(limite);
 	}
 	
 	@Override
@@ -71,11 +283,36 @@ public class PedidoServicesImpl implements PedidoServices{
 
 	@Override
 	public List<Pedido> getAll() {
-		return pedidoPLRepository.findAll().stream()
+		return pedidoLecturaPLRepository.findAll().stream()
 				.map(x -> mapper.map(x, Pedido.class))
 				.toList();
 	}
 	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	@Override
+	public List<Map<String, Object>> getAll(Set<String> campos) {
+		return proyeccionPLRepository.findAll(ProyeccionPL.PEDIDOS, campos);
+	}
+
+	@Override
+	public Optional<Map<String, Object>> read(Long id, Set<String> campos) {
+		
+		// Como en read(id): un pedido archivado se proyecta desde su partición
+		
+		Optional<Map<String, Object>> proyeccion = proyeccionPLRepository.findById(ProyeccionPL.PEDIDOS, id, campos);
+		
+		if(proyeccion.isPresent()) {
+			return proyeccion;
+		}
+		
+		return archivoPedidosPLRepository.findById(id).map(x -> proyeccionPLRepository.proyectar(ProyeccionPL.PEDIDOS, x, campos));
+	}
+	
 	// ***********************************
 	//
 	// DTOs
@@ -87,4 +324,232 @@ public class PedidoServicesImpl implements PedidoServices{
 		return pedidoPLRepository.findDTO1();
 	}
 	
+	@Override
+	public PaginaPedidosDTO1 getPaginaPedidosDTO1(FiltroPedidos filtro, Long idDesde, Long idHasta, int tamano) {
+		
+		if(tamano <= 0) {
+			throw new IllegalStateException("El tamaño de página ha de ser positivo.");
+		}
+		
+		EstadoPedidoPL estado = filtro.estado() == null ? null : EstadoPedidoPL.valueOf(filtro.estado().name());
+		
+		// Pedimos una fila de más para saber si hay otra página en la dirección de avance
+		
+		Limit limit = Limit.of(tamano + 1);
+		
+		if(idHasta != null) {
+			
+			List<PedidoDTO1> pedidos = new ArrayList<>(pedidoPLRepository.findPaginaAnteriorDTO1(estado, filtro.nifEstablecimiento(), filtro.desde(), filtro.hasta(), idHasta, limit));
+			
+			boolean hayAnterior = pedidos.size() > tamano;
+			
+			if(hayAnterior) {
+				pedidos.remove(tamano);
+			}
+			
+			Collections.reverse(pedidos);
+			
+			return crearPagina(pedidos, hayAnterior, true);
+		}
+		
+		List<PedidoDTO1> pedidos = new ArrayList<>(pedidoPLRepository.findPaginaSiguienteDTO1(estado, filtro.nifEstablecimiento(), filtro.desde(), filtro.hasta(), idDesde == null ? Long.MIN_VALUE : idDesde, limit));
+		
+		boolean haySiguiente = pedidos.size() > tamano;
+		
+		if(haySiguiente) {
+			pedidos.remove(tamano);
+		}
+		
+		return crearPagina(pedidos, idDesde != null, haySiguiente);
+	}
+	
+	@Override
+	@Transactional
+	public void forEachPedidoDTO1(Consumer<PedidoDTO1> consumidor) {
+		try(Stream<PedidoDTO1> pedidos = pedidoPLRepository.streamDTO1()) {
+			pedidos.forEach(consumidor);
+		}
+	}
+	
+	// ***********************************
+	//
+	// Private Methods
+	//
+	// ***********************************
+	
+	/**
+	 * Asigna a cada línea el precio vigente de su producto, con el descuento de los clientes gold, en una
+	 * sola pasada sobre la tabla de precios (fuera del heap, sin consultas) y devuelve el total en céntimos.
+	 * 
+	 * Lanza IllegalStateException si una línea no indica producto o su producto no existe, está
+	 * descatalogado o no tiene precio.
+	 * 
+	 */
+	private long tarificar(Pedido pedido) {
+		
+		if(pedido.getLineas() == null) {
+			return 0;
+		}
+		
+		return tarificar(pedido, pedido.getLineas());
+	}
+	
+	private long tarificar(Pedido pedido, List<LineaPedido> lineas) {
+		
+		TablaPrecios tabla = resolutorPrecios.getTablaVigente();
+		
+		boolean gold = descuentoGold > 0 && pedido.getCliente() != null && clientesGold.isGold(pedido.getCliente().getId());
+		
+		long total = 0;
+		
+		for(LineaPedido linea: lineas) {
+			
+			Long idProducto = linea.getProducto() == null ? null : linea.getProducto().getId();
+			
+			if(idProducto == null) {
+				throw new IllegalStateException("Todas las líneas del pedido han de indicar el producto.");
+			}
+			
+			if(linea.getCantidad() <= 0) {
+				throw new IllegalStateException("La cantidad del producto [" + idProducto + "] ha de ser positiva.");
+			}
+			
+			int centimos = tabla.getPrecioCentimos(idProducto);
+			
+			if(centimos < 0) {
+				throw new IllegalStateException(tabla.isDescatalogado(idProducto) ? "El producto [" + idProducto + "] está descatalogado." 
+																				  : "El producto [" + idProducto + "] no existe o no tiene precio.");
+			}
+			
+			if(gold) {
+				centimos = (int) Math.round(centimos * (100 - descuentoGold) / 100);
+			}
+			
+			linea.setPrecio(centimos / 100.0);
+			
+			total += (long) centimos * linea.getCantidad();
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Al modificar un pedido cada línea que ya estaba guardada (mismo producto y cantidad) conserva su precio
+	 * y las nuevas o cambiadas se tarifican con los precios vigentes. El precio que envía el cliente no se usa.
+	 * 
+	 * Devuelve true si las líneas no son las guardadas (alguna nueva, cambiada o quitada).
+	 * 
+	 */
+	private boolean retarificar(Pedido pedido, PedidoPL guardado) {
+		
+		List<LineaPedidoPL> anteriores = guardado.getLineas() == null ? new ArrayList<>() : new ArrayList<>(guardado.getLineas());
+		
+		if(pedido.getLineas() == null) {
+			return !anteriores.isEmpty();
+		}
+		
+		List<LineaPedido> cambiadas = new ArrayList<>();
+		
+		for(LineaPedido linea: pedido.getLineas()) {
+			
+			LineaPedidoPL anterior = extraerIgual(anteriores, linea);
+			
+			if(anterior == null) {
+				cambiadas.add(linea);
+			} else {
+				linea.setPrecio(anterior.getPrecio());
+			}
+		}
+		
+		if(!cambiadas.isEmpty()) {
+			tarificar(pedido, cambiadas);
+		}
+		
+		return !cambiadas.isEmpty() || !anteriores.isEmpty();
+	}
+	
+	/**
+	 * Unidades por producto de las líneas guardadas
+	 * 
+	 */
+	private Map<Long, Long> getUnidades(PedidoPL pedidoPL) {
+		
+		Map<Long, Long> unidades = new HashMap<>();
+		
+		if(pedidoPL.getLineas() != null) {
+			for(LineaPedidoPL linea: pedidoPL.getLineas()) {
+				if(linea.getProducto() != null && linea.getProducto().getId() != null) {
+					unidades.merge(linea.getProducto().getId(), (long) linea.getCantidad(), Long::sum);
+				}
+			}
+		}
+		
+		return unidades;
+	}
+	
+	/**
+	 * Quita de anteriores y devuelve la primera línea con el producto y la cantidad de la línea (null si no hay ninguna)
+	 * 
+	 */
+	private LineaPedidoPL extraerIgual(List<LineaPedidoPL> anteriores, LineaPedido linea) {
+		
+		Long idProducto = linea.getProducto() == null ? null : linea.getProducto().getId();
+		
+		for(Iterator<LineaPedidoPL> iterator = anteriores.iterator(); iterator.hasNext();) {
+			
+			LineaPedidoPL anterior = iterator.next();
+			
+			if(anterior.getProducto() != null && anterior.getProducto().getId().equals(idProducto) && anterior.getCantidad() == linea.getCantidad()) {
+				iterator.remove();
+				return anterior;
+			}
+		}
+		
+		return null;
+	}
+	
+	private String claveCache(String claveIdempotencia, String huella) {
+		return claveIdempotencia + "|" + huella;
+	}
+	
+	/**
+	 * SHA-256 (en hexadecimal) de lo que envía el cliente para crear el pedido, sin la id ni los precios de
+	 * las líneas, que asigna el servidor
+	 * 
+	 */
+	private String huella(Pedido pedido) {
+		
+		StringBuilder contenido = new StringBuilder()
+				.append(pedido.getFechaHora() == null ? null : pedido.getFechaHora().getTime()).append('|')
+				.append(pedido.getEmpleado() == null ? null : pedido.getEmpleado().getId()).append('|')
+				.append(pedido.getEstablecimiento() == null ? null : pedido.getEstablecimiento().getNIF()).append('|')
+				.append(pedido.getCliente() == null ? null : pedido.getCliente().getId()).append('|')
+				.append(pedido.getEstado()).append('|')
+				.append(pedido.getObservaciones());
+		
+		if(pedido.getLineas() != null) {
+			for(LineaPedido linea: pedido.getLineas()) {
+				contenido.append('|').append(linea.getProducto() == null ? null : linea.getProducto().getId()).append('x').append(linea.getCantidad());
+			}
+		}
+		
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 no disponible", e);
+		}
+	}
+	
+	private PaginaPedidosDTO1 crearPagina(List<PedidoDTO1> pedidos, boolean hayAnterior, boolean haySiguiente) {
+		
+		if(pedidos.isEmpty()) {
+			return new PaginaPedidosDTO1(pedidos, null, null);
+		}
+		
+		Long idAnterior = hayAnterior ? pedidos.get(0).id() : null;
+		Long idSiguiente = haySiguiente ? pedidos.get(pedidos.size() - 1).id() : null;
+		
+		return new PaginaPedidosDTO1(pedidos, idAnterior, idSiguiente);
+	}
+	
 }
@@ -1,16 +1,23 @@
 package com.sinensia.polloschicharron.business.services.impl;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.dozer.DozerBeanMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
 import com.sinensia.polloschicharron.business.model.Familia;
 import com.sinensia.polloschicharron.business.model.Producto;
 import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO1;
@@ -19,18 +26,26 @@ import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3;
 import com.sinensia.polloschicharron.business.services.ProductoServices;
 import com.sinensia.polloschicharron.integration.model.FamiliaPL;
 import com.sinensia.polloschicharron.integration.model.ProductoPL;
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL;
 import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProyeccionPLRepository;
 
 import jakarta.transaction.Transactional;
 
 @Service
 public class ProductoServicesImpl implements ProductoServices{
 
+	private static final int TAMANO_MAXIMO_LISTA_IN = 500;
+	
 	private final ProductoPLRepository productoPLRepository;
+	private final ProyeccionPLRepository proyeccionPLRepository;
+	private final ApplicationEventPublisher applicationEventPublisher;
 	private DozerBeanMapper mapper;
   
-	public ProductoServicesImpl(ProductoPLRepository productoRepository, DozerBeanMapper mapper) {
+	public ProductoServicesImpl(ProductoPLRepository productoRepository, ApplicationEventPublisher applicationEventPublisher, ProyeccionPLRepository proyeccionRepository, @Lazy DozerBeanMapper mapper) {
 		this.productoPLRepository = productoRepository;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.proyeccionPLRepository = proyeccionRepository;
 		this.mapper = mapper;
 	}
 
@@ -43,7 +58,11 @@ public class ProductoServicesImpl implements ProductoServices{
 		}
 			
 		ProductoPL productoPL = mapper.map(producto, ProductoPL.class);
+		productoPL.setFechaPrecio(new Date());
+		
 		ProductoPL createdProductoPL = productoPLRepository.save(productoPL);
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Alta del producto " + createdProductoPL.getId()));
     
 		return createdProductoPL.getId();
 	}
@@ -62,14 +81,21 @@ public class ProductoServicesImpl implements ProductoServices{
 
 		Long id = producto.getId(); 
 		
-		boolean existe = productoPLRepository.existsById(id);
+		Optional<ProductoPL> optionalPL = productoPLRepository.findById(id);
 		
-		if(!existe) {
+		if(optionalPL.isEmpty()) {
 			throw new IllegalStateException("El producto con ID [" + id + "] no existe.");
 		}
 		
-		productoPLRepository.save(mapper.map(producto, ProductoPL.class));
+		// Un cambio de precio en catálogo prevalece sobre las listas de precios que ya estaban vigentes
 		
+		ProductoPL anteriorPL = optionalPL.get();
+		ProductoPL productoPL = mapper.map(producto, ProductoPL.class);
+		productoPL.setFechaPrecio(Objects.equals(anteriorPL.getPrecio(), productoPL.getPrecio()) ? anteriorPL.getFechaPrecio() : new Date());
+		
+		productoPLRepository.save(productoPL);
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Modificación del producto " + id));
 	}
 
 	@Override
@@ -84,6 +110,8 @@ public class ProductoServicesImpl implements ProductoServices{
     
 		Optional<ProductoPL> optionalPL = productoPLRepository.findById(id);
 		optionalPL.get().setDescatalogado(true);
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Baja del producto " + id));
 
 	}
 
@@ -124,17 +152,28 @@ public class ProductoServicesImpl implements ProductoServices{
 	public void incrementarPrecio(Familia familia, double porcentaje) {
 		FamiliaPL familiaPL = mapper.map(familia, FamiliaPL.class);
 		productoPLRepository.incrementarPrecio(familiaPL, porcentaje);	
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Incremento de precio de la familia " + familia.getId()));
 	}
 
 	@Override
 	@Transactional
 	public void incrementarPrecio(List<Producto> productos, double porcentaje) {
-		productoPLRepository.incrementarPrecio(mapper.map(productos, FamiliaPL.class), porcentaje);
+		incrementarPrecio(porcentaje, productos.stream().map(Producto::getId).toArray(Long[]::new));
 	}
 
 	@Override
+	@Transactional
 	public void incrementarPrecio(double porcentaje, Long... ids) {
-		productoPLRepository.incrementarPrecio(porcentaje, ids);
+		
+		// Troceamos la lista para no generar cláusulas IN de tamaño arbitrario
+		
+		for(int desde = 0; desde < ids.length; desde += TAMANO_MAXIMO_LISTA_IN) {
+			Long[] lote = Arrays.copyOfRange(ids, desde, Math.min(ids.length, desde + TAMANO_MAXIMO_LISTA_IN));
+			productoPLRepository.incrementarPrecio(porcentaje, lote);
+		}
+		
+		applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Incremento de precio de " + ids.length + " productos"));
 	}
 
 	@Override
@@ -158,6 +197,22 @@ public class ProductoServicesImpl implements ProductoServices{
 		return estadistica;
 	}
 	
+	// ***********************************
+	//
+	// Proyecciones (fields=)
+	//
+	// ***********************************
+	
+	@Override
+	public List<Map<String, Object>> getAll(Set<String> campos) {
+		return proyeccionPLRepository.findAll(ProyeccionPL.PRODUCTOS, campos);
+	}
+
+	@Override
+	public Optional<Map<String, Object>> read(Long id, Set<String> campos) {
+		return proyeccionPLRepository.findById(ProyeccionPL.PRODUCTOS, id, campos);
+	}
+	
 	// ***********************************
 	//
 	// DTOs
@@ -166,26 +221,15 @@ public class ProductoServicesImpl implements ProductoServices{
 
 	@Override
 	public List<ProductoDTO1> getProductosDTO1() {
-
-		List<Object[]> resultados = productoPLRepository.findDTO1();
-		
-		List<ProductoDTO1> productos = new ArrayList<>();
-
-		resultados.stream().forEach(fila -> {
-			
-			String nombre = (String)  fila[0];
-			String familia = (String) fila[1];
-			Double precio = (Double)  fila[2];
-			ProductoDTO1 productoDTO1 = new ProductoDTO1();
-			
-			productoDTO1.setNombre(nombre);
-			productoDTO1.setFamilia(familia);
-			productoDTO1.setPrecio(precio);
-			
-			productos.add(productoDTO1);
-		});
-		
-		return productos;
+		return productoPLRepository.findDTO1();
+	}
+	
+	@Override
+	@Transactional
+	public void forEachProductoDTO1(Consumer<ProductoDTO1> consumidor) {
+		try(Stream<ProductoDTO1> productos = productoPLRepository.streamDTO1()) {
+			productos.forEach(consumidor);
+		}
 	}
 
 	@Override
@@ -193,11 +237,27 @@ public class ProductoServicesImpl implements ProductoServices{
 		return productoPLRepository.findDTO2();
 	}
 
+	@Override
+	@Transactional
+	public void forEachProductoDTO2(Consumer<ProductoDTO2> consumidor) {
+		try(Stream<ProductoDTO2> productos = productoPLRepository.streamDTO2()) {
+			productos.forEach(consumidor);
+		}
+	}
+
 	@Override
 	public List<ProductoDTO3> getProductosDTO3(double descuento) {
 		return productoPLRepository.findDTO3(descuento);
 	}
 	
+	@Override
+	@Transactional
+	public void forEachProductoDTO3(double descuento, Consumer<ProductoDTO3> consumidor) {
+		try(Stream<ProductoDTO3> productos = productoPLRepository.streamDTO3(descuento)) {
+			productos.forEach(consumidor);
+		}
+	}
+	
 
 	// ********************************************
 	//
@@ -0,0 +1,285 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sinensia.polloschicharron.business.analitica.ClientesDistintos;
+import com.sinensia.polloschicharron.business.analitica.Recalculo;
+import com.sinensia.polloschicharron.business.model.EstadoRecalculo;
+import com.sinensia.polloschicharron.business.model.InformeRecalculable;
+import com.sinensia.polloschicharron.business.model.RecalculoInforme;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRecalculoDTO;
+import com.sinensia.polloschicharron.business.services.RecalculoInformesServices;
+import com.sinensia.polloschicharron.integration.model.RangoCodigosPL;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Los códigos de pedido (de PEDIDOS y de las particiones de archivo) se reparten en tramos consecutivos.
+ * Cada tarea del ForkJoinPool divide su intervalo de tramos en dos hasta quedarse con uno, que lee con su
+ * propia conexión, y combina los dos resultados parciales al volver.
+ * 
+ * Cada hilo del pool tiene una conexión abierta mientras lee su tramo: polloschicharron.recalculo.paralelismo
+ * ha de dejar sitio en el pool de conexiones para el resto de la aplicación.
+ * 
+ * El progreso de los recálculos terminados se puede consultar durante polloschicharron.recalculo.retencion.
+ * 
+ */
+@Service
+public class RecalculoInformesServicesImpl implements RecalculoInformesServices {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecalculoInformesServicesImpl.class);
+	
+	private final ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	private final ClientesDistintos clientesDistintos;
+	private final int tamanoTramoPorDefecto;
+	private final Duration retencion;
+	
+	private final ForkJoinPool pool;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "recalculo-informes"));
+	private final Map<Long, Ejecucion> ejecuciones = new ConcurrentHashMap<>();
+	private final AtomicLong secuencia = new AtomicLong();
+	
+	public RecalculoInformesServicesImpl(ArchivoPedidosPLRepository archivoPedidosPLRepository,
+										 ClientesDistintos clientesDistintos,
+										 @Value("${polloschicharron.recalculo.paralelismo:4}") int paralelismo,
+										 @Value("${polloschicharron.recalculo.tamano-tramo:10000}") int tamanoTramoPorDefecto,
+										 @Value("${polloschicharron.recalculo.retencion:24h}") Duration retencion) {
+		
+		this.archivoPedidosPLRepository = archivoPedidosPLRepository;
+		this.clientesDistintos = clientesDistintos;
+		this.tamanoTramoPorDefecto = tamanoTramoPorDefecto;
+		this.retencion = retencion;
+		this.pool = new ForkJoinPool(paralelismo);
+	}
+	
+	@Override
+	public Long iniciar(RecalculoInforme peticion) {
+		
+		int tamanoTramo = validar(peticion);
+		
+		Recalculo<?> recalculo = crearRecalculo(peticion);
+		
+		purgar();
+		
+		Long id = secuencia.incrementAndGet();
+		Ejecucion ejecucion = new Ejecucion(id, peticion.getInforme(), tamanoTramo);
+		
+		ejecuciones.put(id, ejecucion);
+		executor.submit(() -> ejecutar(ejecucion, recalculo));
+		
+		return id;
+	}
+
+	@Override
+	public Optional<ProgresoRecalculoDTO> getProgreso(Long id) {
+		
+		Ejecucion ejecucion = ejecuciones.get(id);
+		
+		return ejecucion == null ? Optional.empty() : Optional.of(ejecucion.toProgreso(pool.getParallelism()));
+	}
+
+	@Override
+	public void cancelar(Long id) {
+		
+		Ejecucion ejecucion = ejecuciones.get(id);
+		
+		if(ejecucion == null) {
+			throw new IllegalStateException("El recálculo [" + id + "] no existe.");
+		}
+		
+		ejecucion.cancelar = true;
+	}
+	
+	@PreDestroy
+	public void detener() {
+		ejecuciones.values().forEach(x -> x.cancelar = true);
+		executor.shutdown();
+		pool.shutdown();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private <R> void ejecutar(Ejecucion ejecucion, Recalculo<R> recalculo) {
+		
+		ejecucion.estado = EstadoRecalculo.EN_EJECUCION;
+		
+		try {
+			
+			Optional<RangoCodigosPL> rango = archivoPedidosPLRepository.getRangoCodigos();
+			
+			long minimo = rango.map(RangoCodigosPL::minimo).orElse(0L);
+			long maximo = rango.map(RangoCodigosPL::maximo).orElse(-1L);
+			
+			ejecucion.tramosTotales = rango.isEmpty() ? 0 : (maximo - minimo) / ejecucion.tamanoTramo + 1;
+			
+			if(ejecucion.tramosTotales == 0) {
+				recalculo.aplicar(recalculo.calcular(0, -1, () -> ejecucion.cancelar));
+			} else {
+				R resultado = pool.invoke(new TareaTramos<>(ejecucion, recalculo, minimo, maximo, 0, ejecucion.tramosTotales));
+				recalculo.aplicar(resultado);
+			}
+			
+			ejecucion.estado = EstadoRecalculo.COMPLETADO;
+			
+			LOGGER.info("Recalculado {} ({} tramos) en {} ms", ejecucion.informe, ejecucion.tramosTotales, System.currentTimeMillis() - ejecucion.inicio.getTime());
+			
+		} catch(CancellationException e) {
+			recalculo.descartar();
+			ejecucion.estado = EstadoRecalculo.CANCELADO;
+		} catch(RuntimeException e) {
+			
+			// Las tareas hermanas de la que ha fallado siguen en el pool: se paran antes de descartar
+			
+			ejecucion.cancelar = true;
+			pool.awaitQuiescence(1, TimeUnit.MINUTES);
+			
+			recalculo.descartar();
+			ejecucion.estado = EstadoRecalculo.FALLIDO;
+			ejecucion.error = e.getMessage();
+		} finally {
+			ejecucion.fin = new Date();
+		}
+	}
+	
+	private void purgar() {
+		
+		long limite = System.currentTimeMillis() - retencion.toMillis();
+		
+		ejecuciones.values().removeIf(x -> x.fin != null && x.fin.getTime() <= limite);
+	}
+	
+	private Recalculo<?> crearRecalculo(RecalculoInforme peticion) {
+		
+		return switch(peticion.getInforme()) {
+			case CLIENTES_DISTINTOS -> clientesDistintos.recalculo(peticion.getDesde(), peticion.getHasta());
+		};
+	}
+	
+	/**
+	 * Devuelve el tamaño de tramo que se ha de usar
+	 * 
+	 */
+	private int validar(RecalculoInforme peticion) {
+		
+		if(peticion.getInforme() == null) {
+			throw new IllegalStateException("Se ha de indicar el informe que se quiere recalcular.");
+		}
+		
+		if(peticion.getDesde() != null && peticion.getHasta() != null && !peticion.getDesde().isBefore(peticion.getHasta())) {
+			throw new IllegalStateException("La fecha desde ha de ser anterior a la fecha hasta.");
+		}
+		
+		int tamanoTramo = peticion.getTamanoTramo() == null ? tamanoTramoPorDefecto : peticion.getTamanoTramo();
+		
+		if(tamanoTramo <= 0) {
+			throw new IllegalStateException("El tamaño de tramo ha de ser positivo.");
+		}
+		
+		return tamanoTramo;
+	}
+	
+	/**
+	 * Tramos [primerTramo, ultimoTramo) de los códigos de pedido [minimo, maximo]
+	 * 
+	 */
+	private static class TareaTramos<R> extends RecursiveTask<R> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final transient Ejecucion ejecucion;
+		private final transient Recalculo<R> recalculo;
+		private final long minimo;
+		private final long maximo;
+		private final long primerTramo;
+		private final long ultimoTramo;
+		
+		private TareaTramos(Ejecucion ejecucion, Recalculo<R> recalculo, long minimo, long maximo, long primerTramo, long ultimoTramo) {
+			this.ejecucion = ejecucion;
+			this.recalculo = recalculo;
+			this.minimo = minimo;
+			this.maximo = maximo;
+			this.primerTramo = primerTramo;
+			this.ultimoTramo = ultimoTramo;
+		}
+		
+		@Override
+		protected R compute() {
+			
+			if(ejecucion.cancelar) {
+				throw new CancellationException();
+			}
+			
+			if(ultimoTramo - primerTramo == 1) {
+				
+				long desde = minimo + primerTramo * ejecucion.tamanoTramo;
+				long hasta = Math.min(maximo, desde + ejecucion.tamanoTramo - 1);
+				
+				R resultado = recalculo.calcular(desde, hasta, () -> ejecucion.cancelar);
+				
+				ejecucion.tramosCompletados.increment();
+				
+				return resultado;
+			}
+			
+			long mitad = (primerTramo + ultimoTramo) >>> 1;
+			
+			TareaTramos<R> primeraMitad = new TareaTramos<>(ejecucion, recalculo, minimo, maximo, primerTramo, mitad);
+			TareaTramos<R> segundaMitad = new TareaTramos<>(ejecucion, recalculo, minimo, maximo, mitad, ultimoTramo);
+			
+			primeraMitad.fork();
+			
+			R resultado2 = segundaMitad.compute();
+			R resultado1 = primeraMitad.join();
+			
+			return recalculo.combinar(resultado1, resultado2);
+		}
+	}
+	
+	private static class Ejecucion {
+		
+		private final Long id;
+		private final InformeRecalculable informe;
+		private final int tamanoTramo;
+		private final Date inicio = new Date();
+		private final LongAdder tramosCompletados = new LongAdder();
+		
+		private volatile EstadoRecalculo estado = EstadoRecalculo.PENDIENTE;
+		private volatile long tramosTotales;
+		private volatile String error;
+		private volatile Date fin;
+		private volatile boolean cancelar;
+		
+		private Ejecucion(Long id, InformeRecalculable informe, int tamanoTramo) {
+			this.id = id;
+			this.informe = informe;
+			this.tamanoTramo = tamanoTramo;
+		}
+		
+		private ProgresoRecalculoDTO toProgreso(int paralelismo) {
+			return new ProgresoRecalculoDTO(id, informe, estado, tramosCompletados.sum(), tramosTotales, paralelismo, error, inicio, fin);
+		}
+	}
+	
+}
@@ -0,0 +1,330 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.business.model.EstadoRevisionPrecios;
+import com.sinensia.polloschicharron.business.model.RevisionPrecios;
+import com.sinensia.polloschicharron.business.model.TipoRevisionPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.CambioPrecioDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRevisionPreciosDTO;
+import com.sinensia.polloschicharron.business.services.RevisionPreciosServices;
+import com.sinensia.polloschicharron.integration.model.ProductoPL;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class RevisionPreciosServicesImpl implements RevisionPreciosServices {
+
+	private final ProductoPLRepository productoPLRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final int tamanoLotePorDefecto;
+	private final Duration retencion;
+	
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "revision-precios"));
+	private final Map<Long, Ejecucion> ejecuciones = new ConcurrentHashMap<>();
+	private final AtomicLong secuencia = new AtomicLong();
+	
+	public RevisionPreciosServicesImpl(ProductoPLRepository productoRepository, 
+									   PlatformTransactionManager transactionManager,
+									   ApplicationEventPublisher applicationEventPublisher,
+									   @Value("${polloschicharron.revision-precios.tamano-lote:500}") int tamanoLotePorDefecto,
+									   @Value("${polloschicharron.revision-precios.retencion:24h}") Duration retencion) {
+		
+		this.productoPLRepository = productoRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.tamanoLotePorDefecto = tamanoLotePorDefecto;
+		this.retencion = retencion;
+	}
+	
+	@Override
+	public List<CambioPrecioDTO> simular(RevisionPrecios revision) {
+		
+		Ejecucion ejecucion = new Ejecucion(null, revision, validar(revision));
+		
+		List<CambioPrecioDTO> cambios = new ArrayList<>();
+		
+		Lote lote;
+		
+		while((lote = siguienteLote(ejecucion)) != null) {
+			
+			for(ProductoPL productoPL: lote.productos) {
+				
+				if(productoPL.getPrecio() != null) {
+					double precioNuevo = calcularPrecio(revision, productoPL.getPrecio());
+					cambios.add(new CambioPrecioDTO(productoPL.getId(), productoPL.getNombre(), productoPL.getPrecio(), precioNuevo));
+				}
+			}
+			
+			ejecucion.ultimoIdProcesado = lote.ultimoId;
+		}
+		
+		return cambios;
+	}
+
+	@Override
+	public Long iniciar(RevisionPrecios revision) {
+		
+		int tamanoLote = validar(revision);
+		
+		purgar();
+		
+		Long id = secuencia.incrementAndGet();
+		Ejecucion ejecucion = new Ejecucion(id, revision, tamanoLote);
+		
+		ejecuciones.put(id, ejecucion);
+		executor.submit(() -> ejecutar(ejecucion));
+		
+		return id;
+	}
+
+	@Override
+	public Optional<ProgresoRevisionPreciosDTO> getProgreso(Long id) {
+		
+		Ejecucion ejecucion = ejecuciones.get(id);
+		
+		return ejecucion == null ? Optional.empty() : Optional.of(ejecucion.toProgreso());
+	}
+
+	@Override
+	public void reanudar(Long id) {
+		
+		Ejecucion ejecucion = getEjecucion(id);
+		
+		synchronized(ejecucion) {
+			
+			if(ejecucion.estado != EstadoRevisionPrecios.INTERRUMPIDA && ejecucion.estado != EstadoRevisionPrecios.FALLIDA) {
+				throw new IllegalStateException("La revisión de precios [" + id + "] está " + ejecucion.estado + " y no se puede reanudar.");
+			}
+			
+			ejecucion.estado = EstadoRevisionPrecios.PENDIENTE;
+			ejecucion.interrumpir = false;
+			ejecucion.error = null;
+			ejecucion.fin = null;
+		}
+		
+		executor.submit(() -> ejecutar(ejecucion));
+	}
+
+	@Override
+	public void interrumpir(Long id) {
+		getEjecucion(id).interrumpir = true;
+	}
+	
+	@PreDestroy
+	public void detener() {
+		ejecuciones.values().forEach(x -> x.interrumpir = true);
+		executor.shutdown();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void ejecutar(Ejecucion ejecucion) {
+		
+		ejecucion.estado = EstadoRevisionPrecios.EN_EJECUCION;
+		
+		try {
+			
+			Lote lote;
+			
+			while(!ejecucion.interrumpir && (lote = transactionTemplate.execute(status -> aplicarLote(ejecucion))) != null) {
+				
+				// El progreso sólo avanza cuando el lote se ha confirmado
+				
+				ejecucion.ultimoIdProcesado = lote.ultimoId;
+				ejecucion.productosActualizados += lote.productos.size();
+				ejecucion.lotesCompletados++;
+			}
+			
+			ejecucion.estado = ejecucion.interrumpir ? EstadoRevisionPrecios.INTERRUMPIDA : EstadoRevisionPrecios.COMPLETADA;
+			
+		} catch(RuntimeException e) {
+			ejecucion.estado = EstadoRevisionPrecios.FALLIDA;
+			ejecucion.error = e.getMessage();
+		} finally {
+			ejecucion.fin = new Date();
+			applicationEventPublisher.publishEvent(new CatalogoModificadoEvent("Revisión de precios " + ejecucion.id));
+		}
+	}
+	
+	/**
+	 * Las revisiones interrumpidas o fallidas también se descartan: pasada la retención ya no se pueden reanudar
+	 * 
+	 */
+	private void purgar() {
+		
+		long limite = System.currentTimeMillis() - retencion.toMillis();
+		
+		ejecuciones.values().removeIf(x -> x.fin != null && x.fin.getTime() <= limite);
+	}
+	
+	private Lote aplicarLote(Ejecucion ejecucion) {
+		
+		Lote lote = siguienteLote(ejecucion);
+		
+		if(lote == null) {
+			return null;
+		}
+		
+		Date ahora = new Date();
+		
+		for(ProductoPL productoPL: lote.productos) {
+			if(productoPL.getPrecio() != null) {
+				productoPL.setPrecio(calcularPrecio(ejecucion.revision, productoPL.getPrecio()));
+				productoPL.setFechaPrecio(ahora);
+			}
+		}
+		
+		return lote;
+	}
+	
+	/**
+	 * Devuelve null cuando no quedan productos por procesar
+	 * 
+	 */
+	private Lote siguienteLote(Ejecucion ejecucion) {
+		
+		RevisionPrecios revision = ejecucion.revision;
+		long desdeId = ejecucion.ultimoIdProcesado == null ? Long.MIN_VALUE : ejecucion.ultimoIdProcesado;
+		
+		if(ejecucion.idsOrdenados == null) {
+			
+			List<ProductoPL> productosPL = productoPLRepository.findLoteRevision(desdeId, revision.getIdFamilia(), 
+					revision.getPrecioMinimo(), revision.getPrecioMaximo(), Limit.of(ejecucion.tamanoLote));
+			
+			return productosPL.isEmpty() ? null : new Lote(productosPL, productosPL.get(productosPL.size() - 1).getId());
+		}
+		
+		// Con lista de ids el lote lo marcan los ids, no los productos encontrados
+		
+		long[] ids = ejecucion.idsOrdenados;
+		
+		int desde = Arrays.binarySearch(ids, desdeId);
+		desde = desde >= 0 ? desde + 1 : -desde - 1;
+		
+		if(desde >= ids.length) {
+			return null;
+		}
+		
+		int hasta = Math.min(ids.length, desde + ejecucion.tamanoLote);
+		
+		List<Long> idsLote = Arrays.stream(ids, desde, hasta).boxed().toList();
+		
+		List<ProductoPL> productosPL = productoPLRepository.findLoteRevision(idsLote, revision.getIdFamilia(), 
+				revision.getPrecioMinimo(), revision.getPrecioMaximo());
+		
+		return new Lote(productosPL, ids[hasta - 1]);
+	}
+	
+	private double calcularPrecio(RevisionPrecios revision, double precio) {
+		
+		double precioNuevo = revision.getTipo() == TipoRevisionPrecios.PORCENTAJE ? precio + (precio * revision.getValor()) / 100 
+																				   : precio + revision.getValor();
+		
+		precioNuevo = Math.round(precioNuevo * 100) / 100.0;
+		
+		if(precioNuevo < 0) {
+			throw new IllegalStateException("La revisión deja un precio negativo (" + precio + " -> " + precioNuevo + ").");
+		}
+		
+		return precioNuevo;
+	}
+	
+	/**
+	 * Devuelve el tamaño de lote que se ha de usar
+	 * 
+	 */
+	private int validar(RevisionPrecios revision) {
+		
+		if(revision.getTipo() == null) {
+			throw new IllegalStateException("Se ha de indicar el tipo de revisión (PORCENTAJE o IMPORTE).");
+		}
+		
+		if(revision.getPrecioMinimo() != null && revision.getPrecioMaximo() != null && revision.getPrecioMinimo() > revision.getPrecioMaximo()) {
+			throw new IllegalStateException("El precio mínimo no puede ser mayor que el precio máximo.");
+		}
+		
+		int tamanoLote = revision.getTamanoLote() == null ? tamanoLotePorDefecto : revision.getTamanoLote();
+		
+		if(tamanoLote <= 0) {
+			throw new IllegalStateException("El tamaño de lote ha de ser positivo.");
+		}
+		
+		return tamanoLote;
+	}
+	
+	private Ejecucion getEjecucion(Long id) {
+		
+		Ejecucion ejecucion = ejecuciones.get(id);
+		
+		if(ejecucion == null) {
+			throw new IllegalStateException("La revisión de precios [" + id + "] no existe.");
+		}
+		
+		return ejecucion;
+	}
+	
+	private static class Lote {
+		
+		private final List<ProductoPL> productos;
+		private final Long ultimoId;
+		
+		private Lote(List<ProductoPL> productos, Long ultimoId) {
+			this.productos = productos;
+			this.ultimoId = ultimoId;
+		}
+	}
+	
+	private static class Ejecucion {
+		
+		private final Long id;
+		private final RevisionPrecios revision;
+		private final int tamanoLote;
+		private final long[] idsOrdenados;
+		private final Date inicio = new Date();
+		
+		private volatile EstadoRevisionPrecios estado = EstadoRevisionPrecios.PENDIENTE;
+		private volatile Long ultimoIdProcesado;
+		private volatile long productosActualizados;
+		private volatile long lotesCompletados;
+		private volatile String error;
+		private volatile Date fin;
+		private volatile boolean interrumpir;
+		
+		private Ejecucion(Long id, RevisionPrecios revision, int tamanoLote) {
+			this.id = id;
+			this.revision = revision;
+			this.tamanoLote = tamanoLote;
+			this.idsOrdenados = revision.getIds() == null ? null : revision.getIds().stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+		}
+		
+		private ProgresoRevisionPreciosDTO toProgreso() {
+			return new ProgresoRevisionPreciosDTO(id, estado, productosActualizados, lotesCompletados, ultimoIdProcesado, error, inicio, fin);
+		}
+	}
+	
+}
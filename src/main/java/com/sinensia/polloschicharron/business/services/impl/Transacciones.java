@@ -0,0 +1,33 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class Transacciones {
+
+	private Transacciones() {
+		
+	}
+	
+	/**
+	 * Si hay una transacción en curso la acción sólo se ejecuta cuando ésta se confirma,
+	 * así un rollback no deja rastro fuera de la base de datos. Sin transacción se ejecuta ya.
+	 * 
+	 */
+	static void alConfirmar(Runnable accion) {
+		
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			accion.run();
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			
+			@Override
+			public void afterCommit() {
+				accion.run();
+			}
+		});
+	}
+	
+}
@@ -0,0 +1,85 @@
+package com.sinensia.polloschicharron.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * Perfil arranque-rapido: marca como perezosos los beans no críticos (por defecto los de springdoc)
+ * para que se creen en la primera petición que los necesite y no durante el arranque.
+ * 
+ * Con Spring AOT este post-procesador se ejecuta en el build y el lazy-init queda en el código generado.
+ * 
+ */
+@Configuration
+@Profile("arranque-rapido")
+public class ArranqueRapidoConfig {
+
+	@Bean
+	static BeanFactoryPostProcessor beansPerezososPostProcessor() {
+		return new BeansPerezososPostProcessor();
+	}
+	
+	static class BeansPerezososPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+		private static final Logger LOGGER = LoggerFactory.getLogger(BeansPerezososPostProcessor.class);
+		
+		private List<String> paquetes;
+		
+		@Override
+		public void setEnvironment(Environment environment) {
+			paquetes = Arrays.asList(environment.getProperty("polloschicharron.arranque.paquetes-perezosos", String[].class, new String[] {"org.springdoc."}));
+		}
+		
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+			
+			int perezosos = 0;
+			
+			for(String nombre: beanFactory.getBeanDefinitionNames()) {
+				
+				BeanDefinition definicion = beanFactory.getBeanDefinition(nombre);
+				String clase = getClase(definicion);
+				
+				if(!definicion.isLazyInit() && clase != null && paquetes.stream().anyMatch(clase::startsWith)) {
+					definicion.setLazyInit(true);
+					perezosos++;
+				}
+			}
+			
+			// Con AOT las definiciones ya llegan marcadas desde el build y aquí no queda nada por hacer
+			
+			if(perezosos > 0) {
+				LOGGER.info("{} beans de {} marcados como perezosos", perezosos, paquetes);
+			}
+		}
+		
+		private String getClase(BeanDefinition definicion) {
+			
+			// Los beans de métodos @Bean no tienen clase: usamos el tipo de retorno del método
+			
+			if(definicion instanceof AnnotatedBeanDefinition anotada) {
+				MethodMetadata metodo = anotada.getFactoryMethodMetadata();
+				if(metodo != null) {
+					return metodo.getReturnTypeName();
+				}
+			}
+			
+			return definicion.getBeanClassName();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,80 @@
+package com.sinensia.polloschicharron.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.init.UncategorizedScriptException;
+
+/**
+ * Perfil fichero: H2 persistente en disco (application-fichero.properties).
+ * 
+ * Sustituye al inicializador de scripts de Spring Boot por uno que ejecuta schema.sql en todos los
+ * arranques y data.sql sólo cuando la base de datos está vacía. schema.sql es idempotente (IF NOT EXISTS):
+ * sobre un fichero ya creado sólo añade las tablas y secuencias nuevas, y los datos se conservan.
+ * 
+ */
+@Configuration
+@Profile("fichero")
+public class BaseDatosFicheroConfig {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BaseDatosFicheroConfig.class);
+	
+	static final String TABLA_CONTROL = "PEDIDOS";
+	
+	@Bean
+	SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource, SqlInitializationProperties properties) {
+		return new InicializadorDatosSiVacia(dataSource, properties);
+	}
+	
+	static class InicializadorDatosSiVacia extends SqlDataSourceScriptDatabaseInitializer {
+
+		private final DataSource dataSource;
+		private final SqlInitializationProperties properties;
+		
+		InicializadorDatosSiVacia(DataSource dataSource, SqlInitializationProperties properties) {
+			super(dataSource, properties);
+			this.dataSource = dataSource;
+			this.properties = properties;
+		}
+		
+		@Override
+		public boolean initializeDatabase() {
+			
+			if(!existeTabla(TABLA_CONTROL)) {
+				return super.initializeDatabase();
+			}
+			
+			LOGGER.info("La base de datos ya contiene la tabla {}: sólo se ejecuta schema.sql", TABLA_CONTROL);
+			
+			DatabaseInitializationSettings soloEsquema = getSettings(properties);
+			soloEsquema.setDataLocations(List.of());
+			
+			return new SqlDataSourceScriptDatabaseInitializer(dataSource, soloEsquema).initializeDatabase();
+		}
+		
+		private boolean existeTabla(String tabla) {
+			
+			try(Connection connection = dataSource.getConnection();
+				ResultSet tablas = connection.getMetaData().getTables(null, null, tabla, new String[] {"TABLE"})) {
+				
+				return tablas.next();
+				
+			} catch(SQLException e) {
+				throw new UncategorizedScriptException("No se puede comprobar si existe la tabla " + tabla, e);
+			}
+		}
+	}
+	
+}
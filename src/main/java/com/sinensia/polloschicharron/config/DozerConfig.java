@@ -5,10 +5,17 @@ import java.util.List;
 import org.dozer.DozerBeanMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class DozerConfig {
 
+	/**
+	 * Dozer se inicializa (propiedades, MBeans JMX, fichero de mappings) en el primer uso: el bean es
+	 * perezoso y los servicios lo reciben con @Lazy, que les inyecta un proxy en lugar del mapper.
+	 * 
+	 */
+	@Lazy
 	@Bean(name="mapper")
 	DozerBeanMapper getMapper() {
 		
@@ -0,0 +1,45 @@
+package com.sinensia.polloschicharron.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Negociación de contenido para clientes con poco ancho de banda (tablets):
+ * 
+ *  Accept: application/cbor              -> CBOR
+ *  Accept: application/x-jackson-smile   -> Smile
+ *  
+ * Los conversores se construyen con el mismo Jackson2ObjectMapperBuilder que el de JSON para que
+ * las propiedades spring.jackson.* (formato de fechas, etc.) se apliquen igual en los tres formatos.
+ * 
+ */
+@Configuration
+public class FormatosBinariosConfig implements WebMvcConfigurer {
+
+	private final Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder;
+	
+	public FormatosBinariosConfig(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+		this.jackson2ObjectMapperBuilder = jackson2ObjectMapperBuilder;
+	}
+	
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		
+		// Sustituimos los que registra Spring MVC por defecto, que no usan la configuración de Spring Boot
+		
+		converters.removeIf(x -> x instanceof MappingJackson2CborHttpMessageConverter || x instanceof MappingJackson2SmileHttpMessageConverter);
+		
+		converters.add(new MappingJackson2CborHttpMessageConverter(jackson2ObjectMapperBuilder.factory(new CBORFactory()).build()));
+		converters.add(new MappingJackson2SmileHttpMessageConverter(jackson2ObjectMapperBuilder.factory(new SmileFactory()).build()));
+	}
+	
+}
@@ -0,0 +1,94 @@
+package com.sinensia.polloschicharron.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Metadatos de alcanzabilidad para la imagen nativa (mvn -Pnative native:compile).
+ * 
+ * Spring AOT ya genera los de los beans, los repositorios JPA y los @RestController. Aquí se añade
+ * lo que sólo se usa por reflexión y no ve el análisis estático:
+ * 
+ *  - Dozer: sus clases internas, que carga por nombre, y los getters/setters de los modelos de negocio e integración
+ *  - Jackson: los DTOs y modelos que se serializan a mano (NDJSON) o dentro de tipos genéricos
+ *  - Recursos: mappings y propiedades de Dozer y los scripts SQL de H2
+ * 
+ */
+@Configuration
+@ImportRuntimeHints(ImagenNativaConfig.PistasImagenNativa.class)
+public class ImagenNativaConfig {
+
+	private static final String PAQUETE_DOZER = "org.dozer";
+	private static final String PAQUETE_DOZER_OSGI = "org.dozer.osgi";
+	private static final String PAQUETE_NEGOCIO = "com.sinensia.polloschicharron.business.model";
+	private static final String PAQUETE_INTEGRACION = "com.sinensia.polloschicharron.integration.model";
+	
+	static class PistasImagenNativa implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+			
+			for(String clase: getClases(PAQUETE_DOZER, classLoader)) {
+				if(!clase.startsWith(PAQUETE_DOZER_OSGI)) {
+					hints.reflection().registerType(TypeReference.of(clase), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+				}
+			}
+			
+			for(String paquete: List.of(PAQUETE_NEGOCIO, PAQUETE_INTEGRACION)) {
+				for(String clase: getClases(paquete, classLoader)) {
+					hints.reflection().registerType(TypeReference.of(clase), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, 
+																		   MemberCategory.INVOKE_DECLARED_METHODS, 
+																		   MemberCategory.DECLARED_FIELDS);
+				}
+			}
+			
+			// Incluye los DTOs (business.model.dtos)
+			
+			BindingReflectionHintsRegistrar jackson = new BindingReflectionHintsRegistrar();
+			
+			for(String clase: getClases(PAQUETE_NEGOCIO, classLoader)) {
+				jackson.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(clase, classLoader));
+			}
+			
+			hints.reflection().registerType(InformeArranqueListener.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+			
+			hints.resources().registerPattern("dozer-configuration-mappings.xml");
+			hints.resources().registerPattern("dozer.properties");
+			hints.resources().registerPattern("beanmapping.xsd");
+			hints.resources().registerPattern("data/h2/*.sql");
+			hints.resources().registerPattern("data/codigos-postales.csv");
+		}
+		
+		private List<String> getClases(String paquete, ClassLoader classLoader) {
+			
+			// Todas las clases del paquete y subpaquetes, incluidas interfaces, enums y clases anidadas
+			
+			ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+				@Override
+				protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+					return true;
+				}
+			};
+			
+			scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+			scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+			
+			return scanner.findCandidateComponents(paquete).stream()
+					.map(x -> x.getBeanClassName())
+					.sorted()
+					.toList();
+		}
+	}
+	
+}
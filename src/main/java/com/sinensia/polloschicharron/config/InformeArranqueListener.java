@@ -0,0 +1,133 @@
+package com.sinensia.polloschicharron.config;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ConfigurableBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Informe del tiempo de arranque por fases, registrado en META-INF/spring.factories:
+ * 
+ *  jvm        arranque de la JVM hasta SpringApplication.run
+ *  entorno    preparación del Environment (properties, perfiles)
+ *  contexto   creación del ApplicationContext e initializers
+ *  carga      registro de las fuentes de beans
+ *  refresh    creación de los beans, JPA, scripts SQL, arranque de Tomcat
+ *  runners    ApplicationRunner / CommandLineRunner
+ * 
+ * Con -Dpolloschicharron.arranque.detalle=true se registran además los pasos de arranque de Spring
+ * y se listan los beans que más tardan en instanciarse (el tiempo de cada bean incluye el de sus dependencias).
+ * 
+ */
+public class InformeArranqueListener implements SpringApplicationRunListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InformeArranqueListener.class);
+	
+	private static final int NUMERO_BEANS_DETALLE = 10;
+	
+	private final Map<String, Long> instantes = new LinkedHashMap<>();
+	private final BufferingApplicationStartup applicationStartup;
+	
+	public InformeArranqueListener(SpringApplication application, String[] args) {
+		
+		if(Boolean.getBoolean("polloschicharron.arranque.detalle")) {
+			applicationStartup = new BufferingApplicationStartup(10000);
+			application.setApplicationStartup(applicationStartup);
+		} else {
+			applicationStartup = null;
+		}
+	}
+	
+	@Override
+	public void starting(ConfigurableBootstrapContext bootstrapContext) {
+		marcar("jvm");
+	}
+	
+	@Override
+	public void environmentPrepared(ConfigurableBootstrapContext bootstrapContext, ConfigurableEnvironment environment) {
+		marcar("entorno");
+	}
+	
+	@Override
+	public void contextPrepared(ConfigurableApplicationContext context) {
+		marcar("contexto");
+	}
+	
+	@Override
+	public void contextLoaded(ConfigurableApplicationContext context) {
+		marcar("carga");
+	}
+	
+	@Override
+	public void started(ConfigurableApplicationContext context, Duration timeTaken) {
+		marcar("refresh");
+	}
+	
+	@Override
+	public void ready(ConfigurableApplicationContext context, Duration timeTaken) {
+		
+		marcar("runners");
+		
+		long inicioJvm = ManagementFactory.getRuntimeMXBean().getStartTime();
+		long anterior = inicioJvm;
+		
+		StringBuilder informe = new StringBuilder();
+		
+		for(Map.Entry<String, Long> entry: instantes.entrySet()) {
+			informe.append(entry.getKey()).append('=').append(entry.getValue() - anterior).append(" ms, ");
+			anterior = entry.getValue();
+		}
+		
+		informe.append("total=").append(anterior - inicioJvm).append(" ms");
+		
+		LOGGER.info("Arranque por fases: {}", informe);
+		
+		if(applicationStartup != null) {
+			LOGGER.info("Beans más lentos en instanciarse: {}", getBeansMasLentos());
+		}
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void marcar(String fase) {
+		instantes.put(fase, System.currentTimeMillis());
+	}
+	
+	private String getBeansMasLentos() {
+		
+		return applicationStartup.getBufferedTimeline().getEvents().stream()
+				.filter(x -> x.getStartupStep().getName().equals("spring.beans.instantiate"))
+				.sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+				.limit(NUMERO_BEANS_DETALLE)
+				.map(x -> getNombreBean(x) + "=" + x.getDuration().toMillis() + " ms")
+				.collect(Collectors.joining(", "));
+	}
+	
+	private String getNombreBean(TimelineEvent evento) {
+		
+		for(var tag: evento.getStartupStep().getTags()) {
+			if(tag.getKey().equals("beanName")) {
+				return tag.getValue();
+			}
+		}
+		
+		return "?";
+	}
+	
+}
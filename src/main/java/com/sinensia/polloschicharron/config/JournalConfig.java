@@ -0,0 +1,27 @@
+package com.sinensia.polloschicharron.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sinensia.polloschicharron.integration.journal.PedidoJournal;
+
+@Configuration
+public class JournalConfig {
+
+	@Bean(destroyMethod = "close")
+	PedidoJournal getPedidoJournal(@Value("${polloschicharron.journal.directorio:}") String directorio,
+								   @Value("${polloschicharron.journal.registros-por-segmento:65536}") int registrosPorSegmento) {
+		
+		// Sin directorio (base de datos en memoria) el journal dura lo mismo que el arranque
+		
+		if(directorio.isBlank()) {
+			return PedidoJournal.temporal(registrosPorSegmento);
+		}
+		
+		return new PedidoJournal(Path.of(directorio), registrosPorSegmento);
+	}
+	
+}
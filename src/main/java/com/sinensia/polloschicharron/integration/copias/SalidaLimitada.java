@@ -0,0 +1,70 @@
+package com.sinensia.polloschicharron.integration.copias;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * OutputStream que limita la velocidad media de escritura a bytesPorSegundo.
+ * 
+ * Después de cada escritura, si se va por delante del ritmo permitido se duerme lo necesario
+ * para recuperarlo. Con bytesPorSegundo <= 0 no se limita nada.
+ * 
+ */
+public class SalidaLimitada extends FilterOutputStream {
+
+	private final long bytesPorSegundo;
+	private final long inicio = System.nanoTime();
+	
+	private long escritos;
+	
+	public SalidaLimitada(OutputStream out, long bytesPorSegundo) {
+		super(out);
+		this.bytesPorSegundo = bytesPorSegundo;
+	}
+	
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		limitar(1);
+	}
+	
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		limitar(len);
+	}
+	
+	public long getEscritos() {
+		return escritos;
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void limitar(int bytes) throws IOException {
+		
+		escritos += bytes;
+		
+		if(bytesPorSegundo <= 0) {
+			return;
+		}
+		
+		long esperado = escritos * 1_000_000_000L / bytesPorSegundo;
+		long adelanto = esperado - (System.nanoTime() - inicio);
+		
+		if(adelanto > 1_000_000L) {
+			try {
+				Thread.sleep(adelanto / 1_000_000L, (int) (adelanto % 1_000_000L));
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Copia interrumpida");
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,174 @@
+package com.sinensia.polloschicharron.integration.copias;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.init.UncategorizedScriptException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Volcado y restauración de la base de datos H2 como script SQL comprimido con GZIP.
+ * 
+ * El volcado se hace con SCRIPT dentro de una transacción con aislamiento SNAPSHOT: todas las tablas
+ * se leen en el mismo instante y, como MVStore es multiversión, los pedidos que se confirman mientras
+ * tanto no esperan a que termine. Las filas del SCRIPT se van escribiendo según se leen, comprimidas
+ * con el nivel más rápido de Deflater y con la velocidad de escritura limitada.
+ * 
+ * La restauración se hace con la base de datos en modo exclusivo (SET EXCLUSIVE 1): las sentencias de
+ * las demás conexiones esperan a que termine, así que nadie escribe en una base de datos a medio cargar.
+ * Antes de borrar todos los objetos se vuelca el contenido actual en una copia previa; si el script
+ * (RUNSCRIPT) falla, se vuelve a cargar esa copia y la base de datos queda como estaba.
+ * 
+ */
+@Component
+public class VolcadoH2 {
+
+	private static final int TAMANO_BUFFER = 64 * 1024;
+	
+	private final DataSource dataSource;
+	
+	public VolcadoH2(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+	
+	/**
+	 * Escribe el script comprimido en salida y devuelve los bytes escritos (ya comprimidos).
+	 * 
+	 * No cierra salida.
+	 * 
+	 */
+	public long exportar(OutputStream salida, long bytesPorSegundo) {
+		
+		SalidaLimitada limitada = new SalidaLimitada(salida, bytesPorSegundo);
+		
+		try(Connection connection = dataSource.getConnection()) {
+			
+			boolean autoCommit = connection.getAutoCommit();
+			
+			try(Statement statement = connection.createStatement()) {
+				
+				statement.execute("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL SNAPSHOT");
+				connection.setAutoCommit(false);
+				
+				GZIPOutputStream gzip = new GzipRapido(limitada);
+				Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), TAMANO_BUFFER);
+				
+				statement.setFetchSize(1000);
+				
+				try(ResultSet lineas = statement.executeQuery("SCRIPT")) {
+					while(lineas.next()) {
+						writer.write(lineas.getString(1));
+						writer.write('\n');
+					}
+				}
+				
+				writer.flush();
+				gzip.finish();
+				
+				connection.commit();
+				
+			} finally {
+				restaurarConexion(connection, autoCommit);
+			}
+			
+		} catch(SQLException e) {
+			throw new UncategorizedScriptException("No se puede volcar la base de datos", e);
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se puede escribir el volcado de la base de datos", e);
+		}
+		
+		return limitada.getEscritos();
+	}
+	
+	/**
+	 * Sustituye todo el contenido de la base de datos por el del volcado.
+	 * 
+	 * Lo que había antes queda en copiaPrevia, que se sobrescribe si ya existe.
+	 * 
+	 */
+	public void importar(Path volcado, Path copiaPrevia) {
+		
+		try(Connection connection = dataSource.getConnection(); 
+			Statement statement = connection.createStatement()) {
+			
+			statement.execute("SET EXCLUSIVE 1");
+			
+			try {
+				
+				statement.execute("SCRIPT TO " + ruta(copiaPrevia) + " COMPRESSION GZIP CHARSET 'UTF-8'");
+				
+				try {
+					cargar(statement, volcado);
+				} catch(SQLException e) {
+					deshacer(statement, copiaPrevia, e);
+					throw e;
+				}
+				
+			} finally {
+				statement.execute("SET EXCLUSIVE 0");
+			}
+			
+		} catch(SQLException e) {
+			throw new UncategorizedScriptException("No se puede restaurar la base de datos desde " + volcado, e);
+		}
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void cargar(Statement statement, Path script) throws SQLException {
+		statement.execute("DROP ALL OBJECTS");
+		statement.execute("RUNSCRIPT FROM " + ruta(script) + " COMPRESSION GZIP CHARSET 'UTF-8'");
+	}
+	
+	private void deshacer(Statement statement, Path copiaPrevia, SQLException causa) {
+		
+		try {
+			cargar(statement, copiaPrevia);
+		} catch(SQLException e) {
+			causa.addSuppressed(e);
+		}
+	}
+	
+	private String ruta(Path fichero) {
+		return "'" + fichero.toAbsolutePath().toString().replace("'", "''") + "'";
+	}
+	
+	private void restaurarConexion(Connection connection, boolean autoCommit) throws SQLException {
+		
+		// La conexión vuelve al pool: dejamos el aislamiento y el autocommit como estaban
+		
+		connection.rollback();
+		connection.setAutoCommit(autoCommit);
+		
+		try(Statement statement = connection.createStatement()) {
+			statement.execute("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL READ COMMITTED");
+		}
+	}
+	
+	private static class GzipRapido extends GZIPOutputStream {
+		
+		private GzipRapido(OutputStream out) throws IOException {
+			super(out, TAMANO_BUFFER);
+			def.setLevel(Deflater.BEST_SPEED);
+		}
+	}
+	
+}
@@ -0,0 +1,424 @@
+package com.sinensia.polloschicharron.integration.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.EventoPedido;
+import com.sinensia.polloschicharron.business.model.TipoEventoPedido;
+
+/**
+ * Journal binario de sólo escritura al final (append-only) con los eventos de los pedidos.
+ *
+ * Los eventos se escriben en segmentos de tamaño fijo mapeados en memoria (pedidos-00000000.journal,
+ * pedidos-00000001.journal...). Cuando un segmento se llena se abre el siguiente.
+ *
+ * Cada registro ocupa TAMANO_REGISTRO bytes:
+ *
+ *  offset  tipo   campo
+ *  ------  -----  ------------------------------------------------------
+ *   0      byte   tipo de evento (0 = hueco libre, se escribe el último)
+ *   1      byte   estado (ordinal + 1, 0 = sin estado)
+ *   2      short  flags (bit 0: referencia1 presente, bit 1: referencia2 presente)
+ *   4      int    cantidad
+ *   8      long   secuencia
+ *  16      long   id del pedido
+ *  24      long   instante (epoch millis)
+ *  32      long   referencia1 (idEmpleado | idProducto)
+ *  40      long   referencia2 (idCliente  | precio en céntimos)
+ *
+ * Se mantiene en memoria un índice idPedido -> posiciones para localizar los eventos de un pedido
+ * sin recorrer el journal. El índice se reconstruye al abrir los segmentos existentes.
+ *
+ * Los ids de pedido sólo son únicos mientras dure la base de datos que los genera: el journal ha de
+ * vivir lo mismo que ella. Con una base de datos en memoria se usa un journal temporal(), que se
+ * crea vacío en un directorio propio y se borra al cerrarlo. Al restaurar la base de datos desde una
+ * copia los ids se vuelven a generar desde los de la copia: reiniciar() aparta los segmentos escritos
+ * hasta entonces y empieza un journal vacío.
+ *
+ */
+public class PedidoJournal implements Closeable {
+
+	public static final int TAMANO_REGISTRO = 48;
+
+	private static final String PREFIJO_SEGMENTO = "pedidos-";
+	private static final String SUFIJO_SEGMENTO = ".journal";
+
+	private static final short FLAG_REFERENCIA1 = 1;
+	private static final short FLAG_REFERENCIA2 = 2;
+
+	private static final EstadoPedido[] ESTADOS = EstadoPedido.values();
+
+	private final Path directorio;
+	private final int registrosPorSegmento;
+	private final boolean temporal;
+
+	private final List<MappedByteBuffer> segmentos = new ArrayList<>();
+	private final Map<Long, PosicionesPedido> indice = new HashMap<>();
+
+	private long numeroEventos;
+	private boolean cerrado;
+
+	public PedidoJournal(Path directorio, int registrosPorSegmento) {
+		this(directorio, registrosPorSegmento, false);
+	}
+
+	private PedidoJournal(Path directorio, int registrosPorSegmento, boolean temporal) {
+
+		if(registrosPorSegmento <= 0) {
+			throw new IllegalArgumentException("El número de registros por segmento ha de ser positivo.");
+		}
+
+		this.directorio = directorio;
+		this.registrosPorSegmento = registrosPorSegmento;
+		this.temporal = temporal;
+
+		try {
+			Files.createDirectories(directorio);
+			abrirSegmentosExistentes();
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se puede abrir el journal de pedidos en " + directorio, e);
+		}
+	}
+
+	/**
+	 * Journal vacío en un directorio temporal propio que se borra al cerrarlo
+	 *
+	 */
+	public static PedidoJournal temporal(int registrosPorSegmento) {
+
+		try {
+			return new PedidoJournal(Files.createTempDirectory("polloschicharron-journal-"), registrosPorSegmento, true);
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se puede crear el directorio del journal de pedidos", e);
+		}
+	}
+
+	/**
+	 * Añade el evento al final del journal y devuelve su número de secuencia
+	 *
+	 */
+	public synchronized long append(EventoPedido evento) {
+
+		comprobarAbierto();
+
+		if(segmentos.size() * (long) registrosPorSegmento == numeroEventos) {
+			rolarSegmento();
+		}
+
+		int slot = (int) (numeroEventos % registrosPorSegmento);
+
+		MappedByteBuffer segmento = segmentos.get(segmentos.size() - 1);
+		long secuencia = numeroEventos;
+
+		escribir(segmento, slot * TAMANO_REGISTRO, secuencia, evento);
+
+		indexar(evento.getIdPedido(), secuencia);
+		numeroEventos++;
+
+		return secuencia;
+	}
+
+	public synchronized List<EventoPedido> getEventos(long idPedido) {
+
+		comprobarAbierto();
+
+		PosicionesPedido posiciones = indice.get(idPedido);
+
+		if(posiciones == null) {
+			return List.of();
+		}
+
+		List<EventoPedido> eventos = new ArrayList<>(posiciones.numero);
+
+		for(int i = 0; i < posiciones.numero; i++) {
+			eventos.add(leer(segmentos, posiciones.valores[i]));
+		}
+
+		return eventos;
+	}
+
+	/**
+	 * Recorre en orden todos los eventos escritos hasta el momento de la llamada
+	 *
+	 */
+	public void replay(Consumer<EventoPedido> consumidor) {
+		replay(0, consumidor);
+	}
+
+	/**
+	 * Recorre en orden los eventos a partir de la secuencia indicada (incluida)
+	 *
+	 */
+	public void replay(long desdeSecuencia, Consumer<EventoPedido> consumidor) {
+
+		long hasta;
+		List<MappedByteBuffer> copiaSegmentos;
+
+		// append() añade segmentos a la lista al rolar: se recorre una copia tomada con el monitor
+
+		synchronized(this) {
+			comprobarAbierto();
+			hasta = numeroEventos;
+			copiaSegmentos = List.copyOf(segmentos);
+		}
+
+		// Los registros por debajo de 'hasta' ya están escritos y no se modifican nunca.
+
+		for(long secuencia = Math.max(0, desdeSecuencia); secuencia < hasta; secuencia++) {
+			consumidor.accept(leer(copiaSegmentos, secuencia));
+		}
+	}
+
+	/**
+	 * Empieza un journal vacío con la secuencia en 0. Los segmentos actuales se mueven al subdirectorio
+	 * anterior-[epoch millis], que ya no se lee (en un journal temporal se borran).
+	 *
+	 * Un replay en curso termina de recorrer los segmentos que ya tenía.
+	 *
+	 */
+	public synchronized void reiniciar() {
+
+		comprobarAbierto();
+
+		try(Stream<Path> ficheros = Files.list(directorio)) {
+
+			List<Path> actuales = ficheros.filter(this::esSegmento).toList();
+
+			if(temporal) {
+				for(Path fichero: actuales) {
+					Files.deleteIfExists(fichero);
+				}
+			} else {
+
+				segmentos.forEach(MappedByteBuffer::force);
+
+				Path anterior = Files.createDirectories(directorio.resolve("anterior-" + System.currentTimeMillis()));
+
+				for(Path fichero: actuales) {
+					Files.move(fichero, anterior.resolve(fichero.getFileName()));
+				}
+			}
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se puede reiniciar el journal de pedidos en " + directorio, e);
+		}
+
+		segmentos.clear();
+		indice.clear();
+		numeroEventos = 0;
+	}
+
+	public synchronized long size() {
+		return numeroEventos;
+	}
+
+	public Path getDirectorio() {
+		return directorio;
+	}
+
+	public synchronized int getNumeroSegmentos() {
+		return segmentos.size();
+	}
+
+	/**
+	 * Fuerza la escritura en disco del segmento activo
+	 *
+	 */
+	public synchronized void flush() {
+		if(!segmentos.isEmpty()) {
+			segmentos.get(segmentos.size() - 1).force();
+		}
+	}
+
+	/**
+	 * Un replay en curso termina de recorrer los segmentos que ya tenía; cualquier otra operación
+	 * posterior lanza IllegalStateException
+	 *
+	 */
+	@Override
+	public synchronized void close() {
+
+		if(cerrado) {
+			return;
+		}
+
+		cerrado = true;
+
+		if(!temporal) {
+			segmentos.forEach(MappedByteBuffer::force);
+		}
+
+		segmentos.clear();
+		indice.clear();
+
+		if(temporal) {
+			borrarDirectorio();
+		}
+	}
+
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+
+	private void comprobarAbierto() {
+		if(cerrado) {
+			throw new IllegalStateException("El journal de pedidos está cerrado.");
+		}
+	}
+
+	private void abrirSegmentosExistentes() throws IOException {
+
+		List<Path> ficheros;
+
+		try(Stream<Path> stream = Files.list(directorio)) {
+			ficheros = stream
+					.filter(this::esSegmento)
+					.sorted()
+					.toList();
+		}
+
+		for(Path fichero: ficheros) {
+
+			MappedByteBuffer segmento = mapear(fichero);
+			segmentos.add(segmento);
+
+			for(int slot = 0; slot < registrosPorSegmento; slot++) {
+
+				int offset = slot * TAMANO_REGISTRO;
+
+				if(TipoEventoPedido.fromCodigo(segmento.get(offset)) == null) {
+					return; // primer hueco libre: final del journal
+				}
+
+				indexar(segmento.getLong(offset + 16), numeroEventos);
+				numeroEventos++;
+			}
+		}
+	}
+
+	private boolean esSegmento(Path fichero) {
+		String nombre = fichero.getFileName().toString();
+		return nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(SUFIJO_SEGMENTO);
+	}
+
+	private void rolarSegmento() {
+
+		if(!segmentos.isEmpty()) {
+			segmentos.get(segmentos.size() - 1).force();
+		}
+
+		Path fichero = directorio.resolve(String.format("%s%08d%s", PREFIJO_SEGMENTO, segmentos.size(), SUFIJO_SEGMENTO));
+
+		try {
+			segmentos.add(mapear(fichero));
+		} catch(IOException e) {
+			throw new UncheckedIOException("No se puede crear el segmento " + fichero, e);
+		}
+	}
+
+	private MappedByteBuffer mapear(Path fichero) throws IOException {
+
+		// El mapeo sigue siendo válido después de cerrar el canal.
+
+		try(FileChannel channel = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return channel.map(MapMode.READ_WRITE, 0, (long) registrosPorSegmento * TAMANO_REGISTRO);
+		}
+	}
+
+	private void escribir(MappedByteBuffer segmento, int offset, long secuencia, EventoPedido evento) {
+
+		Long referencia1 = evento.getIdEmpleado() != null ? evento.getIdEmpleado() : evento.getIdProducto();
+		Long referencia2 = evento.getTipo() == TipoEventoPedido.LINEA_ANADIDA ? Long.valueOf(evento.getPrecioCentimos()) : evento.getIdCliente();
+
+		short flags = 0;
+		flags |= referencia1 != null ? FLAG_REFERENCIA1 : 0;
+		flags |= referencia2 != null ? FLAG_REFERENCIA2 : 0;
+
+		segmento.put(offset + 1, (byte) (evento.getEstado() == null ? 0 : evento.getEstado().ordinal() + 1));
+		segmento.putShort(offset + 2, flags);
+		segmento.putInt(offset + 4, evento.getCantidad());
+		segmento.putLong(offset + 8, secuencia);
+		segmento.putLong(offset + 16, evento.getIdPedido());
+		segmento.putLong(offset + 24, evento.getInstante());
+		segmento.putLong(offset + 32, referencia1 == null ? 0 : referencia1);
+		segmento.putLong(offset + 40, referencia2 == null ? 0 : referencia2);
+
+		// El tipo se escribe el último: un registro con tipo es un registro completo.
+
+		segmento.put(offset, evento.getTipo().getCodigo());
+	}
+
+	private void borrarDirectorio() {
+
+		// En Linux se puede borrar un fichero aún mapeado; si el sistema no lo permite queda en el temporal
+
+		try(Stream<Path> ficheros = Files.list(directorio)) {
+			for(Path fichero: ficheros.toList()) {
+				Files.deleteIfExists(fichero);
+			}
+			Files.deleteIfExists(directorio);
+		} catch(IOException e) {
+			directorio.toFile().deleteOnExit();
+		}
+	}
+
+	private EventoPedido leer(List<MappedByteBuffer> segmentos, long secuencia) {
+
+		MappedByteBuffer segmento = segmentos.get((int) (secuencia / registrosPorSegmento));
+		int offset = (int) (secuencia % registrosPorSegmento) * TAMANO_REGISTRO;
+
+		TipoEventoPedido tipo = TipoEventoPedido.fromCodigo(segmento.get(offset));
+		byte estado = segmento.get(offset + 1);
+		short flags = segmento.getShort(offset + 2);
+
+		Long referencia1 = (flags & FLAG_REFERENCIA1) != 0 ? segmento.getLong(offset + 32) : null;
+		Long referencia2 = (flags & FLAG_REFERENCIA2) != 0 ? segmento.getLong(offset + 40) : null;
+
+		boolean esLinea = tipo == TipoEventoPedido.LINEA_ANADIDA;
+
+		return new EventoPedido(segmento.getLong(offset + 8),
+								tipo,
+								segmento.getLong(offset + 16),
+								segmento.getLong(offset + 24),
+								estado == 0 ? null : ESTADOS[estado - 1],
+								esLinea ? null : referencia1,
+								esLinea ? null : referencia2,
+								esLinea ? referencia1 : null,
+								segmento.getInt(offset + 4),
+								esLinea && referencia2 != null ? referencia2 : 0);
+	}
+
+	private void indexar(long idPedido, long secuencia) {
+		indice.computeIfAbsent(idPedido, x -> new PosicionesPedido()).add(secuencia);
+	}
+
+	private static class PosicionesPedido {
+
+		private long[] valores = new long[4];
+		private int numero;
+
+		private void add(long posicion) {
+			if(numero == valores.length) {
+				valores = Arrays.copyOf(valores, numero * 2);
+			}
+			valores[numero++] = posicion;
+		}
+	}
+
+}
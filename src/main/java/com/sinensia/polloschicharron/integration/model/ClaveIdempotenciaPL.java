@@ -0,0 +1,113 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.util.Date;
+import java.util.Objects;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+/**
+ * Las claves sólo se insertan: isNew() siempre es true para que save() haga un persist (INSERT) y no
+ * un merge, que actualizaría la fila de otra petición con la misma clave en lugar de fallar por la PK.
+ * 
+ * La huella identifica el contenido del pedido creado con la clave (null en las claves guardadas antes
+ * de registrarla).
+ * 
+ */
+@Entity
+@Table(name="CLAVES_IDEMPOTENCIA")
+public class ClaveIdempotenciaPL implements Persistable<String> {
+
+	@Id
+	private String clave;
+	
+	@Column(name="CODIGO_PEDIDO")
+	private Long idPedido;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date fechaHora;
+	
+	private String huella;
+	
+	public ClaveIdempotenciaPL() {
+		
+	}
+	
+	public ClaveIdempotenciaPL(String clave, Long idPedido, Date fechaHora, String huella) {
+		this.clave = clave;
+		this.idPedido = idPedido;
+		this.fechaHora = fechaHora;
+		this.huella = huella;
+	}
+
+	public String getClave() {
+		return clave;
+	}
+
+	public void setClave(String clave) {
+		this.clave = clave;
+	}
+
+	@Override
+	public String getId() {
+		return clave;
+	}
+	
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+	public Long getIdPedido() {
+		return idPedido;
+	}
+
+	public void setIdPedido(Long idPedido) {
+		this.idPedido = idPedido;
+	}
+
+	public Date getFechaHora() {
+		return fechaHora;
+	}
+
+	public void setFechaHora(Date fechaHora) {
+		this.fechaHora = fechaHora;
+	}
+
+	public String getHuella() {
+		return huella;
+	}
+
+	public void setHuella(String huella) {
+		this.huella = huella;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(clave);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ClaveIdempotenciaPL other = (ClaveIdempotenciaPL) obj;
+		return Objects.equals(clave, other.clave);
+	}
+
+	@Override
+	public String toString() {
+		return "ClaveIdempotencia [clave=" + clave + ", idPedido=" + idPedido + ", fechaHora=" + fechaHora + ", huella=" + huella + "]";
+	}
+	
+}
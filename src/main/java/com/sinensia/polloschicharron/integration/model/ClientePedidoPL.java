@@ -0,0 +1,11 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.time.LocalDate;
+
+/**
+ * Cliente con algún pedido en un establecimiento en un día
+ * 
+ */
+public record ClientePedidoPL(String nifEstablecimiento, LocalDate dia, long idCliente) {
+
+}
@@ -0,0 +1,39 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+
+@Entity
+@Immutable
+@Subselect("SELECT p.CODIGO, p.DNI, p.NOMBRE, p.APELLIDO1, p.APELLIDO2,                    "
+		 + "       p.DIRECCION, p.POBLACION, p.CODIGO_POSTAL, p.PROVINCIA, p.PAIS,          "
+		 + "       p.TELEFONO, p.MOVIL, p.EMAIL, c.GOLD                                     "
+		 + "FROM   PERSONAS p JOIN CLIENTES c ON c.CODIGO = p.CODIGO                        ")
+@Synchronize({"PERSONAS", "CLIENTES"})
+public class ClientePlanoPL extends PersonaPlanaPL {
+
+	@Column(name="GOLD")
+	private boolean clienteGold;
+	
+	public ClientePlanoPL() {
+		
+	}
+
+	public boolean isClienteGold() {
+		return clienteGold;
+	}
+
+	public void setClienteGold(boolean clienteGold) {
+		this.clienteGold = clienteGold;
+	}
+
+	@Override
+	public String toString() {
+		return "ClientePlano [clienteGold=" + clienteGold + ", toString()=" + super.toString() + "]";
+	}
+	
+}
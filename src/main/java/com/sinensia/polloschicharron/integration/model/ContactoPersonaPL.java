@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.integration.model;
+
+/**
+ * Datos por los que se identifica a una persona en caja
+ * 
+ */
+public record ContactoPersonaPL(Long id, String dni, String email, String telefono, String movil) {
+
+}
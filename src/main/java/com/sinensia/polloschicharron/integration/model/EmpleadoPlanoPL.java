@@ -0,0 +1,37 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import jakarta.persistence.Entity;
+
+@Entity
+@Immutable
+@Subselect("SELECT p.CODIGO, p.DNI, p.NOMBRE, p.APELLIDO1, p.APELLIDO2,                    "
+		 + "       p.DIRECCION, p.POBLACION, p.CODIGO_POSTAL, p.PROVINCIA, p.PAIS,          "
+		 + "       p.TELEFONO, p.MOVIL, p.EMAIL, e.LICENCIA_MANIPULADOR_ALIMENTOS           "
+		 + "FROM   PERSONAS p JOIN EMPLEADOS e ON e.CODIGO = p.CODIGO                       ")
+@Synchronize({"PERSONAS", "EMPLEADOS"})
+public class EmpleadoPlanoPL extends PersonaPlanaPL {
+
+	private String licenciaManipuladorAlimentos;
+
+	public EmpleadoPlanoPL() {
+		
+	}
+
+	public String getLicenciaManipuladorAlimentos() {
+		return licenciaManipuladorAlimentos;
+	}
+
+	public void setLicenciaManipuladorAlimentos(String licenciaManipuladorAlimentos) {
+		this.licenciaManipuladorAlimentos = licenciaManipuladorAlimentos;
+	}
+
+	@Override
+	public String toString() {
+		return "EmpleadoPlano [licenciaManipuladorAlimentos=" + licenciaManipuladorAlimentos + ", toString()=" + super.toString() + "]";
+	}
+	
+}
@@ -0,0 +1,39 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class LineaListaPreciosPL {
+
+	@Column(name="CODIGO_PRODUCTO")
+	private Long idProducto;
+	
+	private double precio;
+	
+	public LineaListaPreciosPL() {
+
+	}
+
+	public Long getIdProducto() {
+		return idProducto;
+	}
+
+	public void setIdProducto(Long idProducto) {
+		this.idProducto = idProducto;
+	}
+
+	public double getPrecio() {
+		return precio;
+	}
+
+	public void setPrecio(double precio) {
+		this.precio = precio;
+	}
+
+	@Override
+	public String toString() {
+		return "LineaListaPrecios [idProducto=" + idProducto + ", precio=" + precio + "]";
+	}
+
+}
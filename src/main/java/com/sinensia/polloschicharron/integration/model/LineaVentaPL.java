@@ -0,0 +1,22 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Línea de un pedido servido con lo que hace falta para los informes de ventas: 
+ * LINEAS_PEDIDO ⨝ PEDIDOS ⨝ PRODUCTOS (y la familia del producto).
+ * 
+ * El precio es el de la línea o, si la línea no lo tiene, el del producto.
+ * 
+ */
+public record LineaVentaPL(long idPedido, 
+						   LocalDateTime fechaHora, 
+						   String nifEstablecimiento, 
+						   long idProducto, 
+						   String producto, 
+						   Long idFamilia, 
+						   String familia, 
+						   int cantidad, 
+						   double precio) {
+
+}
@@ -0,0 +1,107 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+@Entity
+@Table(name="LISTAS_PRECIOS")
+public class ListaPreciosPL {
+
+	@Id
+	@Column(name="CODIGO")
+	@GeneratedValue(generator = "LISTA_PRECIOS_SEQ")
+	private Long id;
+	
+	private String nombre;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date fechaVigencia;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date fechaAlta;
+	
+	@ElementCollection
+	@JoinTable(name="LINEAS_LISTA_PRECIOS", 
+			   joinColumns = @JoinColumn(name="CODIGO_LISTA"))
+	private List<LineaListaPreciosPL> lineas;
+	
+	public ListaPreciosPL() {
+		
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public Date getFechaVigencia() {
+		return fechaVigencia;
+	}
+
+	public void setFechaVigencia(Date fechaVigencia) {
+		this.fechaVigencia = fechaVigencia;
+	}
+
+	public Date getFechaAlta() {
+		return fechaAlta;
+	}
+
+	public void setFechaAlta(Date fechaAlta) {
+		this.fechaAlta = fechaAlta;
+	}
+
+	public List<LineaListaPreciosPL> getLineas() {
+		return lineas;
+	}
+
+	public void setLineas(List<LineaListaPreciosPL> lineas) {
+		this.lineas = lineas;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ListaPreciosPL other = (ListaPreciosPL) obj;
+		return Objects.equals(id, other.id);
+	}
+
+	@Override
+	public String toString() {
+		return "ListaPrecios [id=" + id + ", nombre=" + nombre + ", fechaVigencia=" + fechaVigencia + ", fechaAlta="
+				+ fechaAlta + "]";
+	}
+	
+}
@@ -0,0 +1,153 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+/**
+ * Pedido de sólo lectura sobre PEDIDOS con el empleado y el cliente aplanados (EmpleadoPlanoPL, ClientePlanoPL).
+ * 
+ * Las asociaciones son LAZY: las consultas de PedidoLecturaPLRepository las traen con JOIN FETCH
+ * junto con las líneas y sus productos, de modo que un pedido o una lista de pedidos se leen en una
+ * sola sentencia. Al ser @Immutable no hay snapshot ni dirty checking al cerrar la sesión.
+ * 
+ */
+@Entity
+@Immutable
+@Table(name="PEDIDOS")
+public class PedidoLecturaPL {
+	
+	@Id
+	@Column(name="CODIGO")
+	private Long id;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date fechaHora;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name="CODIGO_EMPLEADO")
+	private EmpleadoPlanoPL empleado;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name="NIF_ESTABLECIMIENTO")
+	private EstablecimientoPL establecimiento;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name="CODIGO_CLIENTE")
+	private ClientePlanoPL cliente;
+	
+	@Enumerated(EnumType.STRING)
+	private EstadoPedidoPL estado;
+	
+	@Column(name="COMENTARIO")
+	private String observaciones;
+	
+	@ElementCollection
+	@JoinTable(name="LINEAS_PEDIDO", 
+			   joinColumns = @JoinColumn(name="CODIGO_PEDIDO"))
+	@OrderColumn(name="ORDEN")
+	private List<LineaPedidoPL> lineas;
+	
+	public PedidoLecturaPL() {
+		
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Date getFechaHora() {
+		return fechaHora;
+	}
+
+	public void setFechaHora(Date fechaHora) {
+		this.fechaHora = fechaHora;
+	}
+
+	public EmpleadoPlanoPL getEmpleado() {
+		return empleado;
+	}
+
+	public void setEmpleado(EmpleadoPlanoPL empleado) {
+		this.empleado = empleado;
+	}
+	
+	public EstablecimientoPL getEstablecimiento() {
+		return establecimiento;
+	}
+
+	public void setEstablecimiento(EstablecimientoPL establecimiento) {
+		this.establecimiento = establecimiento;
+	}
+
+	public ClientePlanoPL getCliente() {
+		return cliente;
+	}
+
+	public void setCliente(ClientePlanoPL cliente) {
+		this.cliente = cliente;
+	}
+
+	public EstadoPedidoPL getEstado() {
+		return estado;
+	}
+
+	public void setEstado(EstadoPedidoPL estado) {
+		this.estado = estado;
+	}
+
+	public String getObservaciones() {
+		return observaciones;
+	}
+
+	public void setObservaciones(String observaciones) {
+		this.observaciones = observaciones;
+	}
+
+	public List<LineaPedidoPL> getLineas() {
+		return lineas;
+	}
+
+	public void setLineas(List<LineaPedidoPL> lineas) {
+		this.lineas = lineas;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PedidoLecturaPL other = (PedidoLecturaPL) obj;
+		return Objects.equals(id, other.id);
+	}
+
+}
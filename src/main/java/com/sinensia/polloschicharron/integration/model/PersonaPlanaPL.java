@@ -0,0 +1,123 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Persona de sólo lectura en una única fila: las subclases se mapean con @Subselect sobre PERSONAS
+ * y la tabla de su tipo, así que cargarlas es una sola join por clave primaria en lugar de la carga
+ * de la jerarquía JOINED de PersonaPL.
+ * 
+ * Los campos se llaman igual que en PersonaPL para que Dozer las mapee al modelo de negocio.
+ * 
+ */
+@MappedSuperclass
+public abstract class PersonaPlanaPL {
+
+	@Id
+	@Column(name="CODIGO")
+	private Long id;
+	
+	private String DNI;
+	private String nombre;
+	private String apellido1;
+	private String apellido2;
+	
+	@Embedded
+	private DireccionPL direccion;
+	
+	@Embedded
+	private DatosContactoPL datosContacto;
+	
+	public PersonaPlanaPL() {
+		
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+
+
+	public String getDNI() {
+		return DNI;
+	}
+
+	public void setDNI(String dNI) {
+		DNI = dNI;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public String getApellido1() {
+		return apellido1;
+	}
+
+	public void setApellido1(String apellido1) {
+		this.apellido1 = apellido1;
+	}
+
+	public String getApellido2() {
+		return apellido2;
+	}
+
+	public void setApellido2(String apellido2) {
+		this.apellido2 = apellido2;
+	}
+
+	public DireccionPL getDireccion() {
+		return direccion;
+	}
+
+	public void setDireccion(DireccionPL direccion) {
+		this.direccion = direccion;
+	}
+
+	public DatosContactoPL getDatosContacto() {
+		return datosContacto;
+	}
+
+	public void setDatosContacto(DatosContactoPL datosContacto) {
+		this.datosContacto = datosContacto;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(DNI);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PersonaPlanaPL other = (PersonaPlanaPL) obj;
+		return Objects.equals(DNI, other.DNI);
+	}
+
+	@Override
+	public String toString() {
+		return "Persona [DNI=" + DNI + ", nombre=" + nombre + ", apellido1=" + apellido1 + ", apellido2=" + apellido2
+				+ ", direccion=" + direccion + ", datosContacto=" + datosContacto + "]";
+	}
+
+}
@@ -36,6 +36,9 @@ public class ProductoPL {
 	private Double precio;
 	private String descripcion;
 	
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date fechaPrecio;
+	
 	public ProductoPL() {
 		
 	}
@@ -96,6 +99,14 @@ public class ProductoPL {
 		this.descripcion = descripcion;
 	}
 
+	public Date getFechaPrecio() {
+		return fechaPrecio;
+	}
+
+	public void setFechaPrecio(Date fechaPrecio) {
+		this.fechaPrecio = fechaPrecio;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(id);
@@ -0,0 +1,181 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Definición de los campos que se pueden pedir de un recurso REST (parámetro fields=) y de la
+ * expresión JPQL que selecciona cada uno.
+ * 
+ * Los nombres de campo son los de la representación JSON del modelo de negocio, con punto para los
+ * objetos anidados (familia.nombre, empleado.direccion.poblacion...). Cada campo indica los JOIN que
+ * necesita, de modo que sólo se hacen los JOIN de los campos pedidos.
+ * 
+ * Una colección (p.ej. las líneas de un pedido) se define con su propia proyección y se consulta
+ * aparte, agrupando después el resultado por el id del padre.
+ * 
+ */
+public class ProyeccionPL {
+
+	public static final ProyeccionPL PRODUCTOS = new ProyeccionPL("ProductoPL p", "p.id")
+			.join("f", "LEFT JOIN p.familia f")
+			.camposProducto("", "p", "f");
+	
+	public static final ProyeccionPL EMPLEADOS = new ProyeccionPL("EmpleadoPL e", "e.id")
+			.camposPersona("", "e")
+			.campo("licenciaManipuladorAlimentos", "e.licenciaManipuladorAlimentos");
+	
+	public static final ProyeccionPL ESTABLECIMIENTOS = new ProyeccionPL("EstablecimientoPL s", "s.NIF")
+			.camposEstablecimiento("", "s");
+	
+	public static final ProyeccionPL LINEAS_PEDIDO = new ProyeccionPL("PedidoPL p JOIN p.lineas l", "p.id", "p.id, INDEX(l)")
+			.join("pr", "LEFT JOIN l.producto pr")
+			.join("f", "LEFT JOIN pr.familia f")
+			.campo("precio", "l.precio")
+			.campo("cantidad", "l.cantidad")
+			.camposProducto("producto.", "pr", "f", "pr");
+	
+	public static final ProyeccionPL PEDIDOS = new ProyeccionPL("PedidoPL p", "p.id")
+			.join("e", "LEFT JOIN p.empleado e")
+			.join("s", "LEFT JOIN p.establecimiento s")
+			.join("c", "LEFT JOIN p.cliente c")
+			.campo("id", "p.id")
+			.campo("fechaHora", "p.fechaHora")
+			.campo("estado", "p.estado")
+			.campo("observaciones", "p.observaciones")
+			.camposPersona("empleado.", "e", "e")
+			.campo("empleado.licenciaManipuladorAlimentos", "e.licenciaManipuladorAlimentos", "e")
+			.camposEstablecimiento("establecimiento.", "s", "s")
+			.camposPersona("cliente.", "c", "c")
+			.campo("cliente.clienteGold", "c.clienteGold", "c")
+			.coleccion("lineas", LINEAS_PEDIDO);
+	
+	private final String from;
+	private final String id;
+	private final String orden;
+	
+	private final Map<String, String> joins = new LinkedHashMap<>();
+	private final Map<String, Campo> campos = new LinkedHashMap<>();
+	private final Map<String, ProyeccionPL> colecciones = new LinkedHashMap<>();
+	
+	public ProyeccionPL(String from, String id) {
+		this(from, id, id);
+	}
+	
+	public ProyeccionPL(String from, String id, String orden) {
+		this.from = from;
+		this.id = id;
+		this.orden = orden;
+	}
+	
+	public ProyeccionPL join(String alias, String clausula) {
+		joins.put(alias, clausula);
+		return this;
+	}
+	
+	public ProyeccionPL campo(String nombre, String expresion, String... joins) {
+		campos.put(nombre, new Campo(expresion, List.of(joins)));
+		return this;
+	}
+	
+	public ProyeccionPL coleccion(String nombre, ProyeccionPL proyeccion) {
+		colecciones.put(nombre, proyeccion);
+		return this;
+	}
+
+	public String getFrom() {
+		return from;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getOrden() {
+		return orden;
+	}
+
+	public Map<String, String> getJoins() {
+		return joins;
+	}
+
+	public Map<String, Campo> getCampos() {
+		return campos;
+	}
+
+	public Map<String, ProyeccionPL> getColecciones() {
+		return colecciones;
+	}
+	
+	public static class Campo {
+		
+		private final String expresion;
+		private final List<String> joins;
+		
+		private Campo(String expresion, List<String> joins) {
+			this.expresion = expresion;
+			this.joins = joins;
+		}
+
+		public String getExpresion() {
+			return expresion;
+		}
+
+		public List<String> getJoins() {
+			return joins;
+		}
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private ProyeccionPL camposProducto(String prefijo, String alias, String aliasFamilia, String... joins) {
+		
+		String[] joinsFamilia = new String[joins.length + 1];
+		System.arraycopy(joins, 0, joinsFamilia, 0, joins.length);
+		joinsFamilia[joins.length] = aliasFamilia;
+		
+		return campo(prefijo + "id", alias + ".id", joins)
+				.campo(prefijo + "nombre", alias + ".nombre", joins)
+				.campo(prefijo + "fechaAlta", alias + ".fechaAlta", joins)
+				.campo(prefijo + "descatalogado", alias + ".descatalogado", joins)
+				.campo(prefijo + "familia.id", aliasFamilia + ".id", joinsFamilia)
+				.campo(prefijo + "familia.nombre", aliasFamilia + ".nombre", joinsFamilia)
+				.campo(prefijo + "precio", alias + ".precio", joins)
+				.campo(prefijo + "descripcion", alias + ".descripcion", joins);
+	}
+	
+	private ProyeccionPL camposPersona(String prefijo, String alias, String... joins) {
+		
+		return campo(prefijo + "id", alias + ".id", joins)
+				.campo(prefijo + "dni", alias + ".DNI", joins)
+				.campo(prefijo + "nombre", alias + ".nombre", joins)
+				.campo(prefijo + "apellido1", alias + ".apellido1", joins)
+				.campo(prefijo + "apellido2", alias + ".apellido2", joins)
+				.camposDireccionYContacto(prefijo, alias, joins);
+	}
+	
+	private ProyeccionPL camposEstablecimiento(String prefijo, String alias, String... joins) {
+		
+		return campo(prefijo + "nif", alias + ".NIF", joins)
+				.campo(prefijo + "nombre", alias + ".nombre", joins)
+				.camposDireccionYContacto(prefijo, alias, joins);
+	}
+	
+	private ProyeccionPL camposDireccionYContacto(String prefijo, String alias, String... joins) {
+		
+		return campo(prefijo + "direccion.direccion", alias + ".direccion.direccion", joins)
+				.campo(prefijo + "direccion.poblacion", alias + ".direccion.poblacion", joins)
+				.campo(prefijo + "direccion.codigoPostal", alias + ".direccion.codigoPostal", joins)
+				.campo(prefijo + "direccion.provincia", alias + ".direccion.provincia", joins)
+				.campo(prefijo + "direccion.pais", alias + ".direccion.pais", joins)
+				.campo(prefijo + "datosContacto.telefono", alias + ".datosContacto.telefono", joins)
+				.campo(prefijo + "datosContacto.movil", alias + ".datosContacto.movil", joins)
+				.campo(prefijo + "datosContacto.email", alias + ".datosContacto.email", joins);
+	}
+	
+}
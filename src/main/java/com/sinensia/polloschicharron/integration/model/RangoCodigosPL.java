@@ -0,0 +1,9 @@
+package com.sinensia.polloschicharron.integration.model;
+
+/**
+ * Códigos mínimo y máximo (incluidos) de los pedidos, archivados incluidos
+ * 
+ */
+public record RangoCodigosPL(long minimo, long maximo) {
+
+}
@@ -0,0 +1,11 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de CLIENTES_DISTINTOS: estimador serializado de los clientes de un establecimiento en un día
+ * 
+ */
+public record ResumenClientesPL(String nifEstablecimiento, LocalDate dia, byte[] registros) {
+
+}
@@ -0,0 +1,11 @@
+package com.sinensia.polloschicharron.integration.model;
+
+import java.time.LocalDate;
+
+/**
+ * Unidades de un producto en un pedido, con el establecimiento y el día del pedido
+ * 
+ */
+public record UnidadesVendidasPL(long idPedido, String nifEstablecimiento, LocalDate dia, long idProducto, long unidades) {
+
+}
@@ -0,0 +1,238 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.sinensia.polloschicharron.integration.model.ClientePL;
+import com.sinensia.polloschicharron.integration.model.EmpleadoPL;
+import com.sinensia.polloschicharron.integration.model.EstablecimientoPL;
+import com.sinensia.polloschicharron.integration.model.EstadoPedidoPL;
+import com.sinensia.polloschicharron.integration.model.LineaPedidoPL;
+import com.sinensia.polloschicharron.integration.model.PedidoPL;
+import com.sinensia.polloschicharron.integration.model.ProductoPL;
+import com.sinensia.polloschicharron.integration.model.RangoCodigosPL;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Archivo de pedidos por meses: los pedidos cerrados antiguos se mueven de PEDIDOS y LINEAS_PEDIDO
+ * a PEDIDOS_yyyy_MM y LINEAS_PEDIDO_yyyy_MM (según el mes del pedido), y PEDIDOS_ARCHIVADOS guarda
+ * en qué partición está cada uno.
+ * 
+ * Las tablas de partición no tienen claves foráneas: el archivo no impide borrar empleados o productos.
+ * 
+ */
+@Component
+public class ArchivoPedidosPLRepository {
+
+	private static final List<String> ESTADOS_ARCHIVABLES = List.of(EstadoPedidoPL.SERVIDO.name(), EstadoPedidoPL.CANCELADO.name());
+	
+	private static final DateTimeFormatter FORMATO_PARTICION = DateTimeFormatter.ofPattern("yyyy_MM");
+	private static final Pattern PATRON_PARTICION = Pattern.compile("\\d{4}_\\d{2}");
+	
+	private static final String COLUMNAS_PEDIDOS = "CODIGO, FECHA_HORA, CODIGO_EMPLEADO, CODIGO_CLIENTE, NIF_ESTABLECIMIENTO, ESTADO, COMENTARIO";
+	private static final String COLUMNAS_LINEAS = "CODIGO_PEDIDO, ORDEN, CODIGO_PRODUCTO, CANTIDAD, PRECIO";
+	
+	private static final String CREATE_PEDIDOS = """
+			CREATE TABLE IF NOT EXISTS PEDIDOS_%s(
+				CODIGO				BIGINT			NOT NULL,
+				FECHA_HORA			TIMESTAMP		NOT NULL,
+				CODIGO_EMPLEADO		BIGINT			NOT NULL,
+				CODIGO_CLIENTE		BIGINT			,
+				NIF_ESTABLECIMIENTO	VARCHAR(20)		NOT NULL,
+				ESTADO				VARCHAR(20)		NOT NULL,
+				COMENTARIO			VARCHAR(250)	,
+				PRIMARY KEY (CODIGO)
+			)""";
+	
+	private static final String CREATE_LINEAS = """
+			CREATE TABLE IF NOT EXISTS LINEAS_PEDIDO_%s(
+				CODIGO_PEDIDO		BIGINT			NOT NULL,
+				ORDEN				INTEGER			NOT NULL,
+				CODIGO_PRODUCTO		BIGINT			NOT NULL,
+				CANTIDAD			INTEGER			NOT NULL,
+				PRECIO				DOUBLE			,
+				PRIMARY KEY (CODIGO_PEDIDO, ORDEN)
+			)""";
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final EntityManager entityManager;
+	
+	public ArchivoPedidosPLRepository(DataSource dataSource, EntityManager entityManager) {
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		this.entityManager = entityManager;
+	}
+	
+	public static String getParticion(YearMonth mes) {
+		return mes.format(FORMATO_PARTICION);
+	}
+	
+	public static YearMonth getMes(String particion) {
+		return YearMonth.parse(particion, FORMATO_PARTICION);
+	}
+	
+	/**
+	 * Fecha del pedido archivable (SERVIDO o CANCELADO) más antiguo anterior a limite
+	 * 
+	 */
+	public Optional<Date> findFechaMasAntigua(Date limite) {
+		
+		Timestamp fecha = jdbcTemplate.queryForObject("SELECT MIN(FECHA_HORA) FROM PEDIDOS WHERE ESTADO IN (:estados) AND FECHA_HORA < :limite", 
+													  Map.of("estados", ESTADOS_ARCHIVABLES, "limite", limite), 
+													  Timestamp.class);
+		
+		return Optional.ofNullable(fecha);
+	}
+	
+	/**
+	 * Particiones con pedidos archivados, de la más antigua a la más reciente
+	 * 
+	 */
+	public List<String> getParticiones() {
+		
+		List<String> particiones = jdbcTemplate.getJdbcTemplate().queryForList("SELECT DISTINCT PARTICION FROM PEDIDOS_ARCHIVADOS ORDER BY PARTICION", String.class);
+		
+		particiones.forEach(this::validar);
+		
+		return particiones;
+	}
+	
+	/**
+	 * Códigos mínimo y máximo de todos los pedidos, activos y archivados. Vacío si no hay ninguno.
+	 * 
+	 */
+	public Optional<RangoCodigosPL> getRangoCodigos() {
+		
+		List<RangoCodigosPL> rangos = jdbcTemplate.getJdbcTemplate().query("""
+				SELECT MIN(CODIGO), MAX(CODIGO) 
+				  FROM (SELECT CODIGO FROM PEDIDOS UNION ALL SELECT CODIGO FROM PEDIDOS_ARCHIVADOS)""", 
+				(rs, rowNum) -> rs.getObject(1) == null ? null : new RangoCodigosPL(rs.getLong(1), rs.getLong(2)));
+		
+		return Optional.ofNullable(rangos.get(0));
+	}
+	
+	/**
+	 * Crea las tablas de la partición si no existen. 
+	 * 
+	 * Es DDL: en H2 confirma la transacción en curso, así que se ha de llamar fuera de la del lote.
+	 * 
+	 */
+	public void crearParticion(String particion) {
+		validar(particion);
+		jdbcTemplate.getJdbcTemplate().execute(CREATE_PEDIDOS.formatted(particion));
+		jdbcTemplate.getJdbcTemplate().execute(CREATE_LINEAS.formatted(particion));
+	}
+	
+	/**
+	 * Mueve a la partición hasta tamanoLote pedidos archivables con fecha en [desde, hasta) y devuelve
+	 * cuántos ha movido. Se ha de llamar dentro de una transacción.
+	 * 
+	 */
+	public int archivarLote(String particion, Date desde, Date hasta, int tamanoLote) {
+		
+		validar(particion);
+		
+		List<Long> ids = jdbcTemplate.queryForList("""
+				SELECT CODIGO FROM PEDIDOS 
+				 WHERE ESTADO IN (:estados) AND FECHA_HORA >= :desde AND FECHA_HORA < :hasta 
+				 ORDER BY CODIGO 
+				 LIMIT :tamanoLote""", 
+				Map.of("estados", ESTADOS_ARCHIVABLES, "desde", desde, "hasta", hasta, "tamanoLote", tamanoLote), 
+				Long.class);
+		
+		if(ids.isEmpty()) {
+			return 0;
+		}
+		
+		Map<String, Object> parametros = Map.of("ids", ids, "particion", particion);
+		
+		jdbcTemplate.update("INSERT INTO PEDIDOS_" + particion + " (" + COLUMNAS_PEDIDOS + ") SELECT " + COLUMNAS_PEDIDOS + " FROM PEDIDOS WHERE CODIGO IN (:ids)", parametros);
+		jdbcTemplate.update("INSERT INTO LINEAS_PEDIDO_" + particion + " (" + COLUMNAS_LINEAS + ") SELECT " + COLUMNAS_LINEAS + " FROM LINEAS_PEDIDO WHERE CODIGO_PEDIDO IN (:ids)", parametros);
+		jdbcTemplate.update("INSERT INTO PEDIDOS_ARCHIVADOS (CODIGO, PARTICION) SELECT CODIGO, :particion FROM PEDIDOS WHERE CODIGO IN (:ids)", parametros);
+		jdbcTemplate.update("DELETE FROM LINEAS_PEDIDO WHERE CODIGO_PEDIDO IN (:ids)", parametros);
+		jdbcTemplate.update("DELETE FROM PEDIDOS WHERE CODIGO IN (:ids)", parametros);
+		
+		return ids.size();
+	}
+	
+	/**
+	 * Pedido archivado con sus líneas. Empleado, cliente, establecimiento y productos se cargan
+	 * de las tablas activas con el EntityManager.
+	 * 
+	 */
+	public Optional<PedidoPL> findById(Long id) {
+		
+		List<String> particiones = jdbcTemplate.queryForList("SELECT PARTICION FROM PEDIDOS_ARCHIVADOS WHERE CODIGO = :id", Map.of("id", id), String.class);
+		
+		if(particiones.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		String particion = particiones.get(0);
+		validar(particion);
+		
+		List<PedidoPL> pedidos = jdbcTemplate.query("SELECT " + COLUMNAS_PEDIDOS + " FROM PEDIDOS_" + particion + " WHERE CODIGO = :id", Map.of("id", id), (rs, rowNum) -> {
+			
+			PedidoPL pedidoPL = new PedidoPL();
+			
+			pedidoPL.setId(rs.getLong("CODIGO"));
+			pedidoPL.setFechaHora(rs.getTimestamp("FECHA_HORA"));
+			pedidoPL.setEmpleado(entityManager.find(EmpleadoPL.class, rs.getLong("CODIGO_EMPLEADO")));
+			pedidoPL.setCliente(rs.getObject("CODIGO_CLIENTE") == null ? null : entityManager.find(ClientePL.class, rs.getLong("CODIGO_CLIENTE")));
+			pedidoPL.setEstablecimiento(entityManager.find(EstablecimientoPL.class, rs.getString("NIF_ESTABLECIMIENTO")));
+			pedidoPL.setEstado(EstadoPedidoPL.valueOf(rs.getString("ESTADO")));
+			pedidoPL.setObservaciones(rs.getString("COMENTARIO"));
+			
+			return pedidoPL;
+		});
+		
+		if(pedidos.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		PedidoPL pedidoPL = pedidos.get(0);
+		
+		List<LineaPedidoPL> lineas = new ArrayList<>(jdbcTemplate.query("SELECT " + COLUMNAS_LINEAS + " FROM LINEAS_PEDIDO_" + particion + " WHERE CODIGO_PEDIDO = :id ORDER BY ORDEN", Map.of("id", id), (rs, rowNum) -> {
+			
+			LineaPedidoPL lineaPL = new LineaPedidoPL();
+			
+			lineaPL.setProducto(entityManager.find(ProductoPL.class, rs.getLong("CODIGO_PRODUCTO")));
+			lineaPL.setCantidad(rs.getInt("CANTIDAD"));
+			lineaPL.setPrecio(rs.getObject("PRECIO") == null ? null : rs.getDouble("PRECIO"));
+			
+			return lineaPL;
+		}));
+		
+		pedidoPL.setLineas(lineas);
+		
+		return Optional.of(pedidoPL);
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void validar(String particion) {
+		
+		// El nombre de la partición forma parte del nombre de la tabla
+		
+		if(!PATRON_PARTICION.matcher(particion).matches()) {
+			throw new IllegalStateException("Partición de archivo no válida: " + particion);
+		}
+	}
+	
+}
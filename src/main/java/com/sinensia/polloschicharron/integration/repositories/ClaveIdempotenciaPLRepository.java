@@ -0,0 +1,17 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.sinensia.polloschicharron.integration.model.ClaveIdempotenciaPL;
+
+public interface ClaveIdempotenciaPLRepository extends JpaRepository<ClaveIdempotenciaPL, String> {
+
+	@Modifying
+	@Query("DELETE FROM ClaveIdempotenciaPL c WHERE c.fechaHora < :fecha")
+	int deleteAnteriores(Date fecha);
+	
+}
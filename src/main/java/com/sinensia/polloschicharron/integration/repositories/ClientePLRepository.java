@@ -0,0 +1,46 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.sinensia.polloschicharron.integration.model.ClientePL;
+import com.sinensia.polloschicharron.integration.model.ClientePlanoPL;
+import com.sinensia.polloschicharron.integration.model.ContactoPersonaPL;
+
+public interface ClientePLRepository extends JpaRepository<ClientePL, Long>{
+
+	@Query("SELECT new com.sinensia.polloschicharron.integration.model.ContactoPersonaPL(            "
+			+ "c.id, c.DNI, c.datosContacto.email, c.datosContacto.telefono, c.datosContacto.movil) "
+			+ "FROM ClientePL c                                                                      ")
+	List<ContactoPersonaPL> findContactos();
+	
+	@Query("SELECT new com.sinensia.polloschicharron.integration.model.ContactoPersonaPL(            "
+			+ "c.id, c.DNI, c.datosContacto.email, c.datosContacto.telefono, c.datosContacto.movil) "
+			+ "FROM ClientePL c                                                                      "
+			+ "WHERE c.id = :id                                                                      ")
+	Optional<ContactoPersonaPL> findContacto(Long id);
+	
+	@Query("SELECT c.id FROM ClientePL c WHERE c.clienteGold = true")
+	List<Long> findIdsGold();
+	
+	@Query("SELECT c.clienteGold FROM ClientePL c WHERE c.id = :id")
+	Optional<Boolean> findGoldById(Long id);
+	
+	/**
+	 * Lecturas en una fila por cliente (ClientePlanoPL) para los servicios de consulta
+	 * 
+	 */
+	@Query("SELECT c FROM ClientePlanoPL c WHERE c.id = :id")
+	Optional<ClientePlanoPL> findPlanoById(Long id);
+	
+	@Query("SELECT c FROM ClientePlanoPL c WHERE c.id IN :ids ORDER BY c.id")
+	List<ClientePlanoPL> findPlanosById(Iterable<Long> ids);
+	
+	@Query("SELECT c FROM ClientePlanoPL c WHERE c.id > :idDesde ORDER BY c.id")
+	List<ClientePlanoPL> findPaginaPlanos(long idDesde, Limit limit);
+	
+}
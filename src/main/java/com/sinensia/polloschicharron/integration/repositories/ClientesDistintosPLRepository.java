@@ -0,0 +1,169 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sinensia.polloschicharron.integration.model.ClientePedidoPL;
+import com.sinensia.polloschicharron.integration.model.ResumenClientesPL;
+
+/**
+ * Estimadores de clientes distintos por establecimiento y día (CLIENTES_DISTINTOS) y la lectura de
+ * los clientes de los pedidos con la que se construyen la primera vez.
+ * 
+ */
+@Component
+public class ClientesDistintosPLRepository {
+
+	private static final String SELECT_CLIENTES = """
+			SELECT DISTINCT NIF_ESTABLECIMIENTO, CAST(FECHA_HORA AS DATE), CODIGO_CLIENTE 
+			  FROM PEDIDOS%s 
+			 WHERE CODIGO_CLIENTE IS NOT NULL""";
+	
+	private static final int FETCH_SIZE = 1000;
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	
+	public ClientesDistintosPLRepository(DataSource dataSource, 
+										 PlatformTransactionManager transactionManager,
+										 ArchivoPedidosPLRepository archivoPedidosPLRepository) {
+		
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.archivoPedidosPLRepository = archivoPedidosPLRepository;
+	}
+	
+	public long count() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CLIENTES_DISTINTOS", Long.class);
+	}
+	
+	public void forEach(Consumer<ResumenClientesPL> consumidor) {
+		jdbcTemplate.query("SELECT NIF_ESTABLECIMIENTO, DIA, REGISTROS FROM CLIENTES_DISTINTOS", (RowCallbackHandler) rs -> {
+			consumidor.accept(new ResumenClientesPL(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getBytes(3)));
+		});
+	}
+	
+	public void saveAll(Collection<ResumenClientesPL> resumenes) {
+		
+		List<Object[]> filas = resumenes.stream()
+				.map(x -> new Object[] {x.nifEstablecimiento(), x.dia(), x.registros()})
+				.toList();
+		
+		jdbcTemplate.batchUpdate("MERGE INTO CLIENTES_DISTINTOS (NIF_ESTABLECIMIENTO, DIA, REGISTROS) KEY (NIF_ESTABLECIMIENTO, DIA) VALUES (?, ?, ?)", filas);
+	}
+	
+	/**
+	 * Borra los estimadores de los días en [desde, hasta) y guarda los indicados, en una sola transacción.
+	 * desde y hasta pueden ser null (sin límite).
+	 * 
+	 */
+	public void reemplazar(LocalDate desde, LocalDate hasta, Collection<ResumenClientesPL> resumenes) {
+		
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.update("DELETE FROM CLIENTES_DISTINTOS WHERE (? IS NULL OR DIA >= ?) AND (? IS NULL OR DIA < ?)", 
+								desde, desde, hasta, hasta);
+			saveAll(resumenes);
+		});
+	}
+	
+	/**
+	 * Clientes (distintos por establecimiento y día) de los pedidos con código en [desdeCodigo, hastaCodigo]
+	 * y fecha en [desde, hasta), archivados incluidos. desde y hasta pueden ser null (sin límite).
+	 * 
+	 * Fuera de una transacción cada llamada lee con su propia conexión del pool, de sólo lectura,
+	 * y sin cargar en memoria más de FETCH_SIZE filas a la vez: se puede llamar desde varios hilos.
+	 * 
+	 */
+	public void forEachClientePedido(long desdeCodigo, long hastaCodigo, LocalDate desde, LocalDate hasta, Consumer<ClientePedidoPL> consumidor) {
+		
+		List<String> sufijos = new ArrayList<>();
+		
+		for(String particion: archivoPedidosPLRepository.getParticiones()) {
+			
+			// Las particiones son meses: las que quedan fuera de las fechas no se leen
+			
+			YearMonth mes = ArchivoPedidosPLRepository.getMes(particion);
+			
+			if((desde == null || !mes.atEndOfMonth().isBefore(desde)) && (hasta == null || mes.atDay(1).isBefore(hasta))) {
+				sufijos.add("_" + particion);
+			}
+		}
+		
+		sufijos.add("");
+		
+		String condiciones = " AND CODIGO BETWEEN ? AND ?" 
+						   + (desde == null ? "" : " AND FECHA_HORA >= ?") 
+						   + (hasta == null ? "" : " AND FECHA_HORA < ?");
+		
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			
+			// El pool devuelve la conexión a su estado original al cerrarla
+			
+			if(!TransactionSynchronizationManager.isActualTransactionActive()) {
+				connection.setReadOnly(true);
+			}
+			
+			for(String sufijo: sufijos) {
+				
+				try(PreparedStatement ps = connection.prepareStatement(SELECT_CLIENTES.formatted(sufijo) + condiciones)) {
+					
+					int parametro = 1;
+					
+					ps.setFetchSize(FETCH_SIZE);
+					ps.setLong(parametro++, desdeCodigo);
+					ps.setLong(parametro++, hastaCodigo);
+					
+					if(desde != null) {
+						ps.setDate(parametro++, Date.valueOf(desde));
+					}
+					
+					if(hasta != null) {
+						ps.setDate(parametro++, Date.valueOf(hasta));
+					}
+					
+					try(ResultSet rs = ps.executeQuery()) {
+						while(rs.next()) {
+							consumidor.accept(new ClientePedidoPL(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getLong(3)));
+						}
+					}
+				}
+			}
+			
+			return null;
+		});
+	}
+	
+	/**
+	 * Clientes (distintos por establecimiento y día) de todos los pedidos, archivados incluidos
+	 * 
+	 */
+	public void forEachClientePedido(Consumer<ClientePedidoPL> consumidor) {
+		
+		RowCallbackHandler handler = rs -> consumidor.accept(new ClientePedidoPL(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getLong(3)));
+		
+		for(String particion: archivoPedidosPLRepository.getParticiones()) {
+			jdbcTemplate.query(SELECT_CLIENTES.formatted("_" + particion), handler);
+		}
+		
+		jdbcTemplate.query(SELECT_CLIENTES.formatted(""), handler);
+	}
+	
+}
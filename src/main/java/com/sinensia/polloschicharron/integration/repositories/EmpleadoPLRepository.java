@@ -1,16 +1,32 @@
 package com.sinensia.polloschicharron.integration.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO1;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO2;
+import com.sinensia.polloschicharron.integration.model.ContactoPersonaPL;
 import com.sinensia.polloschicharron.integration.model.EmpleadoPL;
+import com.sinensia.polloschicharron.integration.model.EmpleadoPlanoPL;
 
 public interface EmpleadoPLRepository extends JpaRepository<EmpleadoPL, Long>{
 
+	/**
+	 * Lecturas en una fila por empleado (EmpleadoPlanoPL) para los servicios de consulta
+	 * 
+	 */
+	@Query("SELECT e FROM EmpleadoPlanoPL e WHERE e.id = :id")
+	Optional<EmpleadoPlanoPL> findPlanoById(Long id);
+	
+	@Query("SELECT e FROM EmpleadoPlanoPL e ORDER BY e.id")
+	List<EmpleadoPlanoPL> findPlanos();
+	
+	@Query("SELECT e FROM EmpleadoPlanoPL e WHERE e.id IN :ids ORDER BY e.id")
+	List<EmpleadoPlanoPL> findPlanosById(Iterable<Long> ids);
+
 	@Query("SELECT new com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO1(             "
 			+ "e.nombre,                                                                           "
 			+ "CONCAT(e.apellido1, COALESCE(CONCAT(' ', e.apellido2), '')),                        "
@@ -25,4 +41,15 @@ public interface EmpleadoPLRepository extends JpaRepository<EmpleadoPL, Long>{
 			+ "FROM EmpleadoPL e                                                                      ")
 	List<EmpleadoDTO2> findDTO2();
 	
+	@Query("SELECT new com.sinensia.polloschicharron.integration.model.ContactoPersonaPL(            "
+			+ "e.id, e.DNI, e.datosContacto.email, e.datosContacto.telefono, e.datosContacto.movil) "
+			+ "FROM EmpleadoPL e                                                                     ")
+	List<ContactoPersonaPL> findContactos();
+	
+	@Query("SELECT new com.sinensia.polloschicharron.integration.model.ContactoPersonaPL(            "
+			+ "e.id, e.DNI, e.datosContacto.email, e.datosContacto.telefono, e.datosContacto.movil) "
+			+ "FROM EmpleadoPL e                                                                     "
+			+ "WHERE e.id = :id                                                                      ")
+	Optional<ContactoPersonaPL> findContacto(Long id);
+	
 }
@@ -1,22 +1,35 @@
 package com.sinensia.polloschicharron.integration.repositories;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoDTO1;
 import com.sinensia.polloschicharron.integration.model.EstablecimientoPL;
 
+import jakarta.persistence.QueryHint;
+
 public interface EstablecimientoPLRepository extends JpaRepository<EstablecimientoPL, String>{
 
-	List<EstablecimientoPL> findByDireccionProvinciaIgnoreCase(String provincia);
+	String SELECT_DTO1 = "SELECT   new com.sinensia.polloschicharron.business.model.dtos.EstablecimientoDTO1( "
+					   + "             e.nombre,                                                              "
+					   + "             e.direccion.poblacion,                                                 "
+					   + "             e.datosContacto.telefono)                                              "
+					   + "FROM     EstablecimientoPL e                                                          "
+					   + "ORDER BY e.direccion.poblacion                                                      ";
 	
-	@Query("SELECT   new com.sinensia.polloschicharron.business.model.dtos.EstablecimientoDTO1( "
-		 + "             e.nombre,                                                              "
-		 + "             e.direccion.poblacion,                                                 "
-		 + "             e.datosContacto.telefono)                                              "
-		 + "FROM     EstablecimientoPL e                                                          "
-		 + "ORDER BY e.direccion.poblacion                                                      ")
+	@Query(SELECT_DTO1)
 	List<EstablecimientoDTO1> findDTO1();
+	
+	/**
+	 * Igual que findDTO1 pero sin materializar la lista. Se ha de consumir (y cerrar) dentro de una transacción.
+	 * 
+	 */
+	@Query(SELECT_DTO1)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<EstablecimientoDTO1> streamDTO1();
 }
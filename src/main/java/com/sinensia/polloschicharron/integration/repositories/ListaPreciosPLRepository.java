@@ -0,0 +1,32 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.sinensia.polloschicharron.integration.model.ListaPreciosPL;
+
+public interface ListaPreciosPLRepository extends JpaRepository<ListaPreciosPL, Long> {
+
+	@EntityGraph(attributePaths="lineas")
+	Optional<ListaPreciosPL> findConLineasById(Long id);
+	
+	@Query("SELECT DISTINCT l FROM ListaPreciosPL l LEFT JOIN FETCH l.lineas ORDER BY l.fechaVigencia DESC, l.id DESC")
+	List<ListaPreciosPL> findAllConLineas();
+	
+	/**
+	 * Devuelve, ordenadas por fecha de vigencia, la lista vigente en la fecha indicada (si la hay)
+	 * seguida de todas las listas programadas para después.
+	 * 
+	 */
+	@Query("SELECT DISTINCT l FROM ListaPreciosPL l LEFT JOIN FETCH l.lineas                                 "
+		 + "WHERE l.fechaVigencia >= COALESCE((SELECT MAX(x.fechaVigencia) FROM ListaPreciosPL x                 "
+		 + "                                   WHERE x.fechaVigencia <= :fecha), :fecha)                         "
+		 + "ORDER BY l.fechaVigencia, l.id                                                                       ")
+	List<ListaPreciosPL> findVigenteYProgramadas(Date fecha);
+	
+}
@@ -0,0 +1,31 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import com.sinensia.polloschicharron.integration.model.PedidoLecturaPL;
+
+/**
+ * Lecturas de pedidos completos (cabecera, empleado, cliente, establecimiento, líneas y productos) en una sola sentencia
+ * 
+ */
+public interface PedidoLecturaPLRepository extends Repository<PedidoLecturaPL, Long> {
+
+	String SELECT_PEDIDO = "SELECT DISTINCT p FROM PedidoLecturaPL p                                  "
+			+ "LEFT JOIN FETCH p.empleado                                                             "
+			+ "LEFT JOIN FETCH p.establecimiento                                                      "
+			+ "LEFT JOIN FETCH p.cliente                                                              "
+			+ "LEFT JOIN FETCH p.lineas l                                                             "
+			+ "LEFT JOIN FETCH l.producto pr                                                          "
+			+ "LEFT JOIN FETCH pr.familia                                                             ";
+	
+	@Query(SELECT_PEDIDO + "WHERE p.id = :id")
+	Optional<PedidoLecturaPL> findById(Long id);
+	
+	@Query(SELECT_PEDIDO + "ORDER BY p.id")
+	List<PedidoLecturaPL> findAll();
+	
+}
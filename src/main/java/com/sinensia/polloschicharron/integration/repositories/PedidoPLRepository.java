@@ -1,16 +1,24 @@
 package com.sinensia.polloschicharron.integration.repositories;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1;
+import com.sinensia.polloschicharron.integration.model.EstadoPedidoPL;
 import com.sinensia.polloschicharron.integration.model.PedidoPL;
 
+import jakarta.persistence.QueryHint;
+
 public interface PedidoPLRepository extends JpaRepository<PedidoPL, Long> {
 
-	@Query("SELECT new com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1(              "
+	String SELECT_DTO1 = "SELECT new com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1(        "
 		 + "       p.id,                                                                          "
 		 + "       p.fechaHora,                                                                   "
 		 + "       p.establecimiento.nombre,                                                      "
@@ -25,7 +33,39 @@ public interface PedidoPLRepository extends JpaRepository<PedidoPL, Long> {
 		 + "            WHEN p.estado = EstadoPedidoPL.CANCELADO THEN 'CANCELADO'                 "
 		 + "          	ELSE NULL                                                                 "
 		 + "        END )                                                                         "
-		 + "FROM   PedidoPL p                                                                     ")
+		 + "FROM   PedidoPL p                                                                     ";
+	
+	@Query("SELECT COALESCE(SUM(l.precio * l.cantidad), 0) FROM PedidoPL p JOIN p.lineas l WHERE p.id = :id")
+	double findTotal(Long id);
+	
+	@Query(SELECT_DTO1)
 	List<PedidoDTO1> findDTO1();
+	
+	/**
+	 * Igual que findDTO1 pero sin materializar la lista. Se ha de consumir (y cerrar) dentro de una transacción.
+	 * 
+	 */
+	@Query(SELECT_DTO1)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<PedidoDTO1> streamDTO1();
+	
+	String FILTRO_DTO1 = "WHERE  (:estado IS NULL OR p.estado = :estado)                                      "
+		 + "AND    (:nifEstablecimiento IS NULL OR p.establecimiento.NIF = :nifEstablecimiento)   "
+		 + "AND    (:desde IS NULL OR p.fechaHora >= :desde)                                      "
+		 + "AND    (:hasta IS NULL OR p.fechaHora < :hasta)                                       ";
+	
+	/**
+	 * Siguiente página (keyset) de pedidos filtrados: los de id mayor que idDesde en orden ascendente
+	 * 
+	 */
+	@Query(SELECT_DTO1 + FILTRO_DTO1 + "AND p.id > :idDesde ORDER BY p.id ASC")
+	List<PedidoDTO1> findPaginaSiguienteDTO1(EstadoPedidoPL estado, String nifEstablecimiento, Date desde, Date hasta, long idDesde, Limit limit);
+	
+	/**
+	 * Página anterior (keyset) de pedidos filtrados: los de id menor que idHasta en orden DESCENDENTE
+	 * 
+	 */
+	@Query(SELECT_DTO1 + FILTRO_DTO1 + "AND p.id < :idHasta ORDER BY p.id DESC")
+	List<PedidoDTO1> findPaginaAnteriorDTO1(EstadoPedidoPL estado, String nifEstablecimiento, Date desde, Date hasta, long idHasta, Limit limit);
 
 } 
@@ -2,16 +2,23 @@ package com.sinensia.polloschicharron.integration.repositories;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO1;
 import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO2;
 import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3;
 import com.sinensia.polloschicharron.integration.model.FamiliaPL;
 import com.sinensia.polloschicharron.integration.model.ProductoPL;
 
+import jakarta.persistence.QueryHint;
+
 public interface ProductoPLRepository extends JpaRepository<ProductoPL, Long> {
 
 	List<ProductoPL> findByPrecioBetweenOrderByPrecioDesc(double min, double max);
@@ -20,32 +27,94 @@ public interface ProductoPLRepository extends JpaRepository<ProductoPL, Long> {
 	
 	List<ProductoPL> findByFamilia(FamiliaPL familia);
 	
-	@Query("SELECT UPPER(p.nombre), p.familia.nombre, p.precio FROM ProductoPL p")
-	List<Object[]> findDTO1();
+	String SELECT_DTO1 = "SELECT new com.sinensia.polloschicharron.business.model.dtos.ProductoDTO1(UPPER(p.nombre), p.precio, p.familia.nombre) FROM ProductoPL p";
+	
+	@Query(SELECT_DTO1)
+	List<ProductoDTO1> findDTO1();
+	
+	/**
+	 * Igual que findDTO1 pero sin materializar la lista. Se ha de consumir (y cerrar) dentro de una transacción.
+	 * 
+	 */
+	@Query(SELECT_DTO1)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<ProductoDTO1> streamDTO1();
 
-	@Query("SELECT new com.sinensia.polloschicharron.business.model.dtos.ProductoDTO2(UPPER(p.nombre),YEAR(p.fechaAlta)) FROM ProductoPL p")
+	String SELECT_DTO2 = "SELECT new com.sinensia.polloschicharron.business.model.dtos.ProductoDTO2(UPPER(p.nombre),YEAR(p.fechaAlta)) FROM ProductoPL p";
+	
+	@Query(SELECT_DTO2)
 	List<ProductoDTO2> findDTO2();
 	
-	@Query("SELECT new com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3( "
+	/**
+	 * Igual que findDTO2 pero sin materializar la lista. Se ha de consumir (y cerrar) dentro de una transacción.
+	 * 
+	 */
+	@Query(SELECT_DTO2)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<ProductoDTO2> streamDTO2();
+	
+	String SELECT_DTO3 = "SELECT new com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3( "
 			+ "p.nombre, p.familia.nombre, p.precio, p.precio - (p.precio * :descuento) / 100) "
-			+ "FROM ProductoPL p")
+			+ "FROM ProductoPL p";
+	
+	@Query(SELECT_DTO3)
 	List<ProductoDTO3> findDTO3(Double descuento);
 	
+	/**
+	 * Igual que findDTO3 pero sin materializar la lista. Se ha de consumir (y cerrar) dentro de una transacción.
+	 * 
+	 */
+	@Query(SELECT_DTO3)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<ProductoDTO3> streamDTO3(Double descuento);
+	
 	@Query("SELECT COUNT(p) FROM ProductoPL p WHERE p.familia = :familia")
 	long getNumeroTotalProductosByFamilia(FamiliaPL familia);
 	
 	@Modifying
-	@Query("UPDATE ProductoPL p SET p.precio = p.precio + (p.precio * :porcentaje) / 100 WHERE p.familia = :familia")
+	@Query("UPDATE ProductoPL p SET p.precio = p.precio + (p.precio * :porcentaje) / 100, p.fechaPrecio = CURRENT_TIMESTAMP WHERE p.familia = :familia")
 	void incrementarPrecio(FamiliaPL familia, double porcentaje);
 	
 	@Modifying
-	@Query("UPDATE ProductoPL p SET p.precio = p.precio + (p.precio * :porcentaje) / 100 WHERE p IN :productos")
+	@Query("UPDATE ProductoPL p SET p.precio = p.precio + (p.precio * :porcentaje) / 100, p.fechaPrecio = CURRENT_TIMESTAMP WHERE p IN :productos")
 	void incrementarPrecio(List<ProductoPL> productos, double porcentaje);
 	
 	@Modifying
-	@Query("UPDATE ProductoPL p SET p.precio = p.precio + (p.precio * :porcentaje) / 100 WHERE p.id IN :ids")
+	@Query("UPDATE ProductoPL p SET p.precio = p.precio + (p.precio * :porcentaje) / 100, p.fechaPrecio = CURRENT_TIMESTAMP WHERE p.id IN :ids")
 	void incrementarPrecio(double porcentaje, Long[] ids);
 	
+	/**
+	 * Siguiente lote de la selección de una revisión de precios, ordenado por id (paginación keyset)
+	 * 
+	 */
+	@Query("SELECT p FROM ProductoPL p                                       "
+		 + "WHERE  p.id > :desdeId                                           "
+		 + "AND    (:idFamilia IS NULL OR p.familia.id = :idFamilia)         "
+		 + "AND    (:precioMinimo IS NULL OR p.precio >= :precioMinimo)      "
+		 + "AND    (:precioMaximo IS NULL OR p.precio <= :precioMaximo)      "
+		 + "ORDER BY p.id                                                    ")
+	List<ProductoPL> findLoteRevision(Long desdeId, Long idFamilia, Double precioMinimo, Double precioMaximo, Limit limit);
+	
+	/**
+	 * Igual que findLoteRevision pero restringido a un lote de ids (lista IN acotada)
+	 * 
+	 */
+	@Query("SELECT p FROM ProductoPL p                                       "
+		 + "WHERE  p.id IN :ids                                              "
+		 + "AND    (:idFamilia IS NULL OR p.familia.id = :idFamilia)         "
+		 + "AND    (:precioMinimo IS NULL OR p.precio >= :precioMinimo)      "
+		 + "AND    (:precioMaximo IS NULL OR p.precio <= :precioMaximo)      "
+		 + "ORDER BY p.id                                                    ")
+	List<ProductoPL> findLoteRevision(List<Long> ids, Long idFamilia, Double precioMinimo, Double precioMaximo);
+	
+	/**
+	 * Filas [id, precio, id de familia, descatalogado, fecha del último cambio de precio] de todos los productos
+	 * (precio, familia y fecha pueden ser null)
+	 * 
+	 */
+	@Query("SELECT p.id, p.precio, p.familia.id, p.descatalogado, p.fechaPrecio FROM ProductoPL p")
+	List<Object[]> findAtributosCatalogo();
+	
 	@Query("SELECT f, COUNT(p) FROM FamiliaPL f LEFT JOIN ProductoPL p ON p.familia = f GROUP BY f ")
 	List<Object[]> getEstadisticaNumeroProductosPorFamilia();
 	
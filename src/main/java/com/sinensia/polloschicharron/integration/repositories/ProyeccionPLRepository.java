@@ -0,0 +1,344 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.stereotype.Component;
+
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL;
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL.Campo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Ejecuta proyecciones dinámicas (sparse fieldsets): construye una consulta JPQL que sólo selecciona
+ * las columnas de los campos pedidos y devuelve cada fila como un mapa anidado con la misma forma que
+ * el JSON del modelo completo.
+ * 
+ * Pedir un objeto (p.ej. "familia") equivale a pedir todos sus campos.
+ * 
+ * Es un @Component y no un @Repository para que las IllegalStateException por campos no válidos
+ * no se traduzcan a DataAccessException.
+ * 
+ */
+@Component
+public class ProyeccionPLRepository {
+
+	private static final String ID_INTERNO = "__id";
+	
+	private final EntityManager entityManager;
+	
+	public ProyeccionPLRepository(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+	
+	/**
+	 * Si no se pide ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	public List<Map<String, Object>> findAll(ProyeccionPL proyeccion, Set<String> campos) {
+		return find(proyeccion, campos, null);
+	}
+	
+	/**
+	 * Si no se pide ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	public Optional<Map<String, Object>> findById(ProyeccionPL proyeccion, Object id, Set<String> campos) {
+		
+		List<Map<String, Object>> resultado = find(proyeccion, campos, id);
+		
+		return resultado.isEmpty() ? Optional.empty() : Optional.of(resultado.get(0));
+	}
+	
+	/**
+	 * Aplica la proyección a una entidad ya cargada que no está en las tablas de la proyección (p.ej. un pedido archivado).
+	 * Cada expresión se evalúa como una ruta de propiedades desde el alias del FROM o de su JOIN.
+	 * 
+	 * Si no se pide ningún campo o alguno no existe lanza IllegalStateException
+	 * 
+	 */
+	public Map<String, Object> proyectar(ProyeccionPL proyeccion, Object entidad, Set<String> campos) {
+		
+		Set<String> camposRaiz = new LinkedHashSet<>();
+		Map<String, Set<String>> camposColecciones = new LinkedHashMap<>();
+		
+		resolverCampos(proyeccion, campos, camposRaiz, camposColecciones);
+		
+		String aliasRaiz = proyeccion.getFrom().split(" ")[1];
+		
+		Map<String, Object> fila = evaluar(proyeccion, camposRaiz, Map.of(aliasRaiz, entidad));
+		
+		camposColecciones.forEach((nombre, camposColeccion) -> {
+			
+			// FROM Padre p JOIN p.coleccion x: los dos últimos términos son la ruta de la colección y el alias del elemento
+			
+			ProyeccionPL proyeccionColeccion = proyeccion.getColecciones().get(nombre);
+			String[] from = proyeccionColeccion.getFrom().split(" ");
+			String ruta = from[from.length - 2];
+			
+			Collection<?> elementos = (Collection<?>) leer(entidad, ruta.substring(ruta.indexOf('.') + 1));
+			List<Object> proyectados = new ArrayList<>();
+			
+			if(elementos != null) {
+				elementos.forEach(x -> proyectados.add(evaluar(proyeccionColeccion, camposColeccion, Map.of(from[1], entidad, from[from.length - 1], x))));
+			}
+			
+			fila.put(nombre, proyectados);
+		});
+		
+		return fila;
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private List<Map<String, Object>> find(ProyeccionPL proyeccion, Set<String> campos, Object id) {
+		
+		Set<String> camposRaiz = new LinkedHashSet<>();
+		Map<String, Set<String>> camposColecciones = new LinkedHashMap<>();
+		
+		resolverCampos(proyeccion, campos, camposRaiz, camposColecciones);
+		
+		// Si hay colecciones necesitamos el id del padre para agrupar, aunque no se haya pedido
+		
+		List<Map<String, Object>> filas = ejecutar(proyeccion, camposRaiz, id, !camposColecciones.isEmpty());
+		
+		if(camposColecciones.isEmpty()) {
+			return filas;
+		}
+		
+		Map<Object, Map<String, Object>> filasPorId = new HashMap<>();
+		filas.forEach(x -> filasPorId.put(x.remove(ID_INTERNO), x));
+		
+		camposColecciones.forEach((nombre, camposColeccion) -> {
+			
+			filasPorId.values().forEach(x -> x.put(nombre, new ArrayList<>()));
+			
+			for(Map<String, Object> elemento: ejecutar(proyeccion.getColecciones().get(nombre), camposColeccion, id, true)) {
+				
+				Map<String, Object> padre = filasPorId.get(elemento.remove(ID_INTERNO));
+				
+				if(padre != null) {
+					@SuppressWarnings("unchecked")
+					List<Object> elementos = (List<Object>) padre.get(nombre);
+					elementos.add(elemento);
+				}
+			}
+		});
+		
+		return filas;
+	}
+	
+	private List<Map<String, Object>> ejecutar(ProyeccionPL proyeccion, Set<String> campos, Object id, boolean conId) {
+		
+		List<String> nombres = new ArrayList<>(campos);
+		List<String> seleccion = new ArrayList<>();
+		Set<String> joins = new LinkedHashSet<>();
+		
+		if(conId) {
+			seleccion.add(proyeccion.getId());
+		}
+		
+		for(String nombre: nombres) {
+			Campo campo = proyeccion.getCampos().get(nombre);
+			seleccion.add(campo.getExpresion());
+			joins.addAll(campo.getJoins());
+		}
+		
+		StringBuilder jpql = new StringBuilder("SELECT ")
+				.append(String.join(", ", seleccion))
+				.append(" FROM ")
+				.append(proyeccion.getFrom());
+		
+		// Los JOIN se añaden en el orden de la definición, que respeta sus dependencias
+		
+		proyeccion.getJoins().forEach((alias, clausula) -> {
+			if(joins.contains(alias)) {
+				jpql.append(" ").append(clausula);
+			}
+		});
+		
+		if(id != null) {
+			jpql.append(" WHERE ").append(proyeccion.getId()).append(" = :id");
+		}
+		
+		jpql.append(" ORDER BY ").append(proyeccion.getOrden());
+		
+		TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+		
+		if(id != null) {
+			query.setParameter("id", id);
+		}
+		
+		int desplazamiento = conId ? 1 : 0;
+		List<Map<String, Object>> filas = new ArrayList<>();
+		
+		for(Tuple tuple: query.getResultList()) {
+			
+			Map<String, Object> fila = new LinkedHashMap<>();
+			
+			if(conId) {
+				fila.put(ID_INTERNO, tuple.get(0));
+			}
+			
+			for(int i = 0; i < nombres.size(); i++) {
+				poner(fila, nombres.get(i), tuple.get(i + desplazamiento));
+			}
+			
+			filas.add(fila);
+		}
+		
+		return filas;
+	}
+	
+	private Map<String, Object> evaluar(ProyeccionPL proyeccion, Set<String> campos, Map<String, Object> alias) {
+		
+		Map<String, Object> valoresAlias = new HashMap<>(alias);
+		Map<String, Object> fila = new LinkedHashMap<>();
+		
+		for(String nombre: campos) {
+			
+			String expresion = proyeccion.getCampos().get(nombre).getExpresion();
+			int punto = expresion.indexOf('.');
+			
+			Object valor = leer(getValorAlias(proyeccion, expresion.substring(0, punto), valoresAlias), expresion.substring(punto + 1));
+			
+			poner(fila, nombre, valor);
+		}
+		
+		return fila;
+	}
+	
+	/**
+	 * Objeto al que apunta el alias de un JOIN (LEFT JOIN p.familia f -> familia de p)
+	 * 
+	 */
+	private Object getValorAlias(ProyeccionPL proyeccion, String alias, Map<String, Object> valoresAlias) {
+		
+		if(valoresAlias.containsKey(alias)) {
+			return valoresAlias.get(alias);
+		}
+		
+		String[] join = proyeccion.getJoins().get(alias).split(" ");
+		String ruta = join[join.length - 2];
+		int punto = ruta.indexOf('.');
+		
+		Object valor = leer(getValorAlias(proyeccion, ruta.substring(0, punto), valoresAlias), ruta.substring(punto + 1));
+		
+		valoresAlias.put(alias, valor);
+		
+		return valor;
+	}
+	
+	/**
+	 * Lee una ruta de propiedades (direccion.poblacion). Devuelve null si algún objeto intermedio es null
+	 * 
+	 */
+	private Object leer(Object objeto, String ruta) {
+		
+		Object actual = objeto;
+		
+		for(String propiedad: ruta.split("\\.")) {
+			
+			if(actual == null) {
+				return null;
+			}
+			
+			actual = PropertyAccessorFactory.forBeanPropertyAccess(actual).getPropertyValue(propiedad);
+		}
+		
+		return actual;
+	}
+	
+	private void resolverCampos(ProyeccionPL proyeccion, Set<String> campos, Set<String> camposRaiz, Map<String, Set<String>> camposColecciones) {
+		
+		if(campos == null || campos.stream().allMatch(String::isBlank)) {
+			throw new IllegalStateException("Se ha de indicar al menos un campo. Campos disponibles: " + getCamposDisponibles(proyeccion));
+		}
+		
+		for(String campo: campos) {
+			
+			String nombre = campo.trim();
+			
+			if(nombre.isEmpty()) {
+				continue;
+			}
+			
+			String coleccion = nombre.contains(".") ? nombre.substring(0, nombre.indexOf('.')) : nombre;
+			
+			if(proyeccion.getColecciones().containsKey(coleccion)) {
+				
+				ProyeccionPL proyeccionColeccion = proyeccion.getColecciones().get(coleccion);
+				Set<String> camposColeccion = camposColecciones.computeIfAbsent(coleccion, x -> new LinkedHashSet<>());
+				
+				if(nombre.equals(coleccion)) {
+					camposColeccion.addAll(proyeccionColeccion.getCampos().keySet());
+				} else if(!expandir(proyeccionColeccion, nombre.substring(coleccion.length() + 1), camposColeccion)) {
+					throw new IllegalStateException("El campo [" + nombre + "] no existe. Campos disponibles: " + getCamposDisponibles(proyeccion));
+				}
+				
+			} else if(!expandir(proyeccion, nombre, camposRaiz)) {
+				throw new IllegalStateException("El campo [" + nombre + "] no existe. Campos disponibles: " + getCamposDisponibles(proyeccion));
+			}
+		}
+	}
+	
+	/**
+	 * Añade el campo o, si es un objeto, todos sus campos. Devuelve false si no existe
+	 * 
+	 */
+	private boolean expandir(ProyeccionPL proyeccion, String nombre, Set<String> campos) {
+		
+		if(proyeccion.getCampos().containsKey(nombre)) {
+			campos.add(nombre);
+			return true;
+		}
+		
+		List<String> subcampos = proyeccion.getCampos().keySet().stream()
+				.filter(x -> x.startsWith(nombre + "."))
+				.toList();
+		
+		campos.addAll(subcampos);
+		
+		return !subcampos.isEmpty();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void poner(Map<String, Object> fila, String nombre, Object valor) {
+		
+		String[] partes = nombre.split("\\.");
+		Map<String, Object> actual = fila;
+		
+		for(int i = 0; i < partes.length - 1; i++) {
+			actual = (Map<String, Object>) actual.computeIfAbsent(partes[i], x -> new LinkedHashMap<>());
+		}
+		
+		actual.put(partes[partes.length - 1], valor);
+	}
+	
+	private String getCamposDisponibles(ProyeccionPL proyeccion) {
+		
+		Set<String> disponibles = new LinkedHashSet<>(proyeccion.getCampos().keySet());
+		
+		proyeccion.getColecciones().forEach((nombre, coleccion) -> 
+			coleccion.getCampos().keySet().forEach(x -> disponibles.add(nombre + "." + x)));
+		
+		return disponibles.stream().collect(Collectors.joining(", "));
+	}
+	
+}
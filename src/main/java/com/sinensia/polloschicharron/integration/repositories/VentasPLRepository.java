@@ -0,0 +1,125 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.sinensia.polloschicharron.integration.model.EstadoPedidoPL;
+import com.sinensia.polloschicharron.integration.model.LineaVentaPL;
+import com.sinensia.polloschicharron.integration.model.UnidadesVendidasPL;
+
+/**
+ * Lectura en streaming de las líneas de los pedidos servidos, de las tablas activas y de las
+ * particiones del archivo mensual.
+ * 
+ */
+@Component
+public class VentasPLRepository {
+
+	private static final String SELECT_LINEAS = """
+			SELECT l.CODIGO_PEDIDO, p.FECHA_HORA, p.NIF_ESTABLECIMIENTO, pr.CODIGO, pr.NOMBRE, f.ID, f.NOMBRE, l.CANTIDAD, COALESCE(l.PRECIO, pr.PRECIO, 0)
+			  FROM LINEAS_PEDIDO%1$s l 
+			  JOIN PEDIDOS%1$s p ON p.CODIGO = l.CODIGO_PEDIDO
+			  JOIN PRODUCTOS pr ON pr.CODIGO = l.CODIGO_PRODUCTO
+			  LEFT JOIN FAMILIAS f ON f.ID = pr.ID_FAMILIA
+			 WHERE p.ESTADO = :estado""";
+	
+	private static final String SELECT_UNIDADES = """
+			SELECT p.CODIGO, p.NIF_ESTABLECIMIENTO, CAST(p.FECHA_HORA AS DATE), l.CODIGO_PRODUCTO, SUM(l.CANTIDAD)
+			  FROM LINEAS_PEDIDO l JOIN PEDIDOS p ON p.CODIGO = l.CODIGO_PEDIDO
+			""";
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	
+	public VentasPLRepository(DataSource dataSource, ArchivoPedidosPLRepository archivoPedidosPLRepository) {
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		this.archivoPedidosPLRepository = archivoPedidosPLRepository;
+	}
+	
+	/**
+	 * Recorre todas las líneas vendidas: primero las de los pedidos archivados y después las de PEDIDOS
+	 * 
+	 */
+	public void forEachLineaVenta(Consumer<LineaVentaPL> consumidor) {
+		
+		for(String particion: archivoPedidosPLRepository.getParticiones()) {
+			jdbcTemplate.query(SELECT_LINEAS.formatted("_" + particion), Map.of("estado", EstadoPedidoPL.SERVIDO.name()), crearHandler(consumidor));
+		}
+		
+		jdbcTemplate.query(SELECT_LINEAS.formatted(""), Map.of("estado", EstadoPedidoPL.SERVIDO.name()), crearHandler(consumidor));
+	}
+	
+	/**
+	 * Líneas del pedido si está servido (un pedido recién cerrado aún no está en el archivo)
+	 * 
+	 */
+	public void forEachLineaVenta(Long idPedido, Consumer<LineaVentaPL> consumidor) {
+		jdbcTemplate.query(SELECT_LINEAS.formatted("") + " AND p.CODIGO = :id", 
+						   Map.of("estado", EstadoPedidoPL.SERVIDO.name(), "id", idPedido), 
+						   crearHandler(consumidor));
+	}
+	
+	/**
+	 * Unidades por pedido y producto de los pedidos no cancelados desde la fecha indicada (incluida),
+	 * ordenadas por pedido
+	 * 
+	 */
+	public void forEachUnidadesVendidas(LocalDate desde, Consumer<UnidadesVendidasPL> consumidor) {
+		
+		jdbcTemplate.query(SELECT_UNIDADES + """
+				 WHERE p.ESTADO <> :estado AND p.FECHA_HORA >= :desde
+				 GROUP BY p.CODIGO, p.NIF_ESTABLECIMIENTO, CAST(p.FECHA_HORA AS DATE), l.CODIGO_PRODUCTO
+				 ORDER BY p.CODIGO""", 
+				Map.of("estado", EstadoPedidoPL.CANCELADO.name(), "desde", desde.atStartOfDay()), 
+				rs -> { 
+					consumidor.accept(crearUnidades(rs)); 
+				});
+	}
+	
+	/**
+	 * Unidades por producto de un pedido, sea cual sea su estado
+	 * 
+	 */
+	public List<UnidadesVendidasPL> getUnidadesVendidas(Long idPedido) {
+		
+		return jdbcTemplate.query(SELECT_UNIDADES + """
+				 WHERE p.CODIGO = :id
+				 GROUP BY p.CODIGO, p.NIF_ESTABLECIMIENTO, CAST(p.FECHA_HORA AS DATE), l.CODIGO_PRODUCTO""", 
+				Map.of("id", idPedido), 
+				(rs, rowNum) -> crearUnidades(rs));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private UnidadesVendidasPL crearUnidades(ResultSet rs) throws SQLException {
+		return new UnidadesVendidasPL(rs.getLong(1), rs.getString(2), rs.getDate(3).toLocalDate(), rs.getLong(4), rs.getLong(5));
+	}
+	
+	private RowCallbackHandler crearHandler(Consumer<LineaVentaPL> consumidor) {
+		
+		return rs -> consumidor.accept(new LineaVentaPL(rs.getLong(1), 
+														rs.getTimestamp(2).toLocalDateTime(), 
+														rs.getString(3), 
+														rs.getLong(4), 
+														rs.getString(5), 
+														rs.getObject(6) == null ? null : rs.getLong(6), 
+														rs.getString(7), 
+														rs.getInt(8), 
+														rs.getDouble(9)));
+	}
+	
+}
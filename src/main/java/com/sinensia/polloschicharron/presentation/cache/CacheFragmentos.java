@@ -0,0 +1,70 @@
+package com.sinensia.polloschicharron.presentation.cache;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.sinensia.polloschicharron.business.cache.VersionCatalogo;
+
+/**
+ * Cache del HTML ya renderizado de fragmentos de las vistas que sólo dependen del catálogo.
+ * 
+ * Se guarda una única entrada por clave y locale junto con la versión del catálogo con la que se
+ * renderizó: el HTML lleva números formateados con fmt:formatNumber en el locale de la petición.
+ * Cuando el catálogo cambia la entrada deja de servirse y se sustituye en el siguiente renderizado.
+ * 
+ * El locale sale de Accept-Language: a partir de MAXIMO_ENTRADAS los fragmentos de claves nuevas se
+ * renderizan sin cachearse.
+ * 
+ */
+@Component
+public class CacheFragmentos {
+
+	static final int MAXIMO_ENTRADAS = 64;
+	
+	private final VersionCatalogo versionCatalogo;
+	
+	private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+	
+	public CacheFragmentos(VersionCatalogo versionCatalogo) {
+		this.versionCatalogo = versionCatalogo;
+	}
+	
+	/**
+	 * Devuelve el fragmento para la versión actual del catálogo y el locale indicado. Si no está cacheado el controlador 
+	 * ha de cargar el modelo y la vista lo renderizará y lo guardará (tag fragmento).
+	 * 
+	 */
+	public Fragmento getFragmento(String nombre, Locale locale) {
+		
+		String clave = nombre + "|" + locale.toLanguageTag();
+		long version = versionCatalogo.get();
+		
+		Entrada entrada = entradas.get(clave);
+		
+		String html = entrada != null && entrada.version == version ? entrada.html : null;
+		
+		return new Fragmento(this, clave, version, html);
+	}
+	
+	void put(String clave, long version, String html) {
+		
+		if(entradas.size() >= MAXIMO_ENTRADAS && !entradas.containsKey(clave)) {
+			return;
+		}
+		
+		// Nunca sustituimos un fragmento por otro renderizado con una versión anterior
+		
+		entradas.merge(clave, new Entrada(version, html), (actual, nueva) -> nueva.version >= actual.version ? nueva : actual);
+	}
+	
+	public void clear() {
+		entradas.clear();
+	}
+	
+	private record Entrada(long version, String html) {
+	}
+	
+}
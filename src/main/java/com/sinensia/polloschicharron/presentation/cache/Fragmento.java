@@ -0,0 +1,47 @@
+package com.sinensia.polloschicharron.presentation.cache;
+
+/**
+ * Fragmento de una vista para una versión concreta del catálogo. Se pasa al modelo para que
+ * el tag fragmento escriba el HTML cacheado o renderice su cuerpo y lo guarde.
+ * 
+ */
+public class Fragmento {
+
+	private final CacheFragmentos cache;
+	private final String clave;
+	private final long version;
+	private final String html;
+	
+	Fragmento(CacheFragmentos cache, String clave, long version, String html) {
+		this.cache = cache;
+		this.clave = clave;
+		this.version = version;
+		this.html = html;
+	}
+
+	public String getClave() {
+		return clave;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public String getHtml() {
+		return html;
+	}
+	
+	public boolean isCacheado() {
+		return html != null;
+	}
+	
+	/**
+	 * Guarda el HTML renderizado y lo devuelve
+	 * 
+	 */
+	public String guardar(String html) {
+		cache.put(clave, version, html);
+		return html;
+	}
+	
+}
@@ -0,0 +1,77 @@
+package com.sinensia.polloschicharron.presentation.config;
+
+import java.io.IOException;
+
+import org.apache.jasper.compiler.JspUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.ClassUtils;
+
+import jakarta.servlet.ServletRegistration;
+
+/**
+ * Registra como servlets las JSP precompiladas con el perfil Maven precompilar-jsp.
+ *
+ * Cada servlet se mapea a la ruta exacta de su JSP, que tiene preferencia sobre el mapeo *.jsp
+ * del JspServlet de Jasper, así que los forward de las vistas ya no compilan nada en la primera
+ * petición. Las JSP sin clase precompilada (por ejemplo al arrancar desde el IDE) las sigue
+ * atendiendo Jasper como siempre.
+ *
+ */
+@Configuration
+@Profile("!nativo")
+@ConditionalOnClass(name = "org.apache.jasper.compiler.JspUtil")
+public class JspPrecompiladasConfig {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JspPrecompiladasConfig.class);
+
+	private static final String PAQUETE_JSP = "org.apache.jsp";
+
+	@Bean
+	ServletContextInitializer jspPrecompiladasInitializer(@Value("${spring.mvc.view.prefix}") String prefijo) {
+
+		return servletContext -> {
+
+			ClassLoader classLoader = getClass().getClassLoader();
+
+			Resource[] jsps;
+
+			try {
+				jsps = new PathMatchingResourcePatternResolver(classLoader).getResources("classpath*:META-INF/resources" + prefijo + "*.jsp");
+			} catch(IOException e) {
+				LOGGER.warn("No se pueden localizar las JSP en {}: {}", prefijo, e.getMessage());
+				return;
+			}
+
+			String paquete = PAQUETE_JSP + "." + JspUtil.makeJavaPackage(prefijo.substring(1));
+
+			int registradas = 0;
+
+			for(Resource jsp: jsps) {
+
+				String clase = paquete + "." + JspUtil.makeJavaIdentifier(jsp.getFilename());
+
+				// isPresent no inicializa la clase: el contenedor la instancia cuando Jasper ya está inicializado
+
+				if(ClassUtils.isPresent(clase, classLoader)) {
+					ServletRegistration.Dynamic registro = servletContext.addServlet(clase, clase);
+					registro.addMapping(prefijo + jsp.getFilename());
+					registradas++;
+				}
+			}
+
+			if(registradas > 0) {
+				LOGGER.info("Registradas {} JSP precompiladas de {}", registradas, prefijo);
+			}
+		};
+	}
+
+}
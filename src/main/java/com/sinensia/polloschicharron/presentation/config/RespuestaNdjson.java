@@ -0,0 +1,50 @@
+package com.sinensia.polloschicharron.presentation.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Respuestas application/x-ndjson: un documento JSON por línea, escrito a medida que
+ * el productor entrega los elementos (sin materializar la lista completa).
+ * 
+ */
+public final class RespuestaNdjson {
+
+	private RespuestaNdjson() {
+	}
+	
+	public static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Consumer<Consumer<T>> productor) {
+		
+		StreamingResponseBody body = salida -> {
+			
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(salida);
+			generator.setRootValueSeparator(null);
+			
+			try {
+				productor.accept(elemento -> {
+					try {
+						generator.writeObject(elemento);
+						generator.writeRaw('\n');
+					} catch(IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch(UncheckedIOException e) {
+				throw e.getCause();
+			}
+			
+			generator.flush();
+		};
+		
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+	
+}
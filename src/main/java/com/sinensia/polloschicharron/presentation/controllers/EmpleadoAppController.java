@@ -1,5 +1,6 @@
 package com.sinensia.polloschicharron.presentation.controllers;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,6 +9,7 @@ import org.springframework.web.servlet.ModelAndView;
 import com.sinensia.polloschicharron.business.services.EmpleadoServices;
 
 @Controller
+@Profile("!nativo")
 @RequestMapping("/app")
 public class EmpleadoAppController {
 	
@@ -1,36 +1,80 @@
 package com.sinensia.polloschicharron.presentation.controllers;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.sinensia.polloschicharron.business.model.Establecimiento;
 import com.sinensia.polloschicharron.business.model.Familia;
+import com.sinensia.polloschicharron.business.model.dtos.PercentilesPedidosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoMasVendidoDTO;
+import com.sinensia.polloschicharron.business.services.AnaliticaServices;
+import com.sinensia.polloschicharron.business.services.EstablecimientoServices;
 import com.sinensia.polloschicharron.business.services.ProductoServices;
+import com.sinensia.polloschicharron.presentation.cache.CacheFragmentos;
+import com.sinensia.polloschicharron.presentation.cache.Fragmento;
 
 @Controller
+@Profile("!nativo")
 @RequestMapping("/app")
 public class EstadisticaProductosAppController {
 
+	private static final int TOP_MAS_VENDIDOS = 10;
+	private static final int HORAS_PERCENTILES = 24;
+	
 	private ProductoServices productoServices;
+	private EstablecimientoServices establecimientoServices;
+	private AnaliticaServices analiticaServices;
+	private CacheFragmentos cacheFragmentos;
 	
-	public EstadisticaProductosAppController(ProductoServices productoServices) {
+	public EstadisticaProductosAppController(ProductoServices productoServices, 
+											 EstablecimientoServices establecimientoServices,
+											 AnaliticaServices analiticaServices,
+											 CacheFragmentos cacheFragmentos) {
 		this.productoServices = productoServices;
+		this.establecimientoServices = establecimientoServices;
+		this.analiticaServices = analiticaServices;
+		this.cacheFragmentos = cacheFragmentos;
 	}
 	
 	@GetMapping("/estadisticas-producto")
-	public ModelAndView getEstadisticasProducto(ModelAndView mav) {
+	public ModelAndView getEstadisticasProducto(ModelAndView mav, Locale locale) {
 	
-		Integer numeroProductos = productoServices.getNumeroTotalProductos();
-		Map<Familia, Integer> estadisticaNumeroProductos = productoServices.getEstadisticaNumeroProductosPorFamilia();
-		Map<Familia, Double> estadisticaPrecioMedio = productoServices.getEstadisticaPrecioMedioProductosPorFamilia();
+		Fragmento fragmento = cacheFragmentos.getFragmento("estadisticas-producto", locale);
+		
+		if(!fragmento.isCacheado()) {
+			
+			Integer numeroProductos = productoServices.getNumeroTotalProductos();
+			Map<Familia, Integer> estadisticaNumeroProductos = productoServices.getEstadisticaNumeroProductosPorFamilia();
+			Map<Familia, Double> estadisticaPrecioMedio = productoServices.getEstadisticaPrecioMedioProductosPorFamilia();
+			
+			mav.addObject("numeroProductos", numeroProductos);  
+			mav.addObject("mapa1", estadisticaNumeroProductos);
+			mav.addObject("mapa2", estadisticaPrecioMedio);
+		}
+		
+		// Los más vendidos de hoy cambian con cada pedido: van fuera del fragmento cacheado
+		
+		Map<String, List<ProductoMasVendidoDTO>> masVendidos = new LinkedHashMap<>();
+		Map<String, PercentilesPedidosDTO> percentiles = new LinkedHashMap<>();
+		LocalDate hoy = LocalDate.now();
 		
-		mav.addObject("numeroProductos", numeroProductos);  
-		mav.addObject("mapa1", estadisticaNumeroProductos);
-		mav.addObject("mapa2", estadisticaPrecioMedio);
+		for(Establecimiento establecimiento: establecimientoServices.getAll()) {
+			masVendidos.put(establecimiento.getNombre(), analiticaServices.getMasVendidos(establecimiento.getNIF(), hoy, TOP_MAS_VENDIDOS));
+			percentiles.put(establecimiento.getNombre(), analiticaServices.getPercentilesPedidos(establecimiento.getNIF(), HORAS_PERCENTILES, false).get(0));
+		}
 		
+		mav.addObject("masVendidos", masVendidos);
+		mav.addObject("percentiles", percentiles);
+		mav.addObject("fragmento", fragmento);
 		mav.setViewName("estadisticas-producto"); 			
 		
 		return mav;
@@ -1,10 +1,12 @@
 package com.sinensia.polloschicharron.presentation.controllers;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 @Controller
+@Profile("!nativo")
 @RequestMapping("/app")
 public class HomeAppController {
 
@@ -1,36 +1,94 @@
 package com.sinensia.polloschicharron.presentation.controllers;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.FiltroPedidos;
+import com.sinensia.polloschicharron.business.services.EstablecimientoServices;
 import com.sinensia.polloschicharron.business.services.PedidoServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
 
 @Controller
+@Profile("!nativo")
 @RequestMapping("/app")
 public class PedidoAppController {
 
+	private static final int TAMANO_PAGINA = 25;
+
+	// Sólo lo que pinta pedido.jsp: cabecera y líneas en una proyección (una consulta para cada parte)
+
+	private static final Set<String> CAMPOS_PEDIDO = Set.of("id", "fechaHora", "estado", "observaciones",
+															"empleado.nombre", "empleado.apellido1", "empleado.apellido2",
+															"cliente.id", "cliente.nombre", "cliente.apellido1", "cliente.apellido2",
+															"lineas.producto.nombre", "lineas.cantidad", "lineas.precio");
+
 	private PedidoServices pedidoServices;
+	private EstablecimientoServices establecimientoServices;
 
-	public PedidoAppController(PedidoServices pedidoServices) {
+	public PedidoAppController(PedidoServices pedidoServices, EstablecimientoServices establecimientoServices) {
 		this.pedidoServices = pedidoServices;
+		this.establecimientoServices = establecimientoServices;
 	}
-	
+
 	@GetMapping("/lista-pedidos")
-	public ModelAndView getListaPedidos(ModelAndView mav) {
-		mav.addObject("pedidos", pedidoServices.getPedidosDTO1());
+	public ModelAndView getListaPedidos(ModelAndView mav,
+										@RequestParam(required=false) EstadoPedido estado,
+										@RequestParam(required=false) String establecimiento,
+										@RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate desde,
+										@RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate hasta,
+										@RequestParam(required=false) Long despuesDe,
+										@RequestParam(required=false) Long antesDe) {
+
+		String nif = establecimiento == null || establecimiento.isBlank() ? null : establecimiento;
+
+		// 'hasta' es inclusivo en el formulario: el filtro llega hasta el inicio del día siguiente
+
+		FiltroPedidos filtro = new FiltroPedidos(estado, nif, toDate(desde), hasta == null ? null : toDate(hasta.plusDays(1)));
+
+		mav.addObject("pagina", pedidoServices.getPaginaPedidosDTO1(filtro, despuesDe, antesDe, TAMANO_PAGINA));
+		mav.addObject("estados", EstadoPedido.values());
+		mav.addObject("establecimientos", establecimientoServices.getAll());
+		mav.addObject("filtro", Map.of("estado", estado == null ? "" : estado.name(),
+									   "establecimiento", nif == null ? "" : nif,
+									   "desde", desde == null ? "" : desde,
+									   "hasta", hasta == null ? "" : hasta));
 		mav.setViewName("listado-pedidos");
 		return mav;
 	}
-	
+
 	@GetMapping("/pedido")
 	public ModelAndView getPedido(ModelAndView mav, @RequestParam Long id) {
-		mav.addObject("pedido", pedidoServices.read(id).get());
+
+		Map<String, Object> pedido = pedidoServices.read(id, CAMPOS_PEDIDO)
+				.orElseThrow(() -> new PresentationException("No existe el pedido " + id, HttpStatus.NOT_FOUND));
+
+		mav.addObject("pedido", pedido);
 		mav.setViewName("pedido");
 		return mav;
 	}
-	
-	
+
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+
+	private Date toDate(LocalDate fecha) {
+		return fecha == null ? null : Date.from(fecha.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+
 }
@@ -1,25 +1,40 @@
 package com.sinensia.polloschicharron.presentation.controllers;
 
+import java.util.Locale;
+
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 
 import com.sinensia.polloschicharron.business.services.ProductoServices;
+import com.sinensia.polloschicharron.presentation.cache.CacheFragmentos;
+import com.sinensia.polloschicharron.presentation.cache.Fragmento;
 
 @Controller
+@Profile("!nativo")
 @RequestMapping("/app")
 public class ProductoAppController {
 
 	private ProductoServices productoServices;
+	private CacheFragmentos cacheFragmentos;
 
-	public ProductoAppController(ProductoServices productoServices) {
+	public ProductoAppController(ProductoServices productoServices, CacheFragmentos cacheFragmentos) {
 		this.productoServices = productoServices;
+		this.cacheFragmentos = cacheFragmentos;
 	}
 	
 	@GetMapping("/lista-productos")
-	public ModelAndView getListaProductos(ModelAndView mav) {
-		mav.addObject("productos",productoServices.getAll());
+	public ModelAndView getListaProductos(ModelAndView mav, Locale locale) {
+		
+		Fragmento fragmento = cacheFragmentos.getFragmento("listado-productos", locale);
+		
+		if(!fragmento.isCacheado()) {
+			mav.addObject("productos",productoServices.getAll());
+		}
+		
+		mav.addObject("fragmento", fragmento);
 		mav.setViewName("listado-productos");
 		return mav;
 	}
@@ -0,0 +1,106 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sinensia.polloschicharron.business.model.ConsultaVentas;
+import com.sinensia.polloschicharron.business.model.DimensionVentas;
+import com.sinensia.polloschicharron.business.model.PeriodoAgregado;
+import com.sinensia.polloschicharron.business.model.dtos.ClientesDistintosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.PercentilesPedidosDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoMasVendidoDTO;
+import com.sinensia.polloschicharron.business.model.dtos.VentaAgregadaDTO;
+import com.sinensia.polloschicharron.business.services.AnaliticaServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/analytics")
+public class AnaliticaController {
+
+	private AnaliticaServices analiticaServices;
+	
+	public AnaliticaController(AnaliticaServices analiticaServices) {
+		this.analiticaServices = analiticaServices;
+	}
+	
+	/**
+	 * /rest/analytics/ventas?agrupar=HORA&desde=2023-04-01&hasta=2023-05-01&establecimiento=B38983321&familia=3
+	 * 
+	 */
+	@GetMapping("/ventas")
+	public List<VentaAgregadaDTO> getVentas(@RequestParam(defaultValue="FAMILIA") DimensionVentas agrupar,
+											@RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate desde,
+											@RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate hasta,
+											@RequestParam(required=false) String establecimiento,
+											@RequestParam(required=false) Long familia) {
+		
+		try {
+			return analiticaServices.getVentas(new ConsultaVentas(agrupar, desde, hasta, establecimiento, familia));
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	/**
+	 * /rest/analytics/mas-vendidos?establecimiento=B38983321&top=10 (por defecto, los de hoy)
+	 * 
+	 */
+	@GetMapping("/mas-vendidos")
+	public List<ProductoMasVendidoDTO> getMasVendidos(@RequestParam String establecimiento,
+													  @RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate fecha,
+													  @RequestParam(defaultValue="10") int top) {
+		
+		try {
+			return analiticaServices.getMasVendidos(establecimiento, fecha == null ? LocalDate.now() : fecha, top);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	/**
+	 * /rest/analytics/clientes-distintos?establecimiento=B38983321&desde=2023-04-01&hasta=2023-05-01&periodo=SEMANA
+	 * 
+	 * Sin fechas, el último mes hasta hoy (incluido). Sin establecimiento, todos.
+	 * 
+	 */
+	@GetMapping("/clientes-distintos")
+	public List<ClientesDistintosDTO> getClientesDistintos(@RequestParam(required=false) String establecimiento,
+														   @RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate desde,
+														   @RequestParam(required=false) @DateTimeFormat(iso=ISO.DATE) LocalDate hasta,
+														   @RequestParam(defaultValue="TOTAL") PeriodoAgregado periodo) {
+		
+		LocalDate fin = hasta == null ? LocalDate.now().plusDays(1) : hasta;
+		LocalDate inicio = desde == null ? fin.minusMonths(1) : desde;
+		
+		try {
+			return analiticaServices.getClientesDistintos(establecimiento, inicio, fin, periodo);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	/**
+	 * /rest/analytics/percentiles-pedidos?establecimiento=B38983321&horas=24&porHora=true
+	 * 
+	 */
+	@GetMapping("/percentiles-pedidos")
+	public List<PercentilesPedidosDTO> getPercentilesPedidos(@RequestParam(required=false) String establecimiento,
+															 @RequestParam(defaultValue="24") int horas,
+															 @RequestParam(defaultValue="false") boolean porHora) {
+		
+		try {
+			return analiticaServices.getPercentilesPedidos(establecimiento, horas, porHora);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+}
@@ -0,0 +1,37 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sinensia.polloschicharron.business.model.dtos.ResultadoArchivoDTO;
+import com.sinensia.polloschicharron.business.services.ArchivoPedidosServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/admin/archivo")
+public class ArchivoPedidosController {
+
+	private ArchivoPedidosServices archivoPedidosServices;
+	private int diasPorDefecto;
+	
+	public ArchivoPedidosController(ArchivoPedidosServices archivoPedidosServices, 
+									@Value("${polloschicharron.archivo.dias:90}") int diasPorDefecto) {
+		this.archivoPedidosServices = archivoPedidosServices;
+		this.diasPorDefecto = diasPorDefecto;
+	}
+	
+	@PostMapping
+	public ResultadoArchivoDTO archivar(@RequestParam(required=false) Integer dias) {
+		
+		try {
+			return archivoPedidosServices.archivar(dias == null ? diasPorDefecto : dias);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+	
+}
@@ -0,0 +1,97 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.services.ClienteServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/clientes")
+public class ClienteController {
+
+	private ClienteServices clienteServices;
+	
+	public ClienteController(ClienteServices clienteServices) {
+		this.clienteServices = clienteServices;
+	}
+	
+	/**
+	 * Paginación por id: la siguiente página se pide con despuesDe = id del último cliente recibido
+	 * 
+	 */
+	@GetMapping
+	public List<Cliente> getClientes(@RequestParam(required=false) Long despuesDe, 
+									 @RequestParam(required=false, defaultValue="50") int tamano){
+		
+		try {
+			return clienteServices.getPagina(despuesDe, tamano);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping("/buscar")
+	public List<Cliente> buscar(@RequestParam(required=false) String dni,
+								@RequestParam(required=false) String email,
+								@RequestParam(required=false) String telefono) {
+		
+		ParametrosBusqueda parametros = ParametrosBusqueda.of(dni, email, telefono);
+		
+		return clienteServices.buscar(parametros.campo(), parametros.valor());
+	}
+	
+	@GetMapping("/{id}")
+	public Cliente getCliente(@PathVariable Long id) {
+		
+		Optional<Cliente> optional = clienteServices.read(id);
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe el cliente con ID " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
+	@PostMapping
+	public ResponseEntity<?> createCliente(@RequestBody Cliente cliente, UriComponentsBuilder ucb){
+		
+		Long id = null;
+		
+		try {
+			id = clienteServices.create(cliente);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+
+		return ResponseEntity.created(ucb.path("/clientes/{id}").build(id)).build();
+	}
+	
+	@PutMapping("/{id}")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void updateCliente(@RequestBody Cliente cliente, @PathVariable Long id) {
+		
+		cliente.setId(id);
+		
+		try {
+			clienteServices.update(cliente);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}	
+	}
+	
+}
@@ -0,0 +1,65 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.sinensia.polloschicharron.business.model.dtos.CopiaSeguridadDTO;
+import com.sinensia.polloschicharron.business.services.CopiaSeguridadServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/admin/copias")
+public class CopiaSeguridadController {
+
+	private CopiaSeguridadServices copiaSeguridadServices;
+	
+	public CopiaSeguridadController(CopiaSeguridadServices copiaSeguridadServices) {
+		this.copiaSeguridadServices = copiaSeguridadServices;
+	}
+	
+	@GetMapping
+	public List<CopiaSeguridadDTO> getAll() {
+		return copiaSeguridadServices.getAll();
+	}
+	
+	@PostMapping
+	public ResponseEntity<CopiaSeguridadDTO> create(UriComponentsBuilder ucb) {
+		
+		try {
+			
+			CopiaSeguridadDTO copia = copiaSeguridadServices.crear();
+			
+			return ResponseEntity.created(ucb.path("/rest/admin/copias/{nombre}").build(copia.nombre())).body(copia);
+			
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+	
+	@PostMapping("/{nombre}/restauracion")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void restaurar(@PathVariable String nombre) {
+		
+		boolean restaurada;
+		
+		try {
+			restaurada = copiaSeguridadServices.restaurar(nombre);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.CONFLICT);
+		}
+		
+		if(!restaurada) {
+			throw new PresentationException("No existe la copia de seguridad " + nombre, HttpStatus.NOT_FOUND);
+		}
+	}
+	
+}
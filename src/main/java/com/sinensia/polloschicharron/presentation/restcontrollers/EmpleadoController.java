@@ -1,12 +1,15 @@
 package com.sinensia.polloschicharron.presentation.restcontrollers;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.sinensia.polloschicharron.business.model.Empleado;
@@ -28,6 +31,16 @@ public class EmpleadoController {
 		return empleadoServices.getAll();
 	}
 	
+	@GetMapping("/buscar")
+	public List<Empleado> buscar(@RequestParam(required=false) String dni,
+								 @RequestParam(required=false) String email,
+								 @RequestParam(required=false) String telefono) {
+		
+		ParametrosBusqueda parametros = ParametrosBusqueda.of(dni, email, telefono);
+		
+		return empleadoServices.buscar(parametros.campo(), parametros.valor());
+	}
+	
 	@GetMapping("/{id}")
 	public Empleado getEmpleado(@PathVariable Long id) {
 		
@@ -39,5 +52,33 @@ public class EmpleadoController {
 		
 		return optional.get();
 	}
+	
+	@GetMapping(params="fields")
+	public List<Map<String, Object>> getEmpleados(@RequestParam Set<String> fields){
+		
+		try {
+			return empleadoServices.getAll(fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping(value="/{id}", params="fields")
+	public Map<String, Object> getEmpleado(@PathVariable Long id, @RequestParam Set<String> fields) {
+		
+		Optional<Map<String, Object>> optional = null;
+		
+		try {
+			optional = empleadoServices.read(id, fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe el empleado con ID " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
 
 }
@@ -1,9 +1,12 @@
 package com.sinensia.polloschicharron.presentation.restcontrollers;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,37 +17,66 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoCercanoDTO;
 import com.sinensia.polloschicharron.business.model.dtos.EstablecimientoDTO1;
 import com.sinensia.polloschicharron.business.services.EstablecimientoServices;
 import com.sinensia.polloschicharron.presentation.config.PresentationException;
+import com.sinensia.polloschicharron.presentation.config.RespuestaNdjson;
 
 @RestController
 @RequestMapping("/rest/establecimientos")
 public class EstablecimientoController {
 	
 	private EstablecimientoServices establecimientoServices;
+	private ObjectMapper objectMapper;
 	
-	public EstablecimientoController(EstablecimientoServices establecimientoServices) {
+	public EstablecimientoController(EstablecimientoServices establecimientoServices, ObjectMapper objectMapper) {
 		this.establecimientoServices = establecimientoServices;
+		this.objectMapper = objectMapper;
 	}
 	
 	@GetMapping
-	public List<Establecimiento> getEstablecimientos(@RequestParam(required=false) String provincia){
+	public List<Establecimiento> getEstablecimientos(@RequestParam(required=false) String provincia, 
+													 @RequestParam(required=false) String poblacion){
 	
 		List<Establecimiento> establecimientos = null;
 		
-		if(provincia == null) {
-			establecimientos = establecimientoServices.getAll();
-		} else {
+		if(provincia != null) {
 			establecimientos = establecimientoServices.getByProvincia(provincia);
+		} else if(poblacion != null) {
+			establecimientos = establecimientoServices.getByPoblacion(poblacion);
+		} else {
+			establecimientos = establecimientoServices.getAll();
 		}
 		
 		return establecimientos;
 	}
 	
+	@GetMapping(value="/near", params="cp")
+	public List<EstablecimientoCercanoDTO> getCercanos(@RequestParam String cp, @RequestParam(defaultValue="3") int top){
+		
+		try {
+			return establecimientoServices.getCercanos(cp, top);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping(value="/near", params={"lat", "lon", "!cp"})
+	public List<EstablecimientoCercanoDTO> getCercanos(@RequestParam double lat, @RequestParam double lon, @RequestParam(defaultValue="3") int top){
+		
+		try {
+			return establecimientoServices.getCercanos(lat, lon, top);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
 	@GetMapping("/{nif}")
 	public Establecimiento getEstablecimiento(@PathVariable String nif){
 		
@@ -57,6 +89,34 @@ public class EstablecimientoController {
 		return optional.get();
 	}
 	
+	@GetMapping(params={"fields", "!provincia", "!poblacion"})
+	public List<Map<String, Object>> getEstablecimientos(@RequestParam Set<String> fields){
+		
+		try {
+			return establecimientoServices.getAll(fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping(value="/{nif}", params="fields")
+	public Map<String, Object> getEstablecimiento(@PathVariable String nif, @RequestParam Set<String> fields) {
+		
+		Optional<Map<String, Object>> optional = null;
+		
+		try {
+			optional = establecimientoServices.read(nif, fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe el establecimiento con NIF " + nif, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
 	@PostMapping
 	public ResponseEntity<?> createEstablecimiento(@RequestBody Establecimiento establecimiento, UriComponentsBuilder ucb){
 		
@@ -91,4 +151,9 @@ public class EstablecimientoController {
 		return establecimientoServices.getEstablecimientosDTO1();
 	}
 	
+	@GetMapping(value="/dtos/establecimientoDTO1", produces=MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getEstablecimientosDTO1Ndjson(){
+		return RespuestaNdjson.<EstablecimientoDTO1>of(objectMapper, establecimientoServices::forEachEstablecimientoDTO1);
+	}
+	
 }
@@ -0,0 +1,87 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.sinensia.polloschicharron.business.model.ListaPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.PrecioVigenteDTO;
+import com.sinensia.polloschicharron.business.services.ListaPreciosServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/listas-precios")
+public class ListaPreciosController {
+
+	private ListaPreciosServices listaPreciosServices;
+	
+	public ListaPreciosController(ListaPreciosServices listaPreciosServices) {
+		this.listaPreciosServices = listaPreciosServices;
+	}
+	
+	@GetMapping
+	public List<ListaPrecios> getAll(){
+		return listaPreciosServices.getAll();
+	}
+	
+	@GetMapping("/{id}")
+	public ListaPrecios getListaPrecios(@PathVariable Long id) {
+		
+		Optional<ListaPrecios> optional = listaPreciosServices.read(id);
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe la lista de precios con id " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
+	@PostMapping
+	public ResponseEntity<?> create(@RequestBody ListaPrecios listaPrecios, UriComponentsBuilder ucb){
+		
+		Long id = null;
+		
+		try {
+			id = listaPreciosServices.create(listaPrecios);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		
+		return ResponseEntity.created(ucb.path("/rest/listas-precios/{id}").build(id)).build();
+	}
+	
+	@DeleteMapping("/{id}")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void delete(@PathVariable Long id) {
+		
+		try {
+			listaPreciosServices.delete(id);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping("/precios/{idProducto}")
+	public PrecioVigenteDTO getPrecioVigente(@PathVariable Long idProducto) {
+		
+		Optional<PrecioVigenteDTO> optional = listaPreciosServices.getPrecioVigente(idProducto);
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No hay precio vigente para el producto con id " + idProducto, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
+}
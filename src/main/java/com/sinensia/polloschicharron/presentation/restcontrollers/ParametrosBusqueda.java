@@ -0,0 +1,38 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+/**
+ * Parámetros de /buscar en clientes y empleados: se ha de indicar uno y sólo uno de dni, email o telefono.
+ *
+ */
+record ParametrosBusqueda(CampoBusqueda campo, String valor) {
+
+	static ParametrosBusqueda of(String dni, String email, String telefono) {
+		
+		Map<CampoBusqueda, String> parametros = new EnumMap<>(CampoBusqueda.class);
+		
+		if(dni != null) parametros.put(CampoBusqueda.DNI, dni);
+		if(email != null) parametros.put(CampoBusqueda.EMAIL, email);
+		if(telefono != null) parametros.put(CampoBusqueda.TELEFONO, telefono);
+		
+		if(parametros.size() != 1) {
+			throw new PresentationException("Se ha de indicar uno y sólo uno de los parámetros dni, email o telefono.", HttpStatus.BAD_REQUEST);
+		}
+		
+		Map.Entry<CampoBusqueda, String> parametro = parametros.entrySet().iterator().next();
+		
+		if(parametro.getValue().isBlank()) {
+			throw new PresentationException("El valor a buscar no puede estar vacío.", HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ParametrosBusqueda(parametro.getKey(), parametro.getValue());
+	}
+	
+}
@@ -1,32 +1,54 @@
 package com.sinensia.polloschicharron.presentation.restcontrollers;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sinensia.polloschicharron.business.model.EventoPedido;
 import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1;
+import com.sinensia.polloschicharron.business.services.ClaveIdempotenciaReutilizadaException;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
 import com.sinensia.polloschicharron.business.services.PedidoServices;
 import com.sinensia.polloschicharron.presentation.config.PresentationException;
+import com.sinensia.polloschicharron.presentation.config.RespuestaNdjson;
 
 @RestController
 @RequestMapping("/rest/pedidos")
 public class PedidoController {
 
+	public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+	
+	private static final int LONGITUD_MAXIMA_CLAVE = 100;
+
 	private PedidoServices pedidoServices;
+	private HistorialPedidoServices historialPedidoServices;
+	private ObjectMapper objectMapper;
 
-	public PedidoController(PedidoServices pedidoServices) {
+	public PedidoController(PedidoServices pedidoServices, HistorialPedidoServices historialPedidoServices, ObjectMapper objectMapper) {
 		this.pedidoServices = pedidoServices;
+		this.historialPedidoServices = historialPedidoServices;
+		this.objectMapper = objectMapper;
 	}
 	
 	@GetMapping
@@ -46,18 +68,62 @@ public class PedidoController {
 		return optional.get();
 	}
 	
+	@GetMapping("/{id}/eventos")
+	public List<EventoPedido> getEventos(@PathVariable Long id) {
+		
+		List<EventoPedido> eventos = historialPedidoServices.getEventos(id);
+		
+		if(eventos.isEmpty()) {
+			throw new PresentationException("No hay eventos del pedido con id " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return eventos;
+	}
+	
+	@GetMapping(params="fields")
+	public List<Map<String, Object>> getPedidos(@RequestParam Set<String> fields){
+		
+		try {
+			return pedidoServices.getAll(fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping(value="/{id}", params="fields")
+	public Map<String, Object> getPedido(@PathVariable Long id, @RequestParam Set<String> fields) {
+		
+		Optional<Map<String, Object>> optional = null;
+		
+		try {
+			optional = pedidoServices.read(id, fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe el pedido con id " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
 	@PostMapping
-	public ResponseEntity<?> createPedido(@RequestBody Pedido pedido, UriComponentsBuilder ucb){
+	public ResponseEntity<?> createPedido(@RequestBody Pedido pedido, 
+										  @RequestHeader(name=IDEMPOTENCY_KEY, required=false) String claveIdempotencia,
+										  UriComponentsBuilder ucb){
 		
-		Long id = null;
+		PedidoCreadoDTO creado = null;
 		
 		try {
-			id = pedidoServices.create(pedido);
+			creado = claveIdempotencia == null ? pedidoServices.create(pedido) : createIdempotente(pedido, claveIdempotencia);
+		} catch(ClaveIdempotenciaReutilizadaException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
 		} catch(IllegalStateException e) {
 			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
 		}
 
-		return ResponseEntity.created(ucb.path("/pedidos/{id}").build(id)).build();
+		return ResponseEntity.created(ucb.path("/pedidos/{id}").build(creado.id())).body(creado);
 	}
 	
 	@PutMapping("/{id}")
@@ -73,4 +139,43 @@ public class PedidoController {
 		}	
 	}
 	
+	// ********************************************
+	//
+	// DTOs
+	//
+	// ********************************************
+	
+	@GetMapping("/dtos/pedidoDTO1")
+	public List<PedidoDTO1> getPedidosDTO1(){
+		return pedidoServices.getPedidosDTO1();
+	}
+	
+	@GetMapping(value="/dtos/pedidoDTO1", produces=MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getPedidosDTO1Ndjson(){
+		return RespuestaNdjson.<PedidoDTO1>of(objectMapper, pedidoServices::forEachPedidoDTO1);
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private PedidoCreadoDTO createIdempotente(Pedido pedido, String claveIdempotencia) {
+		
+		if(claveIdempotencia.isBlank() || claveIdempotencia.length() > LONGITUD_MAXIMA_CLAVE) {
+			throw new PresentationException("La cabecera " + IDEMPOTENCY_KEY + " ha de tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres.", HttpStatus.BAD_REQUEST);
+		}
+		
+		try {
+			return pedidoServices.create(pedido, claveIdempotencia);
+		} catch(DataIntegrityViolationException e) {
+			
+			// Otra petición con la misma clave se ha confirmado antes que ésta
+			
+			return pedidoServices.getPedidoCreadoByClaveIdempotencia(claveIdempotencia, pedido)
+					.orElseThrow(() -> new PresentationException("Ya se está procesando un pedido con la clave " + claveIdempotencia, HttpStatus.CONFLICT));
+		}
+	}
+	
 }
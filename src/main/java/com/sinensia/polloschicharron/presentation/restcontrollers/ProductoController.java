@@ -3,8 +3,10 @@ package com.sinensia.polloschicharron.presentation.restcontrollers;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,8 +18,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sinensia.polloschicharron.business.model.Familia;
 import com.sinensia.polloschicharron.business.model.Producto;
 import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO1;
@@ -25,15 +29,18 @@ import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO2;
 import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3;
 import com.sinensia.polloschicharron.business.services.ProductoServices;
 import com.sinensia.polloschicharron.presentation.config.PresentationException;
+import com.sinensia.polloschicharron.presentation.config.RespuestaNdjson;
 
 @RestController
 @RequestMapping("/rest/productos")
 public class ProductoController {
 	
 	private ProductoServices productoServices;
+	private ObjectMapper objectMapper;
 	
-	public ProductoController(ProductoServices productosServices) {
+	public ProductoController(ProductoServices productosServices, ObjectMapper objectMapper) {
 		this.productoServices = productosServices;
+		this.objectMapper = objectMapper;
 	}
 	
 	@GetMapping
@@ -53,6 +60,34 @@ public class ProductoController {
 		return optional.get();
 	}
 	
+	@GetMapping(params="fields")
+	public List<Map<String, Object>> getProductos(@RequestParam Set<String> fields){
+		
+		try {
+			return productoServices.getAll(fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping(value="/{id}", params="fields")
+	public Map<String, Object> getProducto(@PathVariable Long id, @RequestParam Set<String> fields) {
+		
+		Optional<Map<String, Object>> optional = null;
+		
+		try {
+			optional = productoServices.read(id, fields);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe el producto con id " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
 	@PostMapping
 	public ResponseEntity<?> createProducto(@RequestBody Producto producto, UriComponentsBuilder ucb){
 		
@@ -107,14 +142,29 @@ public class ProductoController {
 		return productoServices.getProductosDTO1();
 	}
 	
+	@GetMapping(value="/dtos/productoDTO1", produces=MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getProductosDTO1Ndjson(){
+		return RespuestaNdjson.<ProductoDTO1>of(objectMapper, productoServices::forEachProductoDTO1);
+	}
+	
 	@GetMapping("/dtos/productoDTO2")
 	public List<ProductoDTO2> getProductosDTO2(){
 		return productoServices.getProductosDTO2();
 	}
 	
+	@GetMapping(value="/dtos/productoDTO2", produces=MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getProductosDTO2Ndjson(){
+		return RespuestaNdjson.<ProductoDTO2>of(objectMapper, productoServices::forEachProductoDTO2);
+	}
+	
 	@GetMapping("/dtos/productoDTO3")
 	public List<ProductoDTO3> getProductosDTO3(@RequestParam(required=false, defaultValue="0") Double descuento){
 		return productoServices.getProductosDTO3(descuento);
 	}
+	
+	@GetMapping(value="/dtos/productoDTO3", produces=MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getProductosDTO3Ndjson(@RequestParam(required=false, defaultValue="0") Double descuento){
+		return RespuestaNdjson.<ProductoDTO3>of(objectMapper, x -> productoServices.forEachProductoDTO3(descuento, x));
+	}
 
 }
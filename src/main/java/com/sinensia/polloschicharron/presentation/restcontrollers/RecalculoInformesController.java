@@ -0,0 +1,65 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.sinensia.polloschicharron.business.model.RecalculoInforme;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRecalculoDTO;
+import com.sinensia.polloschicharron.business.services.RecalculoInformesServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/admin/recalculos")
+public class RecalculoInformesController {
+
+	private RecalculoInformesServices recalculoInformesServices;
+	
+	public RecalculoInformesController(RecalculoInformesServices recalculoInformesServices) {
+		this.recalculoInformesServices = recalculoInformesServices;
+	}
+	
+	@PostMapping
+	public ResponseEntity<?> create(@RequestBody RecalculoInforme recalculo, UriComponentsBuilder ucb) {
+		
+		try {
+			Long id = recalculoInformesServices.iniciar(recalculo);
+			return ResponseEntity.accepted().location(ucb.path("/rest/admin/recalculos/{id}").build(id)).build();
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+	
+	@GetMapping("/{id}")
+	public ProgresoRecalculoDTO getProgreso(@PathVariable Long id) {
+		
+		Optional<ProgresoRecalculoDTO> optional = recalculoInformesServices.getProgreso(id);
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe el recálculo con id " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
+	@PostMapping("/{id}/cancelar")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public void cancelar(@PathVariable Long id) {
+		
+		try {
+			recalculoInformesServices.cancelar(id);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.NOT_FOUND);
+		}
+	}
+	
+}
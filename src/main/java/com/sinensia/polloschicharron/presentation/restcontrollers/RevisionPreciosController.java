@@ -0,0 +1,86 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.sinensia.polloschicharron.business.model.RevisionPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRevisionPreciosDTO;
+import com.sinensia.polloschicharron.business.services.RevisionPreciosServices;
+import com.sinensia.polloschicharron.presentation.config.PresentationException;
+
+@RestController
+@RequestMapping("/rest/revisiones-precios")
+public class RevisionPreciosController {
+
+	private RevisionPreciosServices revisionPreciosServices;
+	
+	public RevisionPreciosController(RevisionPreciosServices revisionPreciosServices) {
+		this.revisionPreciosServices = revisionPreciosServices;
+	}
+	
+	@PostMapping
+	public ResponseEntity<?> create(@RequestBody RevisionPrecios revision, 
+									@RequestParam(required=false, defaultValue="false") boolean simulacion, 
+									UriComponentsBuilder ucb) {
+		
+		try {
+			
+			if(simulacion) {
+				return ResponseEntity.ok(revisionPreciosServices.simular(revision));
+			}
+			
+			Long id = revisionPreciosServices.iniciar(revision);
+			
+			return ResponseEntity.accepted().location(ucb.path("/rest/revisiones-precios/{id}").build(id)).build();
+			
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	@GetMapping("/{id}")
+	public ProgresoRevisionPreciosDTO getProgreso(@PathVariable Long id) {
+		
+		Optional<ProgresoRevisionPreciosDTO> optional = revisionPreciosServices.getProgreso(id);
+		
+		if(optional.isEmpty()) {
+			throw new PresentationException("No existe la revisión de precios con id " + id, HttpStatus.NOT_FOUND);
+		}
+		
+		return optional.get();
+	}
+	
+	@PostMapping("/{id}/reanudar")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public void reanudar(@PathVariable Long id) {
+		
+		try {
+			revisionPreciosServices.reanudar(id);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+	
+	@PostMapping("/{id}/interrumpir")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public void interrumpir(@PathVariable Long id) {
+		
+		try {
+			revisionPreciosServices.interrumpir(id);
+		} catch(IllegalStateException e) {
+			throw new PresentationException(e.getMessage(), HttpStatus.NOT_FOUND);
+		}
+	}
+	
+}
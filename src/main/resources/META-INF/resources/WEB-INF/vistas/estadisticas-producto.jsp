@@ -1,6 +1,7 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="pc" tagdir="/WEB-INF/tags" %>
 <!DOCTYPE html>
 <html>
 	<head>
@@ -11,35 +12,97 @@
 		<div class="container-fluid">
 			<jsp:include page="nav.jsp"/>
 			<h3 style="margin-top: 15px;">Estadística de Productos</h3>
-			<p>Número total de productos: ${numeroProductos}</p>
-		<div>
+			<pc:fragmento fragmento="${fragmento}">
+				<p>Número total de productos: ${numeroProductos}</p>
+			<div>
+				<table style="width: 70%;" class="table">
+				<thead>
+					<tr>
+						<th>ID Familia</th>
+						<th>Familia</th>
+						<th style="text-align: right;">Número de productos</th>
+						<th style="text-align: right;">Precio medio</th>
+					</tr>
+				</thead>
+					<tbody>
+						<c:forEach var="entry" items="${mapa1}" >
+							<tr>
+								<td>${entry.key.id}</td>
+								<td>${entry.key.nombre}</td>
+								<td style="text-align: right;">${entry.value}</td>
+							
+								<td style="text-align: right;">
+									<c:if test="${not empty mapa2[entry.key]}">
+									<fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${mapa2[entry.key]}" /> €
+									</c:if>
+									<c:if test="${empty mapa2[entry.key]}">---</c:if>
+								</td>
+							</tr>
+						</c:forEach>
+					</tbody>
+				</table>
+			</div>
+			</pc:fragmento>
+			<h4 style="margin-top: 15px;">Más vendidos hoy</h4>
+			<c:forEach var="establecimiento" items="${masVendidos}">
+			<div>
+				<h5>${establecimiento.key}</h5>
+				<c:if test="${empty establecimiento.value}">
+					<p>Sin ventas hoy.</p>
+				</c:if>
+				<c:if test="${not empty establecimiento.value}">
+				<table style="width: 70%;" class="table">
+				<thead>
+					<tr>
+						<th>#</th>
+						<th>Producto</th>
+						<th style="text-align: right;">Unidades</th>
+					</tr>
+				</thead>
+					<tbody>
+						<c:forEach var="producto" items="${establecimiento.value}" varStatus="status">
+							<tr>
+								<td>${status.count}</td>
+								<td>${producto.nombre()}</td>
+								<td style="text-align: right;">${producto.unidades()}<c:if test="${producto.error() > 0}"> (hasta ${producto.error()} de más)</c:if></td>
+							</tr>
+						</c:forEach>
+					</tbody>
+				</table>
+				</c:if>
+			</div>
+			</c:forEach>
+			<h4 style="margin-top: 15px;">Tamaño de los pedidos (últimas 24 horas)</h4>
 			<table style="width: 70%;" class="table">
 			<thead>
 				<tr>
-					<th>ID Familia</th>
-					<th>Familia</th>
-					<th style="text-align: right;">Número de productos</th>
-					<th style="text-align: right;">Precio medio</th>
+					<th>Establecimiento</th>
+					<th style="text-align: right;">Pedidos</th>
+					<th style="text-align: right;">Importe p50</th>
+					<th style="text-align: right;">Importe p90</th>
+					<th style="text-align: right;">Importe p99</th>
+					<th style="text-align: right;">Unidades p50</th>
+					<th style="text-align: right;">Unidades p90</th>
+					<th style="text-align: right;">Unidades p99</th>
 				</tr>
 			</thead>
 				<tbody>
-					<c:forEach var="entry" items="${mapa1}" >
+					<c:forEach var="entry" items="${percentiles}">
+						<c:set var="importe" value="${entry.value.importe()}"/>
+						<c:set var="unidades" value="${entry.value.unidades()}"/>
 						<tr>
-							<td>${entry.key.id}</td>
-							<td>${entry.key.nombre}</td>
-							<td style="text-align: right;">${entry.value}</td>
-							
-							<td style="text-align: right;">
-								<c:if test="${not empty mapa2[entry.key]}">
-								<fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${mapa2[entry.key]}" /> €
-								</c:if>
-								<c:if test="${empty mapa2[entry.key]}">---</c:if>
-							</td>
+							<td>${entry.key}</td>
+							<td style="text-align: right;">${entry.value.pedidos()}</td>
+							<td style="text-align: right;"><fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${importe.p50()}" /> €</td>
+							<td style="text-align: right;"><fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${importe.p90()}" /> €</td>
+							<td style="text-align: right;"><fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${importe.p99()}" /> €</td>
+							<td style="text-align: right;"><fmt:formatNumber type="number" maxFractionDigits="0" value="${unidades.p50()}" /></td>
+							<td style="text-align: right;"><fmt:formatNumber type="number" maxFractionDigits="0" value="${unidades.p90()}" /></td>
+							<td style="text-align: right;"><fmt:formatNumber type="number" maxFractionDigits="0" value="${unidades.p99()}" /></td>
 						</tr>
 					</c:forEach>
 				</tbody>
 			</table>
 		</div>
-		</div>
 	</body>
 </html>
\ No newline at end of file
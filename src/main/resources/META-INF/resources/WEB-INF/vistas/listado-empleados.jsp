@@ -22,9 +22,9 @@
 				<tbody>
 					<c:forEach var="empleado" items="${empleados}">
 					<tr>
-						<td>${empleado.nombreCompleto}</td>
-						<td>${empleado.telefono}</td>
-						<td>${empleado.email}</td>
+						<td>${empleado.nombreCompleto()}</td>
+						<td>${empleado.telefono()}</td>
+						<td>${empleado.email()}</td>
 					</tr>
 					</c:forEach>
 				</tbody>
@@ -11,6 +11,37 @@
 		<div class="container-fluid">
 			<jsp:include page="nav.jsp"/>
 			<h3 style="margin-top: 15px;">Listado Pedidos</h3>
+			<form class="row g-2 align-items-end" method="get" action="./lista-pedidos" style="margin-bottom: 15px;">
+				<div class="col-auto">
+					<label class="form-label" for="estado">Estado</label>
+					<select class="form-select" id="estado" name="estado">
+						<option value="">Todos</option>
+						<c:forEach var="estado" items="${estados}">
+						<option value="${estado}" ${estado.name() == filtro.estado ? 'selected' : ''}>${estado}</option>
+						</c:forEach>
+					</select>
+				</div>
+				<div class="col-auto">
+					<label class="form-label" for="establecimiento">Establecimiento</label>
+					<select class="form-select" id="establecimiento" name="establecimiento">
+						<option value="">Todos</option>
+						<c:forEach var="establecimiento" items="${establecimientos}">
+						<option value="${establecimiento.NIF}" ${establecimiento.NIF == filtro.establecimiento ? 'selected' : ''}>${establecimiento.nombre}</option>
+						</c:forEach>
+					</select>
+				</div>
+				<div class="col-auto">
+					<label class="form-label" for="desde">Desde</label>
+					<input class="form-control" type="date" id="desde" name="desde" value="${filtro.desde}">
+				</div>
+				<div class="col-auto">
+					<label class="form-label" for="hasta">Hasta</label>
+					<input class="form-control" type="date" id="hasta" name="hasta" value="${filtro.hasta}">
+				</div>
+				<div class="col-auto">
+					<button class="btn btn-primary" type="submit">Filtrar</button>
+				</div>
+			</form>
 			<table class="table">
 				<thead>
 					<tr>
@@ -24,18 +55,38 @@
 					</tr>
 				</thead>
 				<tbody>
-					<c:forEach var="pedido" items="${pedidos}">
+					<c:forEach var="pedido" items="${pagina.pedidos()}">
 					<tr>
-						<td><a href="./pedido?id=${pedido.id}">${pedido.id}</a></td>
-						<td><fmt:formatDate pattern="dd/MM/yyyy" value="${pedido.fechaHora}" /></td>
-						<td><fmt:formatDate pattern="HH:mm" value="${pedido.fechaHora}" /></td>
-						<td>${pedido.estado}</td>
-						<td>${pedido.establecimiento}</td>
-						<td>${pedido.empleado}</td>
+						<td><a href="./pedido?id=${pedido.id()}">${pedido.id()}</a></td>
+						<td><fmt:formatDate pattern="dd/MM/yyyy" value="${pedido.fechaHora()}" /></td>
+						<td><fmt:formatDate pattern="HH:mm" value="${pedido.fechaHora()}" /></td>
+						<td>${pedido.estado()}</td>
+						<td>${pedido.establecimiento()}</td>
+						<td>${pedido.empleado()}</td>
 					</tr>
 					</c:forEach>
 				</tbody>
 			</table>
+			<c:url var="urlAnterior" value="./lista-pedidos">
+				<c:param name="estado" value="${filtro.estado}"/>
+				<c:param name="establecimiento" value="${filtro.establecimiento}"/>
+				<c:param name="desde" value="${filtro.desde}"/>
+				<c:param name="hasta" value="${filtro.hasta}"/>
+				<c:param name="antesDe" value="${pagina.idAnterior()}"/>
+			</c:url>
+			<c:url var="urlSiguiente" value="./lista-pedidos">
+				<c:param name="estado" value="${filtro.estado}"/>
+				<c:param name="establecimiento" value="${filtro.establecimiento}"/>
+				<c:param name="desde" value="${filtro.desde}"/>
+				<c:param name="hasta" value="${filtro.hasta}"/>
+				<c:param name="despuesDe" value="${pagina.idSiguiente()}"/>
+			</c:url>
+			<nav>
+				<ul class="pagination">
+					<li class="page-item ${empty pagina.idAnterior() ? 'disabled' : ''}"><a class="page-link" href="${urlAnterior}">Anterior</a></li>
+					<li class="page-item ${empty pagina.idSiguiente() ? 'disabled' : ''}"><a class="page-link" href="${urlSiguiente}">Siguiente</a></li>
+				</ul>
+			</nav>
 		</div>
 	</body>
 </html>
\ No newline at end of file
@@ -1,6 +1,7 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="pc" tagdir="/WEB-INF/tags" %>
 <!DOCTYPE html>
 <html>
 	<head>
@@ -11,36 +12,38 @@
 		<div class="container-fluid">
 			<jsp:include page="nav.jsp"/>
 			<h3 style="margin-top: 15px;">Listado Productos</h3>
-			<table class="table">
-				<thead>
-					<tr>
-						<th>ID</th>
-						<th>Nombre</th>
-						<th>Familia</th>
-						<th style="text-align: right;">Precio</th>
-						<th style="text-align: center;">Fecha de Alta</th>
-						<th>Descatalogado</th>
-					</tr>
-				</thead>
-				<tbody>
-					<c:forEach var="producto" items="${productos}">
-					<tr>
-						<td>${producto.id}</td>
-						<td>${producto.nombre}</td>
-						<td>${producto.familia.nombre}</td>
-						<td style="text-align: right;">
-							<fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${producto.precio}" /> €
-						</td>
-						<td style="text-align: center;">
-							<fmt:formatDate pattern="dd/MM/yyyy" value="${producto.fechaAlta}" />
-						</td>
-						<td>
-							<c:if test="${producto.descatalogado}"><span style="color: red;">DESCATALOGADO</span></c:if>
-						</td>
-					</tr>
-					</c:forEach>
-				</tbody>
-			</table>
+			<pc:fragmento fragmento="${fragmento}">
+				<table class="table">
+					<thead>
+						<tr>
+							<th>ID</th>
+							<th>Nombre</th>
+							<th>Familia</th>
+							<th style="text-align: right;">Precio</th>
+							<th style="text-align: center;">Fecha de Alta</th>
+							<th>Descatalogado</th>
+						</tr>
+					</thead>
+					<tbody>
+						<c:forEach var="producto" items="${productos}">
+						<tr>
+							<td>${producto.id}</td>
+							<td>${producto.nombre}</td>
+							<td>${producto.familia.nombre}</td>
+							<td style="text-align: right;">
+								<fmt:formatNumber type="number" maxFractionDigits="2" minFractionDigits="2" value="${producto.precio}" /> €
+							</td>
+							<td style="text-align: center;">
+								<fmt:formatDate pattern="dd/MM/yyyy" value="${producto.fechaAlta}" />
+							</td>
+							<td>
+								<c:if test="${producto.descatalogado}"><span style="color: red;">DESCATALOGADO</span></c:if>
+							</td>
+						</tr>
+						</c:forEach>
+					</tbody>
+				</table>
+			</pc:fragmento>
 		</div>
 	</body>
 </html>
\ No newline at end of file
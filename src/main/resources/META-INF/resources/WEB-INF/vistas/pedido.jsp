@@ -34,7 +34,7 @@
 	                    <dt class="col-sm-4">Empleado</dt>
 	                    <dd class="col-sm-8">${pedido.empleado.nombre} ${pedido.empleado.apellido1} ${pedido.empleado.apellido2}</dd>
 	                
-	                	<c:if test="${not empty pedido.cliente}">
+	                	<c:if test="${not empty pedido.cliente.id}">
 						
 						<dt class="col-sm-4">Cliente</dt> 
 						<dd class="col-sm-8">${pedido.cliente.nombre} ${pedido.cliente.apellido1} ${pedido.cliente.apellido2}</dd>
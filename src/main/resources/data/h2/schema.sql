@@ -1,4 +1,4 @@
-CREATE SEQUENCE "PERSONA_SEQ"
+CREATE SEQUENCE IF NOT EXISTS "PERSONA_SEQ"
 	MINVALUE 1
 	MAXVALUE 999999999
 	INCREMENT BY 50
@@ -6,7 +6,7 @@ CREATE SEQUENCE "PERSONA_SEQ"
 	NOCACHE
 	NOCYCLE;
 
-CREATE SEQUENCE "PRODUCTO_SEQ"
+CREATE SEQUENCE IF NOT EXISTS "PRODUCTO_SEQ"
 	MINVALUE 1 
     MAXVALUE 999999999 
     INCREMENT BY 50 
@@ -14,7 +14,7 @@ CREATE SEQUENCE "PRODUCTO_SEQ"
     NOCACHE 
     NOCYCLE;
         
-CREATE SEQUENCE "PEDIDO_SEQ"
+CREATE SEQUENCE IF NOT EXISTS "PEDIDO_SEQ"
 	MINVALUE 1 
     MAXVALUE 999999999 
     INCREMENT BY 50 
@@ -22,7 +22,7 @@ CREATE SEQUENCE "PEDIDO_SEQ"
     NOCACHE 
     NOCYCLE;
     
-CREATE SEQUENCE "FAMILIA_SEQ"
+CREATE SEQUENCE IF NOT EXISTS "FAMILIA_SEQ"
 	MINVALUE 1 
     MAXVALUE 999999999 
     INCREMENT BY 50 
@@ -30,13 +30,21 @@ CREATE SEQUENCE "FAMILIA_SEQ"
     NOCACHE 
     NOCYCLE;
 
-CREATE TABLE FAMILIAS(
+CREATE SEQUENCE IF NOT EXISTS "LISTA_PRECIOS_SEQ"
+	MINVALUE 1 
+    MAXVALUE 999999999 
+    INCREMENT BY 50 
+    START WITH 5000 
+    NOCACHE 
+    NOCYCLE;
+
+CREATE TABLE IF NOT EXISTS FAMILIAS(
 	ID				BIGINT			NOT NULL,
 	NOMBRE			VARCHAR(100)	,
 	PRIMARY KEY(ID)
 );    
     
-CREATE TABLE PRODUCTOS(
+CREATE TABLE IF NOT EXISTS PRODUCTOS(
 	CODIGO							BIGINT			NOT NULL,
 	NOMBRE							VARCHAR(50)		,
 	DESCRIPCION						VARCHAR(150)	,
@@ -44,11 +52,16 @@ CREATE TABLE PRODUCTOS(
 	PRECIO							DOUBLE			,
 	ID_FAMILIA						BIGINT			,
 	DESCATALOGADO					BOOLEAN			NOT NULL,
+	FECHA_PRECIO					TIMESTAMP		,
 	PRIMARY KEY(CODIGO),
 	FOREIGN KEY (ID_FAMILIA) REFERENCES FAMILIAS (ID)
 );
 
-CREATE TABLE ESTABLECIMIENTOS(
+-- Bases de datos creadas antes de guardar la fecha del último cambio de precio en catálogo
+
+ALTER TABLE PRODUCTOS ADD COLUMN IF NOT EXISTS FECHA_PRECIO TIMESTAMP;
+
+CREATE TABLE IF NOT EXISTS ESTABLECIMIENTOS(
 	NIF								VARCHAR(20)		NOT NULL,
 	NOMBRE_COMERCIAL				VARCHAR(100)	,
 	FECHA_INAUGURACION				DATE			,
@@ -63,7 +76,7 @@ CREATE TABLE ESTABLECIMIENTOS(
 	PRIMARY KEY (NIF)
 );
 
-CREATE TABLE PERSONAS(
+CREATE TABLE IF NOT EXISTS PERSONAS(
 	CODIGO							BIGINT			NOT NULL,
 	DNI								VARCHAR(20)		UNIQUE,
 	NOMBRE							VARCHAR(100)	,
@@ -80,21 +93,21 @@ CREATE TABLE PERSONAS(
 	PRIMARY KEY(CODIGO)
 );
 
-CREATE TABLE CLIENTES(
+CREATE TABLE IF NOT EXISTS CLIENTES(
 	CODIGO							BIGINT			NOT NULL,
 	GOLD							BOOLEAN			NOT NULL,
 	PRIMARY KEY(CODIGO),
 	FOREIGN KEY(CODIGO) REFERENCES PERSONAS(CODIGO)
 );
 
-CREATE TABLE EMPLEADOS(
+CREATE TABLE IF NOT EXISTS EMPLEADOS(
 	CODIGO							BIGINT			NOT NULL,
 	LICENCIA_MANIPULADOR_ALIMENTOS	VARCHAR(10)		,
 	PRIMARY KEY(CODIGO),
 	FOREIGN KEY(CODIGO) REFERENCES PERSONAS(CODIGO)
 );
 
-CREATE TABLE PEDIDOS(
+CREATE TABLE IF NOT EXISTS PEDIDOS(
 	CODIGO							BIGINT			NOT NULL,
 	FECHA_HORA						TIMESTAMP		NOT NULL,
 	CODIGO_EMPLEADO					BIGINT			NOT NULL,
@@ -108,7 +121,7 @@ CREATE TABLE PEDIDOS(
 	FOREIGN KEY (NIF_ESTABLECIMIENTO) REFERENCES ESTABLECIMIENTOS (NIF)
 );
 
-CREATE TABLE LINEAS_PEDIDO(
+CREATE TABLE IF NOT EXISTS LINEAS_PEDIDO(
 	CODIGO_PEDIDO					BIGINT			NOT NULL,
 	ORDEN							INTEGER			NOT NULL,
 	CODIGO_PRODUCTO					BIGINT			NOT NULL,
@@ -116,4 +129,47 @@ CREATE TABLE LINEAS_PEDIDO(
 	PRECIO							DOUBLE			,
 	FOREIGN KEY (CODIGO_PEDIDO) REFERENCES PEDIDOS (CODIGO),
 	FOREIGN KEY (CODIGO_PRODUCTO) REFERENCES PRODUCTOS (CODIGO)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS PEDIDOS_ARCHIVADOS(
+	CODIGO							BIGINT			NOT NULL,
+	PARTICION						VARCHAR(7)		NOT NULL,
+	PRIMARY KEY (CODIGO)
+);
+
+CREATE TABLE IF NOT EXISTS CLIENTES_DISTINTOS(
+	NIF_ESTABLECIMIENTO				VARCHAR(20)		NOT NULL,
+	DIA								DATE			NOT NULL,
+	REGISTROS						VARBINARY(4098)		NOT NULL,
+	PRIMARY KEY (NIF_ESTABLECIMIENTO, DIA)
+);
+
+CREATE TABLE IF NOT EXISTS CLAVES_IDEMPOTENCIA(
+	CLAVE							VARCHAR(100)	NOT NULL,
+	CODIGO_PEDIDO					BIGINT			NOT NULL,
+	FECHA_HORA						TIMESTAMP		NOT NULL,
+	HUELLA							VARCHAR(64)		,
+	PRIMARY KEY (CLAVE)
+);
+
+-- Bases de datos creadas antes de guardar la huella del pedido
+
+ALTER TABLE CLAVES_IDEMPOTENCIA ADD COLUMN IF NOT EXISTS HUELLA VARCHAR(64);
+
+
+CREATE TABLE IF NOT EXISTS LISTAS_PRECIOS(
+	CODIGO							BIGINT			NOT NULL,
+	NOMBRE							VARCHAR(100)	,
+	FECHA_VIGENCIA					TIMESTAMP		NOT NULL,
+	FECHA_ALTA						TIMESTAMP		,
+	PRIMARY KEY (CODIGO)
+);
+
+CREATE TABLE IF NOT EXISTS LINEAS_LISTA_PRECIOS(
+	CODIGO_LISTA					BIGINT			NOT NULL,
+	CODIGO_PRODUCTO					BIGINT			NOT NULL,
+	PRECIO							DOUBLE			NOT NULL,
+	PRIMARY KEY (CODIGO_LISTA, CODIGO_PRODUCTO),
+	FOREIGN KEY (CODIGO_LISTA) REFERENCES LISTAS_PRECIOS (CODIGO),
+	FOREIGN KEY (CODIGO_PRODUCTO) REFERENCES PRODUCTOS (CODIGO)
+);
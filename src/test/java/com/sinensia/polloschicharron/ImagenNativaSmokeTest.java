@@ -0,0 +1,53 @@
+package com.sinensia.polloschicharron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Recorrido mínimo de la API REST con los perfiles de la imagen nativa. Se ejecuta en la JVM con
+ * el resto de tests y dentro de la imagen con mvn -PnativeTest test.
+ * 
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.datasource.url=jdbc:h2:mem:smoke")
+@ActiveProfiles({"arranque-rapido", "nativo"})
+class ImagenNativaSmokeTest {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+	
+	@Test
+	void la_api_rest_responde_con_dozer_jackson_y_jpa() {
+		
+		ResponseEntity<String> producto = restTemplate.getForEntity("/rest/productos/100", String.class);
+		
+		assertEquals(HttpStatus.OK, producto.getStatusCode());
+		assertTrue(producto.getBody().contains("Patatas Bravas"));
+		
+		ResponseEntity<String> productosDTO3 = restTemplate.getForEntity("/rest/productos/dtos/productoDTO3", String.class);
+		
+		assertEquals(HttpStatus.OK, productosDTO3.getStatusCode());
+		assertTrue(productosDTO3.getBody().startsWith("["));
+		
+		ResponseEntity<String> pedidosDTO1 = restTemplate.getForEntity("/rest/pedidos/dtos/pedidoDTO1", String.class);
+		
+		assertEquals(HttpStatus.OK, pedidosDTO1.getStatusCode());
+		assertTrue(pedidosDTO1.getBody().startsWith("["));
+		
+		assertEquals(HttpStatus.OK, restTemplate.getForEntity("/rest/pedidos/1000", String.class).getStatusCode());
+	}
+	
+	@Test
+	void las_vistas_jsp_no_se_registran() {
+		assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/app/home", String.class).getStatusCode());
+	}
+	
+}
@@ -0,0 +1,141 @@
+package com.sinensia.polloschicharron.benchmarks;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sinensia.polloschicharron.PolloschicharronApplication;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.FiltroPedidos;
+import com.sinensia.polloschicharron.business.model.dtos.PaginaPedidosDTO1;
+import com.sinensia.polloschicharron.business.services.ArchivoPedidosServices;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+
+/**
+ * Latencia de las consultas sobre las tablas activas con todo el histórico en PEDIDOS y después de
+ * pasar al archivo mensual los pedidos cerrados de más de 30 días.
+ *
+ * Se insertan 'pedidosHistoricos' pedidos SERVIDO repartidos en los últimos dos años (con dos líneas cada uno)
+ * y 'pedidosAbiertos' pedidos NUEVO de hoy.
+ *
+ *  mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.sinensia.polloschicharron.benchmarks.ArchivoPedidosBenchmark
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchivoPedidosBenchmark {
+
+	private static final long[] EMPLEADOS = {11L, 13L, 14L, 15L};
+	private static final String[] ESTABLECIMIENTOS = {"B38983321", "B00177845"};
+	
+	@Param({"false", "true"})
+	private boolean archivado;
+	
+	@Param({"100000"})
+	private int pedidosHistoricos;
+	
+	@Param({"500"})
+	private int pedidosAbiertos;
+	
+	private ConfigurableApplicationContext context;
+	private PedidoServices pedidoServices;
+	
+	private final FiltroPedidos filtroNuevos = new FiltroPedidos(EstadoPedido.NUEVO, null, null, null);
+	private final FiltroPedidos filtroEstablecimiento = new FiltroPedidos(null, ESTABLECIMIENTOS[0], null, null);
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		
+		context = new SpringApplicationBuilder(PolloschicharronApplication.class)
+				.web(WebApplicationType.NONE)
+				.logStartupInfo(false)
+				.run("--logging.level.root=WARN", "--spring.jpa.show-sql=false");
+		
+		pedidoServices = context.getBean(PedidoServices.class);
+		
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		
+		long ahora = System.currentTimeMillis();
+		long dosAnos = 730L * 86_400_000L;
+		int total = pedidosHistoricos + pedidosAbiertos;
+		
+		List<Object[]> pedidos = new ArrayList<>();
+		List<Object[]> lineas = new ArrayList<>();
+		
+		for(int i = 0; i < total; i++) {
+			
+			long id = 10_000_000L + i;
+			boolean abierto = i >= pedidosHistoricos;
+			long fecha = abierto ? ahora : ahora - dosAnos + dosAnos * i / total;
+			
+			pedidos.add(new Object[] {id, new Timestamp(fecha), EMPLEADOS[i % EMPLEADOS.length], ESTABLECIMIENTOS[i % 2], 
+									  abierto ? EstadoPedido.NUEVO.name() : EstadoPedido.SERVIDO.name()});
+			
+			lineas.add(new Object[] {id, 0, 100L, 2, 6.0});
+			lineas.add(new Object[] {id, 1, 101L, 1, 9.0});
+		}
+		
+		jdbcTemplate.batchUpdate("INSERT INTO PEDIDOS (CODIGO, FECHA_HORA, CODIGO_EMPLEADO, NIF_ESTABLECIMIENTO, ESTADO) VALUES (?, ?, ?, ?, ?)", pedidos);
+		jdbcTemplate.batchUpdate("INSERT INTO LINEAS_PEDIDO (CODIGO_PEDIDO, ORDEN, CODIGO_PRODUCTO, CANTIDAD, PRECIO) VALUES (?, ?, ?, ?, ?)", lineas);
+		
+		if(archivado) {
+			System.out.printf("%n%s%n", context.getBean(ArchivoPedidosServices.class).archivar(30));
+		}
+		
+		System.out.printf("%nPedidos en PEDIDOS: %d%n", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Long.class));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public PaginaPedidosDTO1 paginaNuevos() {
+		return pedidoServices.getPaginaPedidosDTO1(filtroNuevos, null, null, 25);
+	}
+	
+	@Benchmark
+	public PaginaPedidosDTO1 ultimaPaginaEstablecimiento() {
+		return pedidoServices.getPaginaPedidosDTO1(filtroEstablecimiento, null, Long.MAX_VALUE, 25);
+	}
+	
+	@Benchmark
+	public void recorrerPedidosDTO1(Blackhole blackhole) {
+		pedidoServices.forEachPedidoDTO1(blackhole::consume);
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ArchivoPedidosBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+	
+}
@@ -0,0 +1,110 @@
+package com.sinensia.polloschicharron.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.sinensia.polloschicharron.business.model.DatosContacto;
+import com.sinensia.polloschicharron.business.model.Direccion;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.Familia;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+
+/**
+ * Grafos de Producto y Pedido parecidos a los que devuelven /rest/productos y /rest/pedidos
+ * 
+ */
+public class Muestras {
+
+	private Muestras() {
+		
+	}
+	
+	public static List<Producto> productos(int numero) {
+		
+		List<Producto> productos = new ArrayList<>(numero);
+		
+		for(int i = 0; i < numero; i++) {
+			
+			Familia familia = new Familia();
+			familia.setId((long) (i % 10));
+			familia.setNombre("FAMILIA " + (i % 10));
+			
+			Producto producto = new Producto();
+			producto.setId(100L + i);
+			producto.setNombre("Producto " + i);
+			producto.setDescripcion("Descripción del producto número " + i);
+			producto.setFechaAlta(new Date(1500000000000L + i * 86400000L));
+			producto.setPrecio(1.5 + (i % 40) * 0.25);
+			producto.setFamilia(familia);
+			
+			productos.add(producto);
+		}
+		
+		return productos;
+	}
+	
+	public static List<Pedido> pedidos(int numero, int lineasPorPedido) {
+		
+		List<Producto> productos = productos(50);
+		List<Pedido> pedidos = new ArrayList<>(numero);
+		
+		for(int i = 0; i < numero; i++) {
+			
+			Direccion direccion = new Direccion();
+			direccion.setDireccion("C/ Mayor " + i);
+			direccion.setPoblacion("Barcelona");
+			direccion.setCodigoPostal("08001");
+			direccion.setProvincia("Barcelona");
+			direccion.setPais("España");
+			
+			DatosContacto datosContacto = new DatosContacto();
+			datosContacto.setTelefono("93" + (1000000 + i));
+			datosContacto.setEmail("contacto" + i + "@polloschicharron.com");
+			
+			Establecimiento establecimiento = new Establecimiento();
+			establecimiento.setNIF("B" + (10000000 + i % 5));
+			establecimiento.setNombre("Pollos Chicharrón " + (i % 5));
+			establecimiento.setDireccion(direccion);
+			establecimiento.setDatosContacto(datosContacto);
+			
+			Empleado empleado = new Empleado();
+			empleado.setId(10L + i % 8);
+			empleado.setDNI("4000000" + (i % 8) + "X");
+			empleado.setNombre("Empleado");
+			empleado.setApellido1("Apellido " + (i % 8));
+			empleado.setDireccion(direccion);
+			empleado.setDatosContacto(datosContacto);
+			empleado.setLicenciaManipuladorAlimentos("LMA-" + (i % 8));
+			
+			List<LineaPedido> lineas = new ArrayList<>(lineasPorPedido);
+			
+			for(int j = 0; j < lineasPorPedido; j++) {
+				Producto producto = productos.get((i + j) % productos.size());
+				LineaPedido linea = new LineaPedido();
+				linea.setProducto(producto);
+				linea.setPrecio(producto.getPrecio());
+				linea.setCantidad(1 + j % 3);
+				lineas.add(linea);
+			}
+			
+			Pedido pedido = new Pedido();
+			pedido.setId(1000L + i);
+			pedido.setFechaHora(new Date(1700000000000L + i * 60000L));
+			pedido.setEmpleado(empleado);
+			pedido.setEstablecimiento(establecimiento);
+			pedido.setEstado(EstadoPedido.values()[i % EstadoPedido.values().length]);
+			pedido.setObservaciones(i % 3 == 0 ? "Sin cebolla" : null);
+			pedido.setLineas(lineas);
+			
+			pedidos.add(pedido);
+		}
+		
+		return pedidos;
+	}
+	
+}
@@ -0,0 +1,174 @@
+package com.sinensia.polloschicharron.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import com.sinensia.polloschicharron.PolloschicharronApplication;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.FiltroPedidos;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.model.dtos.PaginaPedidosDTO1;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+
+/**
+ * Rendimiento de escritura y lectura de pedidos con H2 en memoria y con el perfil fichero (MVStore en disco).
+ *
+ *  crearPedido          un pedido con dos líneas por transacción (PedidoServices.create)
+ *  paginaPedidos        primera página del listado sin filtros
+ *  paginaEstablecimiento primera página filtrada por establecimiento
+ *
+ * Las consultas se hacen sobre los pedidos de data.sql más 'pedidosAdicionales' insertados al arrancar.
+ *
+ *  mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.sinensia.polloschicharron.benchmarks.PedidosH2FicheroBenchmark
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PedidosH2FicheroBenchmark {
+
+	private static final String NIF_ESTABLECIMIENTO = "B38983321";
+	private static final long[] EMPLEADOS = {11L, 13L, 14L, 15L};
+	
+	@Param({"memoria", "fichero"})
+	private String almacenamiento;
+	
+	@Param({"20000"})
+	private int pedidosAdicionales;
+	
+	private Path directorio;
+	private ConfigurableApplicationContext context;
+	private PedidoServices pedidoServices;
+	
+	private final FiltroPedidos filtroEstablecimiento = new FiltroPedidos(null, NIF_ESTABLECIMIENTO, null, null);
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		
+		directorio = Files.createTempDirectory("polloschicharron-h2");
+		
+		context = new SpringApplicationBuilder(PolloschicharronApplication.class)
+				.web(WebApplicationType.NONE)
+				.logStartupInfo(false)
+				.profiles(almacenamiento.equals("fichero") ? new String[] {"fichero"} : new String[0])
+				.run("--logging.level.root=WARN", 
+					 "--spring.jpa.show-sql=false",
+					 "--polloschicharron.h2.directorio=" + directorio.resolve("h2"),
+					 "--polloschicharron.journal.directorio=" + directorio.resolve("journal"));
+		
+		pedidoServices = context.getBean(PedidoServices.class);
+		
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		
+		List<Object[]> filas = new ArrayList<>();
+		
+		for(int i = 0; i < pedidosAdicionales; i++) {
+			String nif = i % 2 == 0 ? NIF_ESTABLECIMIENTO : "B00177845";
+			filas.add(new Object[] {10_000_000L + i, new Timestamp(1700000000000L + i * 60000L), EMPLEADOS[i % EMPLEADOS.length], nif, EstadoPedido.SERVIDO.name()});
+		}
+		
+		jdbcTemplate.batchUpdate("INSERT INTO PEDIDOS (CODIGO, FECHA_HORA, CODIGO_EMPLEADO, NIF_ESTABLECIMIENTO, ESTADO) VALUES (?, ?, ?, ?, ?)", filas);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		context.close();
+		FileSystemUtils.deleteRecursively(directorio);
+	}
+	
+	@Benchmark
+	public PedidoCreadoDTO crearPedido() {
+		return pedidoServices.create(nuevoPedido());
+	}
+	
+	@Benchmark
+	public PaginaPedidosDTO1 paginaPedidos() {
+		return pedidoServices.getPaginaPedidosDTO1(FiltroPedidos.TODOS, null, null, 25);
+	}
+	
+	@Benchmark
+	public PaginaPedidosDTO1 paginaEstablecimiento() {
+		return pedidoServices.getPaginaPedidosDTO1(filtroEstablecimiento, null, null, 25);
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PedidosH2FicheroBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Pedido nuevoPedido() {
+		
+		Empleado empleado = new Empleado();
+		empleado.setId(11L);
+		
+		Establecimiento establecimiento = new Establecimiento();
+		establecimiento.setNIF(NIF_ESTABLECIMIENTO);
+		
+		List<LineaPedido> lineas = new ArrayList<>();
+		
+		for(long codigo = 100; codigo < 102; codigo++) {
+			
+			Producto producto = new Producto();
+			producto.setId(codigo);
+			
+			LineaPedido linea = new LineaPedido();
+			linea.setProducto(producto);
+			linea.setCantidad(2);
+			linea.setPrecio(6.0);
+			lineas.add(linea);
+		}
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(new Date());
+		pedido.setEstado(EstadoPedido.NUEVO);
+		pedido.setEmpleado(empleado);
+		pedido.setEstablecimiento(establecimiento);
+		pedido.setLineas(lineas);
+		
+		return pedido;
+	}
+	
+}
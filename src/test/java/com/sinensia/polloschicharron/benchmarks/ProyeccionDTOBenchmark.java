@@ -0,0 +1,135 @@
+package com.sinensia.polloschicharron.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sinensia.polloschicharron.PolloschicharronApplication;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO1;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compara la lectura de ProductoDTO1 como Object[] convertido a mano, como proyección por constructor
+ * materializada en una lista y como proyección por constructor recorrida con un Stream.
+ *
+ * Lo interesante es gc.alloc.rate.norm (bytes por operación); dividido entre el número de filas que
+ * se imprime al arrancar da los bytes asignados por fila.
+ *
+ *  mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.sinensia.polloschicharron.benchmarks.ProyeccionDTOBenchmark
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProyeccionDTOBenchmark {
+
+	private static final String SELECT_OBJECT_ARRAY = "SELECT UPPER(p.nombre), p.familia.nombre, p.precio FROM ProductoPL p";
+
+	@Param({"10000"})
+	private int productosAdicionales;
+
+	private ConfigurableApplicationContext context;
+	private ProductoPLRepository productoPLRepository;
+	private EntityManager entityManager;
+	private TransactionTemplate transactionTemplate;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		context = new SpringApplicationBuilder(PolloschicharronApplication.class)
+				.web(WebApplicationType.NONE)
+				.logStartupInfo(false)
+				.run("--logging.level.root=WARN", "--spring.jpa.show-sql=false");
+
+		productoPLRepository = context.getBean(ProductoPLRepository.class);
+		entityManager = context.getBean(EntityManager.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+		List<Object[]> filas = new ArrayList<>();
+
+		for(int i = 0; i < productosAdicionales; i++) {
+			filas.add(new Object[] {1_000_000L + i, "Producto " + i, 1.0 + i % 20, 1 + i % 12});
+		}
+
+		jdbcTemplate.batchUpdate("INSERT INTO PRODUCTOS (CODIGO, NOMBRE, PRECIO, ID_FAMILIA, DESCATALOGADO) VALUES (?, ?, ?, ?, FALSE)", filas);
+
+		System.out.printf("%nFilas por operación: %d%n", productoPLRepository.count());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<ProductoDTO1> objectArray() {
+
+		return transactionTemplate.execute(status -> {
+
+			List<Object[]> resultados = entityManager.createQuery(SELECT_OBJECT_ARRAY, Object[].class).getResultList();
+
+			List<ProductoDTO1> productos = new ArrayList<>();
+
+			for(Object[] fila: resultados) {
+				productos.add(new ProductoDTO1((String) fila[0], (Double) fila[2], (String) fila[1]));
+			}
+
+			return productos;
+		});
+	}
+
+	@Benchmark
+	public List<ProductoDTO1> proyeccionConstructor() {
+		return transactionTemplate.execute(status -> productoPLRepository.findDTO1());
+	}
+
+	@Benchmark
+	public void proyeccionStream(Blackhole blackhole) {
+
+		transactionTemplate.executeWithoutResult(status -> {
+			try(Stream<ProductoDTO1> productos = productoPLRepository.streamDTO1()) {
+				productos.forEach(blackhole::consume);
+			}
+		});
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ProyeccionDTOBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+}
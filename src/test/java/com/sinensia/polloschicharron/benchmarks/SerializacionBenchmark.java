@@ -0,0 +1,98 @@
+package com.sinensia.polloschicharron.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Coste de CPU de serializar las respuestas de /rest/productos y /rest/pedidos en JSON, CBOR y Smile.
+ * Al preparar cada combinación se imprime el tamaño del payload, sin comprimir y con gzip.
+ * 
+ *  mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.sinensia.polloschicharron.benchmarks.SerializacionBenchmark
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+	@Param({"json", "cbor", "smile"})
+	private String formato;
+	
+	@Param({"productos", "pedidos"})
+	private String recurso;
+	
+	private ObjectMapper objectMapper;
+	private List<?> datos;
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		
+		objectMapper = crearObjectMapper(formato);
+		datos = recurso.equals("productos") ? Muestras.productos(500) : Muestras.pedidos(200, 5);
+		
+		byte[] payload = objectMapper.writeValueAsBytes(datos);
+		
+		System.out.printf("%n%s/%s: %d bytes, %d bytes con gzip%n", recurso, formato, payload.length, gzip(payload).length);
+	}
+	
+	@Benchmark
+	public byte[] serializar() throws IOException {
+		return objectMapper.writeValueAsBytes(datos);
+	}
+	
+	public static ObjectMapper crearObjectMapper(String formato) {
+		
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		
+		switch(formato) {
+			case "cbor" -> builder.factory(new CBORFactory());
+			case "smile" -> builder.factory(new SmileFactory());
+			default -> { }
+		}
+		
+		return builder.build();
+	}
+	
+	public static byte[] gzip(byte[] datos) throws IOException {
+		
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		
+		try(GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+			gzip.write(datos);
+		}
+		
+		return salida.toByteArray();
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SerializacionBenchmark.class.getSimpleName()).build()).run();
+	}
+	
+}
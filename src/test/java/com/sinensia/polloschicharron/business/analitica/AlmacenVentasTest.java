@@ -0,0 +1,185 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.business.events.EstadoPedidoCambiadoEvent;
+import com.sinensia.polloschicharron.business.events.LineasPedidoCambiadasEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCerradoEvent;
+import com.sinensia.polloschicharron.business.model.ConsultaVentas;
+import com.sinensia.polloschicharron.business.model.DimensionVentas;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.dtos.VentaAgregadaDTO;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.VentasPLRepository;
+
+@DataJpaTest
+@Import({AlmacenVentas.class, VentasPLRepository.class, ArchivoPedidosPLRepository.class})
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class AlmacenVentasTest {
+
+	private static final String SELECT_POR_FAMILIA = """
+			SELECT f.NOMBRE, SUM(l.CANTIDAD * l.PRECIO) 
+			  FROM LINEAS_PEDIDO l JOIN PEDIDOS p ON p.CODIGO = l.CODIGO_PEDIDO 
+			  JOIN PRODUCTOS pr ON pr.CODIGO = l.CODIGO_PRODUCTO JOIN FAMILIAS f ON f.ID = pr.ID_FAMILIA
+			 WHERE p.ESTADO = 'SERVIDO' 
+			 GROUP BY f.NOMBRE""";
+	
+	@Autowired
+	private AlmacenVentas almacenVentas;
+	
+	@Autowired
+	private ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@BeforeEach
+	void init() {
+		
+		// El contexto (y el almacén) se reutiliza entre tests, pero @Sql recarga los datos en cada uno
+		
+		almacenVentas.onCatalogoModificado(new CatalogoModificadoEvent("test"));
+	}
+	
+	@Test
+	void agregamos_como_la_consulta_sql() {
+		
+		Map<String, Double> esperado = new HashMap<>();
+		jdbcTemplate.query(SELECT_POR_FAMILIA, rs -> { esperado.put(rs.getString(1), rs.getDouble(2)); });
+		
+		List<VentaAgregadaDTO> porFamilia = almacenVentas.agregar(new ConsultaVentas(DimensionVentas.FAMILIA, null, null, null, null));
+		
+		assertEquals(esperado.size(), porFamilia.size());
+		porFamilia.forEach(x -> assertEquals(esperado.get(x.grupo()), x.importe(), 0.001, x.grupo()));
+		
+		for(int i = 1; i < porFamilia.size(); i++) {
+			assertTrue(porFamilia.get(i - 1).importe() >= porFamilia.get(i).importe());
+		}
+		
+		Integer lineas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LINEAS_PEDIDO l JOIN PEDIDOS p ON p.CODIGO = l.CODIGO_PEDIDO WHERE p.ESTADO = 'SERVIDO'", Integer.class);
+		
+		assertEquals(lineas, almacenVentas.size());
+	}
+	
+	@Test
+	void filtramos_y_agrupamos_por_hora_y_dia() {
+		
+		Double esperado = jdbcTemplate.queryForObject("""
+				SELECT SUM(l.CANTIDAD * l.PRECIO) FROM LINEAS_PEDIDO l JOIN PEDIDOS p ON p.CODIGO = l.CODIGO_PEDIDO 
+				 WHERE p.ESTADO = 'SERVIDO' AND p.NIF_ESTABLECIMIENTO = 'B38983321' AND HOUR(p.FECHA_HORA) = 9""", Double.class);
+		
+		List<VentaAgregadaDTO> porHora = almacenVentas.agregar(new ConsultaVentas(DimensionVentas.HORA, LocalDate.of(2023, 4, 17), LocalDate.of(2023, 4, 18), "B38983321", null));
+		
+		assertEquals("09", porHora.get(0).grupo());
+		assertEquals(esperado, porHora.get(0).importe(), 0.001);
+		
+		List<VentaAgregadaDTO> porDia = almacenVentas.agregar(new ConsultaVentas(DimensionVentas.DIA, null, null, null, null));
+		
+		assertEquals(1, porDia.size());
+		assertEquals("2023-04-17", porDia.get(0).grupo());
+		
+		assertTrue(almacenVentas.agregar(new ConsultaVentas(DimensionVentas.HORA, LocalDate.of(2023, 5, 1), null, null, null)).isEmpty());
+		assertTrue(almacenVentas.agregar(new ConsultaVentas(DimensionVentas.HORA, null, null, "X0000000", null)).isEmpty());
+	}
+	
+	@Test
+	void anadimos_los_pedidos_cerrados_una_sola_vez() {
+		
+		almacenVentas.agregar(new ConsultaVentas(DimensionVentas.DIA, null, null, null, null));
+		
+		int lineas = almacenVentas.size();
+		
+		jdbcTemplate.update("UPDATE PEDIDOS SET ESTADO = 'SERVIDO' WHERE CODIGO = 1010");
+		
+		almacenVentas.onPedidoCerrado(new PedidoCerradoEvent(1010L));
+		almacenVentas.onPedidoCerrado(new PedidoCerradoEvent(1010L));
+		almacenVentas.onPedidoCerrado(new PedidoCerradoEvent(1000L));
+		
+		assertEquals(lineas + 3, almacenVentas.size());
+	}
+	
+	@Test
+	void un_pedido_servido_que_se_cancela_o_cambia_de_lineas_deja_de_contar_como_antes() {
+		
+		almacenVentas.agregar(new ConsultaVentas(DimensionVentas.DIA, null, null, null, null));
+		
+		Long idPedido = jdbcTemplate.queryForObject("SELECT MIN(CODIGO) FROM PEDIDOS WHERE ESTADO = 'SERVIDO'", Long.class);
+		
+		// Cambio de líneas: todas las del pedido pasan a cantidad 0
+		
+		jdbcTemplate.update("UPDATE LINEAS_PEDIDO SET CANTIDAD = 0 WHERE CODIGO_PEDIDO = ?", idPedido);
+		
+		almacenVentas.onLineasPedidoCambiadas(new LineasPedidoCambiadasEvent(idPedido, "B38983321", Map.of()));
+		
+		assertEquals(0, almacenVentas.size());
+		comprobarPorFamilia();
+		
+		// Cancelación después de servirlo
+		
+		jdbcTemplate.update("UPDATE PEDIDOS SET ESTADO = 'CANCELADO' WHERE CODIGO = ?", idPedido);
+		
+		almacenVentas.onEstadoPedidoCambiado(new EstadoPedidoCambiadoEvent(idPedido, EstadoPedido.SERVIDO, EstadoPedido.CANCELADO));
+		
+		assertEquals(0, almacenVentas.size());
+		comprobarPorFamilia();
+		
+		// Un pedido que no estaba cargado no obliga a recargar
+		
+		almacenVentas.onEstadoPedidoCambiado(new EstadoPedidoCambiadoEvent(1010L, EstadoPedido.SERVIDO, EstadoPedido.CANCELADO));
+		
+		assertTrue(almacenVentas.size() > 0);
+	}
+	
+	@Test
+	void los_pedidos_archivados_siguen_en_los_informes() {
+		
+		List<VentaAgregadaDTO> antes = almacenVentas.agregar(new ConsultaVentas(DimensionVentas.PRODUCTO, null, null, null, null));
+		
+		archivoPedidosPLRepository.crearParticion("2023_04");
+		archivoPedidosPLRepository.archivarLote("2023_04", toDate(LocalDate.of(2023, 4, 1)), toDate(LocalDate.of(2023, 5, 1)), 1000);
+		
+		almacenVentas.onCatalogoModificado(new CatalogoModificadoEvent("test"));
+		
+		assertEquals(0, almacenVentas.size());
+		assertEquals(Set.copyOf(antes), Set.copyOf(almacenVentas.agregar(new ConsultaVentas(DimensionVentas.PRODUCTO, null, null, null, null))));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void comprobarPorFamilia() {
+		
+		Map<String, Double> esperado = new HashMap<>();
+		jdbcTemplate.query(SELECT_POR_FAMILIA, rs -> { esperado.put(rs.getString(1), rs.getDouble(2)); });
+		
+		List<VentaAgregadaDTO> porFamilia = almacenVentas.agregar(new ConsultaVentas(DimensionVentas.FAMILIA, null, null, null, null));
+		
+		porFamilia.forEach(x -> assertEquals(esperado.getOrDefault(x.grupo(), 0.0), x.importe(), 0.001, x.grupo()));
+	}
+	
+	private Date toDate(LocalDate fecha) {
+		return Date.from(fecha.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+	
+}
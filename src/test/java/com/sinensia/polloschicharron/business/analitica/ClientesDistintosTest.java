@@ -0,0 +1,230 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCreadoEvent;
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ClientesDistintosPLRepository;
+
+@DataJpaTest
+@Import({ClientesDistintosPLRepository.class, ArchivoPedidosPLRepository.class})
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class ClientesDistintosTest {
+
+	private static final LocalDate DIA = LocalDate.of(2023, 4, 17);
+	
+	@Autowired
+	private ClientesDistintosPLRepository clientesDistintosPLRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void construimos_guardamos_y_recuperamos_los_estimadores() {
+		
+		insertarPedidos();
+		
+		ClientesDistintos clientesDistintos = new ClientesDistintos(clientesDistintosPLRepository);
+		
+		assertAproximado(exactos("B38983321", DIA, DIA.plusDays(1)), clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1)));
+		assertAproximado(exactos(null, DIA, DIA.plusDays(7)), clientesDistintos.estimar(null, DIA, DIA.plusDays(7)));
+		assertEquals(14, clientesDistintosPLRepository.count());
+		
+		// Un pedido nuevo con un cliente nuevo
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(Timestamp.valueOf(DIA.atTime(20, 0)));
+		pedido.setEstablecimiento(new Establecimiento());
+		pedido.getEstablecimiento().setNIF("B38983321");
+		pedido.setCliente(new Cliente());
+		pedido.getCliente().setId(9999L);
+		
+		long antes = clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1));
+		
+		clientesDistintos.onPedidoCreado(new PedidoCreadoEvent(pedido));
+		clientesDistintos.guardar();
+		
+		// Otra instancia los lee de CLIENTES_DISTINTOS en lugar de recorrer los pedidos
+		
+		jdbcTemplate.update("UPDATE PEDIDOS SET CODIGO_CLIENTE = NULL");
+		
+		ClientesDistintos recuperados = new ClientesDistintos(clientesDistintosPLRepository);
+		
+		assertEquals(antes + 1, recuperados.estimar("B38983321", DIA, DIA.plusDays(1)));
+		assertEquals(clientesDistintos.estimar(null, DIA, DIA.plusDays(7)), recuperados.estimar(null, DIA, DIA.plusDays(7)));
+	}
+	
+	@Test
+	void recalculamos_por_tramos_despues_de_corregir_los_pedidos() {
+		
+		insertarPedidos();
+		
+		ClientesDistintos clientesDistintos = new ClientesDistintos(clientesDistintosPLRepository);
+		
+		long antes = clientesDistintos.estimar("B00177845", DIA.plusDays(3), DIA.plusDays(7));
+		
+		// Corrección: los pedidos de los tres primeros días en B00177845 no eran de ningún cliente
+		
+		jdbcTemplate.update("UPDATE PEDIDOS SET CODIGO_CLIENTE = NULL WHERE NIF_ESTABLECIMIENTO = 'B00177845' AND FECHA_HORA < ?", DIA.plusDays(3));
+		
+		Recalculo<?> recalculo = clientesDistintos.recalculo(DIA, DIA.plusDays(3));
+		
+		assertThrows(IllegalStateException.class, () -> clientesDistintos.recalculo(null, null));
+		
+		// Un pedido creado durante el recálculo no se pierde al reemplazar los estimadores
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(Timestamp.valueOf(DIA.atTime(20, 0)));
+		pedido.setEstablecimiento(new Establecimiento());
+		pedido.getEstablecimiento().setNIF("B00177845");
+		pedido.setCliente(new Cliente());
+		pedido.getCliente().setId(9999L);
+		
+		clientesDistintos.onPedidoCreado(new PedidoCreadoEvent(pedido));
+		
+		ejecutar(recalculo, 5150);
+		
+		assertEquals(1, clientesDistintos.estimar("B00177845", DIA, DIA.plusDays(3)));
+		assertEquals(antes, clientesDistintos.estimar("B00177845", DIA.plusDays(3), DIA.plusDays(7)));
+		assertAproximado(exactos("B38983321", DIA, DIA.plusDays(3)), clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(3)));
+		
+		// Los días sin clientes se han borrado de CLIENTES_DISTINTOS
+		
+		assertEquals(12, clientesDistintosPLRepository.count());
+		assertEquals(1, new ClientesDistintos(clientesDistintosPLRepository).estimar("B00177845", DIA, DIA.plusDays(3)));
+		
+		clientesDistintos.recalculo(null, null).descartar();
+	}
+	
+	@Test
+	void un_pedido_creado_antes_de_cargar_se_suma_a_los_estimadores_guardados() {
+		
+		insertarPedidos();
+		
+		long antes = new ClientesDistintos(clientesDistintosPLRepository).estimar("B38983321", DIA, DIA.plusDays(1));
+		
+		ClientesDistintos clientesDistintos = new ClientesDistintos(clientesDistintosPLRepository);
+		
+		clientesDistintos.onPedidoCreado(new PedidoCreadoEvent(nuevoPedido("B38983321", 9999L)));
+		
+		// Sin cargar no se guarda: reemplazaría el estimador guardado por uno con un solo cliente
+		
+		clientesDistintos.guardar();
+		
+		assertEquals(antes, new ClientesDistintos(clientesDistintosPLRepository).estimar("B38983321", DIA, DIA.plusDays(1)));
+		
+		clientesDistintos.onApplicationReady();
+		clientesDistintos.guardar();
+		
+		assertEquals(antes + 1, clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1)));
+		assertEquals(antes + 1, new ClientesDistintos(clientesDistintosPLRepository).estimar("B38983321", DIA, DIA.plusDays(1)));
+	}
+	
+	@Test
+	void al_restaurar_una_copia_descartamos_los_estimadores_en_memoria() {
+		
+		insertarPedidos();
+		
+		ClientesDistintos clientesDistintos = new ClientesDistintos(clientesDistintosPLRepository);
+		
+		long antes = clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1));
+		
+		Recalculo<?> recalculo = clientesDistintos.recalculo(DIA, DIA.plusDays(7));
+		
+		// Un cliente nuevo sin guardar todavía cuando se restaura la copia (CLIENTES_DISTINTOS no lo tiene)
+		
+		clientesDistintos.onPedidoCreado(new PedidoCreadoEvent(nuevoPedido("B38983321", 9999L)));
+		
+		assertEquals(antes + 1, clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1)));
+		
+		clientesDistintos.onBaseDatosRestaurada(new BaseDatosRestauradaEvent("copia"));
+		clientesDistintos.guardar();
+		
+		assertEquals(antes, clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1)));
+		assertEquals(antes, new ClientesDistintos(clientesDistintosPLRepository).estimar("B38983321", DIA, DIA.plusDays(1)));
+		
+		// El recálculo empezado antes de restaurar ya no se aplica
+		
+		jdbcTemplate.update("UPDATE PEDIDOS SET CODIGO_CLIENTE = NULL");
+		
+		ejecutar(recalculo, 5150);
+		
+		assertEquals(antes, clientesDistintos.estimar("B38983321", DIA, DIA.plusDays(1)));
+		
+		clientesDistintos.recalculo(null, null).descartar();
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void insertarPedidos() {
+		
+		for(long cliente = 20000; cliente < 20120; cliente++) {
+			jdbcTemplate.update("INSERT INTO PERSONAS (CODIGO) VALUES (?)", cliente);
+			jdbcTemplate.update("INSERT INTO CLIENTES (CODIGO, GOLD) VALUES (?, FALSE)", cliente);
+		}
+		
+		for(long i = 0; i < 300; i++) {
+			jdbcTemplate.update("INSERT INTO PEDIDOS (CODIGO, FECHA_HORA, CODIGO_EMPLEADO, ESTADO, CODIGO_CLIENTE, NIF_ESTABLECIMIENTO) VALUES (?, ?, 11, 'SERVIDO', ?, ?)", 
+								5000 + i, Timestamp.valueOf(DIA.plusDays(i % 7).atTime(12, 0)), 20000 + i % 120, i % 2 == 0 ? "B38983321" : "B00177845");
+		}
+	}
+	
+	private Pedido nuevoPedido(String nifEstablecimiento, long idCliente) {
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(Timestamp.valueOf(DIA.atTime(20, 0)));
+		pedido.setEstablecimiento(new Establecimiento());
+		pedido.getEstablecimiento().setNIF(nifEstablecimiento);
+		pedido.setCliente(new Cliente());
+		pedido.getCliente().setId(idCliente);
+		
+		return pedido;
+	}
+	
+	/**
+	 * Dos tramos, [0, corte) y [corte, 9999], calculados por separado y combinados
+	 * 
+	 */
+	private <R> void ejecutar(Recalculo<R> recalculo, long corte) {
+		R tramo1 = recalculo.calcular(0, corte - 1, () -> false);
+		R tramo2 = recalculo.calcular(corte, 9999, () -> false);
+		recalculo.aplicar(recalculo.combinar(tramo1, tramo2));
+	}
+	
+	private void assertAproximado(long exactos, long estimados) {
+		
+		// Dentro de 3 errores estándar
+		
+		double tolerancia = Math.ceil(3 * 1.04 / Math.sqrt(1 << ClientesDistintos.PRECISION) * exactos);
+		
+		assertTrue(Math.abs(estimados - exactos) <= tolerancia, "Estimados " + estimados + ", exactos " + exactos);
+	}
+	
+	private long exactos(String nif, LocalDate desde, LocalDate hasta) {
+		return jdbcTemplate.queryForObject("""
+				SELECT COUNT(DISTINCT CODIGO_CLIENTE) FROM PEDIDOS 
+				 WHERE (? IS NULL OR NIF_ESTABLECIMIENTO = ?) AND FECHA_HORA >= ? AND FECHA_HORA < ?""", 
+				Long.class, nif, nif, desde, hasta);
+	}
+	
+}
@@ -0,0 +1,82 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+	@Test
+	void con_pocos_elementos_la_estimacion_es_exacta() {
+		
+		HyperLogLog hll = new HyperLogLog(12);
+		
+		for(long i = 1; i <= 50; i++) {
+			hll.add(i);
+			hll.add(i);
+		}
+		
+		assertEquals(50, hll.estimar());
+	}
+	
+	@Test
+	void el_error_esta_dentro_de_tres_errores_estandar() {
+		
+		HyperLogLog hll = new HyperLogLog(12);
+		
+		for(long i = 0; i < 1_000_000; i++) {
+			hll.add(i);
+		}
+		
+		double errorRelativo = Math.abs(hll.estimar() - 1_000_000) / 1_000_000.0;
+		
+		assertTrue(errorRelativo < 3 * hll.getErrorEstandar(), "Error relativo " + errorRelativo);
+	}
+	
+	@Test
+	void la_fusion_estima_la_union() {
+		
+		HyperLogLog lunes = new HyperLogLog(12);
+		HyperLogLog martes = new HyperLogLog(12);
+		HyperLogLog semana = new HyperLogLog(12);
+		
+		for(long i = 0; i < 60_000; i++) {
+			lunes.add(i);
+			martes.add(i + 30_000);
+			semana.add(i);
+			semana.add(i + 30_000);
+		}
+		
+		lunes.merge(martes);
+		
+		assertEquals(semana.estimar(), lunes.estimar());
+		assertArrayEquals(semana.toBytes(), lunes.toBytes());
+	}
+	
+	@Test
+	void serializamos_en_disperso_y_en_denso() {
+		
+		HyperLogLog pocos = new HyperLogLog(12);
+		HyperLogLog muchos = new HyperLogLog(12);
+		
+		for(long i = 0; i < 20; i++) {
+			pocos.add(i);
+		}
+		
+		for(long i = 0; i < 100_000; i++) {
+			muchos.add(i);
+		}
+		
+		byte[] disperso = pocos.toBytes();
+		byte[] denso = muchos.toBytes();
+		
+		assertEquals(2 + 4 + 3 * 20, disperso.length);
+		assertEquals(2 + 4096, denso.length);
+		
+		assertEquals(pocos.estimar(), HyperLogLog.fromBytes(disperso).estimar());
+		assertArrayEquals(denso, HyperLogLog.fromBytes(denso).toBytes());
+	}
+	
+}
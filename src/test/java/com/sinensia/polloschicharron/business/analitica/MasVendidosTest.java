@@ -0,0 +1,256 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.events.EstadoPedidoCambiadoEvent;
+import com.sinensia.polloschicharron.business.events.LineasPedidoCambiadasEvent;
+import com.sinensia.polloschicharron.business.events.PedidoCreadoEvent;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.VentasPLRepository;
+
+@DataJpaTest(properties="polloschicharron.mas-vendidos.capacidad=8")
+@Import({MasVendidos.class, VentasPLRepository.class, ArchivoPedidosPLRepository.class})
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class MasVendidosTest {
+
+	private static final int CAPACIDAD = 8;
+	private static final String NIF = "B38983321";
+	
+	@Autowired
+	private MasVendidos masVendidos;
+	
+	@Autowired
+	private VentasPLRepository ventasPLRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	private final Random random = new Random(7);
+	
+	private List<Long> productos;
+	private long siguienteId = 5000;
+	
+	@Test
+	void comparamos_con_la_consulta_exacta() {
+		
+		productos = jdbcTemplate.queryForList("SELECT CODIGO FROM PRODUCTOS ORDER BY CODIGO", Long.class);
+		
+		for(int i = 0; i < 200; i++) {
+			insertarPedido(i % 3 == 0 ? "B00177845" : NIF);
+		}
+		
+		comprobarContraSql();
+		
+		// A partir de aquí los pedidos nuevos llegan por el evento
+		
+		for(int i = 0; i < 100; i++) {
+			masVendidos.onPedidoCreado(new PedidoCreadoEvent(insertarPedido(NIF)));
+		}
+		
+		comprobarContraSql();
+	}
+	
+	@Test
+	void la_carga_y_los_eventos_aplican_la_misma_regla_a_los_cancelados() {
+		
+		MasVendidos masVendidos = new MasVendidos(ventasPLRepository, CAPACIDAD, 7);
+		
+		Pedido servido = insertarPedido(NIF, "SERVIDO", 100L, 3);
+		Pedido cancelado = insertarPedido(NIF, "CANCELADO", 101L, 5);
+		Pedido nuevo = insertarPedido(NIF, "NUEVO", 102L, 2);
+		
+		assertEquals(Map.of(100L, 3L, 102L, 2L), getCuentas(masVendidos));
+		
+		// Evento de un pedido que ya ha sumado la carga: no se cuenta dos veces
+		
+		masVendidos.onPedidoCreado(new PedidoCreadoEvent(servido));
+		
+		// Un pedido creado ya cancelado no suma
+		
+		Pedido creadoCancelado = insertarPedido(NIF, "CANCELADO", 103L, 4);
+		creadoCancelado.setEstado(EstadoPedido.CANCELADO);
+		masVendidos.onPedidoCreado(new PedidoCreadoEvent(creadoCancelado));
+		
+		// Se cancela uno contado y se reactiva uno cancelado
+		
+		cambiarEstado(masVendidos, nuevo.getId(), EstadoPedido.NUEVO, EstadoPedido.CANCELADO);
+		cambiarEstado(masVendidos, cancelado.getId(), EstadoPedido.CANCELADO, EstadoPedido.EN_PROCESO);
+		
+		// Un cambio que no entra ni sale de CANCELADO no toca nada
+		
+		cambiarEstado(masVendidos, servido.getId(), EstadoPedido.EN_PROCESO, EstadoPedido.SERVIDO);
+		
+		Map<Long, Long> esperadas = Map.of(100L, 3L, 101L, 5L, 102L, 0L);
+		
+		assertEquals(esperadas, getCuentas(masVendidos));
+		
+		// La misma ventana cargada ahora desde la base de datos
+		
+		Map<Long, Long> recargadas = new HashMap<>(getCuentas(new MasVendidos(ventasPLRepository, CAPACIDAD, 7)));
+		recargadas.putIfAbsent(102L, 0L);
+		
+		assertEquals(esperadas, recargadas);
+	}
+	
+	@Test
+	void al_modificar_las_lineas_de_un_pedido_contado_cambiamos_sus_unidades() {
+		
+		MasVendidos masVendidos = new MasVendidos(ventasPLRepository, CAPACIDAD, 7);
+		
+		Pedido modificado = insertarPedido(NIF, "SERVIDO", 100L, 3);
+		insertarPedido(NIF, "SERVIDO", 101L, 5);
+		
+		assertEquals(Map.of(100L, 3L, 101L, 5L), getCuentas(masVendidos));
+		
+		// 3 del 100 pasan a ser 1 del 100 y 4 del 102
+		
+		jdbcTemplate.update("UPDATE LINEAS_PEDIDO SET CANTIDAD = 1 WHERE CODIGO_PEDIDO = ?", modificado.getId());
+		jdbcTemplate.update("INSERT INTO LINEAS_PEDIDO (CODIGO_PEDIDO, ORDEN, CODIGO_PRODUCTO, CANTIDAD, PRECIO) VALUES (?, 1, 102, 4, 1.0)", modificado.getId());
+		
+		masVendidos.onLineasPedidoCambiadas(new LineasPedidoCambiadasEvent(modificado.getId(), NIF, Map.of(100L, 3L)));
+		
+		Map<Long, Long> esperadas = Map.of(100L, 1L, 101L, 5L, 102L, 4L);
+		
+		assertEquals(esperadas, getCuentas(masVendidos));
+		assertEquals(esperadas, getCuentas(new MasVendidos(ventasPLRepository, CAPACIDAD, 7)));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private void comprobarContraSql() {
+		
+		Map<Long, Long> exactas = new HashMap<>();
+		
+		jdbcTemplate.query("""
+				SELECT l.CODIGO_PRODUCTO, SUM(l.CANTIDAD) FROM LINEAS_PEDIDO l JOIN PEDIDOS p ON p.CODIGO = l.CODIGO_PEDIDO
+				 WHERE p.NIF_ESTABLECIMIENTO = ? AND CAST(p.FECHA_HORA AS DATE) = CURRENT_DATE AND p.ESTADO <> 'CANCELADO'
+				 GROUP BY l.CODIGO_PRODUCTO""", 
+				rs -> { exactas.put(rs.getLong(1), rs.getLong(2)); }, NIF);
+		
+		long total = exactas.values().stream().mapToLong(Long::longValue).sum();
+		
+		List<FrecuenciaEstimada> top = masVendidos.getTop(NIF, LocalDate.now(), CAPACIDAD);
+		
+		assertEquals(CAPACIDAD, top.size());
+		
+		for(FrecuenciaEstimada frecuencia: top) {
+			long exacta = exactas.get(frecuencia.elemento());
+			assertTrue(frecuencia.cuenta() >= exacta);
+			assertTrue(frecuencia.cuenta() - frecuencia.error() <= exacta);
+			assertTrue(frecuencia.error() <= total / CAPACIDAD);
+		}
+		
+		// El más vendido de verdad no puede faltar: supera con mucho N / capacidad
+		
+		long masVendido = exactas.entrySet().stream().max(Map.Entry.comparingByValue()).get().getKey();
+		
+		assertTrue(top.stream().anyMatch(x -> x.elemento() == masVendido));
+	}
+	
+	private Map<Long, Long> getCuentas(MasVendidos masVendidos) {
+		
+		Map<Long, Long> cuentas = new HashMap<>();
+		
+		masVendidos.getTop(NIF, LocalDate.now(), CAPACIDAD).forEach(x -> cuentas.put(x.elemento(), x.cuenta()));
+		
+		return cuentas;
+	}
+	
+	private void cambiarEstado(MasVendidos masVendidos, Long idPedido, EstadoPedido anterior, EstadoPedido nuevo) {
+		
+		jdbcTemplate.update("UPDATE PEDIDOS SET ESTADO = ? WHERE CODIGO = ?", nuevo.name(), idPedido);
+		
+		masVendidos.onEstadoPedidoCambiado(new EstadoPedidoCambiadoEvent(idPedido, anterior, nuevo));
+	}
+	
+	private Pedido insertarPedido(String nif, String estado, Long idProducto, int cantidad) {
+		
+		long id = siguienteId++;
+		LocalDateTime fechaHora = LocalDate.now().atTime(12, 0);
+		
+		jdbcTemplate.update("INSERT INTO PEDIDOS (CODIGO, FECHA_HORA, CODIGO_EMPLEADO, ESTADO, NIF_ESTABLECIMIENTO) VALUES (?, ?, 11, ?, ?)", 
+							id, Timestamp.valueOf(fechaHora), estado, nif);
+		
+		jdbcTemplate.update("INSERT INTO LINEAS_PEDIDO (CODIGO_PEDIDO, ORDEN, CODIGO_PRODUCTO, CANTIDAD, PRECIO) VALUES (?, 0, ?, ?, 1.0)", 
+							id, idProducto, cantidad);
+		
+		Pedido pedido = new Pedido();
+		pedido.setId(id);
+		pedido.setFechaHora(Timestamp.valueOf(fechaHora));
+		pedido.setEstablecimiento(new Establecimiento());
+		pedido.getEstablecimiento().setNIF(nif);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setProducto(new Producto());
+		linea.getProducto().setId(idProducto);
+		linea.setCantidad(cantidad);
+		pedido.setLineas(new ArrayList<>(List.of(linea)));
+		
+		return pedido;
+	}
+	
+	private Pedido insertarPedido(String nif) {
+		
+		long id = siguienteId++;
+		LocalDateTime fechaHora = LocalDate.now().atTime(8 + random.nextInt(12), random.nextInt(60));
+		
+		jdbcTemplate.update("INSERT INTO PEDIDOS (CODIGO, FECHA_HORA, CODIGO_EMPLEADO, ESTADO, NIF_ESTABLECIMIENTO) VALUES (?, ?, 11, 'NUEVO', ?)", 
+							id, Timestamp.valueOf(fechaHora), nif);
+		
+		Pedido pedido = new Pedido();
+		pedido.setId(id);
+		pedido.setFechaHora(Timestamp.valueOf(fechaHora));
+		pedido.setEstablecimiento(new Establecimiento());
+		pedido.getEstablecimiento().setNIF(nif);
+		pedido.setLineas(new ArrayList<>());
+		
+		int lineas = 1 + random.nextInt(4);
+		
+		for(int orden = 0; orden < lineas; orden++) {
+			
+			// Sesgada: los primeros productos se venden mucho más
+			
+			double r = random.nextDouble();
+			Long idProducto = productos.get((int) (productos.size() * r * r * r));
+			int cantidad = 1 + random.nextInt(3);
+			
+			jdbcTemplate.update("INSERT INTO LINEAS_PEDIDO (CODIGO_PEDIDO, ORDEN, CODIGO_PRODUCTO, CANTIDAD, PRECIO) VALUES (?, ?, ?, ?, 1.0)", 
+								id, orden, idProducto, cantidad);
+			
+			LineaPedido linea = new LineaPedido();
+			linea.setProducto(new Producto());
+			linea.getProducto().setId(idProducto);
+			linea.setCantidad(cantidad);
+			pedido.getLineas().add(linea);
+		}
+		
+		return pedido;
+	}
+	
+}
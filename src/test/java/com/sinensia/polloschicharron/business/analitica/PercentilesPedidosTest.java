@@ -0,0 +1,113 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.sinensia.polloschicharron.business.events.PedidoCreadoEvent;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+
+class PercentilesPedidosTest {
+
+	private static final LocalDateTime DESDE = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+	
+	@Test
+	void calculamos_los_percentiles_por_establecimiento() {
+		
+		PercentilesPedidos percentiles = new PercentilesPedidos(24);
+		
+		// Importes de 1,00 a 9,99 € en pasos de 1 céntimo en uno y de 1 a 9 unidades de 1 € en el otro
+		
+		for(int i = 100; i < 1000; i++) {
+			percentiles.onPedidoCreado(new PedidoCreadoEvent(crearPedido("B38983321", i / 100.0, 1)));
+		}
+		
+		for(int i = 1; i <= 9; i++) {
+			percentiles.onPedidoCreado(new PedidoCreadoEvent(crearPedido("B00177845", 1.0, i)));
+		}
+		
+		DistribucionPedidos distribucion = percentiles.getTotal("B38983321", DESDE);
+		
+		assertEquals(900, distribucion.importe().getTotalCount());
+		assertEquals(549, distribucion.importe().getValueAtPercentile(50));
+		assertEquals(909, distribucion.importe().getValueAtPercentile(90));
+		assertEquals(990, distribucion.importe().getValueAtPercentile(99));
+		assertEquals(999, distribucion.importe().getMaxValue());
+		
+		distribucion = percentiles.getTotal("B00177845", DESDE);
+		
+		assertEquals(5, distribucion.unidades().getValueAtPercentile(50));
+		assertEquals(900, distribucion.importe().getMaxValue());
+		
+		assertEquals(909, percentiles.getTotal(null, DESDE).importe().getTotalCount());
+		
+		// Lo ya rolado no se pierde al volver a consultar
+		
+		assertEquals(900, percentiles.getTotal("B38983321", DESDE).importe().getTotalCount());
+	}
+	
+	@Test
+	void registramos_en_paralelo_mientras_se_rola() throws Exception {
+		
+		PercentilesPedidos percentiles = new PercentilesPedidos(24);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> tareas = new ArrayList<>();
+		
+		for(int hilo = 0; hilo < 4; hilo++) {
+			tareas.add(executor.submit(() -> {
+				for(int i = 0; i < 10_000; i++) {
+					percentiles.onPedidoCreado(new PedidoCreadoEvent(crearPedido("B38983321", 1.25, 2)));
+				}
+			}));
+		}
+		
+		while(!tareas.stream().allMatch(Future::isDone)) {
+			percentiles.rolar();
+		}
+		
+		for(Future<?> tarea: tareas) {
+			tarea.get();
+		}
+		
+		executor.shutdown();
+		
+		DistribucionPedidos distribucion = percentiles.getTotal("B38983321", DESDE);
+		
+		assertEquals(40_000, distribucion.importe().getTotalCount());
+		assertTrue(distribucion.importe().valuesAreEquivalent(250, distribucion.importe().getMaxValue()));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Pedido crearPedido(String nif, double precioUnitario, int cantidad) {
+		
+		Pedido pedido = new Pedido();
+		pedido.setEstablecimiento(new Establecimiento());
+		pedido.getEstablecimiento().setNIF(nif);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setPrecio(precioUnitario);
+		linea.setCantidad(cantidad);
+		
+		pedido.setLineas(List.of(linea));
+		
+		return pedido;
+	}
+	
+}
@@ -0,0 +1,69 @@
+package com.sinensia.polloschicharron.business.analitica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingTest {
+
+	@Test
+	void sin_desbordar_la_capacidad_las_cuentas_son_exactas() {
+		
+		SpaceSaving resumen = new SpaceSaving(10);
+		
+		resumen.add(1, 5);
+		resumen.add(2, 1);
+		resumen.add(3, 7);
+		resumen.add(2, 3);
+		
+		assertEquals(List.of(new FrecuenciaEstimada(3, 7, 0), new FrecuenciaEstimada(1, 5, 0)), resumen.top(2));
+		assertEquals(16, resumen.getTotal());
+	}
+	
+	@Test
+	void las_cuentas_acotan_la_frecuencia_real() {
+		
+		int capacidad = 20;
+		
+		SpaceSaving resumen = new SpaceSaving(capacidad);
+		Map<Long, Long> exactas = new HashMap<>();
+		Random random = new Random(42);
+		
+		// Distribución sesgada sobre 500 elementos: unos pocos concentran casi todo
+		
+		for(int i = 0; i < 100_000; i++) {
+			double r = random.nextDouble();
+			long elemento = (long) (500 * r * r * r * r);
+			int peso = 1 + random.nextInt(3);
+			resumen.add(elemento, peso);
+			exactas.merge(elemento, (long) peso, Long::sum);
+		}
+		
+		long total = resumen.getTotal();
+		List<FrecuenciaEstimada> top = resumen.top(capacidad);
+		
+		for(FrecuenciaEstimada frecuencia: top) {
+			long exacta = exactas.get(frecuencia.elemento());
+			assertTrue(frecuencia.cuenta() >= exacta);
+			assertTrue(frecuencia.cuenta() - frecuencia.error() <= exacta);
+			assertTrue(frecuencia.error() <= total / capacidad);
+		}
+		
+		Set<Long> presentes = top.stream().map(FrecuenciaEstimada::elemento).collect(Collectors.toSet());
+		
+		exactas.forEach((elemento, exacta) -> {
+			if(exacta > total / capacidad) {
+				assertTrue(presentes.contains(elemento), "Falta el elemento frecuente " + elemento);
+			}
+		});
+	}
+	
+}
@@ -0,0 +1,48 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CacheIdempotenciaTest {
+
+	@Test
+	void devolvemos_el_id_de_una_clave_ya_usada() {
+		
+		CacheIdempotencia cache = new CacheIdempotencia(10, Duration.ofHours(1));
+		
+		cache.put("clave-1", 5000L);
+		
+		assertEquals(5000L, cache.get("clave-1"));
+		assertNull(cache.get("clave-2"));
+	}
+	
+	@Test
+	void expulsamos_las_claves_mas_antiguas_al_superar_la_capacidad() {
+		
+		CacheIdempotencia cache = new CacheIdempotencia(3, Duration.ofHours(1));
+		
+		for(long i = 0; i < 5; i++) {
+			cache.put("clave-" + i, i);
+		}
+		
+		assertEquals(3, cache.size());
+		assertNull(cache.get("clave-0"));
+		assertNull(cache.get("clave-1"));
+		assertEquals(4L, cache.get("clave-4"));
+	}
+	
+	@Test
+	void las_claves_caducadas_no_se_devuelven() {
+		
+		CacheIdempotencia cache = new CacheIdempotencia(10, Duration.ofMillis(-1));
+		
+		cache.put("clave-1", 5000L);
+		
+		assertNull(cache.get("clave-1"));
+	}
+	
+}
@@ -0,0 +1,62 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.PersonaModificadaEvent;
+import com.sinensia.polloschicharron.business.model.TipoPersona;
+import com.sinensia.polloschicharron.integration.repositories.ClientePLRepository;
+
+@DataJpaTest
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class ClientesGoldTest {
+
+	@Autowired
+	private ClientePLRepository clientePLRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void cargamos_y_actualizamos_los_clientes_gold() {
+		
+		ClientesGold clientesGold = new ClientesGold(clientePLRepository);
+		
+		assertTrue(clientesGold.isGold(10L));
+		assertFalse(clientesGold.isGold(12L));
+		assertFalse(clientesGold.isGold(11L));
+		assertFalse(clientesGold.isGold(null));
+		assertFalse(clientesGold.isGold(-1L));
+		
+		jdbcTemplate.update("UPDATE CLIENTES SET GOLD = (CODIGO = 12)");
+		
+		// Los eventos de empleados no tocan el bitset
+		
+		clientesGold.onPersonaModificada(new PersonaModificadaEvent(TipoPersona.EMPLEADO, 12L));
+		
+		assertFalse(clientesGold.isGold(12L));
+		
+		clientesGold.onPersonaModificada(new PersonaModificadaEvent(TipoPersona.CLIENTE, 12L));
+		clientesGold.onPersonaModificada(new PersonaModificadaEvent(TipoPersona.CLIENTE, 10L));
+		
+		assertTrue(clientesGold.isGold(12L));
+		assertFalse(clientesGold.isGold(10L));
+		
+		// Una restauración cambia los datos sin PersonaModificadaEvent
+		
+		jdbcTemplate.update("UPDATE CLIENTES SET GOLD = (CODIGO = 10)");
+		
+		clientesGold.onBaseDatosRestaurada(new BaseDatosRestauradaEvent("copia"));
+		
+		assertTrue(clientesGold.isGold(10L));
+		assertFalse(clientesGold.isGold(12L));
+	}
+	
+}
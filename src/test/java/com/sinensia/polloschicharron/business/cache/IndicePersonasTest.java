@@ -0,0 +1,73 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.events.PersonaModificadaEvent;
+import com.sinensia.polloschicharron.business.model.CampoBusqueda;
+import com.sinensia.polloschicharron.business.model.TipoPersona;
+import com.sinensia.polloschicharron.integration.repositories.ClientePLRepository;
+import com.sinensia.polloschicharron.integration.repositories.EmpleadoPLRepository;
+
+@DataJpaTest
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class IndicePersonasTest {
+
+	@Autowired
+	private ClientePLRepository clientePLRepository;
+	
+	@Autowired
+	private EmpleadoPLRepository empleadoPLRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void buscamos_con_valores_normalizados_y_reindexamos_con_el_evento() {
+		
+		IndicePersonas indice = new IndicePersonas(clientePLRepository, empleadoPLRepository);
+		
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.DNI, "45.899.812-l"));
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.TELEFONO, "+34 932 31 88 11"));
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.EMAIL, " APAX344@Hotmail.com "));
+		
+		assertEquals(List.of(11L), indice.buscar(TipoPersona.EMPLEADO, CampoBusqueda.TELEFONO, "0034 620-109-034"));
+		assertEquals(List.of(11L), indice.buscar(TipoPersona.EMPLEADO, CampoBusqueda.TELEFONO, "(93) 220 90 88"));
+		
+		// Cada tipo tiene su índice: el empleado 11 no es cliente
+		
+		assertTrue(indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.DNI, "30092765K").isEmpty());
+		assertTrue(indice.buscar(TipoPersona.EMPLEADO, CampoBusqueda.EMAIL, "  ").isEmpty());
+		
+		jdbcTemplate.update("UPDATE PERSONAS SET EMAIL = 'nuevo@pollos.com', MOVIL = '699000111' WHERE CODIGO = 10");
+		
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.EMAIL, "apax344@hotmail.com"));
+		
+		indice.onPersonaModificada(new PersonaModificadaEvent(TipoPersona.CLIENTE, 10L));
+		
+		assertTrue(indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.EMAIL, "apax344@hotmail.com").isEmpty());
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.EMAIL, "Nuevo@pollos.com"));
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.TELEFONO, "699 000 111"));
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.TELEFONO, "932318811"));
+		
+		// Una restauración cambia los datos sin PersonaModificadaEvent
+		
+		jdbcTemplate.update("UPDATE PERSONAS SET EMAIL = 'restaurado@pollos.com' WHERE CODIGO = 10");
+		
+		indice.onBaseDatosRestaurada(new BaseDatosRestauradaEvent("copia"));
+		
+		assertTrue(indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.EMAIL, "nuevo@pollos.com").isEmpty());
+		assertEquals(List.of(10L), indice.buscar(TipoPersona.CLIENTE, CampoBusqueda.EMAIL, "restaurado@pollos.com"));
+		assertEquals(List.of(11L), indice.buscar(TipoPersona.EMPLEADO, CampoBusqueda.TELEFONO, "(93) 220 90 88"));
+	}
+	
+}
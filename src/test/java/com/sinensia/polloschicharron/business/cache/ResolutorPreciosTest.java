@@ -0,0 +1,121 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sinensia.polloschicharron.integration.model.LineaListaPreciosPL;
+import com.sinensia.polloschicharron.integration.model.ListaPreciosPL;
+import com.sinensia.polloschicharron.integration.repositories.ListaPreciosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ResolutorPreciosTest {
+
+	@Mock
+	private ProductoPLRepository productoPLRepository;
+	
+	@Mock
+	private ListaPreciosPLRepository listaPreciosPLRepository;
+	
+	@InjectMocks
+	private ResolutorPrecios resolutorPrecios;
+	
+	@Test
+	void activamos_la_lista_programada_al_llegar_su_fecha_de_vigencia() throws Exception {
+		
+		List<Object[]> preciosCatalogo = new ArrayList<>();
+		preciosCatalogo.add(new Object[] {100L, 6.0, 1L, false, null});
+		preciosCatalogo.add(new Object[] {101L, 9.0, 1L, false, null});
+		
+		long ahora = System.currentTimeMillis();
+		
+		ListaPreciosPL vigente = crearLista(1L, ahora - 60000, 100L, 5.5);
+		ListaPreciosPL programada = crearLista(2L, ahora + 200, 101L, 9.5);
+		
+		when(productoPLRepository.findAtributosCatalogo()).thenReturn(preciosCatalogo);
+		when(listaPreciosPLRepository.findVigenteYProgramadas(any())).thenReturn(List.of(vigente, programada));
+		
+		assertEquals(1L, resolutorPrecios.getTablaVigente().getIdListaPrecios());
+		assertEquals(Optional.of(5.5), resolutorPrecios.getPrecio(100L));
+		assertEquals(Optional.of(9.0), resolutorPrecios.getPrecio(101L));
+		assertTrue(resolutorPrecios.getPrecio(666L).isEmpty());
+		
+		Thread.sleep(300);
+		
+		assertEquals(2L, resolutorPrecios.getTablaVigente().getIdListaPrecios());
+		assertEquals(Optional.of(6.0), resolutorPrecios.getPrecio(100L));
+		assertEquals(Optional.of(9.5), resolutorPrecios.getPrecio(101L));
+		
+		verify(listaPreciosPLRepository, times(1)).findVigenteYProgramadas(any());
+	}
+	
+	@Test
+	void un_cambio_de_precio_en_catalogo_posterior_a_la_lista_vigente_prevalece() {
+		
+		long ahora = System.currentTimeMillis();
+		
+		// La lista entra en vigor y después se revisa en catálogo el precio del producto 100
+		
+		List<Object[]> preciosCatalogo = new ArrayList<>();
+		preciosCatalogo.add(new Object[] {100L, 6.6, 1L, false, new Date(ahora - 1000)});
+		preciosCatalogo.add(new Object[] {101L, 9.0, 1L, false, new Date(ahora - 120000)});
+		
+		LineaListaPreciosPL linea101 = new LineaListaPreciosPL();
+		linea101.setIdProducto(101L);
+		linea101.setPrecio(9.5);
+		
+		ListaPreciosPL vigente = crearLista(1L, ahora - 60000, 100L, 5.5);
+		vigente.setLineas(List.of(vigente.getLineas().get(0), linea101));
+		
+		when(productoPLRepository.findAtributosCatalogo()).thenReturn(preciosCatalogo);
+		when(listaPreciosPLRepository.findVigenteYProgramadas(any())).thenReturn(List.of(vigente));
+		
+		assertEquals(1L, resolutorPrecios.getTablaVigente().getIdListaPrecios());
+		assertEquals(Optional.of(6.6), resolutorPrecios.getPrecio(100L));
+		assertEquals(Optional.of(9.5), resolutorPrecios.getPrecio(101L));
+	}
+	
+	@Test
+	void sin_listas_servimos_los_precios_de_catalogo() {
+		
+		List<Object[]> preciosCatalogo = new ArrayList<>();
+		preciosCatalogo.add(new Object[] {5000L, 3.2, null, false, null});
+		
+		when(productoPLRepository.findAtributosCatalogo()).thenReturn(preciosCatalogo);
+		when(listaPreciosPLRepository.findVigenteYProgramadas(any())).thenReturn(List.of());
+		
+		assertNull(resolutorPrecios.getTablaVigente().getIdListaPrecios());
+		assertEquals(Optional.of(3.2), resolutorPrecios.getPrecio(5000L));
+	}
+	
+	private ListaPreciosPL crearLista(Long id, long fechaVigencia, Long idProducto, double precio) {
+		
+		LineaListaPreciosPL linea = new LineaListaPreciosPL();
+		linea.setIdProducto(idProducto);
+		linea.setPrecio(precio);
+		
+		ListaPreciosPL listaPL = new ListaPreciosPL();
+		listaPL.setId(id);
+		listaPL.setFechaVigencia(new Date(fechaVigencia));
+		listaPL.setLineas(List.of(linea));
+		
+		return listaPL;
+	}
+	
+}
@@ -0,0 +1,65 @@
+package com.sinensia.polloschicharron.business.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.sinensia.polloschicharron.business.cache.TablaPrecios.Entrada;
+
+class TablaPreciosTest {
+
+	@Test
+	void guardamos_precio_familia_y_descatalogado_por_producto() {
+		
+		Map<Long, Entrada> entradas = new HashMap<>();
+		entradas.put(100L, new Entrada(6.0, 4L, false));
+		entradas.put(103L, new Entrada(2.35, 3L, false));
+		entradas.put(105L, new Entrada(4.5, 1L, true));
+		entradas.put(106L, new Entrada(null, null, false));
+		
+		TablaPrecios tabla = new TablaPrecios(null, 0L, entradas);
+		
+		assertEquals(4, tabla.size());
+		
+		assertEquals(600, tabla.getPrecioCentimos(100L));
+		assertEquals(2.35, tabla.getPrecio(103L));
+		assertEquals(4L, tabla.getIdFamilia(100L));
+		
+		// Descatalogado: existe y conserva la familia, pero no tiene precio vigente
+		
+		assertTrue(tabla.isDescatalogado(105L));
+		assertEquals(-1, tabla.getPrecioCentimos(105L));
+		assertTrue(Double.isNaN(tabla.getPrecio(105L)));
+		assertEquals(1L, tabla.getIdFamilia(105L));
+		
+		assertTrue(tabla.existe(106L));
+		assertEquals(-1, tabla.getPrecioCentimos(106L));
+		assertEquals(TablaPrecios.SIN_FAMILIA, tabla.getIdFamilia(106L));
+		
+		// Huecos y fuera de rango
+		
+		for(long id: new long[] {101L, 99L, 107L, -1L, Long.MAX_VALUE}) {
+			assertFalse(tabla.existe(id));
+			assertFalse(tabla.isDescatalogado(id));
+			assertEquals(-1, tabla.getPrecioCentimos(id));
+			assertEquals(TablaPrecios.SIN_FAMILIA, tabla.getIdFamilia(id));
+		}
+		
+		assertFalse(new TablaPrecios(null, 0L, Map.of()).existe(100L));
+	}
+	
+	@Test
+	void rechazamos_rangos_de_ids_demasiado_grandes() {
+		
+		Map<Long, Entrada> entradas = Map.of(1L, new Entrada(1.0, null, false), 1L + Integer.MAX_VALUE, new Entrada(1.0, null, false));
+		
+		assertThrows(IllegalStateException.class, () -> new TablaPrecios(null, 0L, entradas));
+	}
+	
+}
@@ -0,0 +1,80 @@
+package com.sinensia.polloschicharron.business.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class ArbolKdTest {
+
+	@Test
+	void encontramos_los_mismos_que_recorriendo_todos() {
+		
+		Random random = new Random(42);
+		
+		List<Integer> elementos = new ArrayList<>();
+		List<Coordenadas> coordenadas = new ArrayList<>();
+		
+		// Península, Baleares y Canarias
+		
+		for(int i = 0; i < 2000; i++) {
+			elementos.add(i);
+			coordenadas.add(new Coordenadas(27.5 + random.nextDouble() * 16.5, -18.5 + random.nextDouble() * 23));
+		}
+		
+		ArbolKd<Integer> arbol = new ArbolKd<>(elementos, coordenadas);
+		
+		for(int consulta = 0; consulta < 200; consulta++) {
+			
+			Coordenadas punto = new Coordenadas(27.5 + random.nextDouble() * 16.5, -18.5 + random.nextDouble() * 23);
+			
+			List<Integer> esperados = IntStream.range(0, elementos.size()).boxed()
+					.sorted(Comparator.comparingDouble(x -> haversine(punto, coordenadas.get(x))))
+					.limit(5)
+					.toList();
+			
+			List<Cercano<Integer>> cercanos = arbol.cercanos(punto, 5);
+			
+			assertEquals(esperados, cercanos.stream().map(Cercano::elemento).toList());
+			assertEquals(haversine(punto, coordenadas.get(esperados.get(0))), cercanos.get(0).distanciaKm(), 1e-6);
+		}
+	}
+	
+	@Test
+	void devolvemos_como_mucho_los_que_hay() {
+		
+		ArbolKd<String> arbol = new ArbolKd<>(List.of("Vaguada", "Gran Via 2"), List.of(new Coordenadas(40.4751, -3.7073), new Coordenadas(41.3921, 2.1122)));
+		
+		List<Cercano<String>> cercanos = arbol.cercanos(new Coordenadas(40.4168, -3.7038), 5);
+		
+		assertEquals(List.of("Vaguada", "Gran Via 2"), cercanos.stream().map(Cercano::elemento).toList());
+		assertEquals(6.5, cercanos.get(0).distanciaKm(), 0.1);
+		assertTrue(cercanos.get(1).distanciaKm() > 490 && cercanos.get(1).distanciaKm() < 510);
+		
+		assertTrue(new ArbolKd<String>(List.of(), List.of()).cercanos(new Coordenadas(0, 0), 3).isEmpty());
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private double haversine(Coordenadas a, Coordenadas b) {
+		
+		double dLat = Math.toRadians(b.latitud() - a.latitud());
+		double dLon = Math.toRadians(b.longitud() - a.longitud());
+		
+		double h = Math.pow(Math.sin(dLat / 2), 2) 
+				 + Math.cos(Math.toRadians(a.latitud())) * Math.cos(Math.toRadians(b.latitud())) * Math.pow(Math.sin(dLon / 2), 2);
+		
+		return 2 * Coordenadas.RADIO_TIERRA_KM * Math.asin(Math.sqrt(h));
+	}
+	
+}
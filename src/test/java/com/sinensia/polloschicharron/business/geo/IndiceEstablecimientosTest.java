@@ -0,0 +1,89 @@
+package com.sinensia.polloschicharron.business.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.events.EstablecimientoModificadoEvent;
+import com.sinensia.polloschicharron.integration.repositories.EstablecimientoPLRepository;
+
+@DataJpaTest
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class IndiceEstablecimientosTest {
+
+	@Autowired
+	private EstablecimientoPLRepository establecimientoPLRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void buscamos_por_cercania_provincia_y_poblacion() {
+		
+		CodigosPostales codigosPostales = new CodigosPostales(new ClassPathResource("data/codigos-postales.csv"));
+		IndiceEstablecimientos indice = new IndiceEstablecimientos(establecimientoPLRepository, codigosPostales);
+		
+		List<Cercano<String>> cercanos = indice.getCercanos(codigosPostales.getCentroide("28034").get(), 3);
+		
+		assertEquals(List.of("B00177845", "B38983321"), cercanos.stream().map(Cercano::elemento).toList());
+		assertTrue(cercanos.get(0).distanciaKm() < 2);
+		
+		assertEquals("B38983321", indice.getCercanos(codigosPostales.getCentroide("8014").get(), 1).get(0).elemento());
+		
+		assertEquals(List.of("B00177845"), indice.getByProvincia("  MADRID "));
+		assertTrue(indice.getByPoblacion("Teruel").isEmpty());
+		
+		// Uno nuevo en Málaga aparece después del evento
+		
+		jdbcTemplate.update("INSERT INTO ESTABLECIMIENTOS (NIF, NOMBRE_COMERCIAL, POBLACION, PROVINCIA, CODIGO_POSTAL) VALUES ('B29000001', 'Larios', 'Málaga', 'Málaga', '29001')");
+		
+		assertTrue(indice.getByPoblacion("malaga").isEmpty());
+		
+		indice.onEstablecimientoModificado(new EstablecimientoModificadoEvent("B29000001"));
+		
+		assertEquals(List.of("B29000001"), indice.getByPoblacion("malaga"));
+		assertEquals(List.of("B29000001"), indice.getByProvincia("MÁLAGA"));
+		assertEquals("B29000001", indice.getCercanos(new Coordenadas(37.3891, -5.9845), 1).get(0).elemento());
+	}
+	
+	@Test
+	void una_modificacion_durante_la_construccion_no_se_pierde() {
+		
+		AtomicReference<IndiceEstablecimientos> indice = new AtomicReference<>();
+		
+		// El establecimiento se crea (y llega el evento) cuando la construcción ya ha leído los establecimientos
+		
+		CodigosPostales codigosPostales = new CodigosPostales(new ClassPathResource("data/codigos-postales.csv")) {
+			
+			private boolean modificado;
+			
+			@Override
+			public Optional<Coordenadas> getCentroide(String codigoPostal) {
+				
+				if(!modificado) {
+					modificado = true;
+					jdbcTemplate.update("INSERT INTO ESTABLECIMIENTOS (NIF, NOMBRE_COMERCIAL, POBLACION, PROVINCIA, CODIGO_POSTAL) VALUES ('B29000001', 'Larios', 'Málaga', 'Málaga', '29001')");
+					indice.get().onEstablecimientoModificado(new EstablecimientoModificadoEvent("B29000001"));
+				}
+				
+				return super.getCentroide(codigoPostal);
+			}
+		};
+		
+		indice.set(new IndiceEstablecimientos(establecimientoPLRepository, codigosPostales));
+		
+		assertTrue(indice.get().getByPoblacion("malaga").isEmpty());
+		assertEquals(List.of("B29000001"), indice.get().getByPoblacion("malaga"));
+	}
+	
+}
@@ -0,0 +1,152 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.sinensia.polloschicharron.business.analitica.FrecuenciaEstimada;
+import com.sinensia.polloschicharron.business.analitica.MasVendidos;
+import com.sinensia.polloschicharron.business.analitica.PercentilesPedidos;
+import com.sinensia.polloschicharron.business.cache.CacheIdempotencia;
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.services.CopiaSeguridadServices;
+import com.sinensia.polloschicharron.business.services.EstablecimientoServices;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+
+/**
+ * Con la aplicación completa: lo que se hace después de la copia desaparece de la base de datos y
+ * también de lo que se guarda en memoria.
+ * 
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = {"spring.datasource.url=jdbc:h2:mem:restauracion",
+																	 "polloschicharron.copias.directorio=target/copias-restauracion"})
+class CopiaSeguridadServicesImplTest {
+	
+	private static final String NIF = "B38983321";
+	
+	@Autowired
+	private CopiaSeguridadServices copiaSeguridadServices;
+	
+	@Autowired
+	private PedidoServices pedidoServices;
+	
+	@Autowired
+	private EstablecimientoServices establecimientoServices;
+	
+	@Autowired
+	private HistorialPedidoServices historialPedidoServices;
+	
+	@Autowired
+	private CacheIdempotencia cacheIdempotencia;
+	
+	@Autowired
+	private MasVendidos masVendidos;
+	
+	@Autowired
+	private PercentilesPedidos percentilesPedidos;
+	
+	@Value("${polloschicharron.copias.directorio}")
+	private Path directorio;
+	
+	@Test
+	void al_restaurar_descartamos_el_estado_en_memoria() {
+		
+		LocalDate hoy = LocalDate.now();
+		LocalDateTime ayer = LocalDateTime.now().minusDays(1);
+		
+		List<FrecuenciaEstimada> topInicial = masVendidos.getTop(NIF, hoy, 10);
+		
+		String copia = copiaSeguridadServices.crear().nombre();
+		
+		// Después de la copia
+		
+		Long idPedido = pedidoServices.create(crearPedido()).id();
+		cacheIdempotencia.put("clave-restauracion", idPedido);
+		
+		Establecimiento establecimiento = establecimientoServices.read(NIF).get();
+		establecimiento.getDireccion().setPoblacion("Villarriba");
+		establecimientoServices.update(establecimiento);
+		
+		assertFalse(historialPedidoServices.getEventos(idPedido).isEmpty());
+		assertEquals(1, cacheIdempotencia.size());
+		assertNotEquals(topInicial, masVendidos.getTop(NIF, hoy, 10));
+		assertFalse(percentilesPedidos.getPorHora(null, ayer).isEmpty());
+		assertEquals(1, establecimientoServices.getByPoblacion("Villarriba").size());
+		
+		assertTrue(copiaSeguridadServices.restaurar(copia));
+		
+		assertTrue(pedidoServices.read(idPedido).isEmpty());
+		assertTrue(historialPedidoServices.getEventos(idPedido).isEmpty());
+		assertEquals(0, cacheIdempotencia.size());
+		assertEquals(topInicial, masVendidos.getTop(NIF, hoy, 10));
+		assertTrue(percentilesPedidos.getPorHora(null, ayer).isEmpty());
+		assertTrue(establecimientoServices.getByPoblacion("Villarriba").isEmpty());
+		assertTrue(establecimientoServices.getByPoblacion("Barcelona").stream().anyMatch(x -> x.getNIF().equals(NIF)));
+		
+		// La base de datos anterior a la restauración queda a mano, pero no como una copia más
+		
+		assertTrue(Files.isRegularFile(directorio.resolve("previa-restauracion.sql.gz")));
+		assertTrue(copiaSeguridadServices.getAll().stream().allMatch(x -> x.nombre().startsWith("copia-")));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Pedido crearPedido() {
+		
+		Empleado empleado = new Empleado();
+		empleado.setId(11L);
+		
+		Establecimiento establecimiento = new Establecimiento();
+		establecimiento.setNIF(NIF);
+		
+		Cliente cliente = new Cliente();
+		cliente.setId(12L);
+		
+		Producto producto = new Producto();
+		producto.setId(100L);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setProducto(producto);
+		linea.setCantidad(3);
+		
+		List<LineaPedido> lineas = new ArrayList<>();
+		lineas.add(linea);
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(new Date());
+		pedido.setEstado(EstadoPedido.PENDIENTE_ENTREGA);
+		pedido.setEmpleado(empleado);
+		pedido.setEstablecimiento(establecimiento);
+		pedido.setCliente(cliente);
+		pedido.setLineas(lineas);
+		
+		return pedido;
+	}
+
+}
@@ -19,7 +19,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.sinensia.polloschicharron.business.model.Empleado;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO1;
 import com.sinensia.polloschicharron.business.model.dtos.EmpleadoDTO2;
-import com.sinensia.polloschicharron.integration.model.EmpleadoPL;
+import com.sinensia.polloschicharron.integration.model.EmpleadoPlanoPL;
 import com.sinensia.polloschicharron.integration.repositories.EmpleadoPLRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,15 +41,15 @@ class EmpleadoServicesImplTest {
 	
 	private Empleado empleado1;
 	private Empleado empleado2;
-	private EmpleadoPL empleadoPL1;
-	private EmpleadoPL empleadoPL2;
+	private EmpleadoPlanoPL empleadoPL1;
+	private EmpleadoPlanoPL empleadoPL2;
 	
 	@Test
 	void testRead() {
 		
 
-		when(empleadoPLRepository.findById(50L)).thenReturn(Optional.of(empleadoPL1));
-		when(empleadoPLRepository.findById(666L)).thenReturn(Optional.empty());
+		when(empleadoPLRepository.findPlanoById(50L)).thenReturn(Optional.of(empleadoPL1));
+		when(empleadoPLRepository.findPlanoById(666L)).thenReturn(Optional.empty());
 		
 		when(mapper.map(empleadoPL1, Empleado.class)).thenReturn(empleado1);
 		
@@ -66,7 +66,7 @@ class EmpleadoServicesImplTest {
 	@Test
 	void testGetAll() {
 	
-		when(empleadoPLRepository.findAll()).thenReturn(List.of(empleadoPL1, empleadoPL2));
+		when(empleadoPLRepository.findPlanos()).thenReturn(List.of(empleadoPL1, empleadoPL2));
 		when(mapper.map(empleadoPL1, Empleado.class)).thenReturn(empleado1);
 		when(mapper.map(empleadoPL2, Empleado.class)).thenReturn(empleado2);
 		
@@ -92,7 +92,7 @@ class EmpleadoServicesImplTest {
 		
 		Set<String> set = new HashSet<>();
 		
-		empleadosDTO1.stream().forEach(x -> set.add(x.getNombre() + x.getApellidos() + x.getLicencia()));
+		empleadosDTO1.stream().forEach(x -> set.add(x.nombre() + x.apellidos() + x.licencia()));
 		
 		assertTrue(set.containsAll(List.of("AnaPérez López2234","HonorioMartín Salvador1111")));
 	}
@@ -111,7 +111,7 @@ class EmpleadoServicesImplTest {
 		
 		Set<String> set = new HashSet<>();
 		
-		empleadosDTO2.stream().forEach(x -> set.add(x.getNombreCompleto() + x.getTelefono() + x.getEmail()));
+		empleadosDTO2.stream().forEach(x -> set.add(x.nombreCompleto() + x.telefono() + x.email()));
 		
 		assertTrue(set.containsAll(List.of("PEPIN GALVEZ1111email1@gmail.com","ANA LOPEZ2222email2@gmail.com")));
 	}
@@ -124,10 +124,10 @@ class EmpleadoServicesImplTest {
 	
 	private void initObjects() {
 		
-		empleadoPL1 = new EmpleadoPL();
+		empleadoPL1 = new EmpleadoPlanoPL();
 		empleadoPL1.setId(50L);
 		
-		empleadoPL2 = new EmpleadoPL();
+		empleadoPL2 = new EmpleadoPlanoPL();
 		empleadoPL2.setId(60L);
 		
 		empleado1 = new Empleado();
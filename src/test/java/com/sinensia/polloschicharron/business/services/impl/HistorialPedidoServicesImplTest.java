@@ -0,0 +1,113 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.sinensia.polloschicharron.business.events.BaseDatosRestauradaEvent;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:historial")
+class HistorialPedidoServicesImplTest {
+
+	@Autowired
+	private PedidoServices pedidoServices;
+	
+	@Autowired
+	private HistorialPedidoServicesImpl historialPedidoServices;
+	
+	@Test
+	void reconstruimos_el_pedido_despues_de_modificar_sus_lineas() {
+		
+		Long id = pedidoServices.create(crearPedido(crearLinea(100L, 2), crearLinea(103L, 1))).id();
+		
+		// Cambia la cantidad de la primera, quita la segunda y añade otra
+		
+		Pedido pedido = pedidoServices.read(id).get();
+		pedido.setLineas(new ArrayList<>(List.of(crearLinea(100L, 3), crearLinea(104L, 1))));
+		
+		pedidoServices.update(pedido);
+		
+		pedido.setEstado(EstadoPedido.EN_PROCESO);
+		
+		pedidoServices.update(pedido);
+		
+		Pedido guardado = pedidoServices.read(id).get();
+		Pedido reconstruido = historialPedidoServices.reconstruir(id).get();
+		
+		assertEquals(EstadoPedido.EN_PROCESO, reconstruido.getEstado());
+		assertEquals(resumen(guardado), resumen(reconstruido));
+		assertEquals(2, reconstruido.getLineas().size());
+	}
+	
+	@Test
+	void al_restaurar_una_copia_empezamos_un_journal_vacio() {
+		
+		Long id = pedidoServices.create(crearPedido(crearLinea(100L, 1))).id();
+		
+		assertTrue(historialPedidoServices.reconstruir(id).isPresent());
+		
+		historialPedidoServices.onBaseDatosRestaurada(new BaseDatosRestauradaEvent("copia"));
+		
+		assertTrue(historialPedidoServices.getEventos(id).isEmpty());
+		assertTrue(historialPedidoServices.reconstruir(id).isEmpty());
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private List<String> resumen(Pedido pedido) {
+		return pedido.getLineas().stream()
+				.map(x -> x.getProducto().getId() + "x" + x.getCantidad() + "@" + x.getPrecio())
+				.sorted()
+				.toList();
+	}
+	
+	private Pedido crearPedido(LineaPedido... lineas) {
+		
+		Empleado empleado = new Empleado();
+		empleado.setId(11L);
+		
+		Establecimiento establecimiento = new Establecimiento();
+		establecimiento.setNIF("B38983321");
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(new Date());
+		pedido.setEstado(EstadoPedido.NUEVO);
+		pedido.setEmpleado(empleado);
+		pedido.setEstablecimiento(establecimiento);
+		pedido.setLineas(new ArrayList<>(List.of(lineas)));
+		
+		return pedido;
+	}
+	
+	private LineaPedido crearLinea(Long idProducto, int cantidad) {
+		
+		Producto producto = new Producto();
+		producto.setId(idProducto);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setProducto(producto);
+		linea.setCantidad(cantidad);
+		
+		return linea;
+	}
+	
+}
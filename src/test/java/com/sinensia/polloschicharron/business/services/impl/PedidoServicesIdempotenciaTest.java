@@ -0,0 +1,191 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
+import com.sinensia.polloschicharron.business.services.ArchivoPedidosServices;
+import com.sinensia.polloschicharron.business.services.ClaveIdempotenciaReutilizadaException;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+import com.sinensia.polloschicharron.integration.repositories.ClaveIdempotenciaPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.PedidoPLRepository;
+
+/**
+ * Creación idempotente con transacciones reales: la carrera entre dos peticiones con la misma clave
+ * se provoca de forma determinista desde HistorialPedidoServices, que se invoca entre la búsqueda de
+ * la clave y su inserción.
+ * 
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:idempotencia")
+class PedidoServicesIdempotenciaTest {
+
+	// La misma en todos los pedidos: los reintentos envían el mismo cuerpo
+	
+	private static final Date FECHA_HORA = new Date();
+	
+	@Autowired
+	private PedidoServices pedidoServices;
+	
+	@Autowired
+	private PedidoPLRepository pedidoPLRepository;
+	
+	@Autowired
+	private ClaveIdempotenciaPLRepository claveIdempotenciaPLRepository;
+	
+	@Autowired
+	private ArchivoPedidosServices archivoPedidosServices;
+	
+	@MockitoBean
+	private HistorialPedidoServices historialPedidoServices;
+	
+	@Test
+	void la_misma_clave_devuelve_el_mismo_pedido() {
+		
+		long pedidosAntes = pedidoPLRepository.count();
+		
+		PedidoCreadoDTO creado = pedidoServices.create(crearPedido(), "clave-repetida");
+		PedidoCreadoDTO repetido = pedidoServices.create(crearPedido(), "clave-repetida");
+		
+		assertEquals(creado, repetido);
+		assertEquals(15.0, repetido.total());
+		assertEquals(pedidosAntes + 1, pedidoPLRepository.count());
+	}
+	
+	@Test
+	void la_peticion_concurrente_con_la_misma_clave_se_deshace() {
+		
+		long pedidosAntes = pedidoPLRepository.count();
+		
+		// La primera petición ya ha buscado la clave sin encontrarla cuando la segunda se confirma entera
+		
+		AtomicBoolean primera = new AtomicBoolean(true);
+		AtomicReference<PedidoCreadoDTO> ganadora = new AtomicReference<>();
+		
+		doAnswer(invocation -> {
+			if(primera.getAndSet(false)) {
+				ganadora.set(CompletableFuture.supplyAsync(() -> pedidoServices.create(crearPedido(), "clave-concurrente")).join());
+			}
+			return null;
+		}).when(historialPedidoServices).registrarCreacion(any(Pedido.class));
+		
+		assertThrows(DataIntegrityViolationException.class, () -> pedidoServices.create(crearPedido(), "clave-concurrente"));
+		
+		assertEquals(pedidosAntes + 1, pedidoPLRepository.count());
+		assertEquals(ganadora.get().id(), claveIdempotenciaPLRepository.findById("clave-concurrente").get().getIdPedido());
+		assertEquals(ganadora.get(), pedidoServices.getPedidoCreadoByClaveIdempotencia("clave-concurrente", crearPedido()).get());
+	}
+	
+	@Test
+	void la_misma_clave_con_otro_pedido_se_rechaza() {
+		
+		PedidoCreadoDTO creado = pedidoServices.create(crearPedido(), "clave-reutilizada");
+		
+		Pedido otro = crearPedido();
+		otro.getLineas().get(0).setCantidad(20);
+		
+		long pedidosAntes = pedidoPLRepository.count();
+		
+		assertThrows(ClaveIdempotenciaReutilizadaException.class, () -> pedidoServices.create(otro, "clave-reutilizada"));
+		
+		assertEquals(pedidosAntes, pedidoPLRepository.count());
+		
+		// Los precios los asigna el servidor: que el cliente envíe otros no cambia el pedido
+		
+		Pedido conPrecios = crearPedido();
+		conPrecios.getLineas().get(0).setPrecio(1.0);
+		
+		assertEquals(creado, pedidoServices.create(conPrecios, "clave-reutilizada"));
+	}
+	
+	@Test
+	void el_total_de_una_clave_repetida_incluye_los_pedidos_archivados() {
+		
+		Pedido pedido = crearPedido();
+		pedido.setFechaHora(new GregorianCalendar(2020, Calendar.JANUARY, 15).getTime());
+		pedido.setEstado(EstadoPedido.SERVIDO);
+		
+		PedidoCreadoDTO creado = pedidoServices.create(pedido, "clave-archivada");
+		
+		archivoPedidosServices.archivar(30);
+		
+		assertTrue(pedidoPLRepository.findById(creado.id()).isEmpty());
+		
+		Pedido repetido = crearPedido();
+		repetido.setFechaHora(pedido.getFechaHora());
+		repetido.setEstado(EstadoPedido.SERVIDO);
+		
+		assertEquals(new PedidoCreadoDTO(creado.id(), 15.0), pedidoServices.create(repetido, "clave-archivada"));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Pedido crearPedido() {
+		
+		Empleado empleado = new Empleado();
+		empleado.setId(11L);
+		
+		Establecimiento establecimiento = new Establecimiento();
+		establecimiento.setNIF("B38983321");
+		
+		Cliente cliente = new Cliente();
+		cliente.setId(12L);
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(FECHA_HORA);
+		pedido.setEstado(EstadoPedido.NUEVO);
+		pedido.setEmpleado(empleado);
+		pedido.setEstablecimiento(establecimiento);
+		pedido.setCliente(cliente);
+		
+		List<LineaPedido> lineas = new ArrayList<>();
+		lineas.add(crearLinea(100L, 2));
+		lineas.add(crearLinea(103L, 1));
+		pedido.setLineas(lineas);
+		
+		return pedido;
+	}
+	
+	private LineaPedido crearLinea(Long idProducto, int cantidad) {
+		
+		Producto producto = new Producto();
+		producto.setId(idProducto);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setProducto(producto);
+		linea.setCantidad(cantidad);
+		
+		return linea;
+	}
+	
+}
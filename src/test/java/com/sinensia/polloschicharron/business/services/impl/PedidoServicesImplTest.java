@@ -0,0 +1,250 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.dozer.DozerBeanMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.sinensia.polloschicharron.business.cache.CacheIdempotencia;
+import com.sinensia.polloschicharron.business.cache.ClientesGold;
+import com.sinensia.polloschicharron.business.cache.ResolutorPrecios;
+import com.sinensia.polloschicharron.business.cache.TablaPrecios;
+import com.sinensia.polloschicharron.business.cache.TablaPrecios.Entrada;
+import com.sinensia.polloschicharron.business.events.LineasPedidoCambiadasEvent;
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
+import com.sinensia.polloschicharron.integration.model.LineaPedidoPL;
+import com.sinensia.polloschicharron.integration.model.PedidoPL;
+import com.sinensia.polloschicharron.integration.model.ProductoPL;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ClaveIdempotenciaPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.PedidoLecturaPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.PedidoPLRepository;
+import com.sinensia.polloschicharron.integration.repositories.ProyeccionPLRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoServicesImplTest {
+
+	@Mock
+	private PedidoPLRepository pedidoPLRepository;
+	
+	@Mock
+	private PedidoLecturaPLRepository pedidoLecturaPLRepository;
+	
+	@Mock
+	private ClaveIdempotenciaPLRepository claveIdempotenciaPLRepository;
+	
+	@Mock
+	private CacheIdempotencia cacheIdempotencia;
+	
+	@Mock
+	private ClientesGold clientesGold;
+	
+	@Mock
+	private ResolutorPrecios resolutorPrecios;
+	
+	@Mock
+	private HistorialPedidoServices historialPedidoServices;
+	
+	@Mock
+	private ProyeccionPLRepository proyeccionPLRepository;
+	
+	@Mock
+	private ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	
+	@Mock
+	private ApplicationEventPublisher applicationEventPublisher;
+	
+	@Mock
+	private DozerBeanMapper mapper;
+	
+	private PedidoServicesImpl pedidoServicesImpl;
+	
+	@BeforeEach
+	void init() {
+		
+		pedidoServicesImpl = new PedidoServicesImpl(pedidoPLRepository, pedidoLecturaPLRepository, claveIdempotenciaPLRepository, 
+													cacheIdempotencia, clientesGold, resolutorPrecios, historialPedidoServices,
+													proyeccionPLRepository, archivoPedidosPLRepository, applicationEventPublisher, mapper, 5);
+		
+		TablaPrecios tabla = new TablaPrecios(null, 0L, Map.of(100L, new Entrada(6.0, 4L, false),
+															   103L, new Entrada(2.35, 3L, false),
+															   105L, new Entrada(8.5, 9L, true)));
+		
+		when(resolutorPrecios.getTablaVigente()).thenReturn(tabla);
+	}
+	
+	@Test
+	void tarificamos_las_lineas_con_los_precios_vigentes() {
+		
+		PedidoPL pedidoPL = new PedidoPL();
+		pedidoPL.setId(2000L);
+		
+		when(mapper.map(any(Pedido.class), any())).thenReturn(pedidoPL);
+		when(pedidoPLRepository.save(pedidoPL)).thenReturn(pedidoPL);
+		
+		// Los precios que envía el cliente se ignoran
+		
+		Pedido pedido = crearPedido(null, linea(100L, 2, 1.0), linea(103L, 3, null));
+		
+		PedidoCreadoDTO creado = pedidoServicesImpl.create(pedido);
+		
+		assertEquals(2000L, creado.id());
+		assertEquals(19.05, creado.total());
+		assertEquals(6.0, pedido.getLineas().get(0).getPrecio());
+		assertEquals(2.35, pedido.getLineas().get(1).getPrecio());
+		
+		// Cliente gold: 5% por línea redondeado al céntimo (2,35 -> 2,23)
+		
+		when(clientesGold.isGold(10L)).thenReturn(true);
+		
+		Pedido pedidoGold = crearPedido(10L, linea(100L, 2, null), linea(103L, 1, null));
+		
+		assertEquals(13.63, pedidoServicesImpl.create(pedidoGold).total());
+		assertEquals(5.7, pedidoGold.getLineas().get(0).getPrecio());
+		assertEquals(2.23, pedidoGold.getLineas().get(1).getPrecio());
+	}
+	
+	@Test
+	void rechazamos_productos_descatalogados_o_inexistentes() {
+		
+		IllegalStateException descatalogado = assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.create(crearPedido(null, linea(100L, 1, null), linea(105L, 1, 8.5))));
+		IllegalStateException inexistente = assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.create(crearPedido(null, linea(666L, 1, 1.0))));
+		
+		assertTrue(descatalogado.getMessage().contains("105"));
+		assertTrue(inexistente.getMessage().contains("666"));
+		
+		assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.create(crearPedido(null, new LineaPedido())));
+		
+		verify(pedidoPLRepository, never()).save(any());
+	}
+	
+	@Test
+	void rechazamos_cantidades_que_no_son_positivas() {
+		
+		IllegalStateException cero = assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.create(crearPedido(null, linea(100L, 0, null))));
+		IllegalStateException negativa = assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.create(crearPedido(null, linea(100L, 1, null), linea(103L, -2, null))));
+		
+		assertTrue(cero.getMessage().contains("100"));
+		assertTrue(negativa.getMessage().contains("103"));
+		
+		// Al modificar también se rechaza una línea cambiada a una cantidad negativa
+		
+		PedidoPL guardado = new PedidoPL();
+		guardado.setId(1000L);
+		guardado.setLineas(new ArrayList<>(List.of(lineaPL(100L, 2, 5.0))));
+		
+		when(pedidoPLRepository.findById(1000L)).thenReturn(Optional.of(guardado));
+		
+		Pedido pedido = crearPedido(null, linea(100L, -2, 5.0));
+		pedido.setId(1000L);
+		
+		assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.update(pedido));
+		
+		verify(pedidoPLRepository, never()).save(any());
+	}
+	
+	@Test
+	void al_modificar_conservamos_los_precios_guardados_y_tarificamos_las_lineas_cambiadas() {
+		
+		PedidoPL guardado = new PedidoPL();
+		guardado.setId(1000L);
+		guardado.setLineas(new ArrayList<>(List.of(lineaPL(100L, 2, 5.0), lineaPL(103L, 1, 2.0))));
+		
+		when(pedidoPLRepository.findById(1000L)).thenReturn(Optional.of(guardado));
+		when(mapper.map(any(Pedido.class), any())).thenReturn(guardado);
+		
+		// La primera línea no cambia (precio guardado), la segunda cambia de cantidad y la tercera es nueva
+		
+		Pedido pedido = crearPedido(null, linea(100L, 2, 0.01), linea(103L, 3, 0.01), linea(100L, 1, 0.01));
+		pedido.setId(1000L);
+		
+		pedidoServicesImpl.update(pedido);
+		
+		assertEquals(5.0, pedido.getLineas().get(0).getPrecio());
+		assertEquals(2.35, pedido.getLineas().get(1).getPrecio());
+		assertEquals(6.0, pedido.getLineas().get(2).getPrecio());
+		
+		verify(pedidoPLRepository).save(guardado);
+		verify(applicationEventPublisher).publishEvent(argThat((Object x) -> x instanceof LineasPedidoCambiadasEvent e && e.getUnidadesAnteriores().equals(Map.of(100L, 2L, 103L, 1L))));
+		
+		// Una línea cambiada a un producto descatalogado no se guarda
+		
+		Pedido descatalogado = crearPedido(null, linea(100L, 2, 5.0), linea(105L, 1, 8.5));
+		descatalogado.setId(1000L);
+		
+		assertThrows(IllegalStateException.class, () -> pedidoServicesImpl.update(descatalogado));
+		
+		verify(pedidoPLRepository).save(any());
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Pedido crearPedido(Long idCliente, LineaPedido... lineas) {
+		
+		Pedido pedido = new Pedido();
+		pedido.setEstado(EstadoPedido.NUEVO);
+		pedido.setLineas(new ArrayList<>(List.of(lineas)));
+		
+		if(idCliente != null) {
+			Cliente cliente = new Cliente();
+			cliente.setId(idCliente);
+			pedido.setCliente(cliente);
+		}
+		
+		return pedido;
+	}
+	
+	private LineaPedido linea(Long idProducto, int cantidad, Double precio) {
+		
+		Producto producto = new Producto();
+		producto.setId(idProducto);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setProducto(producto);
+		linea.setCantidad(cantidad);
+		linea.setPrecio(precio);
+		
+		return linea;
+	}
+	
+	private LineaPedidoPL lineaPL(Long idProducto, int cantidad, Double precio) {
+		
+		ProductoPL producto = new ProductoPL();
+		producto.setId(idProducto);
+		
+		LineaPedidoPL linea = new LineaPedidoPL();
+		linea.setProducto(producto);
+		linea.setCantidad(cantidad);
+		linea.setPrecio(precio);
+		
+		return linea;
+	}
+	
+}
@@ -0,0 +1,281 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sinensia.polloschicharron.business.analitica.ClientesDistintos;
+import com.sinensia.polloschicharron.business.analitica.Recalculo;
+import com.sinensia.polloschicharron.business.model.EstadoRecalculo;
+import com.sinensia.polloschicharron.business.model.InformeRecalculable;
+import com.sinensia.polloschicharron.business.model.RecalculoInforme;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRecalculoDTO;
+import com.sinensia.polloschicharron.integration.model.RangoCodigosPL;
+import com.sinensia.polloschicharron.integration.repositories.ArchivoPedidosPLRepository;
+
+class RecalculoInformesServicesImplTest {
+
+	private ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	private ClientesDistintos clientesDistintos;
+	
+	private RecalculoInformesServicesImpl recalculoInformesServicesImpl;
+	
+	@BeforeEach
+	void init() {
+		archivoPedidosPLRepository = mock(ArchivoPedidosPLRepository.class);
+		clientesDistintos = mock(ClientesDistintos.class);
+		recalculoInformesServicesImpl = new RecalculoInformesServicesImpl(archivoPedidosPLRepository, clientesDistintos, 4, 1000, Duration.ofHours(24));
+	}
+	
+	@AfterEach
+	void detener() {
+		recalculoInformesServicesImpl.detener();
+	}
+	
+	@Test
+	void recalculamos_todos_los_tramos_en_paralelo() throws Exception {
+		
+		when(archivoPedidosPLRepository.getRangoCodigos()).thenReturn(Optional.of(new RangoCodigosPL(1, 100_500)));
+		
+		ContarCodigos contar = new ContarCodigos(false);
+		doReturn(contar).when(clientesDistintos).recalculo(null, null);
+		
+		ProgresoRecalculoDTO progreso = esperar(recalculoInformesServicesImpl.iniciar(crearPeticion(null, null)));
+		
+		assertEquals(EstadoRecalculo.COMPLETADO, progreso.estado());
+		assertEquals(101, progreso.tramosTotales());
+		assertEquals(101, progreso.tramosCompletados());
+		assertEquals(100_500, contar.aplicado);
+		assertTrue(contar.hilos.size() > 1);
+		assertFalse(contar.descartado);
+	}
+	
+	@Test
+	void cancelamos_sin_aplicar_el_resultado() throws Exception {
+		
+		when(archivoPedidosPLRepository.getRangoCodigos()).thenReturn(Optional.of(new RangoCodigosPL(1, 100_000)));
+		
+		ContarCodigos contar = new ContarCodigos(true);
+		doReturn(contar).when(clientesDistintos).recalculo(null, null);
+		
+		Long id = recalculoInformesServicesImpl.iniciar(crearPeticion(null, null));
+		
+		recalculoInformesServicesImpl.cancelar(id);
+		
+		ProgresoRecalculoDTO progreso = esperar(id);
+		
+		assertEquals(EstadoRecalculo.CANCELADO, progreso.estado());
+		assertNull(contar.aplicado);
+		assertTrue(contar.descartado);
+		
+		assertThrows(IllegalStateException.class, () -> recalculoInformesServicesImpl.cancelar(666L));
+	}
+	
+	@Test
+	void si_falla_un_tramo_paramos_los_demas_antes_de_descartar() throws Exception {
+		
+		when(archivoPedidosPLRepository.getRangoCodigos()).thenReturn(Optional.of(new RangoCodigosPL(1, 100_000)));
+		
+		FallarUltimoTramo fallar = new FallarUltimoTramo(99_001);
+		doReturn(fallar).when(clientesDistintos).recalculo(null, null);
+		
+		ProgresoRecalculoDTO progreso = esperar(recalculoInformesServicesImpl.iniciar(crearPeticion(null, null)));
+		
+		assertEquals(EstadoRecalculo.FALLIDO, progreso.estado());
+		assertTrue(progreso.error().contains("Tramo roto"));
+		assertEquals(0, fallar.enCursoAlDescartar);
+	}
+	
+	@Test
+	void olvidamos_los_recalculos_terminados_despues_de_la_retencion() throws Exception {
+		
+		RecalculoInformesServicesImpl sinRetencion = new RecalculoInformesServicesImpl(archivoPedidosPLRepository, clientesDistintos, 4, 1000, Duration.ZERO);
+		
+		try {
+			
+			when(archivoPedidosPLRepository.getRangoCodigos()).thenReturn(Optional.of(new RangoCodigosPL(1, 5_000)));
+			when(clientesDistintos.recalculo(null, null)).then(x -> new ContarCodigos(false));
+			
+			Long id1 = sinRetencion.iniciar(crearPeticion(null, null));
+			
+			while(sinRetencion.getProgreso(id1).get().fin() == null) {
+				Thread.sleep(10);
+			}
+			
+			Long id2 = sinRetencion.iniciar(crearPeticion(null, null));
+			
+			assertTrue(sinRetencion.getProgreso(id1).isEmpty());
+			assertTrue(sinRetencion.getProgreso(id2).isPresent());
+			
+		} finally {
+			sinRetencion.detener();
+		}
+	}
+	
+	@Test
+	void validamos_la_peticion() {
+		
+		LocalDate dia = LocalDate.of(2023, 4, 17);
+		
+		assertThrows(IllegalStateException.class, () -> recalculoInformesServicesImpl.iniciar(new RecalculoInforme()));
+		assertThrows(IllegalStateException.class, () -> recalculoInformesServicesImpl.iniciar(crearPeticion(dia, dia)));
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private RecalculoInforme crearPeticion(LocalDate desde, LocalDate hasta) {
+		
+		RecalculoInforme peticion = new RecalculoInforme();
+		peticion.setInforme(InformeRecalculable.CLIENTES_DISTINTOS);
+		peticion.setDesde(desde);
+		peticion.setHasta(hasta);
+		
+		return peticion;
+	}
+	
+	private ProgresoRecalculoDTO esperar(Long id) throws InterruptedException {
+		
+		for(int i = 0; i < 500; i++) {
+			
+			ProgresoRecalculoDTO progreso = recalculoInformesServicesImpl.getProgreso(id).get();
+			
+			if(progreso.fin() != null) {
+				return progreso;
+			}
+			
+			Thread.sleep(10);
+		}
+		
+		throw new AssertionError("El recálculo " + id + " no termina");
+	}
+	
+	/**
+	 * Cuenta los códigos de pedido de los tramos. Si esperarCancelacion, cada tramo espera a que lo cancelen.
+	 * 
+	 */
+	private static class ContarCodigos implements Recalculo<Long> {
+		
+		private final boolean esperarCancelacion;
+		private final Set<String> hilos = ConcurrentHashMap.newKeySet();
+		
+		private volatile Long aplicado;
+		private volatile boolean descartado;
+		
+		private ContarCodigos(boolean esperarCancelacion) {
+			this.esperarCancelacion = esperarCancelacion;
+		}
+		
+		@Override
+		public Long calcular(long desdeCodigo, long hastaCodigo, BooleanSupplier cancelado) {
+			
+			hilos.add(Thread.currentThread().getName());
+			
+			while(esperarCancelacion) {
+				
+				if(cancelado.getAsBoolean()) {
+					throw new CancellationException();
+				}
+				
+				Thread.onSpinWait();
+			}
+			
+			// Deja tiempo para que otros hilos cojan tramos
+			
+			try {
+				Thread.sleep(1);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			return hastaCodigo - desdeCodigo + 1;
+		}
+
+		@Override
+		public Long combinar(Long resultado1, Long resultado2) {
+			return resultado1 + resultado2;
+		}
+
+		@Override
+		public void aplicar(Long resultado) {
+			aplicado = resultado;
+		}
+
+		@Override
+		public void descartar() {
+			descartado = true;
+		}
+	}
+	
+	/**
+	 * El tramo que empieza en codigoFallido falla y los demás esperan a que los cancelen
+	 * 
+	 */
+	private static class FallarUltimoTramo implements Recalculo<Long> {
+		
+		private final long codigoFallido;
+		private final AtomicInteger enCurso = new AtomicInteger();
+		
+		private volatile int enCursoAlDescartar = -1;
+		
+		private FallarUltimoTramo(long codigoFallido) {
+			this.codigoFallido = codigoFallido;
+		}
+		
+		@Override
+		public Long calcular(long desdeCodigo, long hastaCodigo, BooleanSupplier cancelado) {
+			
+			if(desdeCodigo == codigoFallido) {
+				throw new IllegalStateException("Tramo roto");
+			}
+			
+			enCurso.incrementAndGet();
+			
+			try {
+				while(!cancelado.getAsBoolean()) {
+					Thread.onSpinWait();
+				}
+				throw new CancellationException();
+			} finally {
+				enCurso.decrementAndGet();
+			}
+		}
+
+		@Override
+		public Long combinar(Long resultado1, Long resultado2) {
+			return resultado1 + resultado2;
+		}
+
+		@Override
+		public void aplicar(Long resultado) {
+			throw new AssertionError("No se ha de aplicar");
+		}
+
+		@Override
+		public void descartar() {
+			enCursoAlDescartar = enCurso.get();
+		}
+	}
+	
+}
@@ -0,0 +1,254 @@
+package com.sinensia.polloschicharron.business.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+import com.sinensia.polloschicharron.business.model.EstadoRevisionPrecios;
+import com.sinensia.polloschicharron.business.model.RevisionPrecios;
+import com.sinensia.polloschicharron.business.model.TipoRevisionPrecios;
+import com.sinensia.polloschicharron.business.model.dtos.CambioPrecioDTO;
+import com.sinensia.polloschicharron.business.model.dtos.ProgresoRevisionPreciosDTO;
+import com.sinensia.polloschicharron.integration.model.ProductoPL;
+import com.sinensia.polloschicharron.integration.repositories.ProductoPLRepository;
+
+/**
+ * Sin transacción de test: cada lote se confirma (o se deshace) de verdad en su propia transacción.
+ * 
+ * La familia 9 son los productos 104 a 114: con lotes de 3 se recorre en 4 lotes.
+ * 
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+class RevisionPreciosServicesImplTest {
+
+	@Autowired
+	private ProductoPLRepository productoPLRepository;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private final List<Object> eventos = new CopyOnWriteArrayList<>();
+	private final AtomicInteger lotesBuscados = new AtomicInteger();
+	
+	private volatile IntConsumer alBuscarLote = x -> {};
+	
+	private RevisionPreciosServicesImpl revisionPreciosServicesImpl;
+	
+	@BeforeEach
+	void init() {
+		
+		// Delega en el repositorio real y avisa antes de buscar cada lote
+		
+		ProductoPLRepository repositorio = (ProductoPLRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ProductoPLRepository.class}, (proxy, method, args) -> {
+			
+			if(method.getName().equals("findLoteRevision")) {
+				alBuscarLote.accept(lotesBuscados.incrementAndGet());
+			}
+			
+			try {
+				return method.invoke(productoPLRepository, args);
+			} catch(InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+		
+		revisionPreciosServicesImpl = new RevisionPreciosServicesImpl(repositorio, transactionManager, eventos::add, 500, Duration.ofHours(24));
+	}
+	
+	@AfterEach
+	void detener() {
+		revisionPreciosServicesImpl.detener();
+	}
+	
+	@Test
+	void aplicamos_la_revision_por_lotes_ordenados_por_id() throws Exception {
+		
+		ProgresoRevisionPreciosDTO progreso = esperar(revisionPreciosServicesImpl.iniciar(crearRevision(TipoRevisionPrecios.IMPORTE, 1.0)));
+		
+		assertEquals(EstadoRevisionPrecios.COMPLETADA, progreso.estado());
+		assertEquals(4, progreso.lotesCompletados());
+		assertEquals(11, progreso.productosActualizados());
+		assertEquals(114L, progreso.ultimoIdProcesado());
+		
+		assertEquals(7.7, getPrecio(104L), 0.001);
+		assertEquals(10.9, getPrecio(114L), 0.001);
+		assertEquals(6.0, getPrecio(100L), 0.001);
+		
+		// La caché del catálogo se invalida una vez, al terminar
+		
+		assertEquals(1, eventos.size());
+		assertTrue(eventos.get(0) instanceof CatalogoModificadoEvent);
+	}
+	
+	@Test
+	void un_lote_fallido_se_deshace_y_la_revision_se_reanuda_desde_el_ultimo_confirmado() throws Exception {
+		
+		// El tercer lote (110, 111, 112) deja el 112 en negativo: 6.5 - 6.6
+		
+		Long id = revisionPreciosServicesImpl.iniciar(crearRevision(TipoRevisionPrecios.IMPORTE, -6.6));
+		
+		ProgresoRevisionPreciosDTO progreso = esperar(id);
+		
+		assertEquals(EstadoRevisionPrecios.FALLIDA, progreso.estado());
+		assertNotNull(progreso.error());
+		assertEquals(2, progreso.lotesCompletados());
+		assertEquals(109L, progreso.ultimoIdProcesado());
+		
+		assertEquals(0.1, getPrecio(104L), 0.001);
+		assertEquals(0.1, getPrecio(109L), 0.001);
+		assertEquals(8.0, getPrecio(110L), 0.001);
+		assertEquals(7.0, getPrecio(111L), 0.001);
+		
+		ProductoPL producto = productoPLRepository.findById(112L).get();
+		producto.setPrecio(7.0);
+		productoPLRepository.save(producto);
+		
+		revisionPreciosServicesImpl.reanudar(id);
+		
+		progreso = esperar(id);
+		
+		assertEquals(EstadoRevisionPrecios.COMPLETADA, progreso.estado());
+		assertEquals(4, progreso.lotesCompletados());
+		assertEquals(11, progreso.productosActualizados());
+		
+		assertEquals(0.1, getPrecio(104L), 0.001);
+		assertEquals(1.4, getPrecio(110L), 0.001);
+		assertEquals(0.4, getPrecio(112L), 0.001);
+		assertEquals(3.3, getPrecio(114L), 0.001);
+		
+		assertEquals(2, eventos.size());
+	}
+	
+	@Test
+	void interrumpimos_y_reanudamos_sin_aplicar_dos_veces_ningun_lote() throws Exception {
+		
+		// Es la primera revisión del servicio: id 1
+		
+		alBuscarLote = x -> {
+			if(x == 2) {
+				revisionPreciosServicesImpl.interrumpir(1L);
+			}
+		};
+		
+		Long id = revisionPreciosServicesImpl.iniciar(crearRevision(TipoRevisionPrecios.IMPORTE, 1.0));
+		
+		ProgresoRevisionPreciosDTO progreso = esperar(id);
+		
+		// El lote en curso termina y se confirma
+		
+		assertEquals(EstadoRevisionPrecios.INTERRUMPIDA, progreso.estado());
+		assertEquals(2, progreso.lotesCompletados());
+		assertEquals(109L, progreso.ultimoIdProcesado());
+		assertEquals(7.7, getPrecio(109L), 0.001);
+		assertEquals(8.0, getPrecio(110L), 0.001);
+		
+		revisionPreciosServicesImpl.reanudar(id);
+		
+		progreso = esperar(id);
+		
+		assertEquals(EstadoRevisionPrecios.COMPLETADA, progreso.estado());
+		assertEquals(4, progreso.lotesCompletados());
+		assertEquals(11, progreso.productosActualizados());
+		assertEquals(7.7, getPrecio(104L), 0.001);
+		assertEquals(9.0, getPrecio(110L), 0.001);
+		
+		assertThrows(IllegalStateException.class, () -> revisionPreciosServicesImpl.reanudar(id));
+	}
+	
+	@Test
+	void olvidamos_las_revisiones_terminadas_despues_de_la_retencion() throws Exception {
+		
+		revisionPreciosServicesImpl.detener();
+		revisionPreciosServicesImpl = new RevisionPreciosServicesImpl(productoPLRepository, transactionManager, eventos::add, 500, Duration.ZERO);
+		
+		Long id1 = revisionPreciosServicesImpl.iniciar(crearRevision(TipoRevisionPrecios.IMPORTE, 1.0));
+		
+		esperar(id1);
+		
+		Long id2 = revisionPreciosServicesImpl.iniciar(crearRevision(TipoRevisionPrecios.IMPORTE, 1.0));
+		
+		assertTrue(revisionPreciosServicesImpl.getProgreso(id1).isEmpty());
+		assertTrue(revisionPreciosServicesImpl.getProgreso(id2).isPresent());
+		
+		esperar(id2);
+	}
+	
+	@Test
+	void la_simulacion_devuelve_los_cambios_sin_modificar_precios() {
+		
+		RevisionPrecios revision = crearRevision(TipoRevisionPrecios.PORCENTAJE, 10.0);
+		revision.setIdFamilia(null);
+		revision.setIds(List.of(115L, 100L, 104L));
+		revision.setTamanoLote(2);
+		
+		List<CambioPrecioDTO> cambios = revisionPreciosServicesImpl.simular(revision);
+		
+		assertEquals(List.of(100L, 104L, 115L), cambios.stream().map(CambioPrecioDTO::idProducto).toList());
+		assertEquals(6.6, cambios.get(0).precioNuevo(), 0.001);
+		assertEquals(7.37, cambios.get(1).precioNuevo(), 0.001);
+		
+		assertEquals(6.0, getPrecio(100L), 0.001);
+		assertEquals(2, lotesBuscados.get());
+		assertTrue(eventos.isEmpty());
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private RevisionPrecios crearRevision(TipoRevisionPrecios tipo, double valor) {
+		
+		RevisionPrecios revision = new RevisionPrecios();
+		revision.setTipo(tipo);
+		revision.setValor(valor);
+		revision.setIdFamilia(9L);
+		revision.setTamanoLote(3);
+		
+		return revision;
+	}
+	
+	private double getPrecio(Long idProducto) {
+		return productoPLRepository.findById(idProducto).get().getPrecio();
+	}
+	
+	private ProgresoRevisionPreciosDTO esperar(Long id) throws InterruptedException {
+		
+		for(int i = 0; i < 500; i++) {
+			
+			ProgresoRevisionPreciosDTO progreso = revisionPreciosServicesImpl.getProgreso(id).get();
+			
+			if(progreso.fin() != null) {
+				return progreso;
+			}
+			
+			Thread.sleep(10);
+		}
+		
+		throw new AssertionError("La revisión de precios " + id + " no termina");
+	}
+	
+}
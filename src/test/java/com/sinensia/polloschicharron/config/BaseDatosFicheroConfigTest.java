@@ -0,0 +1,45 @@
+package com.sinensia.polloschicharron.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.h2.Driver;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+class BaseDatosFicheroConfigTest {
+
+	@Test
+	void solo_cargamos_los_datos_en_la_base_de_datos_vacia_y_creamos_las_tablas_que_falten() {
+		
+		SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:inicializacion;DB_CLOSE_DELAY=-1", "sa", "");
+		
+		SqlInitializationProperties properties = new SqlInitializationProperties();
+		properties.setSchemaLocations(List.of("classpath:/data/h2/schema.sql"));
+		properties.setDataLocations(List.of("classpath:/data/h2/data.sql"));
+		properties.setMode(DatabaseInitializationMode.ALWAYS);
+		
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		
+		assertTrue(new BaseDatosFicheroConfig.InicializadorDatosSiVacia(dataSource, properties).initializeDatabase());
+		
+		int pedidos = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Integer.class);
+		
+		// Un fichero creado con una versión anterior del esquema, sin una de las tablas nuevas
+		
+		jdbcTemplate.execute("DROP TABLE CLIENTES_DISTINTOS");
+		
+		new BaseDatosFicheroConfig.InicializadorDatosSiVacia(dataSource, properties).initializeDatabase();
+		
+		assertEquals(pedidos, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Integer.class));
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CLIENTES_DISTINTOS", Integer.class));
+		
+		jdbcTemplate.execute("SHUTDOWN");
+	}
+	
+}
@@ -0,0 +1,35 @@
+package com.sinensia.polloschicharron.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3;
+import com.sinensia.polloschicharron.integration.model.ProductoPL;
+
+class ImagenNativaConfigTest {
+
+	@Test
+	void registramos_dozer_dtos_y_recursos() throws Exception {
+		
+		RuntimeHints hints = new RuntimeHints();
+		
+		new ImagenNativaConfig.PistasImagenNativa().registerHints(hints, getClass().getClassLoader());
+		
+		assertTrue(RuntimeHintsPredicates.reflection().onType(ProductoDTO3.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(PedidoDTO1.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(Producto.class.getMethod("setPrecio", Double.class)).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(ProductoPL.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(org.dozer.util.DefaultClassLoader.class).test(hints));
+		
+		assertTrue(RuntimeHintsPredicates.resource().forResource("dozer-configuration-mappings.xml").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("beanmapping.xsd").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("data/h2/schema.sql").test(hints));
+	}
+	
+}
@@ -0,0 +1,106 @@
+package com.sinensia.polloschicharron.integration.copias;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.h2.Driver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.UncategorizedScriptException;
+
+class VolcadoH2Test {
+
+	@TempDir
+	private Path directorio;
+	
+	@Test
+	void volcamos_y_restauramos_la_base_de_datos() throws IOException {
+		
+		SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:volcado;DB_CLOSE_DELAY=-1", "sa", "");
+		
+		new ResourceDatabasePopulator(new ClassPathResource("data/h2/schema.sql"), new ClassPathResource("data/h2/data.sql")).execute(dataSource);
+		
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		VolcadoH2 volcadoH2 = new VolcadoH2(dataSource);
+		
+		int pedidos = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Integer.class);
+		
+		Path copia = directorio.resolve("copia.sql.gz");
+		
+		long bytes;
+		
+		try(OutputStream salida = Files.newOutputStream(copia)) {
+			bytes = volcadoH2.exportar(salida, 0);
+		}
+		
+		assertEquals(Files.size(copia), bytes);
+		
+		jdbcTemplate.update("DELETE FROM LINEAS_PEDIDO");
+		jdbcTemplate.update("DELETE FROM PEDIDOS");
+		
+		volcadoH2.importar(copia, directorio.resolve("previa.sql.gz"));
+		
+		assertEquals(pedidos, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Integer.class));
+		
+		jdbcTemplate.execute("SHUTDOWN");
+	}
+	
+	@Test
+	void si_el_volcado_falla_volvemos_a_cargar_la_copia_previa() throws IOException {
+		
+		SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:volcadofallido;DB_CLOSE_DELAY=-1", "sa", "");
+		
+		new ResourceDatabasePopulator(new ClassPathResource("data/h2/schema.sql"), new ClassPathResource("data/h2/data.sql")).execute(dataSource);
+		
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		VolcadoH2 volcadoH2 = new VolcadoH2(dataSource);
+		
+		int pedidos = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Integer.class);
+		
+		Path roto = directorio.resolve("roto.sql.gz");
+		
+		try(OutputStream salida = new GZIPOutputStream(Files.newOutputStream(roto))) {
+			salida.write("CREATE TABLE A(ID INT);\nESTO NO ES SQL;\n".getBytes(StandardCharsets.UTF_8));
+		}
+		
+		Path previa = directorio.resolve("previa.sql.gz");
+		
+		assertThrows(UncategorizedScriptException.class, () -> volcadoH2.importar(roto, previa));
+		
+		assertTrue(Files.isRegularFile(previa));
+		assertEquals(pedidos, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PEDIDOS", Integer.class));
+		
+		jdbcTemplate.execute("SHUTDOWN");
+	}
+	
+	@Test
+	void limitamos_la_velocidad_de_escritura() throws IOException {
+		
+		long inicio = System.nanoTime();
+		
+		try(SalidaLimitada salida = new SalidaLimitada(new ByteArrayOutputStream(), 100_000)) {
+			for(int i = 0; i < 10; i++) {
+				salida.write(new byte[2_000]);
+			}
+			assertEquals(20_000, salida.getEscritos());
+		}
+		
+		// 20 KB a 100 KB/s: unos 200 ms
+		
+		assertTrue(System.nanoTime() - inicio >= 150_000_000L);
+	}
+	
+}
@@ -0,0 +1,175 @@
+package com.sinensia.polloschicharron.integration.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.EventoPedido;
+import com.sinensia.polloschicharron.business.model.TipoEventoPedido;
+
+class PedidoJournalTest {
+
+	@TempDir
+	private Path directorio;
+
+	@Test
+	void escribimos_y_leemos_eventos_de_un_pedido() {
+
+		try(PedidoJournal journal = new PedidoJournal(directorio, 16)) {
+
+			journal.append(EventoPedido.pedidoCreado(1000L, 1L, EstadoPedido.NUEVO, 11L, null));
+			journal.append(EventoPedido.lineaAnadida(1000L, 1L, 100L, 2, 600));
+			journal.append(EventoPedido.pedidoCreado(1001L, 2L, EstadoPedido.NUEVO, 13L, 10L));
+			journal.append(EventoPedido.estadoCambiado(1000L, 3L, EstadoPedido.SERVIDO));
+
+			List<EventoPedido> eventos = journal.getEventos(1000L);
+
+			assertEquals(3, eventos.size());
+
+			assertEquals(TipoEventoPedido.PEDIDO_CREADO, eventos.get(0).getTipo());
+			assertEquals(11L, eventos.get(0).getIdEmpleado());
+			assertNull(eventos.get(0).getIdCliente());
+
+			assertEquals(TipoEventoPedido.LINEA_ANADIDA, eventos.get(1).getTipo());
+			assertEquals(100L, eventos.get(1).getIdProducto());
+			assertEquals(2, eventos.get(1).getCantidad());
+			assertEquals(600, eventos.get(1).getPrecioCentimos());
+
+			assertEquals(EstadoPedido.SERVIDO, eventos.get(2).getEstado());
+			assertEquals(3L, eventos.get(2).getSecuencia());
+
+			assertEquals(10L, journal.getEventos(1001L).get(0).getIdCliente());
+			assertTrue(journal.getEventos(666L).isEmpty());
+		}
+	}
+
+	@Test
+	void rolamos_segmentos_y_reabrimos_el_journal() {
+
+		try(PedidoJournal journal = new PedidoJournal(directorio, 4)) {
+
+			for(long i = 0; i < 10; i++) {
+				journal.append(EventoPedido.lineaAnadida(i % 3, i, 100L + i, 1, 100));
+			}
+
+			assertEquals(3, journal.getNumeroSegmentos());
+		}
+
+		try(PedidoJournal journal = new PedidoJournal(directorio, 4)) {
+
+			assertEquals(10, journal.size());
+			assertEquals(4, journal.getEventos(0L).size());
+
+			journal.append(EventoPedido.estadoCambiado(0L, 11L, EstadoPedido.CANCELADO));
+
+			List<Long> secuencias = new ArrayList<>();
+			journal.replay(8, x -> secuencias.add(x.getSecuencia()));
+
+			assertEquals(List.of(8L, 9L, 10L), secuencias);
+			assertEquals(5, journal.getEventos(0L).size());
+		}
+	}
+
+	@Test
+	void el_replay_no_se_ve_afectado_por_los_segmentos_que_se_rolan_mientras_tanto() throws InterruptedException {
+
+		try(PedidoJournal journal = new PedidoJournal(directorio, 2)) {
+
+			for(long i = 0; i < 1000; i++) {
+				journal.append(EventoPedido.lineaAnadida(i, i, 100L, 1, 100));
+			}
+
+			Thread escritor = new Thread(() -> {
+				for(long i = 1000; i < 3000; i++) {
+					journal.append(EventoPedido.lineaAnadida(i, i, 100L, 1, 100));
+				}
+			});
+
+			escritor.start();
+
+			for(int i = 0; i < 20; i++) {
+
+				AtomicLong esperada = new AtomicLong();
+
+				journal.replay(x -> assertEquals(esperada.getAndIncrement(), x.getSecuencia()));
+
+				assertTrue(esperada.get() >= 1000);
+			}
+
+			escritor.join();
+
+			assertEquals(3000, journal.size());
+		}
+	}
+
+	@Test
+	void al_reiniciar_apartamos_los_segmentos_y_empezamos_de_cero() throws Exception {
+
+		try(PedidoJournal journal = new PedidoJournal(directorio, 4)) {
+
+			for(long i = 0; i < 6; i++) {
+				journal.append(EventoPedido.lineaAnadida(1000L, i, 100L, 1, 100));
+			}
+
+			journal.reiniciar();
+
+			assertEquals(0, journal.size());
+			assertTrue(journal.getEventos(1000L).isEmpty());
+
+			assertEquals(0, journal.append(EventoPedido.estadoCambiado(1000L, 7L, EstadoPedido.SERVIDO)));
+		}
+
+		// Los segmentos anteriores se conservan aparte y no se vuelven a leer al abrir el journal
+
+		try(Stream<Path> ficheros = Files.list(directorio)) {
+			Path anterior = ficheros.filter(Files::isDirectory).findFirst().orElseThrow();
+			try(Stream<Path> segmentos = Files.list(anterior)) {
+				assertEquals(2, segmentos.count());
+			}
+		}
+
+		try(PedidoJournal journal = new PedidoJournal(directorio, 4)) {
+			assertEquals(1, journal.size());
+			assertEquals(TipoEventoPedido.ESTADO_CAMBIADO, journal.getEventos(1000L).get(0).getTipo());
+		}
+	}
+
+	@Test
+	void el_journal_temporal_se_borra_al_cerrarlo() {
+
+		PedidoJournal journal = PedidoJournal.temporal(4);
+
+		journal.append(EventoPedido.estadoCambiado(1000L, 1L, EstadoPedido.SERVIDO));
+
+		Path directorioTemporal = journal.getDirectorio();
+
+		assertTrue(Files.isDirectory(directorioTemporal));
+
+		journal.close();
+		journal.close();
+
+		assertFalse(Files.exists(directorioTemporal));
+
+		assertThrows(IllegalStateException.class, () -> journal.replay(x -> {}));
+		assertThrows(IllegalStateException.class, () -> journal.getEventos(1000L));
+		assertThrows(IllegalStateException.class, () -> journal.append(EventoPedido.estadoCambiado(1000L, 2L, EstadoPedido.CANCELADO)));
+
+		try(PedidoJournal otro = PedidoJournal.temporal(4)) {
+			assertEquals(0, otro.size());
+		}
+	}
+
+}
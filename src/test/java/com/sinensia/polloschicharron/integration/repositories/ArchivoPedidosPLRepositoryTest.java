@@ -0,0 +1,85 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.integration.model.EstadoPedidoPL;
+import com.sinensia.polloschicharron.integration.model.PedidoPL;
+
+@DataJpaTest
+@Import(ArchivoPedidosPLRepository.class)
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class ArchivoPedidosPLRepositoryTest {
+
+	@Autowired
+	private ArchivoPedidosPLRepository archivoPedidosPLRepository;
+	
+	@Autowired
+	private PedidoPLRepository pedidoPLRepository;
+	
+	@Autowired
+	private TestEntityManager testEntityManager;
+	
+	@Test
+	void archivarLoteTest() {
+		
+		Date desde = toDate(LocalDate.of(2023, 4, 1));
+		Date hasta = toDate(LocalDate.of(2023, 5, 1));
+		
+		List<PedidoPL> pedidos = pedidoPLRepository.findAll();
+		
+		long cerrados = pedidos.stream().filter(x -> x.getEstado() == EstadoPedidoPL.SERVIDO || x.getEstado() == EstadoPedidoPL.CANCELADO).count();
+		int lineas1000 = pedidoPLRepository.findById(1000L).get().getLineas().size();
+		
+		testEntityManager.clear();
+		
+		archivoPedidosPLRepository.crearParticion("2023_04");
+		
+		assertEquals(5, archivoPedidosPLRepository.archivarLote("2023_04", desde, hasta, 5));
+		
+		long archivados = 5;
+		int lote;
+		
+		while((lote = archivoPedidosPLRepository.archivarLote("2023_04", desde, hasta, 5)) > 0) {
+			archivados += lote;
+		}
+		
+		assertEquals(cerrados, archivados);
+		assertEquals(pedidos.size() - cerrados, pedidoPLRepository.count());
+		assertTrue(archivoPedidosPLRepository.findFechaMasAntigua(hasta).isEmpty());
+		
+		assertTrue(pedidoPLRepository.findById(1000L).isEmpty());
+		
+		PedidoPL archivado = archivoPedidosPLRepository.findById(1000L).get();
+		
+		assertEquals(EstadoPedidoPL.SERVIDO, archivado.getEstado());
+		assertEquals(11L, archivado.getEmpleado().getId());
+		assertEquals("B38983321", archivado.getEstablecimiento().getNIF());
+		assertEquals(lineas1000, archivado.getLineas().size());
+		
+		assertTrue(archivoPedidosPLRepository.findById(1010L).isEmpty());
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Date toDate(LocalDate fecha) {
+		return Date.from(fecha.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+	
+}
@@ -29,7 +29,7 @@ public class EmpleadoPLRepositoryTest {
 		String empleadoDTO1Str = "WalterPeraltaLMA009200S";
 		
 		Long numeroOcurrencias = empleados.stream()
-			.map(x -> x.getNombre() + x.getApellidos() + x.getLicencia())
+			.map(x -> x.nombre() + x.apellidos() + x.licencia())
 			.filter(x -> x.equals(empleadoDTO1Str)).count();
 		
 		assertEquals(1, numeroOcurrencias);
@@ -45,7 +45,7 @@ public class EmpleadoPLRepositoryTest {
 		String empleadoDTO2Str = "PERALTA, WALTER982209090null";
 		
 		Long numeroOcurrencias = empleados.stream()
-			.map(x -> x.getNombreCompleto() + x.getTelefono() + x.getEmail())
+			.map(x -> x.nombreCompleto() + x.telefono() + x.email())
 			.filter(x -> x.equals(empleadoDTO2Str)).count();
 		
 		assertEquals(1, numeroOcurrencias);	
@@ -0,0 +1,112 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.integration.model.EmpleadoPlanoPL;
+import com.sinensia.polloschicharron.integration.model.PedidoLecturaPL;
+import com.sinensia.polloschicharron.integration.model.PedidoPL;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties="spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class PedidoLecturaPLRepositoryTest {
+
+	@Autowired
+	private PedidoLecturaPLRepository pedidoLecturaPLRepository;
+	
+	@Autowired
+	private PedidoPLRepository pedidoPLRepository;
+	
+	@Autowired
+	private EmpleadoPLRepository empleadoPLRepository;
+	
+	@Autowired
+	private EntityManager entityManager;
+	
+	private Statistics statistics;
+	
+	@BeforeEach
+	void init() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		entityManager.clear();
+		statistics.clear();
+	}
+	
+	@Test
+	void leemos_todos_los_pedidos_en_una_sentencia() {
+		
+		List<PedidoPL> pedidosPL = pedidoPLRepository.findAll();
+		pedidosPL.forEach(x -> x.getLineas().forEach(l -> l.getProducto().getFamilia().getNombre()));
+		
+		long sentenciasPL = statistics.getPrepareStatementCount();
+		
+		entityManager.clear();
+		statistics.clear();
+		
+		List<PedidoLecturaPL> pedidos = pedidoLecturaPLRepository.findAll();
+		pedidos.forEach(x -> x.getLineas().forEach(l -> l.getProducto().getFamilia().getNombre()));
+		
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertTrue(sentenciasPL > pedidosPL.size());
+		
+		assertEquals(pedidosPL.size(), pedidos.size());
+		assertEquals(pedidosPL.stream().map(PedidoPL::getId).sorted().toList(), pedidos.stream().map(PedidoLecturaPL::getId).toList());
+		
+		PedidoLecturaPL pedido = pedidos.get(0);
+		
+		assertEquals(1000L, pedido.getId());
+		assertEquals(2, pedido.getLineas().size());
+		assertEquals(100L, pedido.getLineas().get(0).getProducto().getId());
+		assertEquals(103L, pedido.getLineas().get(1).getProducto().getId());
+	}
+	
+	@Test
+	void leemos_un_pedido_con_empleado_y_cliente_aplanados() {
+		
+		PedidoLecturaPL pedido = pedidoLecturaPLRepository.findById(1001L).get();
+		
+		assertEquals(1, statistics.getPrepareStatementCount());
+		
+		PedidoPL pedidoPL = pedidoPLRepository.findById(1001L).get();
+		
+		assertEquals(pedidoPL.getEmpleado().getId(), pedido.getEmpleado().getId());
+		assertEquals(pedidoPL.getEmpleado().getDNI(), pedido.getEmpleado().getDNI());
+		assertEquals(pedidoPL.getEmpleado().getDireccion().toString(), pedido.getEmpleado().getDireccion().toString());
+		assertEquals(pedidoPL.getEstablecimiento().getNIF(), pedido.getEstablecimiento().getNIF());
+		
+		if(pedidoPL.getCliente() == null) {
+			assertNull(pedido.getCliente());
+		} else {
+			assertEquals(pedidoPL.getCliente().isClienteGold(), pedido.getCliente().isClienteGold());
+		}
+		
+		assertTrue(pedidoLecturaPLRepository.findById(666L).isEmpty());
+	}
+	
+	@Test
+	void leemos_empleados_aplanados() {
+		
+		List<EmpleadoPlanoPL> empleados = empleadoPLRepository.findPlanos();
+		
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(List.of(11L, 13L, 14L, 15L), empleados.stream().map(EmpleadoPlanoPL::getId).toList());
+		assertEquals("620109034", empleados.get(0).getDatosContacto().getMovil());
+		
+		assertEquals(List.of(13L, 15L), empleadoPLRepository.findPlanosById(List.of(15L, 13L, 10L)).stream().map(EmpleadoPlanoPL::getId).toList());
+		assertTrue(empleadoPLRepository.findPlanoById(10L).isEmpty());
+	}
+	
+}
@@ -0,0 +1,45 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.business.model.dtos.PedidoDTO1;
+import com.sinensia.polloschicharron.integration.model.EstadoPedidoPL;
+
+@DataJpaTest
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class PedidoPLRepositoryTest {
+
+	@Autowired
+	private PedidoPLRepository pedidoPLRepository;
+	
+	@Test
+	void findPaginaSiguienteDTO1Test() {
+		
+		List<PedidoDTO1> pagina1 = pedidoPLRepository.findPaginaSiguienteDTO1(null, null, null, null, Long.MIN_VALUE, Limit.of(4));
+		List<PedidoDTO1> pagina2 = pedidoPLRepository.findPaginaSiguienteDTO1(null, null, null, null, pagina1.get(3).id(), Limit.of(4));
+		
+		assertEquals(List.of(1000L, 1001L, 1002L, 1003L), pagina1.stream().map(PedidoDTO1::id).toList());
+		assertEquals(List.of(1004L, 1005L, 1006L, 1007L), pagina2.stream().map(PedidoDTO1::id).toList());
+	}
+	
+	@Test
+	void findPaginaDTO1ConFiltrosTest() {
+		
+		List<PedidoDTO1> servidosVaguada = pedidoPLRepository.findPaginaSiguienteDTO1(EstadoPedidoPL.SERVIDO, "B00177845", null, null, Long.MIN_VALUE, Limit.of(10));
+		
+		assertEquals(List.of(1001L, 1008L), servidosVaguada.stream().map(PedidoDTO1::id).toList());
+		
+		List<PedidoDTO1> anteriores = pedidoPLRepository.findPaginaAnteriorDTO1(EstadoPedidoPL.PENDIENTE_ENTREGA, null, null, null, 1013L, Limit.of(10));
+		
+		assertEquals(List.of(1012L), anteriores.stream().map(PedidoDTO1::id).toList());
+	}
+	
+}
@@ -1,15 +1,22 @@
 package com.sinensia.polloschicharron.integration.repositories;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.jdbc.Sql;
 
+import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO1;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO2;
+import com.sinensia.polloschicharron.business.model.dtos.ProductoDTO3;
 import com.sinensia.polloschicharron.integration.model.FamiliaPL;
 import com.sinensia.polloschicharron.integration.model.ProductoPL;
 
@@ -78,9 +85,80 @@ public class ProductoPLRepositoryTest {
 
 		assertEquals(12.0, precioProducto1);
 		assertEquals(18.0, precioProducto2); 
+		assertNotNull(productoPLRepository.findById(100L).get().getFechaPrecio());
 		
 	}
 	
+	@Test
+	void findLoteRevisionTest() {
+		
+		List<ProductoPL> lote1 = productoPLRepository.findLoteRevision(0L, 9L, null, 7.0, Limit.of(3));
+		List<ProductoPL> lote2 = productoPLRepository.findLoteRevision(lote1.get(2).getId(), 9L, null, 7.0, Limit.of(3));
+		
+		assertEquals(List.of(104L, 106L, 107L), lote1.stream().map(ProductoPL::getId).toList());
+		assertEquals(109L, lote2.get(0).getId());
+		
+		List<ProductoPL> loteIds = productoPLRepository.findLoteRevision(List.of(101L, 100L, 104L), 4L, null, null);
+		
+		assertEquals(List.of(100L, 101L), loteIds.stream().map(ProductoPL::getId).toList());
+	}
+	
+	@Test
+	void findLoteRevisionRecorreTodosLosProductosUnaVezTest() {
+		
+		List<Long> esperados = productoPLRepository.findAll().stream()
+				.filter(x -> x.getPrecio() != null && x.getPrecio() <= 3.0)
+				.map(ProductoPL::getId)
+				.sorted()
+				.toList();
+		
+		List<Long> recorridos = new ArrayList<>();
+		
+		long desdeId = Long.MIN_VALUE;
+		int lotes = 0;
+		
+		List<ProductoPL> lote;
+		
+		while(!(lote = productoPLRepository.findLoteRevision(desdeId, null, null, 3.0, Limit.of(4))).isEmpty()) {
+			
+			assertTrue(lote.size() <= 4);
+			
+			lote.forEach(x -> recorridos.add(x.getId()));
+			desdeId = lote.get(lote.size() - 1).getId();
+			lotes++;
+		}
+		
+		assertEquals(esperados, recorridos);
+		assertEquals((esperados.size() + 3) / 4, lotes);
+	}
+	
+	@Test
+	void findDTO1Test() {
+		
+		List<ProductoDTO1> productos = productoPLRepository.findDTO1();
+		
+		List<ProductoDTO1> productosStream;
+		
+		try(Stream<ProductoDTO1> stream = productoPLRepository.streamDTO1()) {
+			productosStream = stream.toList();
+		}
+		
+		assertEquals(new ProductoDTO1("PATATAS BRAVAS", 6.0, "TAPA"), productos.get(0));
+		assertEquals(productos, productosStream);
+	}
+	
+	@Test
+	void streamDTO2yDTO3Test() {
+		
+		try(Stream<ProductoDTO2> stream = productoPLRepository.streamDTO2()) {
+			assertEquals(productoPLRepository.findDTO2(), stream.toList());
+		}
+		
+		try(Stream<ProductoDTO3> stream = productoPLRepository.streamDTO3(10.0)) {
+			assertEquals(productoPLRepository.findDTO3(10.0), stream.toList());
+		}
+	}
+	
 	@Test
 	void getEstadisticaNumeroProductosPorFamiliaTest() {
 		
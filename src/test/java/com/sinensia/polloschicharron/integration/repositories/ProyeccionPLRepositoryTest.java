@@ -0,0 +1,69 @@
+package com.sinensia.polloschicharron.integration.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sinensia.polloschicharron.integration.model.ProyeccionPL;
+
+@DataJpaTest
+@Import(ProyeccionPLRepository.class)
+@Sql(scripts={"classpath:data/schema_test.sql","classpath:data/data_test.sql"})
+public class ProyeccionPLRepositoryTest {
+
+	@Autowired
+	private ProyeccionPLRepository proyeccionPLRepository;
+	
+	@Test
+	void devolvemos_solo_los_campos_pedidos_de_un_producto() {
+		
+		Map<String, Object> producto = proyeccionPLRepository.findById(ProyeccionPL.PRODUCTOS, 100L, Set.of("nombre", "familia.nombre")).get();
+		
+		assertEquals(Set.of("nombre", "familia"), producto.keySet());
+		assertEquals("Patatas Bravas", producto.get("nombre"));
+		assertEquals(Map.of("nombre", "TAPA"), producto.get("familia"));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	void agrupamos_las_lineas_de_cada_pedido() {
+		
+		Map<String, Object> pedido = proyeccionPLRepository.findById(ProyeccionPL.PEDIDOS, 1000L, 
+				Set.of("estado", "empleado.nombre", "lineas.cantidad", "lineas.producto.id")).get();
+		
+		List<Map<String, Object>> lineas = (List<Map<String, Object>>) pedido.get("lineas");
+		
+		assertEquals(2, lineas.size());
+		assertEquals(8, lineas.get(1).get("cantidad"));
+		assertEquals(Map.of("id", 103L), lineas.get(1).get("producto"));
+		assertTrue(pedido.get("empleado") instanceof Map);
+		assertTrue(proyeccionPLRepository.findById(ProyeccionPL.PEDIDOS, 666L, Set.of("lineas")).isEmpty());
+	}
+	
+	@Test
+	void pedir_un_objeto_equivale_a_pedir_todos_sus_campos() {
+		
+		List<Map<String, Object>> productos = proyeccionPLRepository.findAll(ProyeccionPL.PRODUCTOS, Set.of("familia"));
+		
+		assertEquals(Set.of("id", "nombre"), ((Map<?, ?>) productos.get(0).get("familia")).keySet());
+	}
+	
+	@Test
+	void rechazamos_campos_que_no_existen() {
+		
+		assertThrows(IllegalStateException.class, () -> proyeccionPLRepository.findAll(ProyeccionPL.PRODUCTOS, Set.of("nombre", "coste")));
+		assertThrows(IllegalStateException.class, () -> proyeccionPLRepository.findAll(ProyeccionPL.PEDIDOS, Set.of("lineas.descuento")));
+		assertThrows(IllegalStateException.class, () -> proyeccionPLRepository.findAll(ProyeccionPL.EMPLEADOS, Set.of(" ")));
+	}
+	
+}
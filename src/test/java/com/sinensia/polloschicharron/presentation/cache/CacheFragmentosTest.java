@@ -0,0 +1,79 @@
+package com.sinensia.polloschicharron.presentation.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import com.sinensia.polloschicharron.business.cache.VersionCatalogo;
+import com.sinensia.polloschicharron.business.events.CatalogoModificadoEvent;
+
+class CacheFragmentosTest {
+
+	private static final Locale ES = Locale.forLanguageTag("es-ES");
+	
+	private VersionCatalogo versionCatalogo = new VersionCatalogo();
+	private CacheFragmentos cache = new CacheFragmentos(versionCatalogo);
+	
+	@Test
+	void servimos_el_fragmento_mientras_no_cambie_el_catalogo() {
+		
+		Fragmento fragmento = cache.getFragmento("listado-productos", ES);
+		
+		assertFalse(fragmento.isCacheado());
+		assertEquals("<table/>", fragmento.guardar("<table/>"));
+		
+		assertTrue(cache.getFragmento("listado-productos", ES).isCacheado());
+		assertEquals("<table/>", cache.getFragmento("listado-productos", ES).getHtml());
+		assertFalse(cache.getFragmento("estadisticas-producto", ES).isCacheado());
+		
+		versionCatalogo.onCatalogoModificado(new CatalogoModificadoEvent("test"));
+		
+		assertFalse(cache.getFragmento("listado-productos", ES).isCacheado());
+	}
+	
+	@Test
+	void no_sustituimos_un_fragmento_por_otro_de_una_version_anterior() {
+		
+		Fragmento antiguo = cache.getFragmento("listado-productos", ES);
+		
+		versionCatalogo.onCatalogoModificado(new CatalogoModificadoEvent("test"));
+		
+		cache.getFragmento("listado-productos", ES).guardar("<nuevo/>");
+		antiguo.guardar("<antiguo/>");
+		
+		assertEquals("<nuevo/>", cache.getFragmento("listado-productos", ES).getHtml());
+	}
+	
+	@Test
+	void cada_locale_tiene_su_fragmento() {
+		
+		cache.getFragmento("listado-productos", ES).guardar("<td>6,00</td>");
+		
+		assertFalse(cache.getFragmento("listado-productos", Locale.US).isCacheado());
+		
+		cache.getFragmento("listado-productos", Locale.US).guardar("<td>6.00</td>");
+		
+		assertEquals("<td>6,00</td>", cache.getFragmento("listado-productos", ES).getHtml());
+		assertEquals("<td>6.00</td>", cache.getFragmento("listado-productos", Locale.US).getHtml());
+	}
+	
+	@Test
+	void no_cacheamos_mas_de_MAXIMO_ENTRADAS_fragmentos() {
+		
+		for(int i = 0; i < CacheFragmentos.MAXIMO_ENTRADAS + 10; i++) {
+			cache.getFragmento("listado-productos", Locale.forLanguageTag("x-l" + i)).guardar("<table/>");
+		}
+		
+		assertTrue(cache.getFragmento("listado-productos", Locale.forLanguageTag("x-l0")).isCacheado());
+		assertFalse(cache.getFragmento("listado-productos", Locale.forLanguageTag("x-l" + CacheFragmentos.MAXIMO_ENTRADAS)).isCacheado());
+		
+		// Con la caché llena se sigue renderizando
+		
+		assertEquals("<otro/>", cache.getFragmento("listado-productos", ES).guardar("<otro/>"));
+	}
+	
+}
@@ -0,0 +1,128 @@
+package com.sinensia.polloschicharron.presentation.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.sinensia.polloschicharron.business.model.Cliente;
+import com.sinensia.polloschicharron.business.model.Empleado;
+import com.sinensia.polloschicharron.business.model.Establecimiento;
+import com.sinensia.polloschicharron.business.model.EstadoPedido;
+import com.sinensia.polloschicharron.business.model.LineaPedido;
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.Producto;
+import com.sinensia.polloschicharron.business.services.ArchivoPedidosServices;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+import com.sinensia.polloschicharron.integration.repositories.PedidoPLRepository;
+
+/**
+ * Con la aplicación completa: el pedido se archiva de verdad antes de pedir su ficha.
+ * 
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:apppedido")
+@AutoConfigureMockMvc
+class PedidoAppControllerTest {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private PedidoServices pedidoServices;
+	
+	@Autowired
+	private PedidoPLRepository pedidoPLRepository;
+	
+	@Autowired
+	private ArchivoPedidosServices archivoPedidosServices;
+	
+	@Test
+	void mostramos_la_ficha_de_un_pedido_archivado() throws Exception {
+		
+		Long id = pedidoServices.create(crearPedido()).id();
+		
+		archivoPedidosServices.archivar(30);
+		
+		assertTrue(pedidoPLRepository.findById(id).isEmpty());
+		
+		MvcResult respuesta = mockMvc.perform(get("/app/pedido").param("id", id.toString()))
+				.andExpect(status().isOk())
+				.andReturn();
+		
+		@SuppressWarnings("unchecked")
+		Map<String, Object> pedido = (Map<String, Object>) respuesta.getModelAndView().getModel().get("pedido");
+		
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> lineas = (List<Map<String, Object>>) pedido.get("lineas");
+		
+		assertEquals(id, pedido.get("id"));
+		assertEquals("SERVIDO", pedido.get("estado").toString());
+		assertEquals(12L, ((Map<?, ?>) pedido.get("cliente")).get("id"));
+		assertEquals(2, lineas.size());
+		assertEquals(2, lineas.get(0).get("cantidad"));
+		assertTrue(((Map<?, ?>) lineas.get(1).get("producto")).get("nombre") != null);
+	}
+	
+	@Test
+	void un_pedido_que_no_existe_es_un_404() throws Exception {
+		mockMvc.perform(get("/app/pedido").param("id", "666666")).andExpect(status().isNotFound());
+	}
+	
+	// ********************************************
+	//
+	// Private Methods
+	//
+	// ********************************************
+	
+	private Pedido crearPedido() {
+		
+		Empleado empleado = new Empleado();
+		empleado.setId(11L);
+		
+		Establecimiento establecimiento = new Establecimiento();
+		establecimiento.setNIF("B38983321");
+		
+		Cliente cliente = new Cliente();
+		cliente.setId(12L);
+		
+		Pedido pedido = new Pedido();
+		pedido.setFechaHora(new GregorianCalendar(2020, Calendar.JANUARY, 15).getTime());
+		pedido.setEstado(EstadoPedido.SERVIDO);
+		pedido.setEmpleado(empleado);
+		pedido.setEstablecimiento(establecimiento);
+		pedido.setCliente(cliente);
+		
+		List<LineaPedido> lineas = new ArrayList<>();
+		lineas.add(crearLinea(100L, 2));
+		lineas.add(crearLinea(103L, 1));
+		pedido.setLineas(lineas);
+		
+		return pedido;
+	}
+	
+	private LineaPedido crearLinea(Long idProducto, int cantidad) {
+		
+		Producto producto = new Producto();
+		producto.setId(idProducto);
+		
+		LineaPedido linea = new LineaPedido();
+		linea.setProducto(producto);
+		linea.setCantidad(cantidad);
+		
+		return linea;
+	}
+
+}
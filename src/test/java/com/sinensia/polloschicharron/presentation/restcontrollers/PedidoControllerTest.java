@@ -0,0 +1,93 @@
+package com.sinensia.polloschicharron.presentation.restcontrollers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.sinensia.polloschicharron.business.model.Pedido;
+import com.sinensia.polloschicharron.business.model.dtos.PedidoCreadoDTO;
+import com.sinensia.polloschicharron.business.services.ClaveIdempotenciaReutilizadaException;
+import com.sinensia.polloschicharron.business.services.HistorialPedidoServices;
+import com.sinensia.polloschicharron.business.services.PedidoServices;
+
+@WebMvcTest(PedidoController.class)
+public class PedidoControllerTest extends AbstractControllerTest {
+
+	@MockitoBean
+	private PedidoServices pedidoServices;
+	
+	@MockitoBean
+	private HistorialPedidoServices historialPedidoServices;
+	
+	@Test
+	void creamos_pedido_con_clave_de_idempotencia() throws Exception {
+		
+		PedidoCreadoDTO creado = new PedidoCreadoDTO(2000L, 15.0);
+		
+		when(pedidoServices.create(any(Pedido.class), eq("clave-1"))).thenReturn(creado);
+		
+		MvcResult mvcResult = mockMvc.perform(post("/rest/pedidos").contentType("application/json")
+																   .header(PedidoController.IDEMPOTENCY_KEY, "clave-1")
+																   .content("{\"estado\":\"NUEVO\"}"))
+								.andExpect(status().isCreated())
+								.andExpect(header().string("Location", "http://localhost/pedidos/2000"))
+								.andReturn();
+		
+		testResponseBody(mvcResult, creado);
+		
+		verify(pedidoServices, never()).create(any(Pedido.class));
+	}
+	
+	@Test
+	void la_peticion_que_pierde_la_carrera_devuelve_el_pedido_de_la_otra() throws Exception {
+		
+		PedidoCreadoDTO ganador = new PedidoCreadoDTO(2001L, 6.0);
+		
+		when(pedidoServices.create(any(Pedido.class), eq("clave-2"))).thenThrow(new DataIntegrityViolationException("PK CLAVES_IDEMPOTENCIA"));
+		when(pedidoServices.getPedidoCreadoByClaveIdempotencia(eq("clave-2"), any(Pedido.class))).thenReturn(Optional.of(ganador));
+		
+		MvcResult mvcResult = mockMvc.perform(post("/rest/pedidos").contentType("application/json")
+																   .header(PedidoController.IDEMPOTENCY_KEY, "clave-2")
+																   .content("{\"estado\":\"NUEVO\"}"))
+								.andExpect(status().isCreated())
+								.andReturn();
+		
+		testResponseBody(mvcResult, ganador);
+	}
+	
+	@Test
+	void rechazamos_la_clave_de_idempotencia_usada_con_otro_pedido() throws Exception {
+		
+		when(pedidoServices.create(any(Pedido.class), eq("clave-3"))).thenThrow(new ClaveIdempotenciaReutilizadaException("clave-3"));
+		
+		mockMvc.perform(post("/rest/pedidos").contentType("application/json")
+											 .header(PedidoController.IDEMPOTENCY_KEY, "clave-3")
+											 .content("{\"estado\":\"NUEVO\"}"))
+								.andExpect(status().isUnprocessableEntity());
+	}
+	
+	@Test
+	void rechazamos_clave_de_idempotencia_vacia() throws Exception {
+		
+		mockMvc.perform(post("/rest/pedidos").contentType("application/json")
+											 .header(PedidoController.IDEMPOTENCY_KEY, " ")
+											 .content("{\"estado\":\"NUEVO\"}"))
+								.andExpect(status().isBadRequest());
+		
+		verify(pedidoServices, never()).create(any(Pedido.class), any());
+	}
+	
+}
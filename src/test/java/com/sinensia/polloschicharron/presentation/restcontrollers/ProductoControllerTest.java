@@ -1,14 +1,24 @@
 package com.sinensia.polloschicharron.presentation.restcontrollers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sinensia.polloschicharron.benchmarks.Muestras;
 import com.sinensia.polloschicharron.business.services.ProductoServices;
 
 @WebMvcTest(ProductoController.class)
@@ -26,4 +36,28 @@ public class ProductoControllerTest extends AbstractControllerTest{
 		verify(productoServices, times(1)).delete(50L);
 		
 	}
+	
+	@Test
+	void devolvemos_productos_en_cbor_y_smile_mas_pequenos_que_json() throws Exception {
+		
+		when(productoServices.getAll()).thenReturn(Muestras.productos(200));
+		
+		byte[] json = getProductos(MediaType.APPLICATION_JSON);
+		byte[] cbor = getProductos(MediaType.APPLICATION_CBOR);
+		byte[] smile = getProductos(new MediaType("application", "x-jackson-smile"));
+		
+		assertEquals(mapper.readTree(json), new ObjectMapper(new CBORFactory()).readTree(cbor));
+		assertEquals(mapper.readTree(json), new ObjectMapper(new SmileFactory()).readTree(smile));
+		
+		assertTrue(cbor.length < json.length);
+		assertTrue(smile.length < json.length);
+	}
+	
+	private byte[] getProductos(MediaType mediaType) throws Exception {
+		
+		return mockMvc.perform(get("/rest/productos").accept(mediaType))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(mediaType))
+				.andReturn().getResponse().getContentAsByteArray();
+	}
 }
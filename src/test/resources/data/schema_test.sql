@@ -2,7 +2,15 @@ DROP SEQUENCE IF EXISTS PERSONA_SEQ;
 DROP SEQUENCE IF EXISTS PRODUCTO_SEQ;
 DROP SEQUENCE IF EXISTS PEDIDO_SEQ;
 DROP SEQUENCE IF EXISTS FAMILIA_SEQ;
+DROP SEQUENCE IF EXISTS LISTA_PRECIOS_SEQ;
 
+DROP TABLE IF EXISTS LINEAS_LISTA_PRECIOS;
+DROP TABLE IF EXISTS LISTAS_PRECIOS;
+DROP TABLE IF EXISTS CLAVES_IDEMPOTENCIA;
+DROP TABLE IF EXISTS CLIENTES_DISTINTOS;
+DROP TABLE IF EXISTS PEDIDOS_ARCHIVADOS;
+DROP TABLE IF EXISTS LINEAS_PEDIDO_2023_04;
+DROP TABLE IF EXISTS PEDIDOS_2023_04;
 DROP TABLE IF EXISTS LINEAS_PEDIDO;
 DROP TABLE IF EXISTS PEDIDOS;
 DROP TABLE IF EXISTS EMPLEADOS;
@@ -44,6 +52,14 @@ CREATE SEQUENCE "FAMILIA_SEQ"
     NOCACHE 
     NOCYCLE;
 
+CREATE SEQUENCE "LISTA_PRECIOS_SEQ"
+	MINVALUE 1 
+    MAXVALUE 999999999 
+    INCREMENT BY 50 
+    START WITH 5000 
+    NOCACHE 
+    NOCYCLE;
+
 CREATE TABLE FAMILIAS(
 	ID				BIGINT			NOT NULL,
 	NOMBRE			VARCHAR(100)	,
@@ -58,6 +74,7 @@ CREATE TABLE PRODUCTOS(
 	PRECIO							DOUBLE			,
 	ID_FAMILIA						BIGINT			,
 	DESCATALOGADO					BOOLEAN			NOT NULL,
+	FECHA_PRECIO					TIMESTAMP		,
 	PRIMARY KEY(CODIGO),
 	FOREIGN KEY (ID_FAMILIA) REFERENCES FAMILIAS (ID)
 );
@@ -130,4 +147,43 @@ CREATE TABLE LINEAS_PEDIDO(
 	PRECIO							DOUBLE			,
 	FOREIGN KEY (CODIGO_PEDIDO) REFERENCES PEDIDOS (CODIGO),
 	FOREIGN KEY (CODIGO_PRODUCTO) REFERENCES PRODUCTOS (CODIGO)
-);
\ No newline at end of file
+);
+
+CREATE TABLE PEDIDOS_ARCHIVADOS(
+	CODIGO							BIGINT			NOT NULL,
+	PARTICION						VARCHAR(7)		NOT NULL,
+	PRIMARY KEY (CODIGO)
+);
+
+CREATE TABLE CLIENTES_DISTINTOS(
+	NIF_ESTABLECIMIENTO				VARCHAR(20)		NOT NULL,
+	DIA								DATE			NOT NULL,
+	REGISTROS						VARBINARY(4098)		NOT NULL,
+	PRIMARY KEY (NIF_ESTABLECIMIENTO, DIA)
+);
+
+CREATE TABLE CLAVES_IDEMPOTENCIA(
+	CLAVE							VARCHAR(100)	NOT NULL,
+	CODIGO_PEDIDO					BIGINT			NOT NULL,
+	FECHA_HORA						TIMESTAMP		NOT NULL,
+	HUELLA							VARCHAR(64)		,
+	PRIMARY KEY (CLAVE)
+);
+
+
+CREATE TABLE LISTAS_PRECIOS(
+	CODIGO							BIGINT			NOT NULL,
+	NOMBRE							VARCHAR(100)	,
+	FECHA_VIGENCIA					TIMESTAMP		NOT NULL,
+	FECHA_ALTA						TIMESTAMP		,
+	PRIMARY KEY (CODIGO)
+);
+
+CREATE TABLE LINEAS_LISTA_PRECIOS(
+	CODIGO_LISTA					BIGINT			NOT NULL,
+	CODIGO_PRODUCTO					BIGINT			NOT NULL,
+	PRECIO							DOUBLE			NOT NULL,
+	PRIMARY KEY (CODIGO_LISTA, CODIGO_PRODUCTO),
+	FOREIGN KEY (CODIGO_LISTA) REFERENCES LISTAS_PRECIOS (CODIGO),
+	FOREIGN KEY (CODIGO_PRODUCTO) REFERENCES PRODUCTOS (CODIGO)
+);